@@ -0,0 +1,36 @@
+plugins {
+    id("java")
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    mavenCentral()
+}
+
+val jvmVersion = extra["jvmVersion"] as String
+
+dependencies {
+    jmhImplementation(project(":core"))
+    jmhImplementation(project(":extensions"))
+    // TreeGenerator and SimpleLanguage
+    jmhImplementation(project(path = ":core", configuration = "experimentsElements"))
+}
+
+java {
+    sourceCompatibility = JavaVersion.toVersion(jvmVersion)
+    targetCompatibility = JavaVersion.toVersion(jvmVersion)
+}
+
+// Run with ./gradlew :benchmarks:jmh
+// A subset of the benchmarks can be selected with -PjmhIncludes=<regexp>, e.g. -PjmhIncludes=Archive
+jmh {
+    jmhVersion.set(libs.versions.jmhVersion)
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+    // The gc profiler reports both the time spent in GC and the allocation rate per operation
+    profilers.add("gc")
+    // Results are kept in JSON, so that they can be compared across releases
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    // Trees with a million nodes, together with their serialized form, need some room
+    jvmArgs.add("-Xmx8g")
+}
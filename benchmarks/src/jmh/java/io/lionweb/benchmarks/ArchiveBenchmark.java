@@ -0,0 +1,71 @@
+package io.lionweb.benchmarks;
+
+import io.lionweb.archive.LionWebArchive;
+import io.lionweb.experiments.SimpleLanguage;
+import io.lionweb.model.Node;
+import io.lionweb.serialization.JsonSerialization;
+import io.lionweb.serialization.data.SerializationChunk;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Storing and loading LionWeb archives. The nodes are split across several partitions, as the
+ * archive processes the partitions in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveBenchmark {
+  private static final int PARTITIONS = 8;
+
+  /** The total number of nodes, across all partitions. */
+  @Param({"1000", "100000", "1000000"})
+  private int size;
+
+  private List<SerializationChunk> languageChunks;
+  private List<SerializationChunk> partitionChunks;
+  private File storedArchive;
+  private File loadedArchive;
+
+  @Setup
+  public void setup() throws IOException {
+    JsonSerialization serialization = Trees.jsonSerialization();
+    languageChunks =
+        Collections.singletonList(
+            serialization.serializeTreeToSerializationChunk(SimpleLanguage.language));
+    partitionChunks = new ArrayList<>(PARTITIONS);
+    for (int i = 0; i < PARTITIONS; i++) {
+      Node partition = Trees.generate(size / PARTITIONS, i + 1);
+      partitionChunks.add(serialization.serializeTreeToSerializationChunk(partition));
+    }
+    storedArchive = Files.createTempFile("stored-archive", ".zip").toFile();
+    loadedArchive = Files.createTempFile("loaded-archive", ".zip").toFile();
+    LionWebArchive.store(loadedArchive, Trees.VERSION, languageChunks, partitionChunks);
+  }
+
+  @TearDown
+  public void tearDown() {
+    storedArchive.delete();
+    loadedArchive.delete();
+  }
+
+  @Benchmark
+  public File store() throws IOException {
+    LionWebArchive.store(storedArchive, Trees.VERSION, languageChunks, partitionChunks);
+    return storedArchive;
+  }
+
+  @Benchmark
+  public List<Node> loadNodes() throws IOException {
+    return LionWebArchive.loadNodes(loadedArchive, Trees.protoBufSerialization());
+  }
+}
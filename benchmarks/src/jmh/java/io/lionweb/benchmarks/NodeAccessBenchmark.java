@@ -0,0 +1,79 @@
+package io.lionweb.benchmarks;
+
+import io.lionweb.experiments.SimpleLanguage;
+import io.lionweb.language.Concept;
+import io.lionweb.language.Containment;
+import io.lionweb.language.Property;
+import io.lionweb.model.ClassifierInstanceUtils;
+import io.lionweb.model.Node;
+import io.lionweb.model.impl.DynamicNode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Access to the properties and the children of a DynamicNode, both through the features and through
+ * their names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeAccessBenchmark {
+  private static final int CHILDREN = 10;
+
+  private DynamicNode node;
+  private Property stringProperty;
+  private Containment containment;
+  private int counter;
+
+  @Setup
+  public void setup() {
+    Concept concept = SimpleLanguage.subConcepts.get(0);
+    stringProperty = concept.getPropertyByName("stringProp");
+    containment = concept.getContainmentByName("myContainment");
+    node = new DynamicNode("node", concept);
+    node.setPropertyValue(stringProperty, "value");
+    for (int i = 0; i < CHILDREN; i++) {
+      node.addChild(containment, new DynamicNode("child-" + i, concept));
+    }
+  }
+
+  @Benchmark
+  public Object getPropertyValue() {
+    return node.getPropertyValue(stringProperty);
+  }
+
+  @Benchmark
+  public Object getPropertyValueByName() {
+    return ClassifierInstanceUtils.getPropertyValueByName(node, "stringProp");
+  }
+
+  @Benchmark
+  public void setPropertyValue() {
+    node.setPropertyValue(stringProperty, (counter++ & 1) == 0 ? "a" : "b");
+  }
+
+  @Benchmark
+  public void setPropertyValueByName() {
+    ClassifierInstanceUtils.setPropertyValueByName(
+        node, "stringProp", (counter++ & 1) == 0 ? "a" : "b");
+  }
+
+  @Benchmark
+  public List<? extends Node> getChildren() {
+    return node.getChildren(containment);
+  }
+
+  @Benchmark
+  public List<? extends Node> getChildrenByContainmentName() {
+    return ClassifierInstanceUtils.getChildrenByContainmentName(node, "myContainment");
+  }
+
+  @Benchmark
+  public List<Node> getAllChildren() {
+    return ClassifierInstanceUtils.getChildren(node);
+  }
+}
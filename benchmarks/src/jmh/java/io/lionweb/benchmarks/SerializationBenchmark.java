@@ -0,0 +1,78 @@
+package io.lionweb.benchmarks;
+
+import io.lionweb.model.Node;
+import io.lionweb.serialization.JsonSerialization;
+import io.lionweb.serialization.ProtoBufSerialization;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Serialization and deserialization of trees of increasing size, in the JSON and in the ProtoBuf
+ * formats. Deserialization includes the instantiation of the nodes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+  public enum Format {
+    JSON,
+    PROTOBUF
+  }
+
+  @Param({"1000", "100000", "1000000"})
+  private int size;
+
+  @Param({"JSON", "PROTOBUF"})
+  private Format format;
+
+  private Node tree;
+  private JsonSerialization jsonSerialization;
+  private ProtoBufSerialization protoBufSerialization;
+  private String json;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() {
+    tree = Trees.generate(size);
+    jsonSerialization = Trees.jsonSerialization();
+    protoBufSerialization = Trees.protoBufSerialization();
+    switch (format) {
+      case JSON:
+        json = jsonSerialization.serializeTreeToJsonString(tree);
+        break;
+      case PROTOBUF:
+        bytes = protoBufSerialization.serializeTreesToByteArray(tree);
+        break;
+    }
+  }
+
+  @Benchmark
+  public Object serialize() {
+    switch (format) {
+      case JSON:
+        return jsonSerialization.serializeTreeToJsonString(tree);
+      case PROTOBUF:
+        return protoBufSerialization.serializeTreesToByteArray(tree);
+      default:
+        throw new IllegalStateException("Unsupported format " + format);
+    }
+  }
+
+  @Benchmark
+  public List<Node> deserialize() throws IOException {
+    switch (format) {
+      case JSON:
+        return jsonSerialization.deserializeToNodes(json);
+      case PROTOBUF:
+        return protoBufSerialization.deserializeToNodes(bytes);
+      default:
+        throw new IllegalStateException("Unsupported format " + format);
+    }
+  }
+}
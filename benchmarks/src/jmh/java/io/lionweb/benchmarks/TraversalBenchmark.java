@@ -0,0 +1,57 @@
+package io.lionweb.benchmarks;
+
+import io.lionweb.model.ClassifierInstance;
+import io.lionweb.model.Node;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Collection and streaming of all the nodes of trees of increasing size. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraversalBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int size;
+
+  private Node tree;
+
+  @Setup
+  public void setup() {
+    tree = Trees.generate(size);
+  }
+
+  @Benchmark
+  public List<Node> collectSelfAndDescendants() {
+    List<Node> result = new ArrayList<>();
+    ClassifierInstance.collectSelfAndDescendants(tree, false, result);
+    return result;
+  }
+
+  @Benchmark
+  public List<Node> collectSelfAndDescendantsIncludingAnnotations() {
+    List<Node> result = new ArrayList<>();
+    ClassifierInstance.collectSelfAndDescendants(tree, true, result);
+    return result;
+  }
+
+  @Benchmark
+  public List<Node> thisAndAllDescendants() {
+    return tree.thisAndAllDescendants();
+  }
+
+  @Benchmark
+  public long descendantsStreamCount() {
+    return tree.descendantsStream(false).filter(n -> n.getID() != null).count();
+  }
+
+  @Benchmark
+  public long descendantsParallelStreamCount() {
+    return tree.descendantsStream(false).parallel().filter(n -> n.getID() != null).count();
+  }
+}
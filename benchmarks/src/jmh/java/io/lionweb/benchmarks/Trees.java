@@ -0,0 +1,43 @@
+package io.lionweb.benchmarks;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.experiments.SimpleLanguage;
+import io.lionweb.experiments.TreeGenerator;
+import io.lionweb.model.Node;
+import io.lionweb.serialization.JsonSerialization;
+import io.lionweb.serialization.ProtoBufSerialization;
+import io.lionweb.serialization.SerializationProvider;
+
+/** Trees and serializations shared by the benchmarks. */
+class Trees {
+  static final LionWebVersion VERSION = LionWebVersion.currentVersion;
+
+  private Trees() {}
+
+  /**
+   * Generates a tree of the SimpleLanguage with the given number of nodes. The same seed is used
+   * every time, so that all benchmarks, and all runs, process the same trees.
+   */
+  static Node generate(int size) {
+    return generate(size, 1);
+  }
+
+  static Node generate(int size, long seed) {
+    return new TreeGenerator(seed).generate(size);
+  }
+
+  static JsonSerialization jsonSerialization() {
+    JsonSerialization serialization = SerializationProvider.getStandardJsonSerialization(VERSION);
+    serialization.enableDynamicNodes();
+    serialization.registerLanguage(SimpleLanguage.language);
+    return serialization;
+  }
+
+  static ProtoBufSerialization protoBufSerialization() {
+    ProtoBufSerialization serialization =
+        SerializationProvider.getStandardProtoBufSerialization(VERSION);
+    serialization.enableDynamicNodes();
+    serialization.registerLanguage(SimpleLanguage.language);
+    return serialization;
+  }
+}
@@ -0,0 +1,59 @@
+package io.lionweb.benchmarks;
+
+import io.lionweb.experiments.SimpleLanguage;
+import io.lionweb.model.Node;
+import io.lionweb.serialization.data.SerializationChunk;
+import io.lionweb.utils.ChunkValidator;
+import io.lionweb.utils.LanguageValidator;
+import io.lionweb.utils.NodeTreeValidator;
+import io.lionweb.utils.PartitionChunkValidator;
+import io.lionweb.utils.ValidationResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Validation of trees of increasing size, both as nodes and as serialization chunks. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int size;
+
+  private Node tree;
+  private SerializationChunk chunk;
+  private final NodeTreeValidator nodeTreeValidator = new NodeTreeValidator();
+  private final ChunkValidator chunkValidator = new ChunkValidator();
+  private final PartitionChunkValidator partitionChunkValidator = new PartitionChunkValidator();
+  private final LanguageValidator languageValidator = new LanguageValidator();
+
+  @Setup
+  public void setup() {
+    tree = Trees.generate(size);
+    chunk = Trees.jsonSerialization().serializeTreeToSerializationChunk(tree);
+  }
+
+  @Benchmark
+  public ValidationResult validateNodeTree() {
+    return nodeTreeValidator.validate(tree);
+  }
+
+  @Benchmark
+  public ValidationResult validateChunk() {
+    return chunkValidator.validate(chunk);
+  }
+
+  @Benchmark
+  public ValidationResult validatePartitionChunk() {
+    return partitionChunkValidator.validate(chunk);
+  }
+
+  /** The language does not depend on the size of the trees, so the results should not either. */
+  @Benchmark
+  public ValidationResult validateLanguage() {
+    return languageValidator.validate(SimpleLanguage.language);
+  }
+}
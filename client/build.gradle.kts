@@ -103,6 +103,18 @@ testing {
     suites {
         val test by getting(JvmTestSuite::class) {
             useJUnitJupiter()
+            targets {
+                all {
+                    testTask.configure {
+                        useJUnitPlatform {
+                            val includeExpensive = project.findProperty("includeExpensiveTests") == "true"
+                            if (!includeExpensive) {
+                                excludeTags("performance")
+                            }
+                        }
+                    }
+                }
+            }
         }
 
         register<JvmTestSuite>("functionalTest") {
@@ -121,6 +133,7 @@ testing {
 dependencies {
     implementation(project(":core"))
     implementation(libs.okhttp)
+    implementation(libs.protobuf)
     implementation(libs.gson)
     testImplementation(libs.junit.api)
     testRuntimeOnly(libs.junit.engine)
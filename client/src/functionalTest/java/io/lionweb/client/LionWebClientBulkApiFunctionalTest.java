@@ -1,11 +1,14 @@
 package io.lionweb.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.AsyncBulkAPIClient;
 import io.lionweb.client.api.HistorySupport;
 import io.lionweb.client.api.RepositoryConfiguration;
+import io.lionweb.client.api.RepositoryVersionToken;
 import io.lionweb.client.languages.PropertiesLanguage;
 import io.lionweb.client.testing.AbstractClientFunctionalTest;
 import io.lionweb.model.ClassifierInstance;
@@ -16,10 +19,13 @@ import io.lionweb.serialization.data.SerializationChunk;
 import io.lionweb.serialization.data.SerializedClassifierInstance;
 import io.lionweb.utils.CommonChecks;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
@@ -224,4 +230,70 @@ public class LionWebClientBulkApiFunctionalTest extends AbstractClientFunctional
     assertEquals(1, retrievedNodes1.size());
     assertEquals(p1, retrievedNodes1.get(0));
   }
+
+  @Test
+  public void asyncStoreAndRetrieve() throws IOException {
+    String repoName = "repo_asyncStoreAndRetrieve";
+    LionWebClient client =
+        new LionWebClient(
+            LionWebVersion.v2023_1,
+            "localhost",
+            getServerPort(),
+            null,
+            "GenericJavaBasedLionWebClient",
+            repoName,
+            60,
+            60,
+            4);
+    client.createRepository(
+        new RepositoryConfiguration(repoName, LionWebVersion.v2023_1, HistorySupport.DISABLED));
+    client.getJsonSerialization().registerLanguage(PropertiesLanguage.propertiesLanguage);
+    AsyncBulkAPIClient asyncClient = client.getAsyncBulkAPIClient();
+
+    // Many more requests than the ones allowed in flight are sent at once
+    int n = 20;
+    List<DynamicNode> partitions = new ArrayList<>();
+    List<CompletableFuture<RepositoryVersionToken>> creations = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      DynamicNode partition = new DynamicNode("p" + i, PropertiesLanguage.propertiesPartition);
+      partitions.add(partition);
+      creations.add(asyncClient.createPartitions(partition));
+    }
+    CompletableFuture.allOf(creations.toArray(new CompletableFuture[0])).join();
+    assertEquals(n, asyncClient.listPartitionsIDs().join().size());
+
+    List<CompletableFuture<RepositoryVersionToken>> stores = new ArrayList<>();
+    for (DynamicNode partition : partitions) {
+      DynamicNode file =
+          new DynamicNode(partition.getID() + "-f", PropertiesLanguage.propertiesFile);
+      ClassifierInstanceUtils.setPropertyValueByName(file, "path", partition.getID() + ".txt");
+      ClassifierInstanceUtils.addChild(partition, "files", file);
+      stores.add(asyncClient.store(partition));
+    }
+    CompletableFuture.allOf(stores.toArray(new CompletableFuture[0])).join();
+
+    List<CompletableFuture<List<Node>>> retrievals = new ArrayList<>();
+    for (DynamicNode partition : partitions) {
+      retrievals.add(asyncClient.retrieve(Collections.singletonList(partition.getID())));
+    }
+    for (int i = 0; i < n; i++) {
+      assertEquals(Collections.singletonList(partitions.get(i)), retrievals.get(i).join());
+    }
+
+    List<SerializedClassifierInstance> retrievedChunk =
+        client
+            .getAsyncChunkLevelBulkAPIClient()
+            .retrieveAsChunk(Collections.singletonList("p0"))
+            .join();
+    assertEquals(2, retrievedChunk.size());
+  }
+
+  @Test
+  public void asyncFailuresCompleteTheFuture() {
+    LionWebClient client =
+        new LionWebClient(LionWebVersion.v2023_1, "localhost", getServerPort(), "unexisting_repo");
+    CompletableFuture<List<String>> future = client.getAsyncBulkAPIClient().listPartitionsIDs();
+    CompletionException e = assertThrows(CompletionException.class, future::join);
+    assertTrue(e.getCause() instanceof RequestFailureException);
+  }
 }
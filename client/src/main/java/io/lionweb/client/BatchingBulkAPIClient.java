@@ -0,0 +1,668 @@
+package io.lionweb.client;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.BulkAPIClient;
+import io.lionweb.client.api.ChunkLevelBulkAPIClient;
+import io.lionweb.client.api.RepositoryVersionToken;
+import io.lionweb.model.Node;
+import io.lionweb.model.impl.ProxyNode;
+import io.lionweb.serialization.AbstractSerialization;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializationChunk;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import io.lionweb.serialization.data.SerializedContainmentValue;
+import io.lionweb.serialization.data.SerializedPropertyValue;
+import io.lionweb.serialization.data.SerializedReferenceValue;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decorates a {@link BulkAPIClient}, splitting large calls to store and retrieve into several
+ * smaller requests, so that each request stays within the limits of the server.
+ *
+ * <p>When storing, the trees are serialized once and their nodes are split into batches, each
+ * containing at most a given number of nodes and, approximately, at most a given number of bytes.
+ * Nodes are assigned to batches following the trees, so that each subtree is stored in as few
+ * batches as possible. The repository accepts a node only if it already knows all its children:
+ * for this reason the children come before their parents, and a batch is never sent before the
+ * batches containing the children of its nodes have been stored. Batches not depending on each
+ * other, for example because they contain different trees, are sent concurrently. The version
+ * returned is the most recent one among those returned for the single batches. Note that the
+ * store is not atomic: if one batch fails, the batches already sent remain stored.
+ *
+ * <p>When retrieving, the IDs are split into batches, which are retrieved concurrently. The nodes
+ * received are merged, and deserialized together.
+ *
+ * <p>The time needed by each batch is reported to the listeners registered through {@link
+ * Builder#withBatchListener(Consumer)}.
+ *
+ * <p>Batches are executed by threads owned by the client, shared by all its calls, so that
+ * concurrent calls do not execute more than the given number of batches at the same time. The
+ * client should be closed once it is not needed anymore, to stop those threads. Alternatively, an
+ * Executor can be provided through {@link Builder#withExecutor(Executor)}.
+ */
+public class BatchingBulkAPIClient implements BulkAPIClient, Closeable {
+  public static final int DEFAULT_MAX_NODES_PER_BATCH = 10_000;
+  public static final long DEFAULT_MAX_BYTES_PER_BATCH = 8L * 1024 * 1024;
+  public static final int DEFAULT_MAX_CONCURRENT_BATCHES = 4;
+
+  public enum Operation {
+    STORE,
+    RETRIEVE
+  }
+
+  /** Describes how a single batch went. */
+  public static class BatchMetrics {
+    private final @NotNull Operation operation;
+    private final int batchIndex;
+    private final int batchesCount;
+    private final int nodesCount;
+    private final long estimatedBytes;
+    private final long elapsedNanos;
+    private final boolean successful;
+
+    public BatchMetrics(
+        @NotNull Operation operation,
+        int batchIndex,
+        int batchesCount,
+        int nodesCount,
+        long estimatedBytes,
+        long elapsedNanos,
+        boolean successful) {
+      this.operation = Objects.requireNonNull(operation, "operation should not be null");
+      this.batchIndex = batchIndex;
+      this.batchesCount = batchesCount;
+      this.nodesCount = nodesCount;
+      this.estimatedBytes = estimatedBytes;
+      this.elapsedNanos = elapsedNanos;
+      this.successful = successful;
+    }
+
+    public @NotNull Operation getOperation() {
+      return operation;
+    }
+
+    public int getBatchIndex() {
+      return batchIndex;
+    }
+
+    public int getBatchesCount() {
+      return batchesCount;
+    }
+
+    /** The nodes sent, when storing, or received, when retrieving. */
+    public int getNodesCount() {
+      return nodesCount;
+    }
+
+    public long getEstimatedBytes() {
+      return estimatedBytes;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    public boolean isSuccessful() {
+      return successful;
+    }
+
+    @Override
+    public String toString() {
+      return "BatchMetrics{"
+          + "operation="
+          + operation
+          + ", batchIndex="
+          + batchIndex
+          + ", batchesCount="
+          + batchesCount
+          + ", nodesCount="
+          + nodesCount
+          + ", estimatedBytes="
+          + estimatedBytes
+          + ", elapsedNanos="
+          + elapsedNanos
+          + ", successful="
+          + successful
+          + '}';
+    }
+  }
+
+  public static class Builder {
+    private final @NotNull BulkAPIClient bulkAPIClient;
+    private final @NotNull ChunkLevelBulkAPIClient chunkLevelBulkAPIClient;
+    private final @NotNull AbstractSerialization serialization;
+    private int maxNodesPerBatch = DEFAULT_MAX_NODES_PER_BATCH;
+    private long maxBytesPerBatch = DEFAULT_MAX_BYTES_PER_BATCH;
+    private int maxConcurrentBatches = DEFAULT_MAX_CONCURRENT_BATCHES;
+    private @Nullable Executor executor = null;
+    private final List<Consumer<BatchMetrics>> batchListeners = new ArrayList<>();
+
+    public Builder(@NotNull LionWebClient client) {
+      this(client, client, client.getJsonSerialization());
+    }
+
+    /**
+     * @param bulkAPIClient the client to which the calls not needing batching are forwarded
+     * @param chunkLevelBulkAPIClient the client used to send the single batches. It should be
+     *     connected to the same repository as bulkAPIClient
+     * @param serialization the serialization used to split the nodes stored and to deserialize the
+     *     nodes retrieved
+     */
+    public Builder(
+        @NotNull BulkAPIClient bulkAPIClient,
+        @NotNull ChunkLevelBulkAPIClient chunkLevelBulkAPIClient,
+        @NotNull AbstractSerialization serialization) {
+      this.bulkAPIClient =
+          Objects.requireNonNull(bulkAPIClient, "bulkAPIClient should not be null");
+      this.chunkLevelBulkAPIClient =
+          Objects.requireNonNull(
+              chunkLevelBulkAPIClient, "chunkLevelBulkAPIClient should not be null");
+      this.serialization =
+          Objects.requireNonNull(serialization, "serialization should not be null");
+    }
+
+    /** Limit the number of nodes stored in a single request, or the number of IDs retrieved. */
+    public @NotNull Builder withMaxNodesPerBatch(int maxNodesPerBatch) {
+      if (maxNodesPerBatch <= 0) {
+        throw new IllegalArgumentException("maxNodesPerBatch should be positive");
+      }
+      this.maxNodesPerBatch = maxNodesPerBatch;
+      return this;
+    }
+
+    /**
+     * Limit the estimated size of the nodes stored in a single request. A batch always contains at
+     * least one node, even if that node alone is estimated to be larger than this limit.
+     */
+    public @NotNull Builder withMaxBytesPerBatch(long maxBytesPerBatch) {
+      if (maxBytesPerBatch <= 0) {
+        throw new IllegalArgumentException("maxBytesPerBatch should be positive");
+      }
+      this.maxBytesPerBatch = maxBytesPerBatch;
+      return this;
+    }
+
+    public @NotNull Builder withMaxConcurrentBatches(int maxConcurrentBatches) {
+      if (maxConcurrentBatches <= 0) {
+        throw new IllegalArgumentException("maxConcurrentBatches should be positive");
+      }
+      this.maxConcurrentBatches = maxConcurrentBatches;
+      return this;
+    }
+
+    /**
+     * Execute the batches using the given Executor, instead of threads owned by the client. Unless
+     * the maximum number of concurrent batches is one, the number of batches executed at the same
+     * time is then limited by the Executor, which is not shut down when the client is closed.
+     */
+    public @NotNull Builder withExecutor(@NotNull Executor executor) {
+      this.executor = Objects.requireNonNull(executor, "executor should not be null");
+      return this;
+    }
+
+    /**
+     * Register a listener notified at the completion of each batch. Listeners can be invoked
+     * concurrently, from different threads.
+     */
+    public @NotNull Builder withBatchListener(@NotNull Consumer<BatchMetrics> batchListener) {
+      batchListeners.add(Objects.requireNonNull(batchListener, "batchListener should not be null"));
+      return this;
+    }
+
+    public @NotNull BatchingBulkAPIClient build() {
+      return new BatchingBulkAPIClient(this);
+    }
+  }
+
+  @FunctionalInterface
+  private interface BatchCall<T> {
+    T call(int batchIndex) throws IOException;
+  }
+
+  private static final AtomicInteger THREADS_COUNTER = new AtomicInteger();
+
+  private final @NotNull BulkAPIClient bulkAPIClient;
+  private final @NotNull ChunkLevelBulkAPIClient chunkLevelBulkAPIClient;
+  private final @NotNull AbstractSerialization serialization;
+  private final int maxNodesPerBatch;
+  private final long maxBytesPerBatch;
+  private final int maxConcurrentBatches;
+  private final List<Consumer<BatchMetrics>> batchListeners;
+
+  /** Null when batches are executed one at a time, on the calling thread. */
+  private final @Nullable Executor executor;
+
+  /** The executor created by the client, if not provided by the Builder. */
+  private final @Nullable ExecutorService ownedExecutor;
+
+  private BatchingBulkAPIClient(@NotNull Builder builder) {
+    this.bulkAPIClient = builder.bulkAPIClient;
+    this.chunkLevelBulkAPIClient = builder.chunkLevelBulkAPIClient;
+    this.serialization = builder.serialization;
+    this.maxNodesPerBatch = builder.maxNodesPerBatch;
+    this.maxBytesPerBatch = builder.maxBytesPerBatch;
+    this.maxConcurrentBatches = builder.maxConcurrentBatches;
+    this.batchListeners = Collections.unmodifiableList(new ArrayList<>(builder.batchListeners));
+    if (maxConcurrentBatches == 1) {
+      this.ownedExecutor = null;
+      this.executor = null;
+    } else if (builder.executor != null) {
+      this.ownedExecutor = null;
+      this.executor = builder.executor;
+    } else {
+      // Threads are started when batches are executed, and stopped once idle for a while
+      ThreadPoolExecutor threadPool =
+          new ThreadPoolExecutor(
+              maxConcurrentBatches,
+              maxConcurrentBatches,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "lionweb-batch-" + THREADS_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      threadPool.allowCoreThreadTimeOut(true);
+      this.ownedExecutor = threadPool;
+      this.executor = threadPool;
+    }
+  }
+
+  @Override
+  public @NotNull LionWebVersion getLionWebVersion() {
+    return bulkAPIClient.getLionWebVersion();
+  }
+
+  @Override
+  public @Nullable RepositoryVersionToken createPartitions(List<Node> partitions)
+      throws IOException {
+    return bulkAPIClient.createPartitions(partitions);
+  }
+
+  @Override
+  public @Nullable RepositoryVersionToken deletePartitions(List<String> ids) throws IOException {
+    return bulkAPIClient.deletePartitions(ids);
+  }
+
+  @Override
+  public List<Node> listPartitions() throws IOException {
+    return bulkAPIClient.listPartitions();
+  }
+
+  @Override
+  public List<String> listPartitionsIDs() throws IOException {
+    return bulkAPIClient.listPartitionsIDs();
+  }
+
+  @Override
+  public List<String> ids(int count) throws IOException {
+    return bulkAPIClient.ids(count);
+  }
+
+  @Override
+  public @Nullable RepositoryVersionToken store(List<Node> nodes) throws IOException {
+    Objects.requireNonNull(nodes, "nodes should not be null");
+    if (nodes.isEmpty()) {
+      return null;
+    }
+    List<SerializedClassifierInstance> instances =
+        childrenFirst(
+            serialization.serializeTreesToSerializationChunk(nodes).getClassifierInstances());
+
+    List<List<SerializedClassifierInstance>> batches = new ArrayList<>();
+    List<Long> batchesBytes = new ArrayList<>();
+    List<Set<Integer>> dependencies = new ArrayList<>();
+    Map<String, Integer> batchIndexByID = new HashMap<>();
+    List<SerializedClassifierInstance> currentBatch = new ArrayList<>();
+    long currentBytes = 0;
+    for (SerializedClassifierInstance instance : instances) {
+      long instanceBytes = estimateSize(instance);
+      if (!currentBatch.isEmpty()
+          && (currentBatch.size() >= maxNodesPerBatch
+              || currentBytes + instanceBytes > maxBytesPerBatch)) {
+        batches.add(currentBatch);
+        batchesBytes.add(currentBytes);
+        currentBatch = new ArrayList<>();
+        currentBytes = 0;
+      }
+      if (currentBatch.isEmpty()) {
+        dependencies.add(new HashSet<>());
+      }
+      int batchIndex = batches.size();
+      currentBatch.add(instance);
+      currentBytes += instanceBytes;
+      batchIndexByID.put(instance.getID(), batchIndex);
+      for (String childID : childrenAndAnnotations(instance)) {
+        Integer childBatchIndex = batchIndexByID.get(childID);
+        if (childBatchIndex != null && childBatchIndex != batchIndex) {
+          dependencies.get(batchIndex).add(childBatchIndex);
+        }
+      }
+    }
+    batches.add(currentBatch);
+    batchesBytes.add(currentBytes);
+
+    List<RepositoryVersionToken> tokens =
+        runBatches(
+            batches.size(),
+            dependencies,
+            batchIndex -> {
+              List<SerializedClassifierInstance> batch = batches.get(batchIndex);
+              long start = System.nanoTime();
+              boolean successful = false;
+              try {
+                RepositoryVersionToken token = chunkLevelBulkAPIClient.storeChunk(batch);
+                successful = true;
+                return token;
+              } finally {
+                notifyListeners(
+                    new BatchMetrics(
+                        Operation.STORE,
+                        batchIndex,
+                        batches.size(),
+                        batch.size(),
+                        batchesBytes.get(batchIndex),
+                        System.nanoTime() - start,
+                        successful));
+              }
+            });
+    RepositoryVersionToken merged = null;
+    for (RepositoryVersionToken token : tokens) {
+      merged = mostRecent(merged, token);
+    }
+    return merged;
+  }
+
+  @Override
+  public List<Node> retrieve(List<String> nodeIds, int limit) throws IOException {
+    Objects.requireNonNull(nodeIds, "nodeIds should not be null");
+    if (nodeIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<List<String>> batches = new ArrayList<>();
+    for (int i = 0; i < nodeIds.size(); i += maxNodesPerBatch) {
+      batches.add(nodeIds.subList(i, Math.min(nodeIds.size(), i + maxNodesPerBatch)));
+    }
+    List<List<SerializedClassifierInstance>> retrieved =
+        runBatches(
+            batches.size(),
+            null,
+            batchIndex -> {
+              long start = System.nanoTime();
+              List<SerializedClassifierInstance> instances = null;
+              try {
+                instances = chunkLevelBulkAPIClient.retrieveAsChunk(batches.get(batchIndex), limit);
+                return instances;
+              } finally {
+                notifyListeners(
+                    new BatchMetrics(
+                        Operation.RETRIEVE,
+                        batchIndex,
+                        batches.size(),
+                        instances == null ? 0 : instances.size(),
+                        instances == null
+                            ? 0
+                            : instances.stream()
+                                .mapToLong(BatchingBulkAPIClient::estimateSize)
+                                .sum(),
+                        System.nanoTime() - start,
+                        instances != null));
+              }
+            });
+
+    // The trees retrieved by different batches may overlap, when one of the IDs requested is
+    // a descendant of another one
+    Map<String, SerializedClassifierInstance> merged = new LinkedHashMap<>();
+    for (List<SerializedClassifierInstance> instances : retrieved) {
+      for (SerializedClassifierInstance instance : instances) {
+        merged.putIfAbsent(instance.getID(), instance);
+      }
+    }
+    SerializationChunk chunk =
+        SerializationChunk.fromNodes(getLionWebVersion(), new ArrayList<>(merged.values()));
+    List<Node> allNodes =
+        serialization.deserializeSerializationChunk(chunk).stream()
+            .filter(n -> n instanceof Node)
+            .map(n -> (Node) n)
+            .collect(Collectors.toList());
+    // As ClientForBulkAPIs does, we return only the roots of the trees retrieved
+    return allNodes.stream()
+        .filter(
+            n ->
+                !(n instanceof ProxyNode)
+                    && (n.getParent() == null || !merged.containsKey(n.getParent().getID())))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Stop the threads owned by the client, interrupting the batches being executed. The client
+   * should not be used afterward. An Executor provided through the Builder is not shut down.
+   */
+  @Override
+  public void close() {
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdownNow();
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * Execute the batches, respecting the dependencies among them, and return their results in the
+   * order of the batches. Each batch only depends on batches preceding it.
+   *
+   * @param dependencies for each batch, the indexes of the batches it depends on. It is null when
+   *     the batches are independent
+   */
+  private <T> List<T> runBatches(
+      int batchesCount, @Nullable List<Set<Integer>> dependencies, @NotNull BatchCall<T> batchCall)
+      throws IOException {
+    List<T> results = new ArrayList<>(batchesCount);
+    if (batchesCount == 1 || executor == null) {
+      for (int i = 0; i < batchesCount; i++) {
+        results.add(batchCall.call(i));
+      }
+      return results;
+    }
+    if (ownedExecutor != null && ownedExecutor.isShutdown()) {
+      throw new IllegalStateException("The client has been closed");
+    }
+    List<CompletableFuture<T>> futures = new ArrayList<>(batchesCount);
+    for (int i = 0; i < batchesCount; i++) {
+      final int batchIndex = i;
+      CompletableFuture<?>[] required =
+          dependencies == null
+              ? new CompletableFuture<?>[0]
+              : dependencies.get(batchIndex).stream()
+                  .map(futures::get)
+                  .toArray(CompletableFuture<?>[]::new);
+      futures.add(
+          CompletableFuture.allOf(required)
+              .thenApplyAsync(
+                  ignored -> {
+                    try {
+                      return batchCall.call(batchIndex);
+                    } catch (IOException e) {
+                      throw new UncheckedIOException(e);
+                    }
+                  },
+                  executor));
+    }
+    try {
+      for (CompletableFuture<T> future : futures) {
+        results.add(join(future));
+      }
+    } catch (IOException | RuntimeException | Error e) {
+      // The batches not started yet are not sent anymore
+      futures.forEach(future -> future.cancel(false));
+      throw e;
+    }
+    return results;
+  }
+
+  private static <T> T join(CompletableFuture<T> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  private void notifyListeners(BatchMetrics batchMetrics) {
+    batchListeners.forEach(listener -> listener.accept(batchMetrics));
+  }
+
+  /**
+   * Sort the instances so that each one follows its descendants, and the descendants of each
+   * instance are next to it.
+   */
+  private static List<SerializedClassifierInstance> childrenFirst(
+      List<SerializedClassifierInstance> instances) {
+    Map<String, SerializedClassifierInstance> instancesByID = new HashMap<>();
+    instances.forEach(instance -> instancesByID.put(instance.getID(), instance));
+    List<SerializedClassifierInstance> sorted = new ArrayList<>(instances.size());
+    Set<String> visited = new HashSet<>();
+    Deque<SerializedClassifierInstance> stack = new ArrayDeque<>();
+    List<SerializedClassifierInstance> tree = new ArrayList<>();
+    for (SerializedClassifierInstance root : instances) {
+      if (instancesByID.containsKey(root.getParentNodeID()) || !visited.add(root.getID())) {
+        continue;
+      }
+      // We visit each parent before its children, taking the children from the last one: the
+      // reverse of this order has the children before their parents, in their original order
+      stack.push(root);
+      while (!stack.isEmpty()) {
+        SerializedClassifierInstance instance = stack.pop();
+        tree.add(instance);
+        for (String childID : childrenAndAnnotations(instance)) {
+          SerializedClassifierInstance child = instancesByID.get(childID);
+          if (child != null && visited.add(childID)) {
+            stack.push(child);
+          }
+        }
+      }
+      Collections.reverse(tree);
+      sorted.addAll(tree);
+      tree.clear();
+    }
+    if (sorted.size() != instances.size()) {
+      // Instances not reachable from the roots, which can only happen with inconsistent parent and
+      // children information: we keep them at the end, in their original order
+      for (SerializedClassifierInstance instance : instances) {
+        if (visited.add(instance.getID())) {
+          sorted.add(instance);
+        }
+      }
+    }
+    return sorted;
+  }
+
+  private static List<String> childrenAndAnnotations(SerializedClassifierInstance instance) {
+    List<String> ids = new ArrayList<>(instance.getChildren());
+    ids.addAll(instance.getAnnotations());
+    return ids;
+  }
+
+  /** Approximate the size of the instance, once serialized to JSON. */
+  private static long estimateSize(SerializedClassifierInstance instance) {
+    long size = 80 + length(instance.getID()) + length(instance.getParentNodeID());
+    size += estimateSize(instance.getClassifier());
+    for (SerializedPropertyValue property : instance.getProperties()) {
+      size += 30 + estimateSize(property.getMetaPointer()) + length(property.getValue());
+    }
+    for (SerializedContainmentValue containment : instance.getContainments()) {
+      size += 30 + estimateSize(containment.getMetaPointer());
+      for (String childID : containment.getChildrenIds()) {
+        size += 3 + length(childID);
+      }
+    }
+    for (SerializedReferenceValue reference : instance.getReferences()) {
+      size += 30 + estimateSize(reference.getMetaPointer());
+      for (SerializedReferenceValue.Entry entry : reference.getValue()) {
+        size += 30 + length(entry.getResolveInfo()) + length(entry.getReference());
+      }
+    }
+    for (String annotationID : instance.getAnnotations()) {
+      size += 3 + length(annotationID);
+    }
+    return size;
+  }
+
+  private static long estimateSize(@Nullable MetaPointer metaPointer) {
+    if (metaPointer == null) {
+      return 4;
+    }
+    return 40
+        + length(metaPointer.getLanguage())
+        + length(metaPointer.getVersion())
+        + length(metaPointer.getKey());
+  }
+
+  private static int length(@Nullable String value) {
+    return value == null ? 4 : value.length() + 2;
+  }
+
+  /**
+   * Versions returned by the repository end with an increasing number: when both tokens have one,
+   * we compare them. Otherwise, we consider the candidate to be more recent.
+   */
+  private static @Nullable RepositoryVersionToken mostRecent(
+      @Nullable RepositoryVersionToken current, @Nullable RepositoryVersionToken candidate) {
+    if (current == null) {
+      return candidate;
+    }
+    if (candidate == null) {
+      return current;
+    }
+    long currentNumber = versionNumber(current);
+    long candidateNumber = versionNumber(candidate);
+    if (currentNumber >= 0 && candidateNumber >= 0) {
+      return candidateNumber > currentNumber ? candidate : current;
+    }
+    return candidate;
+  }
+
+  private static long versionNumber(@NotNull RepositoryVersionToken token) {
+    String value = token.getToken();
+    if (value == null) {
+      return -1;
+    }
+    int start = value.length();
+    while (start > 0 && Character.isDigit(value.charAt(start - 1))) {
+      start--;
+    }
+    if (start == value.length() || value.length() - start > 18) {
+      return -1;
+    }
+    return Long.parseLong(value.substring(start));
+  }
+}
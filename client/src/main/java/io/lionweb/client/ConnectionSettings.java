@@ -0,0 +1,158 @@
+package io.lionweb.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Settings concerning how connections to the server are established, reused and used.
+ *
+ * <p>Setting up a connection, and in particular a TLS connection, can take longer than a small
+ * bulk call. For this reason connections are kept open for reuse, within the limits specified by
+ * {@link #getMaxIdleConnections()} and {@link #getKeepAliveDurationInSeconds()}.
+ */
+public class ConnectionSettings {
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+  public static final long DEFAULT_KEEP_ALIVE_DURATION_IN_SECONDS = 300;
+  public static final int DEFAULT_MAX_REQUESTS = 64;
+
+  public static final ConnectionSettings DEFAULT =
+      new ConnectionSettings(
+          DEFAULT_MAX_IDLE_CONNECTIONS,
+          DEFAULT_KEEP_ALIVE_DURATION_IN_SECONDS,
+          DEFAULT_MAX_REQUESTS,
+          DEFAULT_MAX_REQUESTS,
+          HttpVersion.HTTP_2,
+          true,
+          true);
+
+  private final int maxIdleConnections;
+  private final long keepAliveDurationInSeconds;
+  private final int maxRequests;
+  private final int maxRequestsPerHost;
+  private final @NotNull HttpVersion httpVersion;
+  private final boolean requestCompression;
+  private final boolean responseCompression;
+
+  /**
+   * @param maxIdleConnections the maximum number of idle connections kept open for reuse
+   * @param keepAliveDurationInSeconds for how long an idle connection is kept open
+   * @param maxRequests the maximum number of requests executed concurrently by the asynchronous
+   *     clients, further requests are queued
+   * @param maxRequestsPerHost the maximum number of requests executed concurrently by the
+   *     asynchronous clients to the same host
+   * @param httpVersion the version of HTTP to use
+   * @param requestCompression if the bodies of large requests, storing nodes, should be compressed
+   * @param responseCompression if the server should be asked to compress its responses
+   */
+  public ConnectionSettings(
+      int maxIdleConnections,
+      long keepAliveDurationInSeconds,
+      int maxRequests,
+      int maxRequestsPerHost,
+      @NotNull HttpVersion httpVersion,
+      boolean requestCompression,
+      boolean responseCompression) {
+    if (maxIdleConnections < 0) {
+      throw new IllegalArgumentException("maxIdleConnections should not be negative");
+    }
+    if (keepAliveDurationInSeconds <= 0) {
+      throw new IllegalArgumentException("keepAliveDurationInSeconds should be positive");
+    }
+    if (maxRequests < 1) {
+      throw new IllegalArgumentException("maxRequests should be at least 1");
+    }
+    if (maxRequestsPerHost < 1) {
+      throw new IllegalArgumentException("maxRequestsPerHost should be at least 1");
+    }
+    Objects.requireNonNull(httpVersion, "httpVersion should not be null");
+    this.maxIdleConnections = maxIdleConnections;
+    this.keepAliveDurationInSeconds = keepAliveDurationInSeconds;
+    this.maxRequests = maxRequests;
+    this.maxRequestsPerHost = maxRequestsPerHost;
+    this.httpVersion = httpVersion;
+    this.requestCompression = requestCompression;
+    this.responseCompression = responseCompression;
+  }
+
+  public int getMaxIdleConnections() {
+    return maxIdleConnections;
+  }
+
+  public long getKeepAliveDurationInSeconds() {
+    return keepAliveDurationInSeconds;
+  }
+
+  public int getMaxRequests() {
+    return maxRequests;
+  }
+
+  public int getMaxRequestsPerHost() {
+    return maxRequestsPerHost;
+  }
+
+  public @NotNull HttpVersion getHttpVersion() {
+    return httpVersion;
+  }
+
+  public boolean isRequestCompression() {
+    return requestCompression;
+  }
+
+  public boolean isResponseCompression() {
+    return responseCompression;
+  }
+
+  /** Configure the connection pool, the dispatcher and the protocols of the given builder. */
+  @NotNull
+  OkHttpClient.Builder applyTo(@NotNull OkHttpClient.Builder builder) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+    return builder
+        .dispatcher(dispatcher)
+        .connectionPool(
+            new ConnectionPool(maxIdleConnections, keepAliveDurationInSeconds, TimeUnit.SECONDS))
+        .protocols(protocols());
+  }
+
+  private List<Protocol> protocols() {
+    switch (httpVersion) {
+      case HTTP_1_1:
+        return Collections.singletonList(Protocol.HTTP_1_1);
+      case HTTP_2:
+        return Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+      case H2C:
+        return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+      default:
+        throw new IllegalStateException("Unexpected HTTP version " + httpVersion);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ConnectionSettings{"
+        + "maxIdleConnections="
+        + maxIdleConnections
+        + ", keepAliveDurationInSeconds="
+        + keepAliveDurationInSeconds
+        + ", maxRequests="
+        + maxRequests
+        + ", maxRequestsPerHost="
+        + maxRequestsPerHost
+        + ", httpVersion="
+        + httpVersion
+        + ", requestCompression="
+        + requestCompression
+        + ", responseCompression="
+        + responseCompression
+        + '}';
+  }
+}
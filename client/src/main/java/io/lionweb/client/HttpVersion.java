@@ -0,0 +1,18 @@
+package io.lionweb.client;
+
+/** The versions of HTTP the client can use to talk to the server. */
+public enum HttpVersion {
+  /** Only HTTP/1.1 is used. */
+  HTTP_1_1,
+  /**
+   * HTTP/2 is used when the server supports it, otherwise HTTP/1.1 is used. The version is
+   * negotiated during the TLS handshake, so HTTP/2 can be used only with {@link Protocol#HTTPS}.
+   */
+  HTTP_2,
+  /**
+   * HTTP/2 over cleartext connections, without any negotiation: the server must support it. This
+   * is convenient for servers running locally, as it permits to multiplex many requests over one
+   * connection without setting up TLS.
+   */
+  H2C
+}
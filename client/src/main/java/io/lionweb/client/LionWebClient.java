@@ -33,6 +33,15 @@ public class LionWebClient
     protected String repository = "default";
     protected long connectTimeoutInSeconds = 60;
     protected long callTimeoutInSeconds = 60;
+    protected int maxRequestsInFlight = DEFAULT_MAX_REQUESTS_IN_FLIGHT;
+    protected @Nullable Integer maxRequestsPerHost = null;
+    protected int maxIdleConnections = ConnectionSettings.DEFAULT_MAX_IDLE_CONNECTIONS;
+    protected long keepAliveDurationInSeconds =
+        ConnectionSettings.DEFAULT_KEEP_ALIVE_DURATION_IN_SECONDS;
+    protected HttpVersion httpVersion = HttpVersion.HTTP_2;
+    protected boolean requestCompression = true;
+    protected boolean responseCompression = true;
+    protected TransferFormat transferFormat = TransferFormat.JSON;
 
     public Builder withVersion(LionWebVersion version) {
       this.lionWebVersion = version;
@@ -74,6 +83,63 @@ public class LionWebClient
       return this;
     }
 
+    /**
+     * Maximum number of requests sent concurrently by the asynchronous clients. Further requests
+     * are queued until one of the requests in flight completes.
+     */
+    public Builder withMaxRequestsInFlight(int maxRequestsInFlight) {
+      this.maxRequestsInFlight = maxRequestsInFlight;
+      return this;
+    }
+
+    /**
+     * Maximum number of requests sent concurrently to the server by the asynchronous clients. By
+     * default, it is equal to the maximum number of requests in flight, as all requests are sent to
+     * the same host.
+     */
+    public Builder withMaxRequestsPerHost(int maxRequestsPerHost) {
+      this.maxRequestsPerHost = maxRequestsPerHost;
+      return this;
+    }
+
+    /** Maximum number of idle connections kept open, to be reused by later requests. */
+    public Builder withMaxIdleConnections(int maxIdleConnections) {
+      this.maxIdleConnections = maxIdleConnections;
+      return this;
+    }
+
+    /** For how long an idle connection is kept open, to be reused by later requests. */
+    public Builder withKeepAlive(long seconds) {
+      this.keepAliveDurationInSeconds = seconds;
+      return this;
+    }
+
+    public Builder withHttpVersion(HttpVersion httpVersion) {
+      this.httpVersion = httpVersion;
+      return this;
+    }
+
+    /** Whether the bodies of the requests storing nodes should be compressed. */
+    public Builder withRequestCompression(boolean requestCompression) {
+      this.requestCompression = requestCompression;
+      return this;
+    }
+
+    /** Whether the server should be asked to compress its responses. */
+    public Builder withResponseCompression(boolean responseCompression) {
+      this.responseCompression = responseCompression;
+      return this;
+    }
+
+    /**
+     * The format used to store and retrieve nodes through the Bulk APIs. The raw APIs, working on
+     * JSON strings, are not affected.
+     */
+    public Builder withTransferFormat(TransferFormat transferFormat) {
+      this.transferFormat = transferFormat;
+      return this;
+    }
+
     public LionWebClient build() {
       return new LionWebClient(
           lionWebVersion,
@@ -83,11 +149,21 @@ public class LionWebClient
           clientID,
           repository,
           connectTimeoutInSeconds,
-          callTimeoutInSeconds);
+          callTimeoutInSeconds,
+          new ConnectionSettings(
+              maxIdleConnections,
+              keepAliveDurationInSeconds,
+              maxRequestsInFlight,
+              maxRequestsPerHost == null ? maxRequestsInFlight : maxRequestsPerHost,
+              httpVersion,
+              requestCompression,
+              responseCompression),
+          transferFormat);
     }
   }
 
   protected static final MediaType JSON = MediaType.get("application/json");
+  public static final int DEFAULT_MAX_REQUESTS_IN_FLIGHT = ConnectionSettings.DEFAULT_MAX_REQUESTS;
 
   protected final Protocol protocol = Protocol.HTTP;
   protected final String hostname;
@@ -97,6 +173,8 @@ public class LionWebClient
   protected final String repository;
   protected final OkHttpClient httpClient;
   protected final JsonSerialization jsonSerialization;
+  protected final ConnectionSettings connectionSettings;
+  protected final TransferFormat transferFormat;
 
   private final ClientForInspectionAPIs inspectionAPIs;
   private final ClientForDBAdminAPIs dbAdminAPIs;
@@ -104,6 +182,8 @@ public class LionWebClient
   private final ClientForChunkLevelBulkAPIs chunkLevelBulkAPIs;
   private final ClientForJSONLevelBulkAPIs jsonLevelBulkAPIs;
   private final ClientForHistoryAPIs historyAPIs;
+  private final AsyncClientForBulkAPIs asyncBulkAPIs;
+  private final AsyncClientForChunkLevelBulkAPIs asyncChunkLevelBulkAPIs;
 
   //
   // Constructors
@@ -123,14 +203,94 @@ public class LionWebClient
       @NotNull String repository,
       long connectTimeoutInSeconds,
       long callTimeoutInSeconds) {
+    this(
+        lionWebVersion,
+        hostname,
+        port,
+        authorizationToken,
+        clientID,
+        repository,
+        connectTimeoutInSeconds,
+        callTimeoutInSeconds,
+        DEFAULT_MAX_REQUESTS_IN_FLIGHT);
+  }
+
+  public LionWebClient(
+      @NotNull LionWebVersion lionWebVersion,
+      @NotNull String hostname,
+      int port,
+      @Nullable String authorizationToken,
+      @NotNull String clientID,
+      @NotNull String repository,
+      long connectTimeoutInSeconds,
+      long callTimeoutInSeconds,
+      int maxRequestsInFlight) {
+    this(
+        lionWebVersion,
+        hostname,
+        port,
+        authorizationToken,
+        clientID,
+        repository,
+        connectTimeoutInSeconds,
+        callTimeoutInSeconds,
+        new ConnectionSettings(
+            ConnectionSettings.DEFAULT_MAX_IDLE_CONNECTIONS,
+            ConnectionSettings.DEFAULT_KEEP_ALIVE_DURATION_IN_SECONDS,
+            maxRequestsInFlight,
+            maxRequestsInFlight,
+            HttpVersion.HTTP_2,
+            true,
+            true));
+  }
+
+  public LionWebClient(
+      @NotNull LionWebVersion lionWebVersion,
+      @NotNull String hostname,
+      int port,
+      @Nullable String authorizationToken,
+      @NotNull String clientID,
+      @NotNull String repository,
+      long connectTimeoutInSeconds,
+      long callTimeoutInSeconds,
+      @NotNull ConnectionSettings connectionSettings) {
+    this(
+        lionWebVersion,
+        hostname,
+        port,
+        authorizationToken,
+        clientID,
+        repository,
+        connectTimeoutInSeconds,
+        callTimeoutInSeconds,
+        connectionSettings,
+        TransferFormat.JSON);
+  }
+
+  public LionWebClient(
+      @NotNull LionWebVersion lionWebVersion,
+      @NotNull String hostname,
+      int port,
+      @Nullable String authorizationToken,
+      @NotNull String clientID,
+      @NotNull String repository,
+      long connectTimeoutInSeconds,
+      long callTimeoutInSeconds,
+      @NotNull ConnectionSettings connectionSettings,
+      @NotNull TransferFormat transferFormat) {
+    Objects.requireNonNull(connectionSettings, "connectionSettings should not be null");
+    Objects.requireNonNull(transferFormat, "transferFormat should not be null");
     this.hostname = hostname;
     this.port = port;
     this.authorizationToken = authorizationToken;
     this.clientID = clientID;
     this.repository = repository;
+    this.connectionSettings = connectionSettings;
+    this.transferFormat = transferFormat;
 
     this.httpClient =
-        new OkHttpClient.Builder()
+        connectionSettings
+            .applyTo(new OkHttpClient.Builder())
             .connectTimeout(connectTimeoutInSeconds, TimeUnit.SECONDS)
             .readTimeout(callTimeoutInSeconds, TimeUnit.SECONDS)
             .writeTimeout(callTimeoutInSeconds, TimeUnit.SECONDS)
@@ -150,6 +310,8 @@ public class LionWebClient
     this.chunkLevelBulkAPIs = new ClientForChunkLevelBulkAPIs(conf);
     this.bulkAPIs = new ClientForBulkAPIs(conf);
     this.historyAPIs = new ClientForHistoryAPIs(conf);
+    this.asyncBulkAPIs = new AsyncClientForBulkAPIs(conf);
+    this.asyncChunkLevelBulkAPIs = new AsyncClientForChunkLevelBulkAPIs(conf);
   }
 
   protected ClientConfiguration buildRepositoryConfiguration() {
@@ -161,7 +323,9 @@ public class LionWebClient
         clientID,
         repository,
         httpClient,
-        jsonSerialization);
+        jsonSerialization,
+        connectionSettings,
+        transferFormat);
   }
 
   //
@@ -172,6 +336,26 @@ public class LionWebClient
     return jsonSerialization;
   }
 
+  //
+  // Asynchronous APIs
+  //
+
+  /**
+   * Return a client for the Bulk APIs which does not block while waiting for the responses. It
+   * shares the connections of this client.
+   */
+  public @NotNull AsyncBulkAPIClient getAsyncBulkAPIClient() {
+    return asyncBulkAPIs;
+  }
+
+  /**
+   * Return a client for the Bulk APIs, working at the level of chunks, which does not block while
+   * waiting for the responses. It shares the connections of this client.
+   */
+  public @NotNull AsyncChunkLevelBulkAPIClient getAsyncChunkLevelBulkAPIClient() {
+    return asyncChunkLevelBulkAPIs;
+  }
+
   //
   // Raw Bulk APIs
   //
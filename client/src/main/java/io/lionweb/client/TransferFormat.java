@@ -0,0 +1,11 @@
+package io.lionweb.client;
+
+/** The formats in which the client can exchange nodes with the server. */
+public enum TransferFormat {
+  JSON,
+  /**
+   * Nodes are sent as a PBChunk, and asked to be received as a PBChunk. When the server does not
+   * support it, the client falls back to JSON.
+   */
+  PROTOBUF
+}
@@ -0,0 +1,59 @@
+package io.lionweb.client.api;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.model.Node;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Non-blocking variant of {@link BulkAPIClient}. Each method returns as soon as the request has
+ * been sent, or queued, and the returned future is completed when the response is received. This
+ * permits to have many requests in flight, without dedicating a thread to each of them.
+ *
+ * <p>Failures, including failures reported by the server, are reported by completing the future
+ * exceptionally. Invalid arguments are instead reported immediately, by throwing an exception.
+ */
+public interface AsyncBulkAPIClient {
+
+  @NotNull
+  LionWebVersion getLionWebVersion();
+
+  /** The value of the future is null when the server does not report the repository version. */
+  @NotNull
+  CompletableFuture<RepositoryVersionToken> createPartitions(List<Node> partitions);
+
+  @NotNull
+  default CompletableFuture<RepositoryVersionToken> createPartitions(Node... partitions) {
+    return createPartitions(Arrays.asList(partitions));
+  }
+
+  @NotNull
+  CompletableFuture<RepositoryVersionToken> deletePartitions(List<String> ids);
+
+  @NotNull
+  CompletableFuture<List<Node>> listPartitions();
+
+  @NotNull
+  CompletableFuture<List<String>> listPartitionsIDs();
+
+  @NotNull
+  CompletableFuture<List<String>> ids(int count);
+
+  @NotNull
+  CompletableFuture<RepositoryVersionToken> store(List<Node> nodes);
+
+  @NotNull
+  default CompletableFuture<RepositoryVersionToken> store(Node... nodes) {
+    return store(Arrays.asList(nodes));
+  }
+
+  @NotNull
+  CompletableFuture<List<Node>> retrieve(List<String> nodeIds, int limit);
+
+  @NotNull
+  default CompletableFuture<List<Node>> retrieve(List<String> nodeIds) {
+    return retrieve(nodeIds, Integer.MAX_VALUE);
+  }
+}
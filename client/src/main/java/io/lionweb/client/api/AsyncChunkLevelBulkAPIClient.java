@@ -0,0 +1,60 @@
+package io.lionweb.client.api;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.serialization.data.SerializationChunk;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Non-blocking variant of {@link ChunkLevelBulkAPIClient}. As for {@link AsyncBulkAPIClient},
+ * failures are reported by completing the returned futures exceptionally, while invalid arguments
+ * are reported immediately.
+ */
+public interface AsyncChunkLevelBulkAPIClient {
+  @NotNull
+  LionWebVersion getLionWebVersion();
+
+  @NotNull
+  CompletableFuture<List<String>> ids(int count);
+
+  @NotNull
+  CompletableFuture<List<String>> listPartitionsIDs();
+
+  /** The value of the future is null when the server does not report the repository version. */
+  @NotNull
+  CompletableFuture<RepositoryVersionToken> createPartitionsFromChunk(
+      @NotNull List<SerializedClassifierInstance> data);
+
+  @NotNull
+  default CompletableFuture<RepositoryVersionToken> createPartitionsFromChunk(
+      @NotNull SerializationChunk chunk) {
+    Objects.requireNonNull(chunk, "chunk should not be null");
+    return createPartitionsFromChunk(chunk.getClassifierInstances());
+  }
+
+  @NotNull
+  CompletableFuture<RepositoryVersionToken> deletePartitions(List<String> ids);
+
+  @NotNull
+  CompletableFuture<RepositoryVersionToken> storeChunk(
+      @NotNull List<SerializedClassifierInstance> nodes);
+
+  @NotNull
+  default CompletableFuture<RepositoryVersionToken> storeChunk(@NotNull SerializationChunk chunk) {
+    Objects.requireNonNull(chunk, "chunk should not be null");
+    return storeChunk(chunk.getClassifierInstances());
+  }
+
+  @NotNull
+  CompletableFuture<List<SerializedClassifierInstance>> retrieveAsChunk(
+      @NotNull List<String> nodeIds, int limit);
+
+  @NotNull
+  default CompletableFuture<List<SerializedClassifierInstance>> retrieveAsChunk(
+      @NotNull List<String> nodeIds) {
+    return retrieveAsChunk(nodeIds, Integer.MAX_VALUE);
+  }
+}
@@ -0,0 +1,107 @@
+package io.lionweb.client.impl;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.AsyncBulkAPIClient;
+import io.lionweb.client.api.RepositoryVersionToken;
+import io.lionweb.model.Node;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of {@link AsyncBulkAPIClient}. Requests are built, and responses are handled,
+ * exactly as in {@link ClientForBulkAPIs}, but calls are enqueued instead of being executed.
+ */
+public class AsyncClientForBulkAPIs extends LionWebClientImplHelper implements AsyncBulkAPIClient {
+
+  private final ClientForBulkAPIs bulkAPIs;
+  private final ClientForJSONLevelBulkAPIs jsonLevelBulkAPIs;
+
+  public AsyncClientForBulkAPIs(ClientConfiguration clientConfiguration) {
+    super(clientConfiguration);
+    bulkAPIs = new ClientForBulkAPIs(clientConfiguration);
+    jsonLevelBulkAPIs = bulkAPIs.getJsonLevelClient();
+  }
+
+  @NotNull
+  @Override
+  public LionWebVersion getLionWebVersion() {
+    return bulkAPIs.getLionWebVersion();
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<RepositoryVersionToken> createPartitions(List<Node> partitions) {
+    if (jsonLevelBulkAPIs.sendingProtoBuf()) {
+      return jsonLevelBulkAPIs.createPartitionsUsingProtoBufAsync(
+          bulkAPIs.serializeTreesToChunk(partitions));
+    }
+    return performCallAsync(
+        jsonLevelBulkAPIs.createPartitionsRequest(bulkAPIs.serializeTrees(partitions)),
+        (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<RepositoryVersionToken> deletePartitions(List<String> ids) {
+    return performCallAsync(
+        bulkAPIs.deletePartitionsRequest(ids),
+        (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<List<Node>> listPartitions() {
+    return performStreamingCallAsync(
+        bulkAPIs.listPartitionsRequest(), bulkAPIs::partitionsFromResponse);
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<List<String>> listPartitionsIDs() {
+    return performStreamingCallAsync(
+        bulkAPIs.listPartitionsRequest(), bulkAPIs::partitionsIDsFromResponse);
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<List<String>> ids(int count) {
+    Request request = bulkAPIs.idsRequest(count);
+    if (request == null) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+    return performCallAsync(request, bulkAPIs::idsFromResponse);
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<RepositoryVersionToken> store(List<Node> nodes) {
+    if (nodes.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    if (jsonLevelBulkAPIs.sendingProtoBuf()) {
+      return jsonLevelBulkAPIs.storeUsingProtoBufAsync(bulkAPIs.serializeTreesToChunk(nodes));
+    }
+    Request request;
+    try {
+      request = jsonLevelBulkAPIs.storeRequest(bulkAPIs.serializeTrees(nodes));
+    } catch (IOException e) {
+      return failedFuture(e);
+    }
+    return performCallAsync(request, jsonLevelBulkAPIs::repoVersionFromStoreResponse);
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<List<Node>> retrieve(List<String> nodeIds, int limit) {
+    if (nodeIds.isEmpty()) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+    return performStreamingCallAsync(
+        jsonLevelBulkAPIs.retrieveRequest(nodeIds, limit, jsonLevelBulkAPIs.acceptingProtoBuf()),
+        bulkAPIs::retrievedRootsFromResponse);
+  }
+}
@@ -0,0 +1,99 @@
+package io.lionweb.client.impl;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.AsyncChunkLevelBulkAPIClient;
+import io.lionweb.client.api.RepositoryVersionToken;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of {@link AsyncChunkLevelBulkAPIClient}. Requests are built, and responses are
+ * handled, exactly as in {@link ClientForChunkLevelBulkAPIs}, but calls are enqueued instead of
+ * being executed.
+ */
+public class AsyncClientForChunkLevelBulkAPIs extends LionWebClientImplHelper
+    implements AsyncChunkLevelBulkAPIClient {
+
+  private final ClientForChunkLevelBulkAPIs chunkLevelBulkAPIs;
+  private final ClientForJSONLevelBulkAPIs jsonLevelBulkAPIs;
+
+  public AsyncClientForChunkLevelBulkAPIs(ClientConfiguration clientConfiguration) {
+    super(clientConfiguration);
+    chunkLevelBulkAPIs = new ClientForChunkLevelBulkAPIs(clientConfiguration);
+    jsonLevelBulkAPIs = chunkLevelBulkAPIs.getJsonLevelClient();
+  }
+
+  @NotNull
+  @Override
+  public LionWebVersion getLionWebVersion() {
+    return chunkLevelBulkAPIs.getLionWebVersion();
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<List<String>> ids(int count) {
+    Request request = chunkLevelBulkAPIs.idsRequest(count);
+    if (request == null) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+    return performCallAsync(request, chunkLevelBulkAPIs::idsFromResponse);
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<List<String>> listPartitionsIDs() {
+    return performStreamingCallAsync(
+        chunkLevelBulkAPIs.listPartitionsRequest(), chunkLevelBulkAPIs::partitionsIDsFromResponse);
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<RepositoryVersionToken> createPartitionsFromChunk(
+      @NotNull List<SerializedClassifierInstance> data) {
+    if (jsonLevelBulkAPIs.sendingProtoBuf()) {
+      return jsonLevelBulkAPIs.createPartitionsUsingProtoBufAsync(
+          chunkLevelBulkAPIs.toChunk(data));
+    }
+    return performCallAsync(
+        jsonLevelBulkAPIs.createPartitionsRequest(chunkLevelBulkAPIs.serializeChunk(data)),
+        (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<RepositoryVersionToken> deletePartitions(List<String> ids) {
+    return performCallAsync(
+        chunkLevelBulkAPIs.deletePartitionsRequest(ids),
+        (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<RepositoryVersionToken> storeChunk(
+      @NotNull List<SerializedClassifierInstance> nodes) {
+    if (jsonLevelBulkAPIs.sendingProtoBuf()) {
+      return jsonLevelBulkAPIs.storeUsingProtoBufAsync(chunkLevelBulkAPIs.toChunk(nodes));
+    }
+    Request request;
+    try {
+      request = jsonLevelBulkAPIs.storeRequest(chunkLevelBulkAPIs.serializeChunk(nodes));
+    } catch (IOException e) {
+      return failedFuture(e);
+    }
+    return performCallAsync(request, jsonLevelBulkAPIs::repoVersionFromStoreResponse);
+  }
+
+  @NotNull
+  @Override
+  public CompletableFuture<List<SerializedClassifierInstance>> retrieveAsChunk(
+      @NotNull List<String> nodeIds, int limit) {
+    return performStreamingCallAsync(
+        jsonLevelBulkAPIs.retrieveRequest(nodeIds, limit, jsonLevelBulkAPIs.acceptingProtoBuf()),
+        chunkLevelBulkAPIs::retrievedInstancesFromResponse);
+  }
+}
@@ -1,20 +1,28 @@
 package io.lionweb.client.impl;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import io.lionweb.client.RequestFailureException;
 import io.lionweb.client.api.RepositoryVersionToken;
 import io.lionweb.serialization.LowLevelJsonSerialization;
+import io.lionweb.serialization.SerializationProvider;
 import io.lionweb.serialization.data.SerializationChunk;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 import okhttp3.Request;
 import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSource;
 import org.jetbrains.annotations.Nullable;
 
 abstract class BulkAPIsLionWebClientImplHelper extends LionWebClientImplHelper {
@@ -24,57 +32,65 @@ abstract class BulkAPIsLionWebClientImplHelper extends LionWebClientImplHelper {
   }
 
   public List<String> ids(int count) throws IOException {
+    Request request = idsRequest(count);
+    if (request == null) {
+      return Collections.emptyList();
+    }
+    return performCall(request, this::idsFromResponse);
+  }
+
+  List<String> listPartitionsIDs() throws IOException {
+    return performStreamingCall(listPartitionsRequest(), this::partitionsIDsFromResponse);
+  }
+
+  @Nullable
+  RepositoryVersionToken deletePartitions(List<String> ids) throws IOException {
+    return performCall(
+        deletePartitionsRequest(ids),
+        (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  }
+
+  //
+  // Requests and responses, shared by the blocking and the asynchronous clients
+  //
+
+  /** Return null when no IDs are requested, as there is no need to contact the server. */
+  @Nullable
+  Request idsRequest(int count) {
     if (count < 0) {
       throw new IllegalArgumentException("Count should be greater or equal to zero");
     }
     if (count == 0) {
-      return Collections.emptyList();
+      return null;
     }
     Map<String, String> params = new HashMap<>();
     params.put("count", Integer.toString(count));
     Request.Builder rq = buildRequest("/bulk/ids", true, true, true, params);
-    Request request = rq.post(RequestBody.create(new byte[0])).build();
-    return performCall(
-        request,
-        (response, responseBody) -> {
-          JsonObject responseData = JsonParser.parseString(responseBody).getAsJsonObject();
-          boolean success = responseData.get("success").getAsBoolean();
-          if (!success) {
-            throw new RequestFailureException(
-                request.url().toString(), response.code(), responseBody);
-          }
-          return responseData.get("ids").getAsJsonArray().asList().stream()
-              .map(je -> je.getAsString())
-              .collect(Collectors.toList());
-        });
+    return rq.post(RequestBody.create(new byte[0])).build();
   }
 
-  List<String> listPartitionsIDs() throws IOException {
+  List<String> idsFromResponse(Response response, String responseBody) {
+    JsonObject responseData = successfulResponseData(response, responseBody);
+    return responseData.get("ids").getAsJsonArray().asList().stream()
+        .map(je -> je.getAsString())
+        .collect(Collectors.toList());
+  }
+
+  Request listPartitionsRequest() {
     Request.Builder rq = buildRequest("/bulk/listPartitions");
-    Request request =
-        rq.addHeader("Accept-Encoding", "gzip").post(RequestBody.create(new byte[0], null)).build();
+    return acceptGZipCompressedResponse(rq).post(RequestBody.create(new byte[0], null)).build();
+  }
 
-    return performCall(
-        request,
-        (response, responseBody) -> {
-          JsonObject responseData = JsonParser.parseString(responseBody).getAsJsonObject();
-          boolean success = responseData.get("success").getAsBoolean();
-          if (!success) {
-            throw new RequestFailureException(
-                request.url().toString(), response.code(), responseBody);
-          }
-          SerializationChunk serializationBlock =
-              new LowLevelJsonSerialization()
-                  .deserializeSerializationBlock(responseData.get("chunk"));
-          return serializationBlock.getClassifierInstances().stream()
-              .filter(n -> n.getParentNodeID() == null)
-              .map(n -> n.getID())
-              .collect(Collectors.toList());
-        });
+  List<String> partitionsIDsFromResponse(Response response, BufferedSource body)
+      throws IOException {
+    SerializationChunk serializationBlock = chunkFromResponse(response, body);
+    return serializationBlock.getClassifierInstances().stream()
+        .filter(n -> n.getParentNodeID() == null)
+        .map(n -> n.getID())
+        .collect(Collectors.toList());
   }
 
-  @Nullable
-  RepositoryVersionToken deletePartitions(List<String> ids) throws IOException {
+  Request deletePartitionsRequest(List<String> ids) {
     JsonArray ja = new JsonArray();
     for (String id : ids) {
       ja.add(id);
@@ -84,9 +100,85 @@ abstract class BulkAPIsLionWebClientImplHelper extends LionWebClientImplHelper {
     RequestBody body = RequestBody.create(bodyJson, JSON);
 
     Request.Builder rq = buildRequest("/bulk/deletePartitions");
-    Request request = rq.post(body).build();
+    return rq.post(body).build();
+  }
 
-    return performCall(
-        request, (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  /**
+   * Parse the body of the response, failing if the server did not report the operation as
+   * successful.
+   */
+  JsonObject successfulResponseData(Response response, String responseBody) {
+    JsonObject responseData = JsonParser.parseString(responseBody).getAsJsonObject();
+    boolean success = responseData.get("success").getAsBoolean();
+    if (!success) {
+      throw new RequestFailureException(
+          response.request().url().toString(), response.code(), responseBody);
+    }
+    return responseData;
+  }
+
+  /**
+   * Read the chunk contained in the response, as it is received, failing if the server did not
+   * report the operation as successful. When the server answered with a PBChunk, as it can do when
+   * it was asked for one, the body consists of the chunk alone, and the success of the operation
+   * is implied by the status code of the response.
+   */
+  SerializationChunk chunkFromResponse(Response response, BufferedSource body) throws IOException {
+    if (isProtoBuf(response)) {
+      return SerializationProvider.getStandardProtoBufSerialization(
+              conf.getJsonSerialization().getLionWebVersion())
+          .deserializeToChunk(body.inputStream());
+    }
+    LowLevelJsonSerialization serialization = new LowLevelJsonSerialization();
+    return readChunkFromResponse(response, body, serialization::deserializeSerializationBlock);
+  }
+
+  private static boolean isProtoBuf(Response response) {
+    String contentType = response.header("Content-Type");
+    return contentType != null
+        && contentType.toLowerCase(Locale.ROOT).startsWith(PROTOBUF.toString());
+  }
+
+  interface ChunkReader<C> {
+    C read(JsonReader reader) throws IOException;
+  }
+
+  /**
+   * Read the response token by token, using the given ChunkReader to read the chunk. This way the
+   * response is never kept in memory as a whole, neither as a String nor as a tree of
+   * JsonElements.
+   */
+  <C> C readChunkFromResponse(Response response, BufferedSource body, ChunkReader<C> chunkReader)
+      throws IOException {
+    JsonReader reader =
+        new JsonReader(new InputStreamReader(body.inputStream(), StandardCharsets.UTF_8));
+    boolean success = false;
+    C chunk = null;
+    JsonElement messages = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "success":
+          success = reader.nextBoolean();
+          break;
+        case "chunk":
+          chunk = chunkReader.read(reader);
+          break;
+        case "messages":
+          messages = JsonParser.parseReader(reader);
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (!success || chunk == null) {
+      JsonObject responseData = new JsonObject();
+      responseData.addProperty("success", success);
+      responseData.add("messages", messages);
+      throw new RequestFailureException(
+          response.request().url().toString(), response.code(), gson.toJson(responseData));
+    }
+    return chunk;
   }
 }
@@ -1,6 +1,8 @@
 package io.lionweb.client.impl;
 
+import io.lionweb.client.ConnectionSettings;
 import io.lionweb.client.Protocol;
+import io.lionweb.client.TransferFormat;
 import io.lionweb.serialization.JsonSerialization;
 import okhttp3.OkHttpClient;
 
@@ -13,6 +15,8 @@ public class ClientConfiguration {
   private final String authorizationToken;
   private final OkHttpClient httpClient;
   private final JsonSerialization jsonSerialization;
+  private final ConnectionSettings connectionSettings;
+  private final TransferFormat transferFormat;
 
   public ClientConfiguration(
       Protocol protocol,
@@ -23,6 +27,59 @@ public class ClientConfiguration {
       String repository,
       OkHttpClient httpClient,
       JsonSerialization jsonSerialization) {
+    this(
+        protocol,
+        hostname,
+        port,
+        authorizationToken,
+        clientID,
+        repository,
+        httpClient,
+        jsonSerialization,
+        ConnectionSettings.DEFAULT);
+  }
+
+  /**
+   * @param connectionSettings the settings used to build the httpClient, which also affect how
+   *     requests are built
+   */
+  public ClientConfiguration(
+      Protocol protocol,
+      String hostname,
+      int port,
+      String authorizationToken,
+      String clientID,
+      String repository,
+      OkHttpClient httpClient,
+      JsonSerialization jsonSerialization,
+      ConnectionSettings connectionSettings) {
+    this(
+        protocol,
+        hostname,
+        port,
+        authorizationToken,
+        clientID,
+        repository,
+        httpClient,
+        jsonSerialization,
+        connectionSettings,
+        TransferFormat.JSON);
+  }
+
+  /**
+   * @param transferFormat the format used to store and retrieve nodes through the Bulk APIs
+   */
+  public ClientConfiguration(
+      Protocol protocol,
+      String hostname,
+      int port,
+      String authorizationToken,
+      String clientID,
+      String repository,
+      OkHttpClient httpClient,
+      JsonSerialization jsonSerialization,
+      ConnectionSettings connectionSettings,
+      TransferFormat transferFormat) {
     this.protocol = protocol;
     this.hostname = hostname;
     this.port = port;
@@ -31,6 +88,8 @@ public class ClientConfiguration {
     this.authorizationToken = authorizationToken;
     this.httpClient = httpClient;
     this.jsonSerialization = jsonSerialization;
+    this.connectionSettings = connectionSettings;
+    this.transferFormat = transferFormat;
   }
 
   public Protocol getProtocol() {
@@ -64,4 +123,12 @@ public class ClientConfiguration {
   public JsonSerialization getJsonSerialization() {
     return jsonSerialization;
   }
+
+  public ConnectionSettings getConnectionSettings() {
+    return connectionSettings;
+  }
+
+  public TransferFormat getTransferFormat() {
+    return transferFormat;
+  }
 }
@@ -1,27 +1,23 @@
 package io.lionweb.client.impl;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import io.lionweb.LionWebVersion;
-import io.lionweb.client.RequestFailureException;
 import io.lionweb.client.api.BulkAPIClient;
-import io.lionweb.client.api.JSONLevelBulkAPIClient;
 import io.lionweb.client.api.RepositoryVersionToken;
 import io.lionweb.model.ClassifierInstance;
 import io.lionweb.model.Node;
 import io.lionweb.model.impl.ProxyNode;
-import io.lionweb.utils.CommonChecks;
+import io.lionweb.serialization.data.SerializationChunk;
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
-import okhttp3.Request;
-import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class ClientForBulkAPIs extends BulkAPIsLionWebClientImplHelper implements BulkAPIClient {
 
-  private final JSONLevelBulkAPIClient jsonLevelClient;
+  private final ClientForJSONLevelBulkAPIs jsonLevelClient;
 
   public ClientForBulkAPIs(ClientConfiguration clientConfiguration) {
     super(clientConfiguration);
@@ -37,9 +33,10 @@ public class ClientForBulkAPIs extends BulkAPIsLionWebClientImplHelper implement
   @Override
   public @Nullable RepositoryVersionToken createPartitions(List<Node> partitions)
       throws IOException {
-    return jsonLevelClient.rawCreatePartitions(
-        conf.getJsonSerialization()
-            .serializeTreesToJsonString(partitions.toArray(new ClassifierInstance[0])));
+    if (jsonLevelClient.sendingProtoBuf()) {
+      return jsonLevelClient.createPartitionsUsingProtoBuf(serializeTreesToChunk(partitions));
+    }
+    return jsonLevelClient.rawCreatePartitions(serializeTrees(partitions));
   }
 
   @Override
@@ -54,21 +51,7 @@ public class ClientForBulkAPIs extends BulkAPIsLionWebClientImplHelper implement
 
   @Override
   public List<Node> listPartitions() throws IOException {
-    Request.Builder rq = buildRequest("/bulk/listPartitions");
-    Request request =
-        rq.addHeader("Accept-Encoding", "gzip").post(RequestBody.create(new byte[0], null)).build();
-
-    return performCall(
-        request,
-        (response, responseBody) -> {
-          JsonObject responseData = JsonParser.parseString(responseBody).getAsJsonObject();
-          boolean success = responseData.get("success").getAsBoolean();
-          if (!success) {
-            throw new RequestFailureException(
-                request.url().toString(), response.code(), responseBody);
-          }
-          return conf.getJsonSerialization().deserializeToNodes(responseData.get("chunk"));
-        });
+    return performStreamingCall(listPartitionsRequest(), this::partitionsFromResponse);
   }
 
   @Override
@@ -76,10 +59,10 @@ public class ClientForBulkAPIs extends BulkAPIsLionWebClientImplHelper implement
     if (nodes.isEmpty()) {
       return null;
     }
-    String json =
-        conf.getJsonSerialization()
-            .serializeTreesToJsonString(nodes.toArray(new ClassifierInstance<?>[0]));
-    return jsonLevelClient.rawStore(json);
+    if (jsonLevelClient.sendingProtoBuf()) {
+      return jsonLevelClient.storeUsingProtoBuf(serializeTreesToChunk(nodes));
+    }
+    return jsonLevelClient.rawStore(serializeTrees(nodes));
   }
 
   @Override
@@ -87,46 +70,48 @@ public class ClientForBulkAPIs extends BulkAPIsLionWebClientImplHelper implement
     if (nodeIds.isEmpty()) {
       return Collections.emptyList();
     }
-    List<String> invalidIDs =
-        nodeIds.stream().filter(id -> !CommonChecks.isValidID(id)).collect(Collectors.toList());
-    if (!invalidIDs.isEmpty()) {
-      throw new IllegalArgumentException("IDs must all be valid. Invalid IDs found: " + invalidIDs);
-    }
+    return performStreamingCall(
+        jsonLevelClient.retrieveRequest(nodeIds, limit, jsonLevelClient.acceptingProtoBuf()),
+        this::retrievedRootsFromResponse);
+  }
+
+  //
+  // Requests and responses, shared by the blocking and the asynchronous clients
+  //
+
+  ClientForJSONLevelBulkAPIs getJsonLevelClient() {
+    return jsonLevelClient;
+  }
 
-    String bodyJson =
-        "{\"ids\":["
-            + String.join(", ", nodeIds.stream().map(id -> "\"" + id + "\"").toArray(String[]::new))
-            + "]}";
-    Map<String, String> params = new HashMap<>();
-    params.put("depthLimit", String.valueOf(limit));
-    Request.Builder rq = buildRequest("/bulk/retrieve", true, true, true, params);
-    Request request = rq.post(RequestBody.create(bodyJson, JSON)).build();
-
-    return performCall(
-        request,
-        (response, responseBody) -> {
-          JsonObject responseData = JsonParser.parseString(responseBody).getAsJsonObject();
-          boolean success = responseData.get("success").getAsBoolean();
-          if (!success) {
-            throw new RequestFailureException(
-                request.url().toString(), response.code(), responseBody);
-          }
-          List<Node> allNodes =
-              conf.getJsonSerialization().deserializeToNodes(responseData.get("chunk"));
-          Set<String> idsReturned =
-              allNodes.stream()
-                  .filter(n -> !(n instanceof ProxyNode))
-                  .map(n -> n.getID())
-                  .collect(Collectors.toSet());
-          // We want to return only the roots of the trees returned. From those, the other nodes can
-          // be accessed
-          return allNodes.stream()
-              .filter(
-                  n ->
-                      !(n instanceof ProxyNode)
-                          && (n.getParent() == null
-                              || !idsReturned.contains(n.getParent().getID())))
-              .collect(Collectors.toList());
-        });
+  String serializeTrees(List<Node> nodes) {
+    return conf.getJsonSerialization()
+        .serializeTreesToJsonString(nodes.toArray(new ClassifierInstance<?>[0]));
+  }
+
+  SerializationChunk serializeTreesToChunk(List<Node> nodes) {
+    return conf.getJsonSerialization().serializeTreesToSerializationChunk(nodes);
+  }
+
+  List<Node> partitionsFromResponse(Response response, BufferedSource body) throws IOException {
+    return conf.getJsonSerialization().deserializeToNodes(chunkFromResponse(response, body));
+  }
+
+  List<Node> retrievedRootsFromResponse(Response response, BufferedSource body)
+      throws IOException {
+    List<Node> allNodes =
+        conf.getJsonSerialization().deserializeToNodes(chunkFromResponse(response, body));
+    Set<String> idsReturned =
+        allNodes.stream()
+            .filter(n -> !(n instanceof ProxyNode))
+            .map(n -> n.getID())
+            .collect(Collectors.toSet());
+    // We want to return only the roots of the trees returned. From those, the other nodes can
+    // be accessed
+    return allNodes.stream()
+        .filter(
+            n ->
+                !(n instanceof ProxyNode)
+                    && (n.getParent() == null || !idsReturned.contains(n.getParent().getID())))
+        .collect(Collectors.toList());
   }
 }
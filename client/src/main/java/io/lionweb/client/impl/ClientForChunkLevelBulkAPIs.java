@@ -2,22 +2,22 @@ package io.lionweb.client.impl;
 
 import io.lionweb.LionWebVersion;
 import io.lionweb.client.api.ChunkLevelBulkAPIClient;
-import io.lionweb.client.api.JSONLevelBulkAPIClient;
 import io.lionweb.client.api.RepositoryVersionToken;
 import io.lionweb.serialization.JsonSerialization;
-import io.lionweb.serialization.LowLevelJsonSerialization;
 import io.lionweb.serialization.SerializationProvider;
 import io.lionweb.serialization.data.SerializationChunk;
 import io.lionweb.serialization.data.SerializedClassifierInstance;
 import java.io.IOException;
 import java.util.List;
+import okhttp3.Response;
+import okio.BufferedSource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class ClientForChunkLevelBulkAPIs extends BulkAPIsLionWebClientImplHelper
     implements ChunkLevelBulkAPIClient {
 
-  private final JSONLevelBulkAPIClient jsonLevelClient;
+  private final ClientForJSONLevelBulkAPIs jsonLevelClient;
 
   public ClientForChunkLevelBulkAPIs(ClientConfiguration clientConfiguration) {
     super(clientConfiguration);
@@ -40,12 +40,10 @@ public class ClientForChunkLevelBulkAPIs extends BulkAPIsLionWebClientImplHelper
   @Override
   public RepositoryVersionToken createPartitionsFromChunk(
       @NotNull List<SerializedClassifierInstance> data) throws IOException {
-    JsonSerialization serialization =
-        SerializationProvider.getStandardJsonSerialization(getLionWebVersion());
-    String json =
-        serialization.serializeToJsonString(
-            SerializationChunk.fromNodes(getLionWebVersion(), data));
-    return jsonLevelClient.rawCreatePartitions(json);
+    if (jsonLevelClient.sendingProtoBuf()) {
+      return jsonLevelClient.createPartitionsUsingProtoBuf(toChunk(data));
+    }
+    return jsonLevelClient.rawCreatePartitions(serializeChunk(data));
   }
 
   @Nullable
@@ -58,31 +56,48 @@ public class ClientForChunkLevelBulkAPIs extends BulkAPIsLionWebClientImplHelper
   @Override
   public RepositoryVersionToken storeChunk(@NotNull List<SerializedClassifierInstance> nodes)
       throws IOException {
-    JsonSerialization serialization =
-        SerializationProvider.getStandardJsonSerialization(getLionWebVersion());
-    String json =
-        serialization.serializeToJsonString(
-            SerializationChunk.fromNodes(getLionWebVersion(), nodes));
-    return jsonLevelClient.rawStore(json);
+    if (jsonLevelClient.sendingProtoBuf()) {
+      return jsonLevelClient.storeUsingProtoBuf(toChunk(nodes));
+    }
+    return jsonLevelClient.rawStore(serializeChunk(nodes));
   }
 
   @NotNull
   @Override
   public List<SerializedClassifierInstance> retrieveAsChunk(
       @Nullable List<String> nodeIds, int limit) throws IOException {
-    String json = jsonLevelClient.rawRetrieve(nodeIds, limit);
-    return new LowLevelJsonSerialization()
-        .deserializeSerializationBlock(json)
-        .getClassifierInstances();
+    return performStreamingCall(
+        jsonLevelClient.retrieveRequest(nodeIds, limit, jsonLevelClient.acceptingProtoBuf()),
+        this::retrievedInstancesFromResponse);
   }
 
   @NotNull
   @Override
   public List<SerializedClassifierInstance> retrieveAsChunk(@Nullable List<String> nodeIds)
       throws IOException {
-    String json = jsonLevelClient.rawRetrieve(nodeIds);
-    return new LowLevelJsonSerialization()
-        .deserializeSerializationBlock(json)
-        .getClassifierInstances();
+    return retrieveAsChunk(nodeIds, Integer.MAX_VALUE);
+  }
+
+  //
+  // Requests and responses, shared by the blocking and the asynchronous clients
+  //
+
+  ClientForJSONLevelBulkAPIs getJsonLevelClient() {
+    return jsonLevelClient;
+  }
+
+  String serializeChunk(List<SerializedClassifierInstance> nodes) {
+    JsonSerialization serialization =
+        SerializationProvider.getStandardJsonSerialization(getLionWebVersion());
+    return serialization.serializeToJsonString(toChunk(nodes));
+  }
+
+  SerializationChunk toChunk(List<SerializedClassifierInstance> nodes) {
+    return SerializationChunk.fromNodes(getLionWebVersion(), nodes);
+  }
+
+  List<SerializedClassifierInstance> retrievedInstancesFromResponse(
+      Response response, BufferedSource body) throws IOException {
+    return chunkFromResponse(response, body).getClassifierInstances();
   }
 }
@@ -27,7 +27,7 @@ public class ClientForHistoryAPIs extends LionWebClientImplHelper implements His
     params.put("repoVersion", repoVersion.getToken());
     Request.Builder rq = buildRequest("/history/listPartitions", true, true, true, params);
     Request request =
-        rq.addHeader("Accept-Encoding", "gzip").post(RequestBody.create(new byte[0], null)).build();
+        acceptGZipCompressedResponse(rq).post(RequestBody.create(new byte[0], null)).build();
 
     return performCall(
         request,
@@ -1,18 +1,26 @@
 package io.lionweb.client.impl;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.lionweb.LionWebVersion;
 import io.lionweb.client.CompressionSupport;
 import io.lionweb.client.RequestFailureException;
+import io.lionweb.client.TransferFormat;
 import io.lionweb.client.api.JSONLevelBulkAPIClient;
 import io.lionweb.client.api.RepositoryVersionToken;
+import io.lionweb.protobuf.PBChunk;
+import io.lionweb.serialization.LowLevelJsonSerialization;
+import io.lionweb.serialization.ProtoBufSerialization;
+import io.lionweb.serialization.SerializationProvider;
+import io.lionweb.serialization.data.SerializationChunk;
 import io.lionweb.utils.CommonChecks;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import okhttp3.MediaType;
 import okhttp3.Request;
@@ -20,6 +28,7 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 import okio.Buffer;
 import okio.BufferedSink;
+import okio.BufferedSource;
 import okio.GzipSink;
 import okio.Okio;
 import org.jetbrains.annotations.NotNull;
@@ -28,6 +37,19 @@ import org.jetbrains.annotations.Nullable;
 public class ClientForJSONLevelBulkAPIs extends BulkAPIsLionWebClientImplHelper
     implements JSONLevelBulkAPIClient {
 
+  /**
+   * Whether the server accepts nodes sent as a PBChunk. We find it out the first time we send nodes
+   * in that format.
+   */
+  private enum ProtoBufSupport {
+    UNKNOWN,
+    ACCEPTED,
+    REJECTED
+  }
+
+  private volatile ProtoBufSupport protoBufSupport = ProtoBufSupport.UNKNOWN;
+  private @Nullable ProtoBufSerialization protoBufSerialization;
+
   public ClientForJSONLevelBulkAPIs(ClientConfiguration clientConfiguration) {
     super(clientConfiguration);
   }
@@ -59,25 +81,47 @@ public class ClientForJSONLevelBulkAPIs extends BulkAPIsLionWebClientImplHelper
   @Nullable
   @Override
   public RepositoryVersionToken rawStore(@NotNull String json) throws IOException {
-    Request.Builder rq = buildRequest("/bulk/store");
-    rq = addGZipCompressionHeader(rq);
-    RequestBody uncompressedBody = RequestBody.create(json, JSON);
-    Request request = rq.post(gzipCompress(uncompressedBody)).build();
-    return performCall(
-        request,
-        (response, responseBody) -> {
-          JsonObject responseData = JsonParser.parseString(responseBody).getAsJsonObject();
-          boolean success = responseData.get("success").getAsBoolean();
-          if (!success) {
-            throw new RequestFailureException(
-                request.url().toString(), response.code(), responseBody);
-          }
-          return getRepoVersionFromResponse(responseBody);
-        });
+    return performCall(storeRequest(json), this::repoVersionFromStoreResponse);
   }
 
   @Override
   public String rawRetrieve(@NotNull List<String> nodeIds, int limit) throws IOException {
+    return performStreamingCall(retrieveRequest(nodeIds, limit), this::chunkJsonFromResponse);
+  }
+
+  //
+  // Requests and responses, shared by the blocking and the asynchronous clients
+  //
+
+  Request storeRequest(@NotNull String json) throws IOException {
+    Request.Builder rq = buildRequest("/bulk/store");
+    RequestBody uncompressedBody = RequestBody.create(json, JSON);
+    if (!conf.getConnectionSettings().isRequestCompression()) {
+      return rq.post(uncompressedBody).build();
+    }
+    rq = addGZipCompressionHeader(rq);
+    return rq.post(gzipCompress(uncompressedBody)).build();
+  }
+
+  @Nullable
+  RepositoryVersionToken repoVersionFromStoreResponse(Response response, String responseBody) {
+    successfulResponseData(response, responseBody);
+    return getRepoVersionFromResponse(responseBody);
+  }
+
+  Request createPartitionsRequest(@NotNull String json) {
+    return nodesStoringRequest(json, "createPartitions");
+  }
+
+  Request retrieveRequest(@NotNull List<String> nodeIds, int limit) {
+    return retrieveRequest(nodeIds, limit, false);
+  }
+
+  /**
+   * @param acceptingProtoBuf whether the server should be asked to send the chunk as a PBChunk,
+   *     when it supports it
+   */
+  Request retrieveRequest(@NotNull List<String> nodeIds, int limit, boolean acceptingProtoBuf) {
     List<String> invalidIDs =
         nodeIds.stream().filter(id -> !CommonChecks.isValidID(id)).collect(Collectors.toList());
     if (!invalidIDs.isEmpty()) {
@@ -91,31 +135,266 @@ public class ClientForJSONLevelBulkAPIs extends BulkAPIsLionWebClientImplHelper
     Map<String, String> params = new HashMap<>();
     params.put("depthLimit", String.valueOf(limit));
     Request.Builder rq = buildRequest("/bulk/retrieve", true, true, true, params);
-    Request request = rq.post(RequestBody.create(bodyJson, JSON)).build();
-
-    return performCall(
-        request,
-        (response, responseBody) -> {
-          JsonObject responseData = JsonParser.parseString(responseBody).getAsJsonObject();
-          boolean success = responseData.get("success").getAsBoolean();
-          if (!success) {
-            throw new RequestFailureException(
-                request.url().toString(), response.code(), responseBody);
-          }
-          JsonElement chunkAsJson = responseData.get("chunk");
-          return gson.toJson(chunkAsJson);
+    if (acceptingProtoBuf) {
+      rq = rq.header("Accept", PROTOBUF + ", " + JSON + ";q=0.5");
+    }
+    return rq.post(RequestBody.create(bodyJson, JSON)).build();
+  }
+
+  /**
+   * Copy the chunk contained in the response token by token, so that the only copy of it we keep
+   * in memory is the String we return.
+   */
+  String chunkJsonFromResponse(Response response, BufferedSource body) throws IOException {
+    return readChunkFromResponse(
+        response,
+        body,
+        reader -> {
+          StringWriter stringWriter = new StringWriter();
+          JsonWriter writer = new JsonWriter(stringWriter);
+          writer.setSerializeNulls(true);
+          copyValue(reader, writer);
+          writer.flush();
+          return stringWriter.toString();
         });
   }
 
-  private @Nullable RepositoryVersionToken nodesStoringOperation(
-      final String json, final String operation) {
-    // Build the request
+  //
+  // ProtoBuf transfer format
+  //
+
+  /**
+   * Whether nodes should be stored sending them as a PBChunk: this is the case when it is the
+   * configured transfer format, unless the server turned out not to support it.
+   */
+  boolean sendingProtoBuf() {
+    return conf.getTransferFormat() == TransferFormat.PROTOBUF
+        && protoBufSupport != ProtoBufSupport.REJECTED;
+  }
+
+  /** Whether the chunks retrieved should be requested as PBChunks. */
+  boolean acceptingProtoBuf() {
+    return conf.getTransferFormat() == TransferFormat.PROTOBUF;
+  }
+
+  @Nullable
+  RepositoryVersionToken storeUsingProtoBuf(@NotNull SerializationChunk chunk) throws IOException {
+    return performProtoBufStoringCall(
+        protoBufNodesStoringRequest(chunk, "store"),
+        () -> storeRequest(new LowLevelJsonSerialization().serializeToJsonString(chunk)),
+        this::repoVersionFromStoreResponse);
+  }
+
+  @Nullable
+  RepositoryVersionToken createPartitionsUsingProtoBuf(@NotNull SerializationChunk chunk)
+      throws IOException {
+    return performProtoBufStoringCall(
+        protoBufNodesStoringRequest(chunk, "createPartitions"),
+        () ->
+            createPartitionsRequest(new LowLevelJsonSerialization().serializeToJsonString(chunk)),
+        (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  }
+
+  CompletableFuture<RepositoryVersionToken> storeUsingProtoBufAsync(
+      @NotNull SerializationChunk chunk) {
+    return performProtoBufStoringCallAsync(
+        protoBufNodesStoringRequest(chunk, "store"),
+        () -> storeRequest(new LowLevelJsonSerialization().serializeToJsonString(chunk)),
+        this::repoVersionFromStoreResponse);
+  }
+
+  CompletableFuture<RepositoryVersionToken> createPartitionsUsingProtoBufAsync(
+      @NotNull SerializationChunk chunk) {
+    return performProtoBufStoringCallAsync(
+        protoBufNodesStoringRequest(chunk, "createPartitions"),
+        () ->
+            createPartitionsRequest(new LowLevelJsonSerialization().serializeToJsonString(chunk)),
+        (response, responseBody) -> getRepoVersionFromResponse(responseBody));
+  }
+
+  private interface RequestSupplier {
+    Request get() throws IOException;
+  }
+
+  /**
+   * Send the request carrying a PBChunk. Until the server has accepted one, a response stating
+   * that the format is not supported makes us send the nodes again in JSON. If that succeeds, JSON
+   * is used for all the following requests. Otherwise, the failure of the request in JSON is
+   * reported. Any other failure is reported as it is, and it does not affect the format used for
+   * the following requests.
+   */
+  private <R> R performProtoBufStoringCall(
+      Request protoBufRequest, RequestSupplier jsonRequest, ResponseHandler<R> responseHandler)
+      throws IOException {
+    R result;
+    try {
+      result = performCall(protoBufRequest, responseHandler);
+    } catch (RequestFailureException e) {
+      if (protoBufSupport == ProtoBufSupport.ACCEPTED || !isProtoBufUnsupported(e)) {
+        throw e;
+      }
+      result = performCall(jsonRequest.get(), responseHandler);
+      protoBufSupport = ProtoBufSupport.REJECTED;
+      return result;
+    }
+    protoBufSupport = ProtoBufSupport.ACCEPTED;
+    return result;
+  }
+
+  private <R> CompletableFuture<R> performProtoBufStoringCallAsync(
+      Request protoBufRequest, RequestSupplier jsonRequest, ResponseHandler<R> responseHandler) {
+    CompletableFuture<R> result = new CompletableFuture<>();
+    performCallAsync(protoBufRequest, responseHandler)
+        .whenComplete(
+            (value, error) -> {
+              if (error == null) {
+                protoBufSupport = ProtoBufSupport.ACCEPTED;
+                result.complete(value);
+                return;
+              }
+              Throwable cause = unwrap(error);
+              if (protoBufSupport == ProtoBufSupport.ACCEPTED
+                  || !(cause instanceof RequestFailureException)
+                  || !isProtoBufUnsupported((RequestFailureException) cause)) {
+                result.completeExceptionally(cause);
+                return;
+              }
+              Request request;
+              try {
+                request = jsonRequest.get();
+              } catch (IOException e) {
+                result.completeExceptionally(e);
+                return;
+              }
+              performCallAsync(request, responseHandler)
+                  .whenComplete(
+                      (jsonValue, jsonError) -> {
+                        if (jsonError == null) {
+                          protoBufSupport = ProtoBufSupport.REJECTED;
+                          result.complete(jsonValue);
+                        } else {
+                          result.completeExceptionally(unwrap(jsonError));
+                        }
+                      });
+            });
+    return result;
+  }
+
+  /**
+   * Whether the server rejected the request because it does not support PBChunks: either it does
+   * not accept them (415 Unsupported Media Type), or it cannot answer to a request carrying them
+   * (406 Not Acceptable).
+   */
+  private static boolean isProtoBufUnsupported(RequestFailureException e) {
+    return e.getResponseCode() == 415 || e.getResponseCode() == 406;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+
+  /**
+   * The PBChunk is written directly to the connection, or to the compressing stream, without
+   * first producing an array of bytes.
+   */
+  private Request protoBufNodesStoringRequest(SerializationChunk chunk, String operation) {
+    PBChunk pbChunk = getProtoBufSerialization().serialize(chunk);
+    RequestBody body =
+        new RequestBody() {
+          @Override
+          public MediaType contentType() {
+            return PROTOBUF;
+          }
+
+          @Override
+          public long contentLength() {
+            return pbChunk.getSerializedSize();
+          }
+
+          @Override
+          public void writeTo(BufferedSink sink) throws IOException {
+            pbChunk.writeTo(sink.outputStream());
+          }
+        };
+    Request.Builder rq = buildRequest("/bulk/" + operation);
+    if (conf.getConnectionSettings().isRequestCompression()) {
+      rq = addGZipCompressionHeader(rq);
+      body = CompressionSupport.compress(body);
+    }
+    return rq.post(body).build();
+  }
+
+  private synchronized ProtoBufSerialization getProtoBufSerialization() {
+    if (protoBufSerialization == null) {
+      protoBufSerialization =
+          SerializationProvider.getStandardProtoBufSerialization(getLionWebVersion());
+    }
+    return protoBufSerialization;
+  }
+
+  private static void copyValue(JsonReader reader, JsonWriter writer) throws IOException {
+    int depth = 0;
+    do {
+      switch (reader.peek()) {
+        case BEGIN_OBJECT:
+          reader.beginObject();
+          writer.beginObject();
+          depth++;
+          break;
+        case END_OBJECT:
+          reader.endObject();
+          writer.endObject();
+          depth--;
+          break;
+        case BEGIN_ARRAY:
+          reader.beginArray();
+          writer.beginArray();
+          depth++;
+          break;
+        case END_ARRAY:
+          reader.endArray();
+          writer.endArray();
+          depth--;
+          break;
+        case NAME:
+          writer.name(reader.nextName());
+          break;
+        case STRING:
+          writer.value(reader.nextString());
+          break;
+        case NUMBER:
+          writer.jsonValue(reader.nextString());
+          break;
+        case BOOLEAN:
+          writer.value(reader.nextBoolean());
+          break;
+        case NULL:
+          reader.nextNull();
+          writer.nullValue();
+          break;
+        default:
+          throw new IllegalStateException("Unexpected token " + reader.peek());
+      }
+    } while (depth > 0);
+  }
+
+  private Request nodesStoringRequest(final String json, final String operation) {
     Request.Builder rb = buildRequest("/bulk/" + operation);
+    if (!conf.getConnectionSettings().isRequestCompression()) {
+      return rb.post(RequestBody.create(json, JSON)).build();
+    }
     rb = addGZipCompressionHeader(rb);
     RequestBody body =
         CompressionSupport.compress(
             json); // assuming CompressUtil.compress(String) handles JSON compression
-    Request request = rb.post(body).build();
+    return rb.post(body).build();
+  }
+
+  private @Nullable RepositoryVersionToken nodesStoringOperation(
+      final String json, final String operation) {
+    Request request = nodesStoringRequest(json, operation);
 
     String url = request.url().toString();
     try {
@@ -6,11 +6,17 @@ import io.lionweb.client.api.RepositoryVersionToken;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import okhttp3.*;
+import okio.BufferedSource;
+import okio.GzipSource;
+import okio.Okio;
 import org.jetbrains.annotations.Nullable;
 
 abstract class LionWebClientImplHelper {
   protected static final MediaType JSON = MediaType.get("application/json");
+  protected static final MediaType PROTOBUF = MediaType.get("application/protobuf");
 
   protected final ClientConfiguration conf;
   protected final Gson gson = new GsonBuilder().serializeNulls().create();
@@ -23,6 +29,14 @@ abstract class LionWebClientImplHelper {
     R handleResponse(Response response, String body);
   }
 
+  /**
+   * Handles the body of a response as it is received. This avoids keeping the whole body in
+   * memory, which matters for large responses, such as the ones of retrieve calls.
+   */
+  public interface StreamingResponseHandler<R> {
+    R handleResponse(Response response, BufferedSource body) throws IOException;
+  }
+
   protected HttpUrl.Builder buildURL(String api) {
     return buildURL(api, true, true);
   }
@@ -63,6 +77,10 @@ abstract class LionWebClientImplHelper {
         .entrySet()
         .forEach(entry -> urlBuilder.addQueryParameter(entry.getKey(), entry.getValue()));
     Request.Builder rq = new Request.Builder().url(urlBuilder.build());
+    if (!conf.getConnectionSettings().isResponseCompression()) {
+      // Otherwise OkHttp asks for gzip-compressed responses, and transparently decompresses them
+      rq.header("Accept-Encoding", "identity");
+    }
     if (considerAuthenticationToken) {
       rq = considerAuthenticationToken(rq);
     }
@@ -71,16 +89,87 @@ abstract class LionWebClientImplHelper {
 
   protected <R> R performCall(Request request, ResponseHandler<R> responseHandler)
       throws IOException {
+    return performStreamingCall(request, materializing(responseHandler));
+  }
+
+  /**
+   * Perform the call, passing the body of the response to the handler as it is received, without
+   * first reading it into memory. The body is closed once the handler returns.
+   */
+  protected <R> R performStreamingCall(
+      Request request, StreamingResponseHandler<R> responseHandler) throws IOException {
     try (Response response = conf.getHttpClient().newCall(request).execute()) {
-      String body = Objects.requireNonNull(response.body()).string();
-      if (response.code() == HttpURLConnection.HTTP_OK) {
-        return responseHandler.handleResponse(response, body);
-      } else {
-        throw new RequestFailureException(request.url().toString(), response.code(), body);
-      }
+      return handleResponse(request, response, responseHandler);
     }
   }
 
+  protected <R> CompletableFuture<R> performCallAsync(
+      Request request, ResponseHandler<R> responseHandler) {
+    return performStreamingCallAsync(request, materializing(responseHandler));
+  }
+
+  /**
+   * Enqueue the request, without blocking the calling thread. The response is handled on one of
+   * the threads of the {@link Dispatcher} of the HTTP client, which also caps the number of
+   * requests in flight: requests exceeding the cap wait in its queue. Cancelling the returned
+   * future cancels the call.
+   */
+  protected <R> CompletableFuture<R> performStreamingCallAsync(
+      Request request, StreamingResponseHandler<R> responseHandler) {
+    CompletableFuture<R> result = new CompletableFuture<>();
+    Call call = conf.getHttpClient().newCall(request);
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            result.completeExceptionally(e);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) {
+            try (Response r = response) {
+              result.complete(handleResponse(request, r, responseHandler));
+            } catch (Throwable t) {
+              result.completeExceptionally(t);
+            }
+          }
+        });
+    result.whenComplete(
+        (value, error) -> {
+          if (error instanceof CancellationException) {
+            call.cancel();
+          }
+        });
+    return result;
+  }
+
+  private <R> R handleResponse(
+      Request request, Response response, StreamingResponseHandler<R> responseHandler)
+      throws IOException {
+    ResponseBody body = Objects.requireNonNull(response.body());
+    if (response.code() != HttpURLConnection.HTTP_OK) {
+      throw new RequestFailureException(request.url().toString(), response.code(), body.string());
+    }
+    // OkHttp decompresses the body only when it negotiated the compression itself, not when the
+    // Accept-Encoding header has been set explicitly, as we do for some requests
+    BufferedSource source = body.source();
+    if ("gzip".equalsIgnoreCase(response.header("Content-Encoding"))) {
+      source = Okio.buffer(new GzipSource(source));
+    }
+    return responseHandler.handleResponse(response, source);
+  }
+
+  private static <R> StreamingResponseHandler<R> materializing(
+      ResponseHandler<R> responseHandler) {
+    return (response, body) -> responseHandler.handleResponse(response, body.readUtf8());
+  }
+
+  protected static <R> CompletableFuture<R> failedFuture(Throwable error) {
+    CompletableFuture<R> result = new CompletableFuture<>();
+    result.completeExceptionally(error);
+    return result;
+  }
+
   protected Request.Builder considerAuthenticationToken(Request.Builder builder) {
     return (conf.getAuthorizationToken() == null)
         ? builder
@@ -91,6 +180,13 @@ abstract class LionWebClientImplHelper {
     return builder.addHeader("Content-Encoding", "gzip");
   }
 
+  /** Explicitly ask for a gzip-compressed response, unless response compression is disabled. */
+  protected Request.Builder acceptGZipCompressedResponse(Request.Builder builder) {
+    return conf.getConnectionSettings().isResponseCompression()
+        ? builder.header("Accept-Encoding", "gzip")
+        : builder;
+  }
+
   protected @Nullable RepositoryVersionToken getRepoVersionFromResponse(String responseBody) {
     JsonArray data =
         JsonParser.parseString(responseBody).getAsJsonObject().get("messages").getAsJsonArray();
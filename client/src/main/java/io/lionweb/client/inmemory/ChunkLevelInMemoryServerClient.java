@@ -115,6 +115,23 @@ public class ChunkLevelInMemoryServerClient
     // Nothing to do
   }
 
+  //
+  // History methods
+  //
+
+  /** Lists the IDs of the partitions present at the given version of the repository. */
+  public @NotNull List<String> listPartitionsIDs(@NotNull RepositoryVersionToken repoVersion) {
+    requireRepository();
+    return inMemoryServer.listPartitionIDs(repositoryName, repoVersion);
+  }
+
+  /** Retrieves the nodes as they were at the given version of the repository. */
+  public @NotNull List<SerializedClassifierInstance> retrieveAsChunk(
+      @NotNull RepositoryVersionToken repoVersion, @NotNull List<String> nodeIds, int limit) {
+    requireRepository();
+    return inMemoryServer.retrieve(repositoryName, repoVersion, nodeIds, limit);
+  }
+
   //
   // InspectionAPIClient methods
   //
@@ -24,12 +24,17 @@ import io.lionweb.client.delta.messages.queries.partitcipations.SignOnResponse;
 import io.lionweb.model.ClassifierInstance;
 import io.lionweb.model.Node;
 import io.lionweb.serialization.AbstractSerialization;
-import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.ProtoBufSerialization;
+import io.lionweb.serialization.SerializationProvider;
 import io.lionweb.serialization.data.SerializationChunk;
 import io.lionweb.serialization.data.SerializedClassifierInstance;
 import io.lionweb.serialization.data.SerializedReferenceValue;
 import io.lionweb.utils.ValidationResult;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -43,13 +48,40 @@ import org.jetbrains.annotations.Nullable;
  * or binary formats.
  *
  * <p>Different clients can then still work with nodes or JSON or binary formats.
+ *
+ * <p>The server is thread-safe, so it can be used as a local stand-in for a server in load tests.
+ * Each repository has its own read/write lock: retrievals and inspections on the same repository
+ * run concurrently, while operations modifying it are executed one at a time. Operations on
+ * different repositories never block each other.
+ *
+ * <p>Repositories supporting history keep their most recent versions, which can be retrieved
+ * without blocking, or being blocked by, the operations modifying the repository.
  */
 public class InMemoryServer {
+  /** The number of versions kept for the repositories supporting history, unless specified. */
+  public static final int DEFAULT_RETAINED_VERSIONS = 100;
 
   /** Internally we store the data separately for each repository. */
-  private final Map<String, RepositoryData> repositories = new LinkedHashMap<>();
+  private final Map<String, RepositoryData> repositories = new ConcurrentHashMap<>();
 
-  private int nextParticipationId = 1;
+  private final AtomicInteger nextParticipationId = new AtomicInteger(1);
+
+  private final int retainedVersions;
+
+  public InMemoryServer() {
+    this(DEFAULT_RETAINED_VERSIONS);
+  }
+
+  /**
+   * Creates a server keeping the given number of versions for each repository supporting history.
+   * Older versions cannot be retrieved anymore.
+   */
+  public InMemoryServer(int retainedVersions) {
+    if (retainedVersions < 1) {
+      throw new IllegalArgumentException("At least one version should be retained");
+    }
+    this.retainedVersions = retainedVersions;
+  }
 
   public @NotNull RepositoryConfiguration getRepositoryConfiguration(
       @NotNull String repositoryName) {
@@ -61,7 +93,7 @@ public class InMemoryServer {
       throw new IllegalArgumentException("One can ask for zero or more ids");
     }
     RepositoryData repositoryData = getRepository(repositoryName);
-    return repositoryData.ids(count);
+    return repositoryData.writeLocked(() -> repositoryData.ids(count));
   }
 
   public @NotNull Set<RepositoryConfiguration> listRepositories() {
@@ -70,42 +102,41 @@ public class InMemoryServer {
 
   public void createRepository(@NotNull RepositoryConfiguration repositoryConfiguration) {
     Objects.requireNonNull(repositoryConfiguration);
-    if (repositoryConfiguration.getHistorySupport() == HistorySupport.ENABLED) {
-      throw new IllegalArgumentException(
-          "The InMemoryServer does not support History for the time being");
-    }
     repositories.put(
-        repositoryConfiguration.getName(), new RepositoryData(repositoryConfiguration));
+        repositoryConfiguration.getName(),
+        new RepositoryData(repositoryConfiguration, retainedVersions));
   }
 
   public void deleteRepository(@NotNull String repositoryName) {
     Objects.requireNonNull(repositoryName);
-    if (!repositories.containsKey(repositoryName)) {
+    if (repositories.remove(repositoryName) == null) {
       throw new IllegalArgumentException();
     }
-    repositories.remove(repositoryName);
   }
 
   public @NotNull List<String> listPartitionIDs(@NotNull String repositoryName) {
     Objects.requireNonNull(repositoryName, "RepositoryName should not be null");
     RepositoryData repositoryData = repositories.get(repositoryName);
-    return repositoryData.partitionIDs;
+    return repositoryData.readLocked(() -> new ArrayList<>(repositoryData.partitionIDs));
   }
 
   public @NotNull RepositoryVersionToken createPartitionFromChunk(
       @NotNull String repositoryName, @NotNull List<SerializedClassifierInstance> partitions) {
     Objects.requireNonNull(partitions);
     RepositoryData repositoryData = getRepository(repositoryName);
-    // We get all roots (i.e. -> partitions) which do not yet exist
-    // and add them to the list of partition IDs
-    repositoryData.partitionIDs.addAll(
-        partitions.stream()
-            .filter(n -> n.getParentNodeID() == null)
-            .map(SerializedClassifierInstance::getID)
-            .filter(id -> !repositoryData.partitionIDs.contains(id))
-            .collect(Collectors.toList()));
-    repositoryData.store(partitions);
-    return repositoryData.bumpVersion();
+    return repositoryData.writeLocked(
+        () -> {
+          // We get all roots (i.e. -> partitions) which do not yet exist
+          // and add them to the list of partition IDs
+          repositoryData.partitionIDs.addAll(
+              partitions.stream()
+                  .filter(n -> n.getParentNodeID() == null)
+                  .map(SerializedClassifierInstance::getID)
+                  .filter(id -> !repositoryData.partitionIDs.contains(id))
+                  .collect(Collectors.toList()));
+          repositoryData.store(partitions);
+          return repositoryData.bumpVersion();
+        });
   }
 
   public @NotNull RepositoryVersionToken createPartition(
@@ -128,18 +159,29 @@ public class InMemoryServer {
       @NotNull String repositoryName, @NotNull List<String> partitionIds) {
     Objects.requireNonNull(partitionIds);
     RepositoryData repositoryData = getRepository(repositoryName);
-    repositoryData.partitionIDs.removeIf(partitionIds::contains);
-    partitionIds.forEach(repositoryData::deleteNodeAndDescendant);
-    return repositoryData.bumpVersion();
+    return repositoryData.writeLocked(
+        () -> {
+          repositoryData.partitionIDs.removeIf(partitionIds::contains);
+          partitionIds.forEach(repositoryData::deleteNodeAndDescendant);
+          return repositoryData.bumpVersion();
+        });
   }
 
+  /**
+   * Retrieves the nodes as they currently are. The nodes returned are copies, taken while holding
+   * the lock, so they are not affected by later operations modifying the repository and they can
+   * be modified.
+   */
   public List<SerializedClassifierInstance> retrieve(
       @NotNull String repositoryName, List<String> nodeIds, int limit) {
     Objects.requireNonNull(repositoryName, "RepositoryName should not be null");
     RepositoryData repositoryData = repositories.get(repositoryName);
-    List<SerializedClassifierInstance> retrieved = new ArrayList<>();
-    nodeIds.forEach(n -> repositoryData.retrieve(n, limit, retrieved));
-    return retrieved;
+    return repositoryData.readLocked(
+        () -> {
+          List<SerializedClassifierInstance> retrieved = new ArrayList<>();
+          nodeIds.forEach(n -> repositoryData.retrieve(n, limit, retrieved));
+          return retrieved.stream().map(RepositoryHistory::copy).collect(Collectors.toList());
+        });
   }
 
   public @Nullable ClassifierInstance<?> retrieveAsClassifierInstance(
@@ -166,8 +208,92 @@ public class InMemoryServer {
       @NotNull String repositoryName, @NotNull List<SerializedClassifierInstance> nodes) {
     Objects.requireNonNull(repositoryName, "RepositoryName should not be null");
     RepositoryData repositoryData = repositories.get(repositoryName);
-    repositoryData.store(nodes);
-    return repositoryData.bumpVersion();
+    return repositoryData.writeLocked(
+        () -> {
+          repositoryData.store(nodes);
+          return repositoryData.bumpVersion();
+        });
+  }
+
+  //
+  // History
+  //
+
+  /**
+   * Lists the IDs of the partitions present at the given version.
+   *
+   * @throws IllegalStateException if the repository does not support history
+   * @throws IllegalArgumentException if the version does not exist or is no longer retained
+   */
+  public @NotNull List<String> listPartitionIDs(
+      @NotNull String repositoryName, @NotNull RepositoryVersionToken repoVersion) {
+    Objects.requireNonNull(repoVersion, "RepoVersion should not be null");
+    return getRepository(repositoryName)
+        .getHistory()
+        .partitionIDs(RepositoryData.versionOf(repoVersion));
+  }
+
+  /**
+   * Retrieves the nodes as they were at the given version. The nodes returned are copies, so they
+   * can be modified. This does not wait for, nor delay, the operations modifying the repository.
+   *
+   * @throws IllegalStateException if the repository does not support history
+   * @throws IllegalArgumentException if the version does not exist or is no longer retained
+   */
+  public @NotNull List<SerializedClassifierInstance> retrieve(
+      @NotNull String repositoryName,
+      @NotNull RepositoryVersionToken repoVersion,
+      @NotNull List<String> nodeIds,
+      int limit) {
+    Objects.requireNonNull(repoVersion, "RepoVersion should not be null");
+    Objects.requireNonNull(nodeIds, "NodeIds should not be null");
+    RepositoryData repositoryData = getRepository(repositoryName);
+    int version = RepositoryData.versionOf(repoVersion);
+    List<SerializedClassifierInstance> retrieved = new ArrayList<>();
+    nodeIds.forEach(n -> repositoryData.retrieve(version, n, limit, retrieved));
+    return retrieved.stream().map(RepositoryHistory::copy).collect(Collectors.toList());
+  }
+
+  //
+  // ProtoBuf
+  //
+
+  /**
+   * Stand-in for the store endpoint, when it receives the nodes as a PBChunk. It permits to test
+   * clients using the ProtoBuf transfer format. The stream is not closed.
+   */
+  public RepositoryVersionToken storeFromProtoBuf(
+      @NotNull String repositoryName, @NotNull InputStream pbChunk) throws IOException {
+    Objects.requireNonNull(pbChunk, "pbChunk should not be null");
+    return store(
+        repositoryName,
+        protoBufSerialization(repositoryName).deserializeToChunk(pbChunk).getClassifierInstances());
+  }
+
+  /**
+   * Stand-in for the createPartitions endpoint, when it receives the nodes as a PBChunk. The
+   * stream is not closed.
+   */
+  public @NotNull RepositoryVersionToken createPartitionsFromProtoBuf(
+      @NotNull String repositoryName, @NotNull InputStream pbChunk) throws IOException {
+    Objects.requireNonNull(pbChunk, "pbChunk should not be null");
+    return createPartitionFromChunk(
+        repositoryName,
+        protoBufSerialization(repositoryName).deserializeToChunk(pbChunk).getClassifierInstances());
+  }
+
+  /** Stand-in for the retrieve endpoint, when it is asked to answer with a PBChunk. */
+  public byte[] retrieveAsProtoBuf(
+      @NotNull String repositoryName, @NotNull List<String> nodeIds, int limit) {
+    LionWebVersion lionWebVersion = getRepository(repositoryName).configuration.getLionWebVersion();
+    return protoBufSerialization(repositoryName)
+        .serializeToByteArray(
+            SerializationChunk.fromNodes(lionWebVersion, retrieve(repositoryName, nodeIds, limit)));
+  }
+
+  private ProtoBufSerialization protoBufSerialization(@NotNull String repositoryName) {
+    return SerializationProvider.getStandardProtoBufSerialization(
+        getRepository(repositoryName).configuration.getLionWebVersion());
   }
 
   //
@@ -181,23 +307,8 @@ public class InMemoryServer {
   public Map<ClassifierKey, ClassifierResult> nodesByClassifier(
       @NotNull String repositoryName, @Nullable Integer limit) {
     RepositoryData repositoryData = getRepository(repositoryName);
-    Map<MetaPointer, List<SerializedClassifierInstance>> byMetapointer =
-        repositoryData.nodesByID.values().stream()
-            .collect(Collectors.groupingBy(n -> n.getClassifier()));
-    Map<ClassifierKey, ClassifierResult> res = new HashMap<>();
-    for (Map.Entry<MetaPointer, List<SerializedClassifierInstance>> entry :
-        byMetapointer.entrySet()) {
-      ClassifierKey key = new ClassifierKey(entry.getKey().getLanguage(), entry.getKey().getKey());
-      ClassifierResult cr =
-          new ClassifierResult(
-              entry.getValue().stream()
-                  .limit(limit)
-                  .map(n -> n.getID())
-                  .collect(Collectors.toSet()),
-              entry.getValue().size());
-      res.put(key, cr);
-    }
-    return res;
+    return repositoryData.readLocked(
+        () -> repositoryData.nodesByClassifier(limit == null ? Integer.MAX_VALUE : limit));
   }
 
   public Map<String, ClassifierResult> nodesByLanguage(@NotNull String repositoryName) {
@@ -207,21 +318,8 @@ public class InMemoryServer {
   public Map<String, ClassifierResult> nodesByLanguage(
       @NotNull String repositoryName, @Nullable Integer limit) {
     RepositoryData repositoryData = getRepository(repositoryName);
-    Map<String, List<SerializedClassifierInstance>> byMetapointer =
-        repositoryData.nodesByID.values().stream()
-            .collect(Collectors.groupingBy(n -> n.getClassifier().getLanguage()));
-    Map<String, ClassifierResult> res = new HashMap<>();
-    for (Map.Entry<String, List<SerializedClassifierInstance>> entry : byMetapointer.entrySet()) {
-      ClassifierResult cr =
-          new ClassifierResult(
-              entry.getValue().stream()
-                  .limit(limit)
-                  .map(n -> n.getID())
-                  .collect(Collectors.toSet()),
-              entry.getValue().size());
-      res.put(entry.getKey(), cr);
-    }
-    return res;
+    return repositoryData.readLocked(
+        () -> repositoryData.nodesByLanguage(limit == null ? Integer.MAX_VALUE : limit));
   }
 
   /**
@@ -239,7 +337,7 @@ public class InMemoryServer {
   public @NotNull ValidationResult checkConsistency() {
     ValidationResult result = new ValidationResult();
     for (RepositoryData repositoryData : repositories.values()) {
-      ValidationResult partial = repositoryData.checkConsistency();
+      ValidationResult partial = repositoryData.readLocked(repositoryData::checkConsistency);
       result.getIssues().addAll(partial.getIssues());
     }
     return result;
@@ -269,7 +367,8 @@ public class InMemoryServer {
     public DeltaQueryResponse receiveQuery(DeltaQuery query) {
       if (query instanceof SignOnRequest) {
         SignOnRequest signOnRequest = (SignOnRequest) query;
-        return new SignOnResponse(signOnRequest.queryId, "participation-" + nextParticipationId++);
+        return new SignOnResponse(
+            signOnRequest.queryId, "participation-" + nextParticipationId.getAndIncrement());
       }
       throw new UnsupportedOperationException("Not supported yet.");
     }
@@ -286,6 +385,15 @@ public class InMemoryServer {
 
     @Override
     public void receiveCommand(String participationId, DeltaCommand command) {
+      RepositoryData repositoryData = getRepository(repositoryName);
+      repositoryData.writeLocked(
+          () -> {
+            processCommand(participationId, command);
+            return null;
+          });
+    }
+
+    private void processCommand(String participationId, DeltaCommand command) {
       CommandSource source = new CommandSource(participationId, command.commandId);
       if (command instanceof ChangeProperty) {
         ChangeProperty changeProperty = (ChangeProperty) command;
@@ -306,6 +414,7 @@ public class InMemoryServer {
         String oldValue = node.getPropertyValue(((ChangeProperty) command).property);
         retrieved.get(0);
         node.setPropertyValue(((ChangeProperty) command).property, changeProperty.newValue);
+        repositoryData.nodeChanged(node.getID());
         String newValue = node.getPropertyValue(((ChangeProperty) command).property);
         channel.sendEvent(
             sequenceNumber ->
@@ -337,6 +446,7 @@ public class InMemoryServer {
                 .get()
                 .getID();
         node.addChild(addChild.containment, childId, addChild.index);
+        repositoryData.nodeChanged(node.getID());
         channel.sendEvent(
             sequenceNumber ->
                 new ChildAdded(
@@ -394,6 +504,7 @@ public class InMemoryServer {
             addReference.index,
             new SerializedReferenceValue.Entry(
                 addReference.newTarget, addReference.newResolveInfo));
+        repositoryData.nodeChanged(node.getID());
         channel.sendEvent(
             sequenceNumber ->
                 new ReferenceAdded(
@@ -19,7 +19,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class NodesLevelInMemoryServerClient
-    implements BulkAPIClient, DBAdminAPIClient, InspectionAPIClient {
+    implements BulkAPIClient, DBAdminAPIClient, InspectionAPIClient, HistoryAPIClient {
   private final @NotNull ChunkLevelInMemoryServerClient chunkLevel;
   private @Nullable AbstractSerialization serialization;
 
@@ -167,6 +167,32 @@ public class NodesLevelInMemoryServerClient
     return chunkLevel.nodesByLanguage(limit);
   }
 
+  //
+  // HistoryAPIClient methods
+  //
+
+  @NotNull
+  @Override
+  public List<Node> listPartitions(RepositoryVersionToken repoVersion) {
+    List<SerializedClassifierInstance> serializedNodes =
+        chunkLevel.retrieveAsChunk(
+            repoVersion, chunkLevel.listPartitionsIDs(repoVersion), Integer.MAX_VALUE);
+    return deserializeNodes(serializedNodes).stream()
+        .filter(n -> n.getParent() == null)
+        .collect(Collectors.toList());
+  }
+
+  @NotNull
+  @Override
+  public List<Node> retrieve(
+      RepositoryVersionToken repoVersion, @NotNull List<String> nodeIds, int limit) {
+    List<SerializedClassifierInstance> serializedClassifierInstances =
+        chunkLevel.retrieveAsChunk(repoVersion, nodeIds, limit);
+    return deserializeNodes(serializedClassifierInstances).stream()
+        .filter(node -> nodeIds.contains(node.getID()))
+        .collect(Collectors.toList());
+  }
+
   //
   // Private methods
   //
@@ -1,29 +1,89 @@
 package io.lionweb.client.inmemory;
 
+import io.lionweb.client.api.ClassifierKey;
+import io.lionweb.client.api.ClassifierResult;
+import io.lionweb.client.api.HistorySupport;
 import io.lionweb.client.api.RepositoryConfiguration;
 import io.lionweb.client.api.RepositoryVersionToken;
+import io.lionweb.serialization.data.MetaPointer;
 import io.lionweb.serialization.data.SerializedClassifierInstance;
 import io.lionweb.serialization.data.SerializedContainmentValue;
 import io.lionweb.utils.CommonChecks;
 import io.lionweb.utils.ValidationResult;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+/**
+ * The data of a single repository. It is not thread-safe by itself: accesses are guarded by its
+ * lock, which is acquired through {@link #readLocked(Supplier)} and {@link #writeLocked(Supplier)}.
+ * Several readers can therefore operate on the same repository concurrently, while writers get
+ * exclusive access.
+ *
+ * <p>When the repository supports history, each version is also recorded in a {@link
+ * RepositoryHistory}, which can be read without acquiring the lock.
+ */
 class RepositoryData {
   @NotNull RepositoryConfiguration configuration;
   final List<String> partitionIDs = new ArrayList<>();
+  /** It is modified only through registerNode and unregisterNode, which maintain the indexes. */
   final Map<String, SerializedClassifierInstance> nodesByID = new HashMap<>();
-  private int currentVersion = 0;
-  private int nextId = 1;
+
+  /** The IDs of the nodes, by classifier. */
+  private final Map<ClassifierKey, Set<String>> idsByClassifier = new HashMap<>();
+
+  /** The IDs of the nodes, by the key of the language of their classifier. */
+  private final Map<String, Set<String>> idsByLanguage = new HashMap<>();
+  private final AtomicInteger currentVersion = new AtomicInteger(0);
+  private final AtomicInteger nextId = new AtomicInteger(1);
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  final @Nullable RepositoryHistory history;
+
+  /** The IDs of the nodes changed since the last version, tracked only when history is enabled. */
+  private final Set<String> changedNodeIDs = new HashSet<>();
+
+  /** Executes an operation which does not modify the data, possibly concurrently with others. */
+  <T> T readLocked(@NotNull Supplier<T> operation) {
+    lock.readLock().lock();
+    try {
+      return operation.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Executes an operation which modifies the data, with exclusive access to it. */
+  <T> T writeLocked(@NotNull Supplier<T> operation) {
+    lock.writeLock().lock();
+    try {
+      return operation.get();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
 
   void deleteNodeAndDescendant(String nodeId) {
-    SerializedClassifierInstance curr = nodesByID.get(nodeId);
-    if (curr == null) {
-      throw new IllegalArgumentException("Node " + nodeId + " does not exist");
+    // An explicit stack is used, so that deep trees do not exhaust the call stack
+    ArrayDeque<String> toDelete = new ArrayDeque<>();
+    toDelete.push(nodeId);
+    while (!toDelete.isEmpty()) {
+      String currId = toDelete.pop();
+      SerializedClassifierInstance curr = nodesByID.get(currId);
+      if (curr == null) {
+        throw new IllegalArgumentException("Node " + currId + " does not exist");
+      }
+      unregisterNode(currId);
+      List<String> children = curr.getChildren();
+      for (int i = children.size() - 1; i >= 0; i--) {
+        toDelete.push(children.get(i));
+      }
     }
-    nodesByID.remove(nodeId);
-    curr.getChildren().forEach(this::deleteNodeAndDescendant);
   }
 
   private class ChangeCalculator {
@@ -31,7 +91,9 @@ class RepositoryData {
     private final Set<String> removedNodes = new HashSet<>();
 
     /**
-     * Given the two lists of nodes, it track the changes in terms of added or removed nodes
+     * Given the two lists of nodes, it track the changes in terms of added or removed nodes. Nodes
+     * which are only reordered within the list are neither added nor removed. It takes linear time
+     * in the size of the two lists, as lookups are done through hash sets.
      *
      * @param updatedNodesAsMap the map id -> Node
      * @param oldState the list of nodes before the change
@@ -43,23 +105,37 @@ class RepositoryData {
         List<String> oldState,
         List<String> newState,
         String role) {
-      newState.stream()
-          .filter(n -> !oldState.contains(n))
-          .forEach(n -> this.addedNodes.put(n, updatedNodesAsMap.get(n)));
-      List<String> unknownNodes =
-          newState.stream()
-              .filter(c -> !updatedNodesAsMap.containsKey(c) && !nodesByID.containsKey(c))
-              .collect(Collectors.toList());
+      if (oldState.isEmpty() && newState.isEmpty()) {
+        return;
+      }
+      Set<String> oldStateAsSet = new HashSet<>(oldState);
+      Set<String> newStateAsSet = new HashSet<>(newState);
+      List<String> unknownNodes = new ArrayList<>();
+      for (String n : newState) {
+        if (!oldStateAsSet.contains(n)) {
+          this.addedNodes.put(n, updatedNodesAsMap.get(n));
+        }
+        if (!updatedNodesAsMap.containsKey(n) && !nodesByID.containsKey(n)) {
+          unknownNodes.add(n);
+        }
+      }
       if (!unknownNodes.isEmpty()) {
         throw new IllegalArgumentException("We got unknown nodes as " + role + ": " + unknownNodes);
       }
-      this.removedNodes.addAll(
-          oldState.stream().filter(n -> !newState.contains(n)).collect(Collectors.toList()));
+      for (String n : oldState) {
+        if (!newStateAsSet.contains(n)) {
+          this.removedNodes.add(n);
+        }
+      }
     }
 
     void store(List<SerializedClassifierInstance> updatedNodes) {
-      Map<String, SerializedClassifierInstance> updatedNodesAsMap = new HashMap<>();
+      Map<String, SerializedClassifierInstance> updatedNodesAsMap =
+          new HashMap<>(updatedNodes.size() * 2);
       updatedNodes.forEach(n -> updatedNodesAsMap.put(n.getID(), n));
+      // Nodes moved away from containers which are not modified: they are removed from them in one
+      // pass per container, rather than one pass per moved node
+      Map<String, Set<String>> movedAwayNodes = new HashMap<>();
       for (SerializedClassifierInstance updatedNode : updatedNodes) {
         if (nodesByID.containsKey(updatedNode.getID())) {
           SerializedClassifierInstance currentNode = nodesByID.get(updatedNode.getID());
@@ -70,24 +146,24 @@ class RepositoryData {
             // - The node has changed parent, being removed from the old parent
             // - The node stayed where it was: same parent, same position
             if (!currentNode.getParentNodeID().equals(updatedNode.getParentNodeID())) {
-              removeContainedNode(currentNode.getParentNodeID(), updatedNode.getID());
+              movedAwayNodes
+                  .computeIfAbsent(currentNode.getParentNodeID(), k -> new HashSet<>())
+                  .add(updatedNode.getID());
             }
           }
           calculateNodeListDifferences(
-              updatedNodesAsMap,
-              nodesByID.get(updatedNode.getID()).getChildren(),
-              updatedNode.getChildren(),
-              "children");
+              updatedNodesAsMap, currentNode.getChildren(), updatedNode.getChildren(), "children");
           calculateNodeListDifferences(
               updatedNodesAsMap,
-              nodesByID.get(updatedNode.getID()).getAnnotations(),
+              currentNode.getAnnotations(),
               updatedNode.getAnnotations(),
               "annotations");
         }
       }
+      movedAwayNodes.forEach(RepositoryData.this::removeContainedNodes);
       // They have been moved and not removed
       removedNodes.removeAll(addedNodes.keySet());
-      nodesByID.putAll(updatedNodesAsMap);
+      updatedNodesAsMap.values().forEach(RepositoryData.this::registerNode);
       removedNodes.forEach(this::removeNode);
     }
 
@@ -103,36 +179,181 @@ class RepositoryData {
           removeNode(annotationId);
         }
       }
-      nodesByID.remove(removeNodeId);
+      unregisterNode(removeNodeId);
+    }
+  }
+
+  private void registerNode(@NotNull SerializedClassifierInstance node) {
+    SerializedClassifierInstance previous = nodesByID.put(node.getID(), node);
+    if (previous != null) {
+      unindex(previous);
+    }
+    index(node);
+    nodeChanged(node.getID());
+  }
+
+  private void unregisterNode(@NotNull String nodeId) {
+    SerializedClassifierInstance previous = nodesByID.remove(nodeId);
+    if (previous != null) {
+      unindex(previous);
+    }
+    nodeChanged(nodeId);
+  }
+
+  private void index(@NotNull SerializedClassifierInstance node) {
+    MetaPointer classifier = node.getClassifier();
+    idsByClassifier
+        .computeIfAbsent(
+            new ClassifierKey(classifier.getLanguage(), classifier.getKey()), k -> new HashSet<>())
+        .add(node.getID());
+    idsByLanguage.computeIfAbsent(classifier.getLanguage(), k -> new HashSet<>()).add(node.getID());
+  }
+
+  private void unindex(@NotNull SerializedClassifierInstance node) {
+    MetaPointer classifier = node.getClassifier();
+    removeFromIndex(
+        idsByClassifier,
+        new ClassifierKey(classifier.getLanguage(), classifier.getKey()),
+        node.getID());
+    removeFromIndex(idsByLanguage, classifier.getLanguage(), node.getID());
+  }
+
+  private static <K> void removeFromIndex(Map<K, Set<String>> index, K key, String nodeId) {
+    Set<String> ids = index.get(key);
+    if (ids != null) {
+      ids.remove(nodeId);
+      if (ids.isEmpty()) {
+        index.remove(key);
+      }
     }
   }
 
   /**
-   * Removes a contained node (a child or an annotation) from the specified container in the
+   * Counts the nodes by classifier, listing up to limit IDs for each one. It takes time
+   * proportional to the size of the result, not to the size of the repository.
+   */
+  @NotNull
+  Map<ClassifierKey, ClassifierResult> nodesByClassifier(int limit) {
+    return queryIndex(idsByClassifier, limit);
+  }
+
+  /**
+   * Counts the nodes by language, listing up to limit IDs for each one. It takes time proportional
+   * to the size of the result, not to the size of the repository.
+   */
+  @NotNull
+  Map<String, ClassifierResult> nodesByLanguage(int limit) {
+    return queryIndex(idsByLanguage, limit);
+  }
+
+  private static <K> Map<K, ClassifierResult> queryIndex(Map<K, Set<String>> index, int limit) {
+    Map<K, ClassifierResult> res = new HashMap<>();
+    for (Map.Entry<K, Set<String>> entry : index.entrySet()) {
+      Set<String> ids = entry.getValue();
+      res.put(
+          entry.getKey(),
+          new ClassifierResult(
+              ids.size() <= limit
+                  ? new HashSet<>(ids)
+                  : ids.stream().limit(limit).collect(Collectors.toSet()),
+              ids.size()));
+    }
+    return res;
+  }
+
+  /**
+   * Removes contained nodes (children or annotations) from the specified container in the
    * repository data.
    *
-   * @param containerId the identifier of the container node from which the contained node should be
-   *     removed
-   * @param containedId the identifier of the contained node to be removed
+   * @param containerId the identifier of the container node from which the contained nodes should
+   *     be removed
+   * @param containedIds the identifiers of the contained nodes to be removed
    */
-  private void removeContainedNode(String containerId, String containedId) {
+  private void removeContainedNodes(String containerId, Set<String> containedIds) {
     SerializedClassifierInstance container = nodesByID.get(containerId);
-    container.getContainments().forEach(containment -> containment.removeChild(containedId));
-    container.removeAnnotation(containedId);
+    nodeChanged(containerId);
+    for (SerializedContainmentValue containment : container.getContainments()) {
+      if (containment.getChildrenIds().stream().anyMatch(containedIds::contains)) {
+        containment.setChildrenIds(
+            containment.getChildrenIds().stream()
+                .filter(id -> !containedIds.contains(id))
+                .collect(Collectors.toList()));
+      }
+    }
+    if (container.getAnnotations().stream().anyMatch(containedIds::contains)) {
+      container.setAnnotations(
+          container.getAnnotations().stream()
+              .filter(id -> !containedIds.contains(id))
+              .collect(Collectors.toList()));
+    }
   }
 
   RepositoryData(@NotNull RepositoryConfiguration configuration) {
+    this(configuration, InMemoryServer.DEFAULT_RETAINED_VERSIONS);
+  }
+
+  /** The retainedVersions are considered only if the repository supports history. */
+  RepositoryData(@NotNull RepositoryConfiguration configuration, int retainedVersions) {
     this.configuration = configuration;
+    this.history =
+        configuration.getHistorySupport() == HistorySupport.ENABLED
+            ? new RepositoryHistory(retainedVersions)
+            : null;
+  }
+
+  /**
+   * Records that the node, which may also have been removed, has been changed in place. Changes
+   * are otherwise tracked by the operations of this class.
+   */
+  void nodeChanged(@NotNull String nodeId) {
+    if (history != null) {
+      changedNodeIDs.add(nodeId);
+    }
   }
 
   RepositoryVersionToken bumpVersion() {
-    return new RepositoryVersionToken("v-" + ++currentVersion);
+    int version = currentVersion.incrementAndGet();
+    if (history != null) {
+      Map<String, SerializedClassifierInstance> changedNodes = new HashMap<>();
+      changedNodeIDs.forEach(id -> changedNodes.put(id, nodesByID.get(id)));
+      history.record(version, changedNodes, partitionIDs);
+      changedNodeIDs.clear();
+    }
+    return new RepositoryVersionToken("v-" + version);
+  }
+
+  /**
+   * Returns the history of the repository, checking it supports history.
+   *
+   * @throws IllegalStateException if the repository does not support history
+   */
+  @NotNull
+  RepositoryHistory getHistory() {
+    if (history == null) {
+      throw new IllegalStateException(
+          "Repository " + configuration.getName() + " does not support history");
+    }
+    return history;
+  }
+
+  /** Returns the number of the version identified by the token. */
+  static int versionOf(@NotNull RepositoryVersionToken token) {
+    Objects.requireNonNull(token, "token should not be null");
+    String value = token.getToken();
+    if (value == null || !value.startsWith("v-")) {
+      throw new IllegalArgumentException("Invalid repository version token: " + value);
+    }
+    try {
+      return Integer.parseInt(value.substring(2));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid repository version token: " + value, e);
+    }
   }
 
   List<String> ids(int count) {
     List<String> res = new ArrayList<>(count);
     while (res.size() < count) {
-      String candidate = "id-" + (nextId++);
+      String candidate = "id-" + nextId.getAndIncrement();
       if (!nodesByID.containsKey(candidate)) {
         res.add(candidate);
       }
@@ -166,7 +387,22 @@ class RepositoryData {
   }
 
   void retrieve(String nodeId, int limit, List<SerializedClassifierInstance> retrieved) {
-    SerializedClassifierInstance node = nodesByID.get(nodeId);
+    retrieve(nodesByID::get, nodeId, limit, retrieved);
+  }
+
+  /** Retrieves the nodes as they were at the given version. It does not require the lock. */
+  void retrieve(
+      int version, String nodeId, int limit, List<SerializedClassifierInstance> retrieved) {
+    RepositoryHistory repositoryHistory = getHistory();
+    retrieve(id -> repositoryHistory.node(version, id), nodeId, limit, retrieved);
+  }
+
+  private static void retrieve(
+      Function<String, SerializedClassifierInstance> lookup,
+      String nodeId,
+      int limit,
+      List<SerializedClassifierInstance> retrieved) {
+    SerializedClassifierInstance node = lookup.apply(nodeId);
     if (node == null) {
       throw new IllegalArgumentException("Node with id " + nodeId + " cannot be found");
     }
@@ -176,7 +412,7 @@ class RepositoryData {
           .forEach(
               childId -> {
                 try {
-                  retrieve(childId, limit - 1, retrieved);
+                  retrieve(lookup, childId, limit - 1, retrieved);
                 } catch (Exception e) {
                   throw new RuntimeException("Unable to retrieve child of " + node, e);
                 }
@@ -185,7 +421,7 @@ class RepositoryData {
           .forEach(
               annotationId -> {
                 try {
-                  retrieve(annotationId, limit - 1, retrieved);
+                  retrieve(lookup, annotationId, limit - 1, retrieved);
                 } catch (Exception e) {
                   throw new RuntimeException("Unable to retrieve annotation of " + node, e);
                 }
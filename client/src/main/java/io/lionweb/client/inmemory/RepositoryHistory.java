@@ -0,0 +1,239 @@
+package io.lionweb.client.inmemory;
+
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import io.lionweb.serialization.data.SerializedContainmentValue;
+import io.lionweb.serialization.data.SerializedReferenceValue;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The past versions of a repository. Versions share the states of the nodes which they have in
+ * common: for each node we keep the list of its revisions, and a new version only adds revisions
+ * for the nodes it changed. The state of a node at a given version is the one of its latest
+ * revision not following that version.
+ *
+ * <p>Versions are recorded by a single writer, holding the write lock of the repository. Reads do
+ * not need any lock: the revisions are immutable and published only once complete, so reading a
+ * version which has been recorded is not affected by later versions.
+ *
+ * <p>Only the most recent versions are retained. The revisions needed only by older versions are
+ * pruned when the node is changed again, or during a periodic sweep.
+ */
+class RepositoryHistory {
+  private final int retainedVersions;
+  private final Map<String, Revisions<SerializedClassifierInstance>> nodes =
+      new ConcurrentHashMap<>();
+  private final Revisions<List<String>> partitionIDs = new Revisions<>(0, Collections.emptyList());
+  private volatile int latestVersion = 0;
+  private volatile int oldestVersion = 0;
+
+  /**
+   * The revisions of a single value, ordered by version. The array is replaced, and never modified,
+   * when revisions are added or pruned.
+   */
+  private static class Revisions<T> {
+    private volatile Revision<T>[] revisions;
+
+    @SuppressWarnings("unchecked")
+    private Revisions(int version, @Nullable T value) {
+      revisions = new Revision[] {new Revision<>(version, value)};
+    }
+
+    private @Nullable Revision<T> at(int version) {
+      Revision<T>[] current = revisions;
+      int low = 0;
+      int high = current.length - 1;
+      Revision<T> found = null;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        if (current[middle].version <= version) {
+          found = current[middle];
+          low = middle + 1;
+        } else {
+          high = middle - 1;
+        }
+      }
+      return found;
+    }
+
+    private @Nullable T latest() {
+      Revision<T>[] current = revisions;
+      return current[current.length - 1].value;
+    }
+
+    /**
+     * Adds a revision, dropping the ones which are not needed to answer about the versions
+     * starting from oldestVersion.
+     */
+    private void add(int version, @Nullable T value, int oldestVersion) {
+      Revision<T>[] current = revisions;
+      int firstNeeded = firstNeeded(current, oldestVersion);
+      Revision<T>[] updated = Arrays.copyOfRange(current, firstNeeded, current.length + 1);
+      updated[updated.length - 1] = new Revision<>(version, value);
+      revisions = updated;
+    }
+
+    /** Returns true when no revision is left. */
+    private boolean prune(int oldestVersion) {
+      Revision<T>[] current = revisions;
+      int firstNeeded = firstNeeded(current, oldestVersion);
+      if (firstNeeded == current.length - 1
+          && current[firstNeeded].value == null
+          && current[firstNeeded].version <= oldestVersion) {
+        return true;
+      }
+      if (firstNeeded > 0) {
+        revisions = Arrays.copyOfRange(current, firstNeeded, current.length);
+      }
+      return false;
+    }
+
+    /** The index of the revision describing the oldestVersion: the previous ones can be dropped. */
+    private static <T> int firstNeeded(Revision<T>[] revisions, int oldestVersion) {
+      int firstNeeded = 0;
+      while (firstNeeded + 1 < revisions.length
+          && revisions[firstNeeded + 1].version <= oldestVersion) {
+        firstNeeded++;
+      }
+      return firstNeeded;
+    }
+  }
+
+  private static class Revision<T> {
+    private final int version;
+    /** Null indicates that the node does not exist, from this version on. */
+    private final @Nullable T value;
+
+    private Revision(int version, @Nullable T value) {
+      this.version = version;
+      this.value = value;
+    }
+  }
+
+  RepositoryHistory(int retainedVersions) {
+    if (retainedVersions < 1) {
+      throw new IllegalArgumentException("At least one version should be retained");
+    }
+    this.retainedVersions = retainedVersions;
+  }
+
+  int getLatestVersion() {
+    return latestVersion;
+  }
+
+  int getOldestVersion() {
+    return oldestVersion;
+  }
+
+  /**
+   * Records a new version. It takes time proportional to the number of nodes changed.
+   *
+   * @param changedNodes the current state of the nodes changed since the previous version, by ID.
+   *     Removed nodes are associated to null. The states are copied, so they can be modified later.
+   * @param currentPartitionIDs the partitions present in the new version
+   */
+  void record(
+      int version,
+      @NotNull Map<String, SerializedClassifierInstance> changedNodes,
+      @NotNull List<String> currentPartitionIDs) {
+    if (version <= latestVersion) {
+      throw new IllegalArgumentException(
+          "Version " + version + " does not follow version " + latestVersion);
+    }
+    // The oldest version is updated before pruning, so that readers of the versions being evicted
+    // notice it. The latest version recorded so far stays available until this one is published
+    int newOldestVersion =
+        Math.max(oldestVersion, Math.min(latestVersion, version - retainedVersions + 1));
+    oldestVersion = newOldestVersion;
+    for (Map.Entry<String, SerializedClassifierInstance> entry : changedNodes.entrySet()) {
+      SerializedClassifierInstance state = entry.getValue() == null ? null : copy(entry.getValue());
+      Revisions<SerializedClassifierInstance> revisions = nodes.get(entry.getKey());
+      if (revisions == null) {
+        if (state != null) {
+          nodes.put(entry.getKey(), new Revisions<>(version, state));
+        }
+      } else {
+        revisions.add(version, state, newOldestVersion);
+      }
+    }
+    if (!currentPartitionIDs.equals(partitionIDs.latest())) {
+      partitionIDs.add(
+          version,
+          Collections.unmodifiableList(new ArrayList<>(currentPartitionIDs)),
+          newOldestVersion);
+    }
+    // Publishing the version makes the revisions added above visible to readers
+    latestVersion = version;
+    if (version % retainedVersions == 0) {
+      sweep();
+    }
+  }
+
+  /** The IDs of the partitions present at the given version. */
+  @NotNull
+  List<String> partitionIDs(int version) {
+    checkAvailable(version);
+    Revision<List<String>> revision = partitionIDs.at(version);
+    checkAvailable(version);
+    return revision.value;
+  }
+
+  /**
+   * The state of the node at the given version, or null if the node did not exist. The caller
+   * should not modify the state returned.
+   */
+  @Nullable
+  SerializedClassifierInstance node(int version, @NotNull String nodeId) {
+    checkAvailable(version);
+    Revisions<SerializedClassifierInstance> revisions = nodes.get(nodeId);
+    Revision<SerializedClassifierInstance> revision =
+        revisions == null ? null : revisions.at(version);
+    // Revisions may have been pruned while we were looking them up
+    checkAvailable(version);
+    return revision == null ? null : revision.value;
+  }
+
+  private void checkAvailable(int version) {
+    if (version > latestVersion) {
+      throw new IllegalArgumentException("Version v-" + version + " does not exist");
+    }
+    if (version < oldestVersion) {
+      throw new IllegalArgumentException("Version v-" + version + " is no longer available");
+    }
+  }
+
+  /** Prunes the revisions of the nodes which have not been changed recently. */
+  private void sweep() {
+    int currentOldestVersion = oldestVersion;
+    nodes.entrySet().removeIf(e -> e.getValue().prune(currentOldestVersion));
+    partitionIDs.prune(currentOldestVersion);
+  }
+
+  /** A copy of the node, which does not share any mutable state with it. */
+  static @NotNull SerializedClassifierInstance copy(@NotNull SerializedClassifierInstance node) {
+    SerializedClassifierInstance copy =
+        new SerializedClassifierInstance(node.getID(), node.getClassifier());
+    copy.setParentNodeID(node.getParentNodeID());
+    // Property values are immutable
+    node.getProperties().forEach(copy::unsafeAppendPropertyValue);
+    for (SerializedContainmentValue containment : node.getContainments()) {
+      copy.unsafeAppendContainmentValue(containment.getMetaPointer(), containment.getChildrenIds());
+    }
+    for (SerializedReferenceValue reference : node.getReferences()) {
+      copy.unsafeAppendReferenceValue(
+          new SerializedReferenceValue(
+              reference.getMetaPointer(),
+              reference.getValue().stream()
+                  .map(
+                      e -> new SerializedReferenceValue.Entry(e.getReference(), e.getResolveInfo()))
+                  .collect(Collectors.toList())));
+    }
+    if (!node.getAnnotations().isEmpty()) {
+      copy.setAnnotations(node.getAnnotations());
+    }
+    return copy;
+  }
+}
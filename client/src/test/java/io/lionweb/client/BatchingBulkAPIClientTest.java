@@ -0,0 +1,286 @@
+package io.lionweb.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.ChunkLevelBulkAPIClient;
+import io.lionweb.client.api.HistorySupport;
+import io.lionweb.client.api.RepositoryConfiguration;
+import io.lionweb.client.api.RepositoryVersionToken;
+import io.lionweb.client.inmemory.ChunkLevelInMemoryServerClient;
+import io.lionweb.client.inmemory.InMemoryServer;
+import io.lionweb.client.inmemory.NodesLevelInMemoryServerClient;
+import io.lionweb.client.inmemory.library.Book;
+import io.lionweb.client.inmemory.library.Library;
+import io.lionweb.client.inmemory.library.LibraryLanguage;
+import io.lionweb.client.inmemory.library.Writer;
+import io.lionweb.model.ClassifierInstanceUtils;
+import io.lionweb.model.Node;
+import io.lionweb.serialization.AbstractSerialization;
+import io.lionweb.serialization.SerializationProvider;
+import io.lionweb.serialization.UnavailableNodePolicy;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+public class BatchingBulkAPIClientTest {
+  private static final LionWebVersion VERSION = LionWebVersion.v2023_1;
+
+  /** Records the batches received, before forwarding them to the InMemoryServer. */
+  private static class RecordingClient implements ChunkLevelBulkAPIClient {
+    private final ChunkLevelInMemoryServerClient delegate;
+    private final List<List<SerializedClassifierInstance>> storedBatches = new ArrayList<>();
+    private final List<List<String>> retrievedBatches = new ArrayList<>();
+    private final Set<String> failingIDs = new HashSet<>();
+
+    private RecordingClient(ChunkLevelInMemoryServerClient delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public @NotNull LionWebVersion getLionWebVersion() {
+      return delegate.getLionWebVersion();
+    }
+
+    @Override
+    public @NotNull List<String> ids(int count) {
+      return delegate.ids(count);
+    }
+
+    @Override
+    public @NotNull List<String> listPartitionsIDs() {
+      return delegate.listPartitionsIDs();
+    }
+
+    @Override
+    public synchronized @Nullable RepositoryVersionToken createPartitionsFromChunk(
+        @NotNull List<SerializedClassifierInstance> data) {
+      return delegate.createPartitionsFromChunk(data);
+    }
+
+    @Override
+    public synchronized @Nullable RepositoryVersionToken deletePartitions(List<String> ids) {
+      return delegate.deletePartitions(ids);
+    }
+
+    @Override
+    public synchronized @Nullable RepositoryVersionToken storeChunk(
+        @NotNull List<SerializedClassifierInstance> nodes) throws IOException {
+      for (SerializedClassifierInstance node : nodes) {
+        if (failingIDs.contains(node.getID())) {
+          throw new IOException("Failing on " + node.getID());
+        }
+      }
+      storedBatches.add(nodes);
+      return delegate.storeChunk(nodes);
+    }
+
+    @Override
+    public synchronized @NotNull List<SerializedClassifierInstance> retrieveAsChunk(
+        @NotNull List<String> nodeIds, int limit) {
+      retrievedBatches.add(new ArrayList<>(nodeIds));
+      return delegate.retrieveAsChunk(nodeIds, limit);
+    }
+  }
+
+  private final InMemoryServer server = new InMemoryServer();
+  private final NodesLevelInMemoryServerClient nodesLevelClient;
+  private final RecordingClient recordingClient;
+  private final AbstractSerialization serialization =
+      SerializationProvider.getStandardJsonSerialization(VERSION);
+
+  public BatchingBulkAPIClientTest() {
+    server.createRepository(
+        new RepositoryConfiguration("MyRepo", VERSION, HistorySupport.DISABLED));
+    nodesLevelClient = new NodesLevelInMemoryServerClient(server, "MyRepo");
+    recordingClient = new RecordingClient(new ChunkLevelInMemoryServerClient(server, "MyRepo"));
+    serialization.registerLanguage(LibraryLanguage.LIBRARY_LANGUAGE);
+    serialization.enableDynamicNodes();
+    serialization.setAllUnavailabilityPolicies(UnavailableNodePolicy.PROXY_NODES);
+  }
+
+  private List<Library> libraries(int count, int booksPerLibrary) {
+    List<Library> libraries = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Library library = new Library("lib-" + i, "Library " + i);
+      for (int j = 0; j < booksPerLibrary; j++) {
+        library.addBook(
+            new Book(
+                "lib-" + i + "-book-" + j,
+                "Book " + j,
+                new Writer("lib-" + i + "-writer-" + j, "Writer " + j)));
+      }
+      libraries.add(library);
+    }
+    return libraries;
+  }
+
+  @Test
+  public void storeSplitsByNodesCountKeepingChildrenFirst() throws IOException {
+    List<Library> libraries = libraries(3, 10);
+    nodesLevelClient.createPartitions(
+        libraries.stream().map(l -> new Library(l.getID(), "Empty")).collect(Collectors.toList()));
+
+    List<BatchingBulkAPIClient.BatchMetrics> metrics =
+        Collections.synchronizedList(new ArrayList<>());
+    BatchingBulkAPIClient client =
+        new BatchingBulkAPIClient.Builder(nodesLevelClient, recordingClient, serialization)
+            .withMaxNodesPerBatch(4)
+            .withMaxConcurrentBatches(3)
+            .withBatchListener(metrics::add)
+            .build();
+    RepositoryVersionToken token = client.store(new ArrayList<>(libraries));
+
+    // Each library has 11 nodes, as the writers are only referenced: they go into three batches
+    assertEquals(9, recordingClient.storedBatches.size());
+    assertTrue(recordingClient.storedBatches.stream().allMatch(b -> b.size() <= 4));
+    Set<String> stored = new HashSet<>();
+    for (List<SerializedClassifierInstance> batch : recordingClient.storedBatches) {
+      Set<String> batchIDs =
+          batch.stream().map(SerializedClassifierInstance::getID).collect(Collectors.toSet());
+      for (SerializedClassifierInstance node : batch) {
+        for (String childID : node.getChildren()) {
+          assertTrue(
+              stored.contains(childID) || batchIDs.contains(childID),
+              "The children of " + node.getID() + " should be stored first");
+        }
+      }
+      stored.addAll(batchIDs);
+    }
+    assertEquals(33, stored.size());
+
+    assertEquals(9, metrics.size());
+    assertTrue(metrics.stream().allMatch(BatchingBulkAPIClient.BatchMetrics::isSuccessful));
+    assertEquals(
+        33, metrics.stream().mapToInt(BatchingBulkAPIClient.BatchMetrics::getNodesCount).sum());
+    // The token returned is the one of the last version created
+    assertEquals(new RepositoryVersionToken("v-10"), token);
+
+    List<Node> retrieved = nodesLevelClient.retrieve(Collections.singletonList("lib-2"));
+    assertEquals(10, ClassifierInstanceUtils.getChildren(retrieved.get(0)).size());
+  }
+
+  @Test
+  public void storeSplitsByEstimatedSize() throws IOException {
+    List<Library> libraries = libraries(1, 20);
+    nodesLevelClient.createPartitions(Collections.singletonList(new Library("lib-0", "Empty")));
+
+    BatchingBulkAPIClient client =
+        new BatchingBulkAPIClient.Builder(nodesLevelClient, recordingClient, serialization)
+            .withMaxBytesPerBatch(1500)
+            .build();
+    client.store(new ArrayList<>(libraries));
+
+    assertTrue(recordingClient.storedBatches.size() > 1);
+    assertEquals(21, recordingClient.storedBatches.stream().mapToInt(List::size).sum());
+    assertEquals(
+        20,
+        ClassifierInstanceUtils.getChildren(
+                nodesLevelClient.retrieve(Collections.singletonList("lib-0")).get(0))
+            .size());
+  }
+
+  @Test
+  public void failuresAreReported() {
+    List<Library> libraries = libraries(2, 10);
+    nodesLevelClient.createPartitions(
+        libraries.stream().map(l -> new Library(l.getID(), "Empty")).collect(Collectors.toList()));
+    recordingClient.failingIDs.add("lib-1-book-3");
+
+    List<BatchingBulkAPIClient.BatchMetrics> metrics =
+        Collections.synchronizedList(new ArrayList<>());
+    BatchingBulkAPIClient client =
+        new BatchingBulkAPIClient.Builder(nodesLevelClient, recordingClient, serialization)
+            .withMaxNodesPerBatch(5)
+            .withBatchListener(metrics::add)
+            .build();
+    IOException e = assertThrows(IOException.class, () -> client.store(new ArrayList<>(libraries)));
+    assertEquals("Failing on lib-1-book-3", e.getMessage());
+    assertTrue(metrics.stream().anyMatch(m -> !m.isSuccessful()));
+  }
+
+  @Test
+  public void batchesShareTheThreadsOfTheClient() throws IOException {
+    List<Library> libraries = libraries(4, 5);
+    nodesLevelClient.createPartitions(
+        libraries.stream().map(l -> new Library(l.getID(), "Empty")).collect(Collectors.toList()));
+
+    Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+    BatchingBulkAPIClient client =
+        new BatchingBulkAPIClient.Builder(nodesLevelClient, recordingClient, serialization)
+            .withMaxNodesPerBatch(3)
+            .withMaxConcurrentBatches(2)
+            .withBatchListener(metrics -> threads.add(Thread.currentThread()))
+            .build();
+    try {
+      client.store(new ArrayList<>(libraries.subList(0, 2)));
+      client.store(new ArrayList<>(libraries.subList(2, 4)));
+      client.retrieve(Arrays.asList("lib-0", "lib-1", "lib-2", "lib-3"));
+      assertTrue(threads.size() <= 2, "The threads should be reused, but got " + threads);
+    } finally {
+      client.close();
+    }
+    assertThrows(
+        IllegalStateException.class,
+        () -> client.retrieve(Arrays.asList("lib-0", "lib-1", "lib-2", "lib-3")));
+  }
+
+  @Test
+  public void batchesCanUseTheGivenExecutor() throws IOException {
+    List<Library> libraries = libraries(3, 5);
+    nodesLevelClient.createPartitions(new ArrayList<>(libraries));
+
+    AtomicInteger executed = new AtomicInteger();
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      BatchingBulkAPIClient client =
+          new BatchingBulkAPIClient.Builder(nodesLevelClient, recordingClient, serialization)
+              .withMaxNodesPerBatch(1)
+              .withExecutor(
+                  command -> {
+                    executed.incrementAndGet();
+                    executorService.execute(command);
+                  })
+              .build();
+      assertEquals(3, client.retrieve(Arrays.asList("lib-0", "lib-1", "lib-2")).size());
+      assertEquals(3, executed.get());
+      // The given executor is not shut down
+      client.close();
+      assertFalse(executorService.isShutdown());
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  public void retrieveMergesBatches() throws IOException {
+    List<Library> libraries = libraries(5, 3);
+    nodesLevelClient.createPartitions(new ArrayList<>(libraries));
+
+    List<BatchingBulkAPIClient.BatchMetrics> metrics =
+        Collections.synchronizedList(new ArrayList<>());
+    BatchingBulkAPIClient client =
+        new BatchingBulkAPIClient.Builder(nodesLevelClient, recordingClient, serialization)
+            .withMaxNodesPerBatch(2)
+            .withBatchListener(metrics::add)
+            .build();
+    // lib-1-book-0 is part of lib-1, so it should not be returned as a separate root
+    List<Node> roots =
+        client.retrieve(Arrays.asList("lib-0", "lib-1", "lib-1-book-0", "lib-3", "lib-4"));
+
+    assertEquals(3, recordingClient.retrievedBatches.size());
+    assertEquals(3, metrics.size());
+    assertEquals(
+        Arrays.asList("lib-0", "lib-1", "lib-3", "lib-4"),
+        roots.stream().map(Node::getID).collect(Collectors.toList()));
+    assertEquals(3, ClassifierInstanceUtils.getChildren(roots.get(1)).size());
+    assertEquals(Collections.emptyList(), client.retrieve(Collections.emptyList()));
+  }
+}
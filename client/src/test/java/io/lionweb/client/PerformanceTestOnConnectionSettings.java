@@ -0,0 +1,150 @@
+package io.lionweb.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.AsyncBulkAPIClient;
+import io.lionweb.client.api.HistorySupport;
+import io.lionweb.client.api.RepositoryConfiguration;
+import io.lionweb.client.inmemory.InMemoryHttpServer;
+import io.lionweb.client.inmemory.InMemoryServer;
+import io.lionweb.language.Concept;
+import io.lionweb.language.Containment;
+import io.lionweb.language.Language;
+import io.lionweb.language.LionCoreBuiltins;
+import io.lionweb.language.Property;
+import io.lionweb.model.ClassifierInstanceUtils;
+import io.lionweb.model.Node;
+import io.lionweb.model.impl.DynamicNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the time needed to perform many small bulk calls, using different connection settings,
+ * against an InMemoryServer exposed over HTTP. The server handles up to SERVER_THREADS requests
+ * concurrently, so that limiting the requests in flight has a visible effect on the asynchronous
+ * calls. HTTP/2 is not considered, as the HTTP server of the JDK supports only HTTP/1.1.
+ */
+@Tag("performance")
+public class PerformanceTestOnConnectionSettings {
+  private static final LionWebVersion VERSION = LionWebVersion.v2023_1;
+  private static final int N_CALLS = 500;
+  private static final int N_CHILDREN = 200;
+  private static final int SERVER_THREADS = 16;
+
+  private final Language language =
+      new Language(VERSION, "L").setID("l-id").setKey("l-key").setVersion("1");
+  private final Concept container = new Concept(language, "Container", "c-id", "c-key");
+  private final Concept element = new Concept(language, "Element", "e-id", "e-key");
+
+  public PerformanceTestOnConnectionSettings() {
+    container.setPartition(true);
+    container.addFeature(
+        Containment.createMultiple(VERSION, "elements", element, "c-elements-id")
+            .setKey("c-elements-key"));
+    element.addFeature(
+        Property.createRequired(VERSION, "name", LionCoreBuiltins.getString(VERSION), "e-name-id")
+            .setKey("e-name-key"));
+  }
+
+  @Test
+  public void compareConnectionSettings() throws IOException {
+    InMemoryServer server = new InMemoryServer();
+    server.createRepository(
+        new RepositoryConfiguration("default", VERSION, HistorySupport.DISABLED));
+    try (InMemoryHttpServer httpServer = new InMemoryHttpServer(server, true, SERVER_THREADS)) {
+      DynamicNode partition = new DynamicNode("p", container);
+      for (int i = 0; i < N_CHILDREN; i++) {
+        DynamicNode child = new DynamicNode("e-" + i, element);
+        ClassifierInstanceUtils.setPropertyValueByName(child, "name", "Element " + i);
+        ClassifierInstanceUtils.addChild(partition, "elements", child);
+      }
+      LionWebClient setupClient = client(httpServer, ConnectionSettings.DEFAULT);
+      setupClient.createPartition(new DynamicNode("p", container));
+      setupClient.store(partition);
+
+      measure(
+          "No connection reuse",
+          httpServer,
+          new ConnectionSettings(0, 1, 64, 64, HttpVersion.HTTP_1_1, true, true));
+      measure(
+          "Connection reuse",
+          httpServer,
+          new ConnectionSettings(5, 300, 64, 64, HttpVersion.HTTP_1_1, true, true));
+      measure(
+          "Connection reuse, no compression",
+          httpServer,
+          new ConnectionSettings(5, 300, 64, 64, HttpVersion.HTTP_1_1, false, false));
+      measure(
+          "Connection reuse, 8 requests in flight",
+          httpServer,
+          new ConnectionSettings(8, 300, 8, 8, HttpVersion.HTTP_1_1, true, true));
+      measure(
+          "Connection reuse, 1 request in flight",
+          httpServer,
+          new ConnectionSettings(1, 300, 1, 1, HttpVersion.HTTP_1_1, true, true));
+    }
+  }
+
+  private void measure(
+      String description, InMemoryHttpServer httpServer, ConnectionSettings settings)
+      throws IOException {
+    LionWebClient client = client(httpServer, settings);
+    List<String> ids = Collections.singletonList("p");
+    // Warm up
+    for (int i = 0; i < N_CALLS / 10; i++) {
+      client.retrieve(ids);
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < N_CALLS; i++) {
+      List<Node> retrieved = client.retrieve(ids);
+      assertEquals(N_CHILDREN, ClassifierInstanceUtils.getChildren(retrieved.get(0)).size());
+    }
+    long blockingElapsed = (System.nanoTime() - start) / 1_000_000;
+
+    AsyncBulkAPIClient asyncClient = client.getAsyncBulkAPIClient();
+    start = System.nanoTime();
+    List<CompletableFuture<List<Node>>> futures = new ArrayList<>(N_CALLS);
+    for (int i = 0; i < N_CALLS; i++) {
+      futures.add(asyncClient.retrieve(ids));
+    }
+    for (CompletableFuture<List<Node>> future : futures) {
+      assertEquals(N_CHILDREN, ClassifierInstanceUtils.getChildren(future.join().get(0)).size());
+    }
+    long asyncElapsed = (System.nanoTime() - start) / 1_000_000;
+
+    System.out.println(
+        description
+            + ": "
+            + N_CALLS
+            + " blocking retrieves in "
+            + blockingElapsed
+            + " ms, "
+            + N_CALLS
+            + " asynchronous retrieves in "
+            + asyncElapsed
+            + " ms");
+  }
+
+  private LionWebClient client(InMemoryHttpServer httpServer, ConnectionSettings settings) {
+    LionWebClient client =
+        new LionWebClient(
+            VERSION,
+            "localhost",
+            httpServer.getPort(),
+            null,
+            "PerformanceTest",
+            "default",
+            60,
+            60,
+            settings);
+    client.getJsonSerialization().registerLanguage(language);
+    return client;
+  }
+}
@@ -0,0 +1,159 @@
+package io.lionweb.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.HistorySupport;
+import io.lionweb.client.api.RepositoryConfiguration;
+import io.lionweb.client.inmemory.InMemoryHttpServer;
+import io.lionweb.client.inmemory.InMemoryServer;
+import io.lionweb.language.Concept;
+import io.lionweb.language.Containment;
+import io.lionweb.language.Language;
+import io.lionweb.language.LionCoreBuiltins;
+import io.lionweb.language.Property;
+import io.lionweb.model.ClassifierInstanceUtils;
+import io.lionweb.model.Node;
+import io.lionweb.model.impl.DynamicNode;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+/** Store and retrieve nodes using the ProtoBuf transfer format, against an InMemoryServer. */
+public class ProtoBufTransferFormatTest {
+  private static final LionWebVersion VERSION = LionWebVersion.v2023_1;
+
+  private final Language language =
+      new Language(VERSION, "L").setID("l-id").setKey("l-key").setVersion("1");
+  private final Concept container = new Concept(language, "Container", "c-id", "c-key");
+  private final Concept element = new Concept(language, "Element", "e-id", "e-key");
+
+  public ProtoBufTransferFormatTest() {
+    container.setPartition(true);
+    container.addFeature(
+        Containment.createMultiple(VERSION, "elements", element, "c-elements-id")
+            .setKey("c-elements-key"));
+    element.addFeature(
+        Property.createRequired(VERSION, "name", LionCoreBuiltins.getString(VERSION), "e-name-id")
+            .setKey("e-name-key"));
+  }
+
+  @Test
+  public void storeAndRetrieveUsingProtoBuf() throws IOException {
+    InMemoryServer server = server();
+    try (InMemoryHttpServer httpServer = new InMemoryHttpServer(server)) {
+      LionWebClient client = client(httpServer);
+      client.createPartitions(Collections.singletonList(new DynamicNode("p", container)));
+      client.store(Collections.singletonList(partition(10)));
+
+      List<Node> retrieved = client.retrieve(Collections.singletonList("p"));
+      assertEquals(1, retrieved.size());
+      assertEquals(10, ClassifierInstanceUtils.getChildren(retrieved.get(0)).size());
+      List<SerializedClassifierInstance> chunk =
+          client.retrieveAsChunk(Collections.singletonList("p"));
+      assertEquals(11, chunk.size());
+      // The nodes have actually been stored
+      assertEquals(11, server.retrieve("default", Collections.singletonList("p"), 10).size());
+    }
+  }
+
+  @Test
+  public void fallBackToJsonWhenProtoBufIsNotSupported() throws IOException {
+    InMemoryServer server = server();
+    try (InMemoryHttpServer httpServer = new InMemoryHttpServer(server, false)) {
+      LionWebClient client = client(httpServer);
+      client.createPartitions(Collections.singletonList(new DynamicNode("p", container)));
+      client.store(Collections.singletonList(partition(5)));
+      client.store(Collections.singletonList(partition(7)));
+
+      List<Node> retrieved = client.retrieve(Collections.singletonList("p"));
+      assertEquals(7, ClassifierInstanceUtils.getChildren(retrieved.get(0)).size());
+      assertEquals(8, server.retrieve("default", Collections.singletonList("p"), 10).size());
+    }
+  }
+
+  @Test
+  public void asyncStoreAndRetrieveUsingProtoBuf() throws IOException {
+    InMemoryServer server = server();
+    try (InMemoryHttpServer httpServer = new InMemoryHttpServer(server)) {
+      LionWebClient client = client(httpServer);
+      client
+          .getAsyncBulkAPIClient()
+          .createPartitions(Collections.singletonList(new DynamicNode("p", container)))
+          .join();
+      client.getAsyncBulkAPIClient().store(Collections.singletonList(partition(3))).join();
+
+      List<Node> retrieved =
+          client.getAsyncBulkAPIClient().retrieve(Collections.singletonList("p")).join();
+      assertEquals(3, ClassifierInstanceUtils.getChildren(retrieved.get(0)).size());
+    }
+  }
+
+  @Test
+  public void serverErrorsDoNotMakeTheClientFallBackToJson() throws IOException {
+    InMemoryServer server = server();
+    try (InMemoryHttpServer httpServer = new InMemoryHttpServer(server)) {
+      LionWebClient client = client(httpServer);
+      List<Node> newPartitions = Collections.singletonList(new DynamicNode("p", container));
+      httpServer.failNextRequests(1);
+      RequestFailureException failure =
+          assertThrows(RequestFailureException.class, () -> client.createPartitions(newPartitions));
+      assertEquals(500, failure.getResponseCode());
+      // The nodes have not been sent again in JSON
+      assertEquals(Collections.emptyList(), server.listPartitionIDs("default"));
+
+      httpServer.failNextRequests(1);
+      CompletionException asyncFailure =
+          assertThrows(
+              CompletionException.class,
+              () -> client.getAsyncBulkAPIClient().createPartitions(newPartitions).join());
+      assertTrue(asyncFailure.getCause() instanceof RequestFailureException);
+      assertEquals(Collections.emptyList(), server.listPartitionIDs("default"));
+
+      // The following requests still carry PBChunks
+      client.createPartitions(newPartitions);
+      client.store(Collections.singletonList(partition(2)));
+      assertEquals(4, httpServer.getProtoBufRequests());
+      assertEquals(3, server.retrieve("default", Collections.singletonList("p"), 10).size());
+    }
+  }
+
+  private InMemoryServer server() {
+    InMemoryServer server = new InMemoryServer();
+    server.createRepository(
+        new RepositoryConfiguration("default", VERSION, HistorySupport.DISABLED));
+    return server;
+  }
+
+  private DynamicNode partition(int children) {
+    DynamicNode partition = new DynamicNode("p", container);
+    for (int i = 0; i < children; i++) {
+      DynamicNode child = new DynamicNode("e-" + i, element);
+      ClassifierInstanceUtils.setPropertyValueByName(child, "name", "Element " + i);
+      ClassifierInstanceUtils.addChild(partition, "elements", child);
+    }
+    return partition;
+  }
+
+  private LionWebClient client(InMemoryHttpServer httpServer) {
+    LionWebClient client =
+        new LionWebClient(
+            VERSION,
+            "localhost",
+            httpServer.getPort(),
+            null,
+            "ProtoBufTransferFormatTest",
+            "default",
+            60,
+            60,
+            ConnectionSettings.DEFAULT,
+            TransferFormat.PROTOBUF);
+    client.getJsonSerialization().registerLanguage(language);
+    return client;
+  }
+}
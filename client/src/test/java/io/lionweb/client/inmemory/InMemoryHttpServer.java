@@ -0,0 +1,275 @@
+package io.lionweb.client.inmemory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.lionweb.client.api.RepositoryConfiguration;
+import io.lionweb.client.api.RepositoryVersionToken;
+import io.lionweb.serialization.LowLevelJsonSerialization;
+import io.lionweb.serialization.data.SerializationChunk;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exposes an InMemoryServer over HTTP, implementing the subset of the Bulk APIs used by the
+ * LionWebClient. This permits to exercise the whole HTTP stack of the client, without the need of
+ * running the actual server.
+ *
+ * <p>Nodes can be stored sending them as a PBChunk, and retrieved as a PBChunk, by asking for it
+ * through the Accept header. Support for ProtoBuf can be disabled, to mimic servers not supporting
+ * it: in that case, requests carrying a PBChunk are rejected as having an unsupported media type.
+ * Requests can also be made to fail with an internal server error, to mimic a failing server.
+ *
+ * <p>By default requests are handled one at a time, on the thread of the HttpServer. A number of
+ * threads can be given to handle them concurrently instead, as a real server would.
+ */
+public class InMemoryHttpServer implements AutoCloseable {
+  private final HttpServer httpServer;
+  private static final String PROTOBUF = "application/protobuf";
+
+  private final InMemoryServer server;
+  private final boolean supportingProtoBuf;
+  private final LowLevelJsonSerialization serialization = new LowLevelJsonSerialization();
+  private final AtomicInteger requestsToFail = new AtomicInteger();
+  private final AtomicInteger protoBufRequests = new AtomicInteger();
+  private final ExecutorService executor;
+
+  public InMemoryHttpServer(InMemoryServer server) throws IOException {
+    this(server, true);
+  }
+
+  public InMemoryHttpServer(InMemoryServer server, boolean supportingProtoBuf) throws IOException {
+    this(server, supportingProtoBuf, 1);
+  }
+
+  /**
+   * @param threads the number of requests handled concurrently. When it is 1, requests are handled
+   *     on the thread of the HttpServer.
+   */
+  public InMemoryHttpServer(InMemoryServer server, boolean supportingProtoBuf, int threads)
+      throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads should be at least 1");
+    }
+    this.server = server;
+    this.supportingProtoBuf = supportingProtoBuf;
+    this.httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.httpServer.createContext("/bulk/", this::handle);
+    this.executor = threads == 1 ? null : Executors.newFixedThreadPool(threads);
+    if (executor != null) {
+      this.httpServer.setExecutor(executor);
+    }
+    this.httpServer.start();
+  }
+
+  public int getPort() {
+    return httpServer.getAddress().getPort();
+  }
+
+  /** The next requests received fail with an internal server error, without being processed. */
+  public void failNextRequests(int count) {
+    requestsToFail.set(count);
+  }
+
+  /** The number of requests received so far carrying a PBChunk, including the failed ones. */
+  public int getProtoBufRequests() {
+    return protoBufRequests.get();
+  }
+
+  @Override
+  public void close() {
+    httpServer.stop(0);
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    if (sendingProtoBuf(exchange)) {
+      protoBufRequests.incrementAndGet();
+    }
+    if (requestsToFail.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+      send(exchange, 500, "Internal server error");
+      return;
+    }
+    try {
+      Map<String, String> params = queryParameters(exchange.getRequestURI());
+      String repository = params.getOrDefault("repository", "default");
+      String operation = exchange.getRequestURI().getPath().substring("/bulk/".length());
+      JsonObject response = new JsonObject();
+      response.addProperty("success", true);
+      response.add("messages", new JsonArray());
+      switch (operation) {
+        case "ids":
+          JsonArray ids = new JsonArray();
+          server.ids(repository, Integer.parseInt(params.get("count"))).forEach(ids::add);
+          response.add("ids", ids);
+          break;
+        case "listPartitions":
+          response.add(
+              "chunk", chunk(repository, server.retrieve(repository, partitionIDs(repository), 0)));
+          break;
+        case "createPartitions":
+          if (sendingProtoBuf(exchange)) {
+            if (!supportingProtoBuf) {
+              send(exchange, 415, "Unsupported media type");
+              return;
+            }
+            try (InputStream body = requestBody(exchange)) {
+              addRepoVersion(response, server.createPartitionsFromProtoBuf(repository, body));
+            }
+            break;
+          }
+          addRepoVersion(
+              response,
+              server.createPartitionFromChunk(
+                  repository, readChunk(exchange).getClassifierInstances()));
+          break;
+        case "store":
+          if (sendingProtoBuf(exchange)) {
+            if (!supportingProtoBuf) {
+              send(exchange, 415, "Unsupported media type");
+              return;
+            }
+            try (InputStream body = requestBody(exchange)) {
+              addRepoVersion(response, server.storeFromProtoBuf(repository, body));
+            }
+            break;
+          }
+          addRepoVersion(
+              response, server.store(repository, readChunk(exchange).getClassifierInstances()));
+          break;
+        case "deletePartitions":
+          List<String> partitionIds = new ArrayList<>();
+          readJson(exchange).getAsJsonArray().forEach(e -> partitionIds.add(e.getAsString()));
+          addRepoVersion(response, server.deletePartitions(repository, partitionIds));
+          break;
+        case "retrieve":
+          List<String> nodeIds = new ArrayList<>();
+          readJson(exchange)
+              .getAsJsonObject()
+              .get("ids")
+              .getAsJsonArray()
+              .forEach(e -> nodeIds.add(e.getAsString()));
+          int limit = Integer.parseInt(params.getOrDefault("depthLimit", "2147483647"));
+          if (supportingProtoBuf && acceptingProtoBuf(exchange)) {
+            send(exchange, 200, server.retrieveAsProtoBuf(repository, nodeIds, limit), PROTOBUF);
+            return;
+          }
+          response.add("chunk", chunk(repository, server.retrieve(repository, nodeIds, limit)));
+          break;
+        default:
+          send(exchange, 404, "Unknown operation " + operation);
+          return;
+      }
+      send(exchange, 200, response.toString());
+    } catch (RuntimeException e) {
+      send(exchange, 500, String.valueOf(e.getMessage()));
+    }
+  }
+
+  private List<String> partitionIDs(String repository) {
+    return new ArrayList<>(server.listPartitionIDs(repository));
+  }
+
+  private JsonElement chunk(String repository, List<SerializedClassifierInstance> nodes) {
+    RepositoryConfiguration configuration = server.getRepositoryConfiguration(repository);
+    return serialization.serializeToJsonElement(
+        SerializationChunk.fromNodes(configuration.getLionWebVersion(), nodes));
+  }
+
+  private static void addRepoVersion(JsonObject response, RepositoryVersionToken token) {
+    JsonObject data = new JsonObject();
+    // The InMemoryServer prefixes the version with "v-"
+    data.addProperty("version", Long.parseLong(token.getToken().substring(2)));
+    JsonObject message = new JsonObject();
+    message.addProperty("kind", "RepoVersion");
+    message.addProperty("message", "");
+    message.add("data", data);
+    response.getAsJsonArray("messages").add(message);
+  }
+
+  private SerializationChunk readChunk(HttpExchange exchange) throws IOException {
+    try (InputStream body = requestBody(exchange)) {
+      return serialization.deserializeSerializationBlock(body);
+    }
+  }
+
+  private JsonElement readJson(HttpExchange exchange) throws IOException {
+    try (InputStream body = requestBody(exchange)) {
+      return JsonParser.parseReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+  }
+
+  private static InputStream requestBody(HttpExchange exchange) throws IOException {
+    InputStream body = exchange.getRequestBody();
+    if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+      body = new GZIPInputStream(body);
+    }
+    return body;
+  }
+
+  private static boolean sendingProtoBuf(HttpExchange exchange) {
+    String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+    return contentType != null && contentType.startsWith(PROTOBUF);
+  }
+
+  private static boolean acceptingProtoBuf(HttpExchange exchange) {
+    String accept = exchange.getRequestHeaders().getFirst("Accept");
+    return accept != null && accept.contains(PROTOBUF);
+  }
+
+  private static void send(HttpExchange exchange, int code, String body) throws IOException {
+    send(exchange, code, body.getBytes(StandardCharsets.UTF_8), "application/json");
+  }
+
+  private static void send(HttpExchange exchange, int code, byte[] bytes, String contentType)
+      throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(code, 0);
+      try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+        out.write(bytes);
+      }
+    } else {
+      exchange.sendResponseHeaders(code, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    }
+  }
+
+  private static Map<String, String> queryParameters(URI uri) throws IOException {
+    Map<String, String> params = new HashMap<>();
+    if (uri.getRawQuery() == null) {
+      return params;
+    }
+    for (String param : uri.getRawQuery().split("&")) {
+      int separator = param.indexOf('=');
+      if (separator > 0) {
+        params.put(
+            URLDecoder.decode(param.substring(0, separator), "UTF-8"),
+            URLDecoder.decode(param.substring(separator + 1), "UTF-8"));
+      }
+    }
+    return params;
+  }
+}
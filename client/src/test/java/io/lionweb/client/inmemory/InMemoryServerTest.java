@@ -1,23 +1,33 @@
 package io.lionweb.client.inmemory;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.ClassifierResult;
 import io.lionweb.client.api.HistorySupport;
 import io.lionweb.client.api.RepositoryConfiguration;
 import io.lionweb.client.inmemory.library.*;
 import io.lionweb.model.impl.DynamicAnnotationInstance;
 import io.lionweb.serialization.AbstractSerialization;
+import io.lionweb.serialization.ProtoBufSerialization;
 import io.lionweb.serialization.SerializationProvider;
 import io.lionweb.serialization.data.SerializationChunk;
 import io.lionweb.serialization.data.SerializedClassifierInstance;
 import io.lionweb.utils.ValidationResult;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.Test;
 
 public class InMemoryServerTest {
@@ -114,4 +124,146 @@ public class InMemoryServerTest {
     assertTrue(subtreeIds.contains("book2"), "Subtree should contain the book");
     assertTrue(subtreeIds.contains("my-ann"), "Subtree should contain the annotation");
   }
+
+  @Test
+  public void storeAndRetrieveProtoBuf() throws IOException {
+    InMemoryServer server = new InMemoryServer();
+    server.createRepository(
+        new RepositoryConfiguration("MyRepo", LionWebVersion.v2023_1, HistorySupport.DISABLED));
+    ProtoBufSerialization serialization =
+        SerializationProvider.getStandardProtoBufSerialization(LionWebVersion.v2023_1);
+
+    Library library = new Library("lib1", "Main Library");
+    server.createPartitionsFromProtoBuf(
+        "MyRepo",
+        new ByteArrayInputStream(serialization.serializeTreesToByteArray(library)));
+    library.addBook(new Book("book1", "A Book", new Writer("writer1", "John Doe")));
+    server.storeFromProtoBuf(
+        "MyRepo",
+        new ByteArrayInputStream(serialization.serializeTreesToByteArray(library)));
+
+    assertEquals(Collections.singletonList("lib1"), server.listPartitionIDs("MyRepo"));
+    byte[] retrieved =
+        server.retrieveAsProtoBuf("MyRepo", Collections.singletonList("lib1"), Integer.MAX_VALUE);
+    assertEquals(
+        server.retrieve("MyRepo", Collections.singletonList("lib1"), Integer.MAX_VALUE),
+        serialization.deserializeToChunk(retrieved).getClassifierInstances());
+  }
+
+  @Test
+  public void retrievedNodesAreNotAffectedByLaterChanges() {
+    InMemoryServer server = new InMemoryServer();
+    server.createRepository(
+        new RepositoryConfiguration("MyRepo", LionWebVersion.v2023_1, HistorySupport.DISABLED));
+    AbstractSerialization serialization =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1);
+    Library lib1 = new Library("lib1", "Library 1");
+    Book book = new Book("book1", "A Book", new Writer("writer1", "John Doe"));
+    lib1.addBook(book);
+    Library lib2 = new Library("lib2", "Library 2");
+    server.createPartitionFromChunk(
+        "MyRepo",
+        serialization
+            .serializeTreesToSerializationChunk(Arrays.asList(lib1, lib2))
+            .getClassifierInstances());
+
+    SerializedClassifierInstance retrieved =
+        server.retrieve("MyRepo", Collections.singletonList("lib1"), 0).get(0);
+    assertEquals(Collections.singletonList("book1"), retrieved.getChildren());
+
+    // Moving the book updates lib1 in the repository, but not the node retrieved before
+    lib2.addBook(book);
+    server.store(
+        "MyRepo", serialization.serializeTreeToSerializationChunk(lib2).getClassifierInstances());
+    assertEquals(Collections.singletonList("book1"), retrieved.getChildren());
+    assertEquals(
+        Collections.emptyList(),
+        server.retrieve("MyRepo", Collections.singletonList("lib1"), 0).get(0).getChildren());
+
+    // Modifying the node retrieved does not affect the repository
+    retrieved.setAnnotations(Collections.singletonList("ann1"));
+    assertEquals(
+        Collections.emptyList(),
+        server.retrieve("MyRepo", Collections.singletonList("lib1"), 0).get(0).getAnnotations());
+  }
+
+  @Test
+  public void parallelStoresAndRetrievals() throws Exception {
+    InMemoryServer server = new InMemoryServer();
+    server.createRepository(
+        new RepositoryConfiguration("MyRepo", LionWebVersion.v2023_1, HistorySupport.DISABLED));
+    int clients = 16;
+    int rounds = 50;
+    for (int c = 0; c < clients; c++) {
+      server.createPartitionFromChunk(
+          "MyRepo",
+          SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1)
+              .serializeTreeToSerializationChunk(new Library("lib-" + c, "Library " + c))
+              .getClassifierInstances());
+    }
+
+    Set<String> tokens = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(clients * 2);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int c = 0; c < clients; c++) {
+        int client = c;
+        // Each writer grows its own library, one book per round
+        futures.add(
+            executor.submit(
+                () -> {
+                  AbstractSerialization serialization =
+                      SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1);
+                  Library library = new Library("lib-" + client, "Library " + client);
+                  for (int r = 0; r < rounds; r++) {
+                    String bookId = "lib-" + client + "-book-" + r;
+                    library.addBook(
+                        new Book(bookId, "Book " + r, new Writer("writer-" + r, "Writer " + r)));
+                    tokens.add(
+                        server
+                            .store(
+                                "MyRepo",
+                                serialization
+                                    .serializeTreeToSerializationChunk(library)
+                                    .getClassifierInstances())
+                            .getToken());
+                    List<SerializedClassifierInstance> retrieved =
+                        server.retrieve("MyRepo", Collections.singletonList("lib-" + client), 10);
+                    assertEquals(r + 2, retrieved.size());
+                  }
+                  return null;
+                }));
+        // Each reader keeps retrieving the library of another writer
+        futures.add(
+            executor.submit(
+                () -> {
+                  String libraryId = "lib-" + ((client + 1) % clients);
+                  for (int r = 0; r < rounds * 2; r++) {
+                    List<SerializedClassifierInstance> retrieved =
+                        server.retrieve("MyRepo", Collections.singletonList(libraryId), 10);
+                    assertEquals(libraryId, retrieved.get(0).getID());
+                    assertEquals(retrieved.get(0).getChildren().size() + 1, retrieved.size());
+                    assertFalse(server.listPartitionIDs("MyRepo").isEmpty());
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Every store created its own version
+    assertEquals(clients * rounds, tokens.size());
+    assertEquals(clients, server.listPartitionIDs("MyRepo").size());
+    assertEquals(
+        clients * (rounds + 1),
+        server.nodesByLanguage("MyRepo").values().stream()
+            .mapToInt(ClassifierResult::getSize)
+            .sum());
+    ValidationResult consistencyCheck = server.checkConsistency();
+    assertTrue(consistencyCheck.isSuccessful(), consistencyCheck.getIssues().toString());
+  }
 }
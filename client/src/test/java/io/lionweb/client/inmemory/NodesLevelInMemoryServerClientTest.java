@@ -5,9 +5,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import io.lionweb.LionWebVersion;
 import io.lionweb.client.api.HistorySupport;
 import io.lionweb.client.api.RepositoryConfiguration;
+import io.lionweb.client.api.RepositoryVersionToken;
 import io.lionweb.language.Concept;
 import io.lionweb.language.Language;
+import io.lionweb.model.ClassifierInstanceUtils;
+import io.lionweb.model.Node;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 public class NodesLevelInMemoryServerClientTest {
@@ -69,4 +76,42 @@ public class NodesLevelInMemoryServerClientTest {
     assertEquals(Collections.singletonList(l1), client.listPartitions());
     assertEquals(c1, client.retrieve(Collections.singletonList("c1-id")).get(0));
   }
+
+  @Test
+  public void testHistory() throws IOException {
+    InMemoryServer server = new InMemoryServer();
+    NodesLevelInMemoryServerClient client = new NodesLevelInMemoryServerClient(server, "MyRepo");
+    client.createRepository(
+        new RepositoryConfiguration("MyRepo", LionWebVersion.v2024_1, HistorySupport.ENABLED));
+    Language l1 =
+        new Language(LionWebVersion.v2024_1, "MyLanguage")
+            .setID("l-id")
+            .setKey("l-key")
+            .setVersion("1.0");
+    Concept c1 = new Concept(l1, "MyConcept", "c1-id").setKey("c1-key");
+
+    RepositoryVersionToken v1 = client.createPartitions(Collections.singletonList(l1));
+    c1.setName("RenamedConcept");
+    new Concept(l1, "OtherConcept", "c2-id").setKey("c2-key");
+    RepositoryVersionToken v2 = client.store(Collections.singletonList(l1));
+    RepositoryVersionToken v3 = client.deletePartitions(Collections.singletonList("l-id"));
+
+    assertEquals(Collections.emptyList(), client.listPartitions());
+    assertEquals(Collections.emptyList(), client.listPartitions(v3));
+    assertEquals(
+        Collections.singletonList("l-id"),
+        client.listPartitions(v2).stream().map(Node::getID).collect(Collectors.toList()));
+    assertEquals(Collections.singletonList("MyConcept"), conceptNames(client.retrieve(v1, "l-id")));
+    assertEquals(
+        Arrays.asList("RenamedConcept", "OtherConcept"), conceptNames(client.retrieve(v2, "l-id")));
+    assertEquals(
+        "RenamedConcept",
+        ClassifierInstanceUtils.getPropertyValueByName(client.retrieve(v2, "c1-id", 0), "name"));
+  }
+
+  private static List<Object> conceptNames(Node language) {
+    return ClassifierInstanceUtils.getChildren(language).stream()
+        .map(c -> ClassifierInstanceUtils.getPropertyValueByName(c, "name"))
+        .collect(Collectors.toList());
+  }
 }
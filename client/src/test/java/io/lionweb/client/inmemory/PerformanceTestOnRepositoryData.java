@@ -0,0 +1,101 @@
+package io.lionweb.client.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.HistorySupport;
+import io.lionweb.client.api.RepositoryConfiguration;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import io.lionweb.utils.ValidationResult;
+import java.util.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the time needed to store a few random edits on a container with a very large number of
+ * children.
+ */
+@Tag("performance")
+public class PerformanceTestOnRepositoryData {
+  private static final int N_CHILDREN = 200_000;
+  private static final int N_EDITS = 1_000;
+  private static final MetaPointer CONCEPT = MetaPointer.get("l1", "1.0", "c1");
+  private static final MetaPointer CONTAINMENT = MetaPointer.get("l1", "1.0", "containmentA");
+
+  @Test
+  public void storeEditsOnLargeContainer() {
+    RepositoryData repositoryData =
+        new RepositoryData(
+            new RepositoryConfiguration("repo1", LionWebVersion.v2023_1, HistorySupport.DISABLED));
+    List<String> childrenIds = new ArrayList<>(N_CHILDREN);
+    List<SerializedClassifierInstance> nodes = new ArrayList<>(N_CHILDREN + 1);
+    for (int i = 0; i < N_CHILDREN; i++) {
+      childrenIds.add("n-" + i);
+      nodes.add(node("n-" + i, "p"));
+    }
+    SerializedClassifierInstance partition = node("p", null);
+    partition.unsafeAppendContainmentValue(CONTAINMENT, childrenIds);
+    nodes.add(partition);
+    repositoryData.partitionIDs.add("p");
+    long start = System.nanoTime();
+    repositoryData.store(nodes);
+    System.out.println(
+        "Initial store of " + N_CHILDREN + " children: " + elapsedMillis(start) + " ms");
+
+    // Random deletions, additions and reorders on the container itself
+    Random random = new Random(1);
+    List<String> newChildrenIds = new ArrayList<>(childrenIds);
+    for (int i = 0; i < N_EDITS; i++) {
+      newChildrenIds.remove(1 + random.nextInt(newChildrenIds.size() - 1));
+    }
+    List<SerializedClassifierInstance> updatedNodes = new ArrayList<>();
+    for (int i = 0; i < N_EDITS; i++) {
+      String id = "added-" + i;
+      newChildrenIds.add(random.nextInt(newChildrenIds.size()), id);
+      updatedNodes.add(node(id, "p"));
+    }
+    for (int i = 0; i < N_EDITS; i++) {
+      Collections.swap(
+          newChildrenIds,
+          random.nextInt(newChildrenIds.size()),
+          random.nextInt(newChildrenIds.size()));
+    }
+    SerializedClassifierInstance updatedPartition = node("p", null);
+    updatedPartition.unsafeAppendContainmentValue(CONTAINMENT, newChildrenIds);
+    updatedNodes.add(updatedPartition);
+    start = System.nanoTime();
+    repositoryData.store(updatedNodes);
+    System.out.println(
+        "Store of " + N_EDITS + " deletions, additions and swaps: " + elapsedMillis(start) + " ms");
+    assertEquals(N_CHILDREN + 1, repositoryData.nodesByID.size());
+
+    // Moves from the container, which is not itself part of the update
+    String newParentId = newChildrenIds.get(0);
+    List<String> movedIds = new ArrayList<>(newChildrenIds.subList(1, N_EDITS + 1));
+    List<SerializedClassifierInstance> movedNodes = new ArrayList<>();
+    SerializedClassifierInstance newParent = node(newParentId, "p");
+    newParent.unsafeAppendContainmentValue(CONTAINMENT, movedIds);
+    movedNodes.add(newParent);
+    movedIds.forEach(id -> movedNodes.add(node(id, newParentId)));
+    start = System.nanoTime();
+    repositoryData.store(movedNodes);
+    System.out.println("Store of " + N_EDITS + " moves: " + elapsedMillis(start) + " ms");
+
+    assertEquals(N_CHILDREN + 1, repositoryData.nodesByID.size());
+    assertEquals(N_CHILDREN - N_EDITS, repositoryData.nodesByID.get("p").getChildren().size());
+    ValidationResult validationResult = repositoryData.checkConsistency();
+    assertTrue(validationResult.isSuccessful(), validationResult.getIssues().toString());
+  }
+
+  private static SerializedClassifierInstance node(String id, String parentId) {
+    SerializedClassifierInstance node = new SerializedClassifierInstance(id, CONCEPT);
+    node.setParentNodeID(parentId);
+    return node;
+  }
+
+  private static long elapsedMillis(long start) {
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+}
@@ -3,6 +3,8 @@ package io.lionweb.client.inmemory;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import io.lionweb.LionWebVersion;
+import io.lionweb.client.api.ClassifierKey;
+import io.lionweb.client.api.ClassifierResult;
 import io.lionweb.client.api.HistorySupport;
 import io.lionweb.client.api.RepositoryConfiguration;
 import io.lionweb.language.LionCoreBuiltins;
@@ -156,4 +158,64 @@ public class RepositoryDataTest {
         new HashSet<>(Arrays.asList("n1", "n2", "n3", "n4", "ann1")),
         retrieved.stream().map(n -> n.getID()).collect(Collectors.toSet()));
   }
+
+  @Test
+  public void indexesAreMaintained() {
+    RepositoryData repositoryData =
+        new RepositoryData(
+            new RepositoryConfiguration("repo1", LionWebVersion.v2023_1, HistorySupport.DISABLED));
+    SerializedClassifierInstance n1 =
+        new SerializedClassifierInstance("n1", MetaPointer.get("l1", "1.0", "c1"));
+    SerializedClassifierInstance n2 =
+        new SerializedClassifierInstance("n2", MetaPointer.get("l1", "1.0", "c2"));
+    SerializedClassifierInstance n3 =
+        new SerializedClassifierInstance("n3", MetaPointer.get("l1", "1.0", "c2"));
+    SerializedClassifierInstance ann1 =
+        new SerializedClassifierInstance("ann1", MetaPointer.get("lAnnotations", "1.0", "a1"));
+    n1.unsafeAppendContainmentValue(
+        MetaPointer.get("l1", "1.0", "containmentA"), Arrays.asList("n2", "n3"));
+    n1.addAnnotation("ann1");
+    n2.setParentNodeID("n1");
+    n3.setParentNodeID("n1");
+    ann1.setParentNodeID("n1");
+    repositoryData.partitionIDs.add("n1");
+    repositoryData.store(Arrays.asList(n1, n2, n3, ann1));
+
+    Map<ClassifierKey, ClassifierResult> byClassifier =
+        repositoryData.nodesByClassifier(Integer.MAX_VALUE);
+    assertEquals(3, byClassifier.size());
+    assertEquals(
+        new HashSet<>(Arrays.asList("n2", "n3")),
+        byClassifier.get(new ClassifierKey("l1", "c2")).getIds());
+    assertEquals(2, repositoryData.nodesByLanguage(Integer.MAX_VALUE).size());
+    assertEquals(3, repositoryData.nodesByLanguage(Integer.MAX_VALUE).get("l1").getSize());
+
+    // The limit applies to the IDs, not to the counts
+    ClassifierResult limited = repositoryData.nodesByLanguage(1).get("l1");
+    assertEquals(1, limited.getIds().size());
+    assertEquals(3, limited.getSize());
+
+    // Changing the classifier of a node and removing nodes update the indexes
+    SerializedClassifierInstance n1b =
+        new SerializedClassifierInstance("n1", MetaPointer.get("l1", "1.0", "c1"));
+    SerializedClassifierInstance n2b =
+        new SerializedClassifierInstance("n2", MetaPointer.get("l1", "1.0", "c3"));
+    n1b.unsafeAppendContainmentValue(
+        MetaPointer.get("l1", "1.0", "containmentA"), Collections.singletonList("n2"));
+    n2b.setParentNodeID("n1");
+    repositoryData.store(Arrays.asList(n1b, n2b));
+
+    byClassifier = repositoryData.nodesByClassifier(Integer.MAX_VALUE);
+    assertEquals(
+        new HashSet<>(Arrays.asList(new ClassifierKey("l1", "c1"), new ClassifierKey("l1", "c3"))),
+        byClassifier.keySet());
+    assertEquals(
+        Collections.singleton("n2"), byClassifier.get(new ClassifierKey("l1", "c3")).getIds());
+    assertEquals(
+        Collections.singleton("l1"), repositoryData.nodesByLanguage(Integer.MAX_VALUE).keySet());
+
+    repositoryData.deleteNodeAndDescendant("n1");
+    assertEquals(Collections.emptyMap(), repositoryData.nodesByClassifier(Integer.MAX_VALUE));
+    assertEquals(Collections.emptyMap(), repositoryData.nodesByLanguage(Integer.MAX_VALUE));
+  }
 }
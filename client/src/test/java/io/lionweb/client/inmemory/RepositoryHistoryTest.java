@@ -0,0 +1,80 @@
+package io.lionweb.client.inmemory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class RepositoryHistoryTest {
+  private static final MetaPointer CONCEPT = MetaPointer.get("l1", "1.0", "c1");
+  private static final MetaPointer PROPERTY = MetaPointer.get("l1", "1.0", "name");
+
+  @Test
+  public void statesAreSharedBetweenVersions() {
+    RepositoryHistory history = new RepositoryHistory(10);
+    SerializedClassifierInstance p = new SerializedClassifierInstance("p", CONCEPT);
+    SerializedClassifierInstance n1 = new SerializedClassifierInstance("n1", CONCEPT);
+    n1.setParentNodeID("p");
+    n1.setPropertyValue(PROPERTY, "first");
+    p.unsafeAppendContainmentValue(PROPERTY, Collections.singletonList("n1"));
+    history.record(1, changes("p", p, "n1", n1), Collections.singletonList("p"));
+
+    // The states are copied, so changing them later does not affect the history
+    n1.setPropertyValue(PROPERTY, "second");
+    history.record(2, changes("n1", n1), Collections.singletonList("p"));
+    history.record(3, changes("n1", null), Collections.emptyList());
+
+    assertEquals(Collections.emptyList(), history.partitionIDs(0));
+    assertEquals(Collections.singletonList("p"), history.partitionIDs(2));
+    assertEquals(Collections.emptyList(), history.partitionIDs(3));
+    assertNull(history.node(0, "n1"));
+    assertEquals("first", history.node(1, "n1").getPropertyValue(PROPERTY));
+    assertEquals("second", history.node(2, "n1").getPropertyValue(PROPERTY));
+    assertNull(history.node(3, "n1"));
+    // The partition was not changed by the later versions
+    assertSame(history.node(1, "p"), history.node(3, "p"));
+    assertThrows(IllegalArgumentException.class, () -> history.node(4, "p"));
+  }
+
+  @Test
+  public void oldVersionsAreEvicted() {
+    RepositoryHistory history = new RepositoryHistory(3);
+    SerializedClassifierInstance p = new SerializedClassifierInstance("p", CONCEPT);
+    for (int version = 1; version <= 10; version++) {
+      p.setPropertyValue(PROPERTY, "v" + version);
+      history.record(version, changes("p", p), Collections.singletonList("p"));
+    }
+
+    assertEquals(10, history.getLatestVersion());
+    assertEquals(8, history.getOldestVersion());
+    for (int version = 8; version <= 10; version++) {
+      assertEquals("v" + version, history.node(version, "p").getPropertyValue(PROPERTY));
+    }
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> history.node(7, "p"));
+    assertEquals("Version v-7 is no longer available", e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> history.partitionIDs(1));
+
+    // A node unchanged since an evicted version is still available
+    SerializedClassifierInstance other = new SerializedClassifierInstance("other", CONCEPT);
+    history.record(11, changes("other", other), Arrays.asList("p", "other"));
+    for (int version = 12; version <= 20; version++) {
+      history.record(version, changes("p", p), Arrays.asList("p", "other"));
+    }
+    assertEquals("other", history.node(20, "other").getID());
+    assertEquals(Arrays.asList("p", "other"), history.partitionIDs(20));
+  }
+
+  private static Map<String, SerializedClassifierInstance> changes(Object... idsAndStates) {
+    Map<String, SerializedClassifierInstance> changes = new HashMap<>();
+    for (int i = 0; i < idsAndStates.length; i += 2) {
+      changes.put((String) idsAndStates[i], (SerializedClassifierInstance) idsAndStates[i + 1]);
+    }
+    return changes;
+  }
+}
@@ -268,6 +268,21 @@ sourceSets {
     }
 }
 
+// The experiments are used also by the benchmarks module, to generate the trees to process
+val experimentsJar = tasks.register<Jar>("experimentsJar") {
+    archiveClassifier.set("experiments")
+    from(sourceSets.getByName("experiments").output)
+}
+
+val experimentsElements by configurations.creating {
+    isCanBeConsumed = true
+    isCanBeResolved = false
+}
+
+artifacts {
+    add(experimentsElements.name, experimentsJar)
+}
+
 tasks.test {
     finalizedBy(tasks.jacocoTestReport) // run report after tests
     useJUnitPlatform {
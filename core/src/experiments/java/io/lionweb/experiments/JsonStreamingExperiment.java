@@ -0,0 +1,70 @@
+package io.lionweb.experiments;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.lionweb.model.Node;
+import io.lionweb.serialization.LowLevelJsonSerialization;
+import io.lionweb.serialization.SerializationProvider;
+import io.lionweb.serialization.data.SerializationChunk;
+import java.io.StringReader;
+
+/**
+ * Compare the time and the memory needed to read a large JSON chunk by first building a tree of
+ * JsonElements (the DOM approach) and by reading it with a streaming parser.
+ */
+public class JsonStreamingExperiment {
+
+  private static final int ITERATIONS = 5;
+
+  public static void main(String[] args) {
+    TreeGenerator treeGenerator = new TreeGenerator(1);
+    Node tree = treeGenerator.generate(50_000);
+    SerializationChunk chunk =
+        SerializationProvider.getStandardJsonSerialization()
+            .serializeTreeToSerializationChunk(tree);
+    String json = new LowLevelJsonSerialization().serializeToJsonString(chunk);
+    System.out.println("JSON size " + json.length() + " chars");
+
+    printMemoryRetainedByJsonElements(json);
+
+    LowLevelJsonSerialization serialization = new LowLevelJsonSerialization();
+    for (int i = 0; i < ITERATIONS; i++) {
+      System.out.println("= Iteration " + (i + 1) + " =");
+
+      long t0 = System.currentTimeMillis();
+      SerializationChunk fromTree =
+          serialization.deserializeSerializationBlock(JsonParser.parseString(json));
+      long t1 = System.currentTimeMillis();
+      System.out.println("  DOM: " + (t1 - t0) + " ms");
+
+      long t2 = System.currentTimeMillis();
+      SerializationChunk fromStream =
+          serialization.deserializeSerializationBlock(new StringReader(json));
+      long t3 = System.currentTimeMillis();
+      System.out.println("  streaming: " + (t3 - t2) + " ms");
+
+      if (!fromTree.equals(fromStream)) {
+        throw new IllegalStateException("The two approaches produced different chunks");
+      }
+    }
+  }
+
+  /** The DOM approach keeps the whole tree of JsonElements in memory, on top of the chunk. */
+  private static void printMemoryRetainedByJsonElements(String json) {
+    long usedBefore = usedMemory();
+    JsonElement jsonElement = JsonParser.parseString(json);
+    long retained = usedMemory() - usedBefore;
+    System.out.println(
+        "JsonElement tree for "
+            + jsonElement.getAsJsonObject().getAsJsonArray("nodes").size()
+            + " nodes retains "
+            + retained / 1024 / 1024
+            + " MB");
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    runtime.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
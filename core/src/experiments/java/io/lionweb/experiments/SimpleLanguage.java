@@ -6,9 +6,9 @@ import java.util.List;
 
 public class SimpleLanguage {
 
-  static Language language;
-  static Concept baseConcept;
-  static List<Concept> subConcepts;
+  public static Language language;
+  public static Concept baseConcept;
+  public static List<Concept> subConcepts;
 
   static {
     language = new Language("MyLanguage", "simple-language-id", "simple-language-key");
@@ -20,19 +20,21 @@ public class SimpleLanguage {
           new Concept(
               language, "Subconcept" + i, "subconcept-" + i + "-id", "subconcept-" + i + "-key");
 
-      Containment containment = new Containment("myContainment", baseConcept);
+      Containment containment = new Containment("myContainment");
       containment.setID("mycontainment-" + i + "-id");
       containment.setKey("mycontainment-" + i + "-key");
       containment.setMultiple(true);
       containment.setType(baseConcept);
 
-      Property stringProperty = new Property("stringProp", subConcept);
+      Property stringProperty = new Property();
+      stringProperty.setName("stringProp");
       stringProperty.setType(LionCoreBuiltins.getString());
       stringProperty.setID("stringProp-" + i + "-id");
       stringProperty.setKey("stringProp-" + i + "-key");
       subConcept.addFeature(stringProperty);
 
-      Property intProperty = new Property("intProp", subConcept);
+      Property intProperty = new Property();
+      intProperty.setName("intProp");
       intProperty.setType(LionCoreBuiltins.getString());
       intProperty.setID("intProp-" + i + "-id");
       intProperty.setKey("intProp-" + i + "-key");
@@ -4,7 +4,7 @@ import io.lionweb.language.Concept;
 import io.lionweb.model.ClassifierInstanceUtils;
 import io.lionweb.model.Node;
 import io.lionweb.model.impl.DynamicNode;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -21,7 +21,8 @@ public class TreeGenerator {
       throw new IllegalArgumentException();
     }
     Node root = generateNode();
-    List<Node> allNodes = new LinkedList<>();
+    // Random access on the list must be cheap, as trees can have millions of nodes
+    List<Node> allNodes = new ArrayList<>(size);
     allNodes.add(root);
     for (int i = 0; i < size - 1; i++) {
       growTree(root, allNodes);
@@ -34,7 +35,7 @@ public class TreeGenerator {
 
   private String CHARS = "123456789 $#^&*()!~ABCDEFGHIJKLMNOPQRSTUVWXYZ";
   // A typical model will use many times the same strings. We simulate that
-  private List<String> generatedStrings = new LinkedList<>();
+  private List<String> generatedStrings = new ArrayList<>();
 
   private String randomString() {
     String s = "";
@@ -1,8 +1,8 @@
 package io.lionweb.api;
 
 import io.lionweb.model.ClassifierInstance;
-import io.lionweb.model.ClassifierInstanceUtils;
 import io.lionweb.model.Node;
+import io.lionweb.model.TreeWalker;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -47,7 +47,6 @@ public class LocalClassifierInstanceResolver implements ClassifierInstanceResolv
   }
 
   public void addTree(@Nonnull Node root) {
-    add(root);
-    ClassifierInstanceUtils.getChildren(root).forEach(c -> addTree(c));
+    TreeWalker.get(false).forEach(root, this::add);
   }
 }
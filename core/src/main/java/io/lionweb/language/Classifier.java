@@ -4,7 +4,6 @@ import io.lionweb.LionWebVersion;
 import io.lionweb.model.impl.M3Node;
 import io.lionweb.serialization.data.MetaPointer;
 import java.util.*;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -24,6 +23,8 @@ import javax.annotation.Nullable;
  */
 public abstract class Classifier<T extends M3Node> extends LanguageEntity<T>
     implements NamespaceProvider {
+  private volatile @Nullable FeatureIndex featureIndex;
+
   public Classifier() {
     super();
   }
@@ -38,10 +39,7 @@ public abstract class Classifier<T extends M3Node> extends LanguageEntity<T>
 
   public @Nullable Feature getFeatureByName(@Nonnull String name) {
     Objects.requireNonNull(name, "name should not be null");
-    return allFeatures().stream()
-        .filter(feature -> feature.getName().equals(name))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().features.getByName(name);
   }
 
   public abstract @Nonnull List<Classifier<?>> directAncestors();
@@ -93,44 +91,33 @@ public abstract class Classifier<T extends M3Node> extends LanguageEntity<T>
     return result;
   }
 
+  /**
+   * Returns all the features of this Classifier: the ones declared directly, followed by the
+   * inherited ones. The returned list is immutable and it is cached until this Classifier, one of
+   * its ancestors, one of their features, or one of their languages is modified.
+   */
   public @Nonnull List<Feature<?>> allFeatures() {
     // TODO Should this return features which are overriden?
     // TODO Should features be returned in a particular order?
-    List<Feature<?>> result = new LinkedList<>();
-    result.addAll(this.getFeatures());
-    combineFeatures(result, this.inheritedFeatures());
-
-    return result;
+    return featureIndex().features;
   }
 
   public abstract @Nonnull List<Feature<?>> inheritedFeatures();
 
   public @Nonnull List<Property> allProperties() {
-    return allFeatures().stream()
-        .filter(f -> f instanceof Property)
-        .map(f -> (Property) f)
-        .collect(Collectors.toList());
+    return featureIndex().properties;
   }
 
   public @Nonnull List<Containment> allContainments() {
-    return allFeatures().stream()
-        .filter(f -> f instanceof Containment)
-        .map(f -> (Containment) f)
-        .collect(Collectors.toList());
+    return featureIndex().containments;
   }
 
   public @Nonnull List<Reference> allReferences() {
-    return allFeatures().stream()
-        .filter(f -> f instanceof Reference)
-        .map(f -> (Reference) f)
-        .collect(Collectors.toList());
+    return featureIndex().references;
   }
 
   public @Nonnull List<Link<?>> allLinks() {
-    return allFeatures().stream()
-        .filter(f -> f instanceof Link)
-        .map(f -> (Link<?>) f)
-        .collect(Collectors.toList());
+    return featureIndex().links;
   }
 
   // TODO should this expose an immutable list to force users to use methods on this class
@@ -274,32 +261,28 @@ public abstract class Classifier<T extends M3Node> extends LanguageEntity<T>
 
   public @Nullable Property getPropertyByID(@Nonnull String propertyId) {
     Objects.requireNonNull(propertyId, "propertyId should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Property)
-        .map(f -> (Property) f)
-        .filter(p -> Objects.equals(p.getID(), propertyId))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().properties.getByID(propertyId);
+  }
+
+  /**
+   * Retrieves a {@link Property} based on its key. It considers also inherited features.
+   *
+   * @param propertyKey the key of the desired Property; it must not be null
+   * @return the {@link Property} with the specified key if found, or null otherwise
+   */
+  public @Nullable Property getPropertyByKey(@Nonnull String propertyKey) {
+    Objects.requireNonNull(propertyKey, "propertyKey should not be null");
+    return featureIndex().properties.getByKey(propertyKey);
   }
 
   public @Nullable Property getPropertyByName(@Nonnull String propertyName) {
     Objects.requireNonNull(propertyName, "propertyName should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Property)
-        .map(f -> (Property) f)
-        .filter(p -> Objects.equals(p.getName(), propertyName))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().properties.getByName(propertyName);
   }
 
   public @Nullable Containment getContainmentByID(@Nonnull String containmentID) {
     Objects.requireNonNull(containmentID, "containmentID should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Containment)
-        .map(f -> (Containment) f)
-        .filter(c -> Objects.equals(c.getID(), containmentID))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().containments.getByID(containmentID);
   }
 
   /**
@@ -312,42 +295,33 @@ public abstract class Classifier<T extends M3Node> extends LanguageEntity<T>
    */
   public @Nullable Containment getContainmentByKey(@Nonnull String containmentKey) {
     Objects.requireNonNull(containmentKey, "containmentKey should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Containment)
-        .map(f -> (Containment) f)
-        .filter(c -> Objects.equals(c.getKey(), containmentKey))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().containments.getByKey(containmentKey);
   }
 
   public @Nullable Containment getContainmentByName(@Nonnull String containmentName) {
     Objects.requireNonNull(containmentName, "containmentName should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Containment)
-        .map(f -> (Containment) f)
-        .filter(c -> Objects.equals(c.getName(), containmentName))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().containments.getByName(containmentName);
   }
 
   public @Nullable Reference getReferenceByID(@Nonnull String referenceID) {
     Objects.requireNonNull(referenceID, "referenceID should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Reference)
-        .map(f -> (Reference) f)
-        .filter(c -> Objects.equals(c.getID(), referenceID))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().references.getByID(referenceID);
+  }
+
+  /**
+   * Retrieves a {@link Reference} based on its key. It considers also inherited features.
+   *
+   * @param referenceKey the key of the desired Reference; it must not be null
+   * @return the {@link Reference} with the specified key if found, or null otherwise
+   */
+  public @Nullable Reference getReferenceByKey(@Nonnull String referenceKey) {
+    Objects.requireNonNull(referenceKey, "referenceKey should not be null");
+    return featureIndex().references.getByKey(referenceKey);
   }
 
   public @Nullable Reference getReferenceByName(@Nonnull String referenceName) {
     Objects.requireNonNull(referenceName, "referenceName should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Reference)
-        .map(f -> (Reference) f)
-        .filter(c -> Objects.equals(c.getName(), referenceName))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().references.getByName(referenceName);
   }
 
   /**
@@ -389,34 +363,51 @@ public abstract class Classifier<T extends M3Node> extends LanguageEntity<T>
 
   public @Nullable Link getLinkByName(@Nonnull String linkName) {
     Objects.requireNonNull(linkName, "linkName should not be null");
-    return allFeatures().stream()
-        .filter(f -> f instanceof Link)
-        .map(f -> (Link) f)
-        .filter(c -> Objects.equals(c.getName(), linkName))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().links.getByName(linkName);
   }
 
   public @Nullable Property getPropertyByMetaPointer(MetaPointer metaPointer) {
-
-    return this.allProperties().stream()
-        .filter(p -> MetaPointer.from(p).equals(metaPointer))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().properties.getByMetaPointer(metaPointer);
   }
 
   public @Nullable Containment getContainmentByMetaPointer(MetaPointer metaPointer) {
-    return this.allContainments().stream()
-        .filter(p -> MetaPointer.from(p).equals(metaPointer))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().containments.getByMetaPointer(metaPointer);
   }
 
   public @Nullable Reference getReferenceByMetaPointer(MetaPointer metaPointer) {
-    return this.allReferences().stream()
-        .filter(p -> MetaPointer.from(p).equals(metaPointer))
-        .findFirst()
-        .orElse(null);
+    return featureIndex().references.getByMetaPointer(metaPointer);
+  }
+
+  /**
+   * Returns the index of all the features of this Classifier, calculating it again if any of the
+   * elements it depends on has been modified since it was last calculated.
+   */
+  private @Nonnull FeatureIndex featureIndex() {
+    FeatureIndex index = featureIndex;
+    if (index == null || !index.isValid()) {
+      // The index depends on this Classifier and its ancestors, which declare the features, and on
+      // their languages, whose keys and versions are part of the MetaPointers of the features
+      Set<M3Node<?>> dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+      dependencies.add(this);
+      dependencies.addAll(allAncestors());
+      for (M3Node<?> classifier : new ArrayList<>(dependencies)) {
+        Language language = ((Classifier<?>) classifier).getLanguage();
+        if (language != null) {
+          dependencies.add(language);
+        }
+      }
+      FeatureIndex.Snapshot snapshot = new FeatureIndex.Snapshot(dependencies);
+      List<Feature<?>> result = new ArrayList<>(this.getFeatures());
+      combineFeatures(result, this.inheritedFeatures());
+      index = new FeatureIndex(snapshot, result);
+      featureIndex = index;
+    }
+    return index;
+  }
+
+  /** Invoked when one of the features of this Classifier is modified. */
+  void recordFeatureModification() {
+    recordModification();
   }
 
   protected void combineFeatures(List<Feature<?>> featuresA, List<Feature<?>> featuresB) {
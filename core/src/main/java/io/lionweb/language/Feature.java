@@ -59,6 +59,15 @@ public abstract class Feature<T extends M3Node> extends M3Node<T>
     }
   }
 
+  /** The Classifier declaring this feature indexes it, so it is notified of its modifications. */
+  @Override
+  protected void recordModification() {
+    super.recordModification();
+    if (getParent() instanceof Classifier) {
+      ((Classifier<?>) getParent()).recordFeatureModification();
+    }
+  }
+
   public boolean isOptional() {
     return this.getPropertyValue("optional", Boolean.class, false);
   }
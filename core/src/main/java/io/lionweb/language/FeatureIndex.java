@@ -0,0 +1,170 @@
+package io.lionweb.language;
+
+import io.lionweb.model.impl.M3Node;
+import io.lionweb.serialization.data.MetaPointer;
+import java.util.*;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Index of all the features of a Classifier, including the inherited ones.
+ *
+ * <p>The index is calculated once and it is then reused as long as none of the language elements it
+ * was derived from is modified (see {@link M3Node#getModificationsCount()}). In this way accessing
+ * the features of a Classifier, or checking if a feature belongs to it, does not require walking
+ * the hierarchy every time.
+ */
+final class FeatureIndex {
+  private final Snapshot snapshot;
+  final FeatureList<Feature<?>> features;
+  final FeatureList<Property> properties;
+  final FeatureList<Containment> containments;
+  final FeatureList<Reference> references;
+  final FeatureList<Link<?>> links;
+
+  FeatureIndex(@Nonnull Snapshot snapshot, @Nonnull List<Feature<?>> allFeatures) {
+    this.snapshot = snapshot;
+    List<Property> allProperties = new ArrayList<>();
+    List<Containment> allContainments = new ArrayList<>();
+    List<Reference> allReferences = new ArrayList<>();
+    List<Link<?>> allLinks = new ArrayList<>();
+    for (Feature<?> feature : allFeatures) {
+      if (feature instanceof Property) {
+        allProperties.add((Property) feature);
+      }
+      if (feature instanceof Containment) {
+        allContainments.add((Containment) feature);
+      }
+      if (feature instanceof Reference) {
+        allReferences.add((Reference) feature);
+      }
+      if (feature instanceof Link) {
+        allLinks.add((Link<?>) feature);
+      }
+    }
+    this.features = new FeatureList<>(allFeatures);
+    this.properties = new FeatureList<>(allProperties);
+    this.containments = new FeatureList<>(allContainments);
+    this.references = new FeatureList<>(allReferences);
+    this.links = new FeatureList<>(allLinks);
+  }
+
+  boolean isValid() {
+    return snapshot.isCurrent();
+  }
+
+  /** The modification counts of a group of language elements, taken at a given moment. */
+  static final class Snapshot {
+    private final M3Node<?>[] elements;
+    private final long[] modificationsCounts;
+
+    Snapshot(@Nonnull Collection<M3Node<?>> elements) {
+      this.elements = elements.toArray(new M3Node<?>[0]);
+      this.modificationsCounts = new long[this.elements.length];
+      for (int i = 0; i < this.elements.length; i++) {
+        modificationsCounts[i] = this.elements[i].getModificationsCount();
+      }
+    }
+
+    /** Returns true if none of the elements has been modified since the snapshot was taken. */
+    boolean isCurrent() {
+      for (int i = 0; i < elements.length; i++) {
+        if (elements[i].getModificationsCount() != modificationsCounts[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Immutable list of features, which also offers constant time lookups. The lookup maps are built
+   * only when first needed, as many classifiers are only iterated over.
+   *
+   * <p>When multiple features share the same name, key, ID, or MetaPointer, lookups return the
+   * first one, consistently with a linear search over the list.
+   */
+  static final class FeatureList<F extends Feature<?>> extends AbstractList<F>
+      implements RandomAccess {
+    private final Object[] elements;
+    private volatile Set<Object> elementsSet;
+    private volatile Map<String, F> byName;
+    private volatile Map<String, F> byKey;
+    private volatile Map<String, F> byID;
+    private volatile Map<MetaPointer, F> byMetaPointer;
+
+    private FeatureList(@Nonnull List<? extends F> elements) {
+      this.elements = elements.toArray();
+    }
+
+    @Override
+    public F get(int index) {
+      return (F) elements[index];
+    }
+
+    @Override
+    public int size() {
+      return elements.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Set<Object> set = elementsSet;
+      if (set == null) {
+        set = new HashSet<>(Arrays.asList(elements));
+        elementsSet = set;
+      }
+      return set.contains(o);
+    }
+
+    @Nullable
+    F getByName(@Nonnull String name) {
+      Map<String, F> map = byName;
+      if (map == null) {
+        map = buildMap(Feature::getName);
+        byName = map;
+      }
+      return map.get(name);
+    }
+
+    @Nullable
+    F getByKey(@Nonnull String key) {
+      Map<String, F> map = byKey;
+      if (map == null) {
+        map = buildMap(Feature::getKey);
+        byKey = map;
+      }
+      return map.get(key);
+    }
+
+    @Nullable
+    F getByID(@Nonnull String id) {
+      Map<String, F> map = byID;
+      if (map == null) {
+        map = buildMap(Feature::getID);
+        byID = map;
+      }
+      return map.get(id);
+    }
+
+    @Nullable
+    F getByMetaPointer(@Nullable MetaPointer metaPointer) {
+      Map<MetaPointer, F> map = byMetaPointer;
+      if (map == null) {
+        map = buildMap(MetaPointer::from);
+        byMetaPointer = map;
+      }
+      return map.get(metaPointer);
+    }
+
+    private <K> Map<K, F> buildMap(Function<Feature<?>, K> keyFunction) {
+      Map<K, F> map = new HashMap<>(elements.length * 2);
+      for (Object element : elements) {
+        F feature = (F) element;
+        map.putIfAbsent(keyFunction.apply(feature), feature);
+      }
+      return map;
+    }
+  }
+}
@@ -2,7 +2,6 @@ package io.lionweb.model;
 
 import io.lionweb.language.Annotation;
 import io.lionweb.language.Classifier;
-import io.lionweb.model.impl.ProxyNode;
 import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nonnull;
@@ -47,20 +46,14 @@ public interface ClassifierInstance<T extends Classifier<T>> extends HasFeatureV
   @Nullable
   ClassifierInstance<?> getParent();
 
-  /** Collects `self` and all its descendants into `result`. */
+  /**
+   * Collects `self` and all its descendants into `result`, each one before its descendants. See
+   * {@link TreeWalker} for the order used.
+   */
+  @SuppressWarnings("unchecked")
   static <T extends ClassifierInstance<?>> void collectSelfAndDescendants(
       T self, boolean includeAnnotations, Collection<T> result) {
-    result.add(self);
-    if (includeAnnotations) {
-      for (AnnotationInstance annotation : self.getAnnotations()) {
-        collectSelfAndDescendants((T) annotation, includeAnnotations, result);
-      }
-    }
-    for (Node child : ClassifierInstanceUtils.getChildren(self)) {
-      if (!(child instanceof ProxyNode)) {
-        collectSelfAndDescendants((T) child, includeAnnotations, result);
-      }
-    }
+    TreeWalker.get(includeAnnotations).forEach(self, instance -> result.add((T) instance));
   }
 
   /**
@@ -75,18 +68,7 @@ public interface ClassifierInstance<T extends Classifier<T>> extends HasFeatureV
    *     optionally its annotations. The return value is guaranteed to be greater or equal to 1
    */
   static int countSelfAndDescendants(ClassifierInstance<?> self, boolean includeAnnotations) {
-    int res = 1;
-    if (includeAnnotations) {
-      for (AnnotationInstance annotation : self.getAnnotations()) {
-        res += countSelfAndDescendants(annotation, includeAnnotations);
-      }
-    }
-    for (Node child : ClassifierInstanceUtils.getChildren(self)) {
-      if (!(child instanceof ProxyNode)) {
-        res += countSelfAndDescendants(child, includeAnnotations);
-      }
-    }
-    return res;
+    return TreeWalker.get(includeAnnotations).count(self);
   }
 
   // Observer methods
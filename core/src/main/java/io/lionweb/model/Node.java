@@ -4,6 +4,7 @@ import io.lionweb.language.*;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -89,6 +90,19 @@ public interface Node extends ClassifierInstance<Concept> {
     return result;
   }
 
+  /**
+   * Return a Stream over this node and all its descendants, each one before its descendants. The
+   * tree is traversed as the Stream is consumed, without being copied into a list. The Stream is
+   * sequential, but it can be made parallel: distinct subtrees are then processed by different
+   * threads, while keeping the encounter order. The tree should not be modified while the Stream
+   * is consumed.
+   *
+   * @param includeAnnotations if true, annotations and their descendants are included
+   */
+  default @Nonnull Stream<ClassifierInstance<?>> descendantsStream(boolean includeAnnotations) {
+    return TreeWalker.get(includeAnnotations).stream(this);
+  }
+
   /**
    * Register an observer for the whole partition. Should be invoked only on root nodes.
    *
@@ -0,0 +1,247 @@
+package io.lionweb.model;
+
+import io.lionweb.language.Containment;
+import io.lionweb.model.impl.ProxyNode;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnull;
+
+/**
+ * Traverses a tree of ClassifierInstances, using an explicit stack, so that arbitrarily deep trees
+ * can be traversed without risking a StackOverflowError.
+ *
+ * <p>Each instance is visited before its descendants. Its annotations, when included, come first,
+ * followed by its children, in the order of the containments of its classifier. ProxyNodes are not
+ * visited, as their content is not available.
+ *
+ * <p>A TreeWalker holds no state about a traversal, so it can be shared and used concurrently.
+ */
+public class TreeWalker {
+  private static final TreeWalker WITHOUT_ANNOTATIONS = new TreeWalker(false);
+  private static final TreeWalker WITH_ANNOTATIONS = new TreeWalker(true);
+
+  private final boolean includeAnnotations;
+
+  /** Receives the instances as they are entered and exited during a traversal. */
+  public interface Visitor {
+    /**
+     * Invoked before visiting the descendants of the instance.
+     *
+     * @return false to skip the descendants of the instance
+     */
+    boolean enter(@Nonnull ClassifierInstance<?> instance);
+
+    /** Invoked after having visited the descendants of the instance, or having skipped them. */
+    default void exit(@Nonnull ClassifierInstance<?> instance) {}
+  }
+
+  /**
+   * @param includeAnnotations if true, annotations and their descendants are traversed too
+   */
+  public TreeWalker(boolean includeAnnotations) {
+    this.includeAnnotations = includeAnnotations;
+  }
+
+  public static @Nonnull TreeWalker get(boolean includeAnnotations) {
+    return includeAnnotations ? WITH_ANNOTATIONS : WITHOUT_ANNOTATIONS;
+  }
+
+  public boolean isIncludingAnnotations() {
+    return includeAnnotations;
+  }
+
+  /** Visit the root and its descendants, invoking enter and exit on each of them. */
+  public void walk(@Nonnull ClassifierInstance<?> root, @Nonnull Visitor visitor) {
+    Objects.requireNonNull(root, "root should not be null");
+    Objects.requireNonNull(visitor, "visitor should not be null");
+    // The sub-instances still to be visited, for all the instances entered, are kept in a single
+    // stack. Each entered instance records the size of that stack before its sub-instances were
+    // added: once the stack shrinks back to that size, the instance can be exited.
+    ArrayDeque<ClassifierInstance<?>> pending = new ArrayDeque<>();
+    ArrayDeque<Frame> entered = new ArrayDeque<>();
+    enter(root, visitor, pending, entered);
+    while (!entered.isEmpty()) {
+      Frame frame = entered.peek();
+      if (pending.size() > frame.pendingBase) {
+        enter(pending.pop(), visitor, pending, entered);
+      } else {
+        entered.pop();
+        visitor.exit(frame.instance);
+      }
+    }
+  }
+
+  /** Invoke the action on the root and its descendants, each one before its descendants. */
+  public void forEach(
+      @Nonnull ClassifierInstance<?> root,
+      @Nonnull Consumer<? super ClassifierInstance<?>> action) {
+    Objects.requireNonNull(action, "action should not be null");
+    spliterator(root).forEachRemaining(action);
+  }
+
+  /** Count the root and its descendants. */
+  public int count(@Nonnull ClassifierInstance<?> root) {
+    int[] count = new int[] {0};
+    forEach(root, instance -> count[0]++);
+    return count[0];
+  }
+
+  /**
+   * A Spliterator over the root and its descendants, each one before its descendants. The
+   * instances are found as the Spliterator advances, so the tree should not be modified meanwhile.
+   *
+   * <p>The Spliterator can be split, so that parallel streams can process distinct subtrees on
+   * different threads, while keeping the encounter order. The size of the tree is not known in
+   * advance: the estimated size is halved at each split, which bounds the number of splits
+   * performed by parallel streams.
+   */
+  public @Nonnull Spliterator<ClassifierInstance<?>> spliterator(
+      @Nonnull ClassifierInstance<?> root) {
+    Objects.requireNonNull(root, "root should not be null");
+    return new PreOrderSpliterator(root);
+  }
+
+  /**
+   * A sequential Stream over the root and its descendants, each one before its descendants. It can
+   * be turned into a parallel Stream, see {@link #spliterator(ClassifierInstance)}.
+   */
+  public @Nonnull Stream<ClassifierInstance<?>> stream(@Nonnull ClassifierInstance<?> root) {
+    return StreamSupport.stream(spliterator(root), false);
+  }
+
+  private void enter(
+      ClassifierInstance<?> instance,
+      Visitor visitor,
+      ArrayDeque<ClassifierInstance<?>> pending,
+      ArrayDeque<Frame> entered) {
+    if (visitor.enter(instance)) {
+      entered.push(new Frame(instance, pending.size()));
+      pushSubInstances(instance, pending);
+    } else {
+      visitor.exit(instance);
+    }
+  }
+
+  /**
+   * Push the annotations (if included) and the children of the instance, so that they are popped
+   * in the order in which they should be visited.
+   */
+  private void pushSubInstances(
+      ClassifierInstance<?> instance, ArrayDeque<ClassifierInstance<?>> stack) {
+    List<Containment> containments = instance.getClassifier().allContainments();
+    for (int i = containments.size() - 1; i >= 0; i--) {
+      pushReversed(instance.getChildren(containments.get(i)), stack);
+    }
+    if (includeAnnotations) {
+      pushReversed(instance.getAnnotations(), stack);
+    }
+  }
+
+  private static void pushReversed(
+      List<? extends ClassifierInstance<?>> instances, ArrayDeque<ClassifierInstance<?>> stack) {
+    ListIterator<? extends ClassifierInstance<?>> it = instances.listIterator(instances.size());
+    while (it.hasPrevious()) {
+      ClassifierInstance<?> instance = it.previous();
+      if (!(instance instanceof ProxyNode)) {
+        stack.push(instance);
+      }
+    }
+  }
+
+  private static class Frame {
+    private final ClassifierInstance<?> instance;
+    private final int pendingBase;
+
+    private Frame(ClassifierInstance<?> instance, int pendingBase) {
+      this.instance = instance;
+      this.pendingBase = pendingBase;
+    }
+  }
+
+  private class PreOrderSpliterator implements Spliterator<ClassifierInstance<?>> {
+    /**
+     * The roots of the subtrees still to be traversed, the first one at the top. Each subtree
+     * precedes the ones below it in the encounter order.
+     */
+    private final ArrayDeque<ClassifierInstance<?>> stack;
+
+    private long estimatedSize;
+
+    private PreOrderSpliterator(ClassifierInstance<?> root) {
+      this.stack = new ArrayDeque<>();
+      this.stack.push(root);
+      this.estimatedSize = Long.MAX_VALUE;
+    }
+
+    private PreOrderSpliterator(ArrayDeque<ClassifierInstance<?>> stack, long estimatedSize) {
+      this.stack = stack;
+      this.estimatedSize = estimatedSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ClassifierInstance<?>> action) {
+      ClassifierInstance<?> instance = stack.poll();
+      if (instance == null) {
+        return false;
+      }
+      pushSubInstances(instance, stack);
+      action.accept(instance);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super ClassifierInstance<?>> action) {
+      ClassifierInstance<?> instance;
+      while ((instance = stack.poll()) != null) {
+        pushSubInstances(instance, stack);
+        action.accept(instance);
+      }
+    }
+
+    /**
+     * Hand off the first half of the pending subtrees. When a single subtree is pending, its root
+     * is handed off alone, and its own subtrees are kept.
+     */
+    @Override
+    public Spliterator<ClassifierInstance<?>> trySplit() {
+      if (stack.isEmpty()) {
+        return null;
+      }
+      if (stack.size() == 1) {
+        ClassifierInstance<?> root = stack.peek();
+        pushSubInstances(root, stack);
+        if (stack.size() == 1) {
+          // A leaf: there is nothing to split
+          return null;
+        }
+        stack.removeLast();
+        estimatedSize >>>= 1;
+        return Spliterators.spliterator(
+            new Object[] {root}, Spliterator.ORDERED | Spliterator.NONNULL);
+      }
+      ArrayDeque<ClassifierInstance<?>> prefix = new ArrayDeque<>();
+      for (int i = stack.size() / 2; i > 0; i--) {
+        prefix.addLast(stack.pop());
+      }
+      estimatedSize >>>= 1;
+      return new PreOrderSpliterator(prefix, estimatedSize);
+    }
+
+    @Override
+    public long estimateSize() {
+      return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+  }
+}
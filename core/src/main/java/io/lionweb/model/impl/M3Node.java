@@ -6,6 +6,7 @@ import io.lionweb.LionWebVersion;
 import io.lionweb.language.*;
 import io.lionweb.model.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -23,6 +24,13 @@ import javax.annotation.Nullable;
  */
 public abstract class M3Node<T extends M3Node> extends AbstractNode
     implements Node, HasSettableParent, HasSettableID {
+  /**
+   * Counts the modifications applied to this M3Node. Information derived from language elements,
+   * such as the feature index of a Classifier, records the counts of the elements it depends on and
+   * is recalculated once any of them changes.
+   */
+  private final AtomicLong modificationsCount = new AtomicLong();
+
   private final @Nonnull LionWebVersion lionWebVersion;
   private @Nullable String id;
   private @Nullable ClassifierInstance<?> parent;
@@ -51,11 +59,13 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
   public @Nonnull T setID(@Nonnull String id) {
     Objects.requireNonNull(id);
     this.id = id;
+    recordModification();
     return (T) this;
   }
 
   public T setParent(ClassifierInstance<?> parent) {
     this.parent = parent;
+    recordModification();
     this.partitionObserverRegistered(
         this.parent == null ? null : this.parent.registeredPartitionObserver());
     return (T) this;
@@ -109,6 +119,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
       oldValue = getPropertyValue(getClassifier().getPropertyByName(propertyName));
     }
     propertyValues.put(propertyName, value);
+    recordModification();
     if (partitionObserverCache != null && !Objects.equals(oldValue, value)) {
       partitionObserverCache.propertyChanged(
           this, getClassifier().getPropertyByName(propertyName), oldValue, value);
@@ -183,6 +194,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
     List<Node> children = containmentValues.get(containment.getName());
     int index = children.indexOf(child);
     children.remove(child);
+    recordModification();
     if (child instanceof HasSettableParent) {
       ((HasSettableParent) child).setParent(null);
     }
@@ -263,6 +275,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
       }
     }
     referenceValues.put(reference.getName(), (List<ReferenceValue>) values);
+    recordModification();
     if (partitionObserverCache != null) {
       int i = 0;
       for (ReferenceValue value : values) {
@@ -289,6 +302,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
     }
     ReferenceValue rv = refValues.get(index);
     refValues.set(index, rv.withReferred(referredNode));
+    recordModification();
     if (partitionObserverCache != null) {
       partitionObserverCache.referenceValueChanged(
           this,
@@ -319,6 +333,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
     }
     ReferenceValue rv = refValues.get(index);
     refValues.set(index, rv.withResolveInfo(resolveInfo));
+    recordModification();
     if (partitionObserverCache != null) {
       partitionObserverCache.referenceValueChanged(
           this,
@@ -397,8 +412,10 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
         }
       }
       referenceValues.remove(linkName);
+      recordModification();
     } else {
       referenceValues.put(linkName, new ArrayList(Arrays.asList(value)));
+      recordModification();
       if (partitionObserverCache != null) {
         partitionObserverCache.referenceValueAdded(
             this, getClassifier().getReferenceByName(linkName), 0, value);
@@ -424,6 +441,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
     } else {
       containmentValues.put(linkName, new ArrayList(Arrays.asList(value)));
     }
+    recordModification();
     if (partitionObserverCache != null) {
       partitionObserverCache.childAdded(
           this,
@@ -452,6 +470,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
     } else {
       containmentValues.put(linkName, new ArrayList(Arrays.asList(value)));
     }
+    recordModification();
     if (partitionObserverCache != null) {
       partitionObserverCache.childAdded(
           this, getClassifier().getContainmentByName(linkName), index, value);
@@ -472,6 +491,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
       referenceValues.put(linkName, new ArrayList(Arrays.asList(value)));
       index = 0;
     }
+    recordModification();
     if (partitionObserverCache != null) {
       Reference reference = getClassifier().getReferenceByName(linkName);
       partitionObserverCache.referenceValueAdded(this, reference, index, value);
@@ -501,6 +521,7 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
       }
       referenceValues.put(linkName, new ArrayList(Arrays.asList(value)));
     }
+    recordModification();
     if (partitionObserverCache != null) {
       Reference reference = getClassifier().getReferenceByName(linkName);
       partitionObserverCache.referenceValueAdded(this, reference, index, value);
@@ -508,6 +529,19 @@ public abstract class M3Node<T extends M3Node> extends AbstractNode
     return index;
   }
 
+  /**
+   * Returns the number of modifications applied so far to this M3Node. It can be used to detect if
+   * information derived from it is still valid.
+   */
+  public long getModificationsCount() {
+    return modificationsCount.get();
+  }
+
+  /** Invoked after each modification of this M3Node. */
+  protected void recordModification() {
+    modificationsCount.incrementAndGet();
+  }
+
   @Nonnull
   public LionWebVersion getLionWebVersion() {
     return lionWebVersion;
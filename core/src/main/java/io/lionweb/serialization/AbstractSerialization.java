@@ -11,7 +11,16 @@ import io.lionweb.model.impl.AbstractClassifierInstance;
 import io.lionweb.model.impl.ProxyNode;
 import io.lionweb.serialization.data.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -56,6 +65,37 @@ public abstract class AbstractSerialization {
 
   protected boolean builtinsReferenceDangling = false;
 
+  /**
+   * Number of threads used when serializing and deserializing. When it is one, no pool is used and
+   * all the work is performed on the calling thread.
+   */
+  private int parallelism = 1;
+
+  /**
+   * The pools used for serializing and deserializing in parallel, by parallelism. They are shared
+   * by all the serializations, so that creating many of them, or changing their parallelism, does
+   * not leave threads behind. The workers of a ForkJoinPool are daemon threads, terminated when
+   * idle.
+   */
+  private static final Map<Integer, ForkJoinPool> SHARED_POOLS = new ConcurrentHashMap<>();
+
+  private @Nullable ForkJoinPool forkJoinPool;
+
+  /** Maximum number of decoded property values cached for each data type while deserializing. */
+  private int propertyValuesCacheSize = PropertyValuesCache.DEFAULT_MAX_SIZE;
+
+  private final LongAdder propertyValuesCacheHits = new LongAdder();
+  private final LongAdder propertyValuesCacheMisses = new LongAdder();
+
+  /** Pool used to share the serialized property values, when serializing and deserializing. */
+  private @Nonnull InternPool internPool = InternPool.getDefault();
+
+  /** Serializers for specific classifiers, by the class of the instances they handle. */
+  private final Map<Class<?>, ClassifierSerializer<?>> serializersByClass = new HashMap<>();
+
+  private final Map<MetaPointer, ClassifierSerializer<?>> serializersByClassifier =
+      new HashMap<>();
+
   protected AbstractSerialization() {
     this(LionWebVersion.currentVersion);
   }
@@ -154,15 +194,117 @@ public abstract class AbstractSerialization {
     instanceResolver.addTree(language);
   }
 
+  /**
+   * Registers the serializers of the given module. The instances they handle are serialized and
+   * instantiated by them, taking precedence over the {@link Instantiator}. The languages of those
+   * instances should still be registered.
+   */
+  public void registerSerializationModule(@Nonnull SerializationModule module) {
+    Objects.requireNonNull(module, "module should not be null");
+    module.getSerializers().forEach(this::registerClassifierSerializer);
+  }
+
+  public void registerClassifierSerializer(@Nonnull ClassifierSerializer<?> serializer) {
+    Objects.requireNonNull(serializer, "serializer should not be null");
+    serializersByClass.put(serializer.getInstanceClass(), serializer);
+    serializersByClassifier.put(serializer.getClassifier(), serializer);
+  }
+
   public void makeBuiltinsReferenceDangling() {
     this.builtinsReferenceDangling = true;
   }
 
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Set the number of threads to be used when serializing and deserializing. By default only the
+   * calling thread is used.
+   *
+   * <p>When serializing trees, they are split by subtree, and each subtree is serialized by one of
+   * the workers. The nodes are then concatenated in the same order used when serializing them
+   * sequentially. The languages of the nodes are registered once all the nodes have been
+   * serialized, so serializers of enumerations and structured data types should be registered in
+   * advance.
+   *
+   * <p>When deserializing, the nodes are processed in three phases, each one processing the nodes
+   * in parallel: first the classifiers are resolved and the property values decoded, then the
+   * nodes are instantiated, and finally containments and references are populated. The result is
+   * the same obtained with a parallelism of one.
+   *
+   * <p>Nodes are instantiated after their children, so custom deserializers registered in the
+   * {@link Instantiator} can still access them. Other nodes could be instantiated concurrently, so
+   * they should not be accessed. The Instantiator, the ClassifierResolver, and the
+   * DataTypesValuesSerialization are used concurrently, so they should not be modified while
+   * serializing or deserializing.
+   *
+   * <p>The threads are taken from a pool shared by all the serializations using the same
+   * parallelism, so serializations used concurrently share those threads.
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism should be at least 1");
+    }
+    this.parallelism = parallelism;
+    this.forkJoinPool =
+        parallelism > 1 ? SHARED_POOLS.computeIfAbsent(parallelism, ForkJoinPool::new) : null;
+  }
+
+  public int getPropertyValuesCacheSize() {
+    return propertyValuesCacheSize;
+  }
+
+  /**
+   * Set the maximum number of decoded property values cached for each data type while
+   * deserializing. When the limit is reached, the values cached for that data type are evicted. A
+   * size of zero disables the cache.
+   */
+  public void setPropertyValuesCacheSize(int propertyValuesCacheSize) {
+    if (propertyValuesCacheSize < 0) {
+      throw new IllegalArgumentException("propertyValuesCacheSize should not be negative");
+    }
+    this.propertyValuesCacheSize = propertyValuesCacheSize;
+  }
+
+  /**
+   * Number of property values which, since this serialization was created, were found in the cache
+   * instead of being decoded.
+   */
+  public long getPropertyValuesCacheHits() {
+    return propertyValuesCacheHits.sum();
+  }
+
+  /**
+   * Number of property values which, since this serialization was created, had to be decoded. This
+   * includes the values of Strings, and of the other data types for which caching was not worth it.
+   */
+  public long getPropertyValuesCacheMisses() {
+    return propertyValuesCacheMisses.sum();
+  }
+
+  public @Nonnull InternPool getInternPool() {
+    return internPool;
+  }
+
+  /**
+   * Set the pool used to share the serialized property values. By default {@link
+   * InternPool#getDefault()} is used. A dedicated pool permits to release the values together with
+   * this serialization.
+   */
+  public void setInternPool(@Nonnull InternPool internPool) {
+    Objects.requireNonNull(internPool, "internPool should not be null");
+    this.internPool = internPool;
+  }
+
   //
   // Serialization to chunk
   //
 
   public SerializationChunk serializeTreeToSerializationChunk(ClassifierInstance<?> root) {
+    if (forkJoinPool != null) {
+      return serializeTreesInParallel(Collections.singletonList(root));
+    }
     Set<ClassifierInstance<?>> classifierInstances = new LinkedHashSet<>();
     ClassifierInstance.collectSelfAndDescendants(root, true, classifierInstances);
     return serializeNodesToSerializationChunk(classifierInstances);
@@ -170,6 +312,9 @@ public abstract class AbstractSerialization {
 
   public SerializationChunk serializeTreesToSerializationChunk(
       List<? extends ClassifierInstance<?>> roots) {
+    if (forkJoinPool != null) {
+      return serializeTreesInParallel(roots);
+    }
     Set<ClassifierInstance<?>> classifierInstances = new LinkedHashSet<>();
     roots.forEach(
         root -> ClassifierInstance.collectSelfAndDescendants(root, true, classifierInstances));
@@ -178,6 +323,9 @@ public abstract class AbstractSerialization {
 
   public SerializationChunk serializeNodesToSerializationChunk(
       Collection<ClassifierInstance<?>> classifierInstances) {
+    if (forkJoinPool != null) {
+      return serializeNodesInParallel(classifierInstances);
+    }
     SerializationChunk serializationChunk = new SerializationChunk();
     serializationChunk.setSerializationFormatVersion(lionWebVersion.getVersionString());
     SerializationStatus serializationStatus = new SerializationStatus();
@@ -204,6 +352,228 @@ public abstract class AbstractSerialization {
     registerLanguage(language);
   }
 
+  /**
+   * Serialize the given nodes using the ForkJoinPool. The nodes are split in slices, each
+   * serialized by a worker with its own SerializationStatus, and the results are then concatenated
+   * in the original order.
+   */
+  @SuppressWarnings("unchecked")
+  private SerializationChunk serializeNodesInParallel(
+      Collection<ClassifierInstance<?>> classifierInstances) {
+    List<ClassifierInstance<?>> nodes = new ArrayList<>(classifierInstances);
+    ParallelSerializationStatus status = new ParallelSerializationStatus();
+    SerializedClassifierInstance[] serializedNodes = new SerializedClassifierInstance[nodes.size()];
+    // Annotations which are not among the nodes are rare, so we only allocate lists for them when
+    // needed
+    List<SerializedClassifierInstance>[] serializedAnnotations = new List[nodes.size()];
+    forEachInParallel(
+        0,
+        nodes.size(),
+        i -> {
+          ClassifierInstance<?> classifierInstance = nodes.get(i);
+          Objects.requireNonNull(classifierInstance, "nodes should not contain null values");
+          SerializationStatus serializationStatus = status.forCurrentWorker();
+          serializedNodes[i] = serializeNode(classifierInstance, serializationStatus);
+          for (AnnotationInstance annotationInstance : classifierInstance.getAnnotations()) {
+            if (!classifierInstances.contains(annotationInstance)) {
+              if (serializedAnnotations[i] == null) {
+                serializedAnnotations[i] = new ArrayList<>();
+              }
+              serializedAnnotations[i].add(
+                  serializeAnnotationInstance(annotationInstance, serializationStatus));
+            }
+          }
+          status.considerLanguage(serializationStatus, classifierInstance);
+        });
+
+    SerializationChunk serializationChunk = new SerializationChunk();
+    serializationChunk.setSerializationFormatVersion(lionWebVersion.getVersionString());
+    for (int i = 0; i < serializedNodes.length; i++) {
+      serializationChunk.addClassifierInstance(serializedNodes[i]);
+      if (serializedAnnotations[i] != null) {
+        serializedAnnotations[i].forEach(serializationChunk::addClassifierInstance);
+      }
+    }
+    status.registerLanguages();
+    serializationChunk.populateUsedLanguages();
+    return serializationChunk;
+  }
+
+  /**
+   * Serialize the given trees using the ForkJoinPool. Each tree is split by subtree into tasks,
+   * which are forked as long as the workers have little queued work. The result is the same
+   * produced by collecting the nodes with {@link ClassifierInstance#collectSelfAndDescendants} and
+   * serializing them in order: nodes reachable from more roots are serialized only once, at the
+   * position of the first root containing them.
+   */
+  private SerializationChunk serializeTreesInParallel(List<? extends ClassifierInstance<?>> roots) {
+    ForkJoinPool pool = Objects.requireNonNull(forkJoinPool);
+    ParallelSerializationStatus status = new ParallelSerializationStatus();
+    // When a root is a descendant of another root we must serialize it only once
+    IdentityHashMap<ClassifierInstance<?>, Integer> rootIndexes = new IdentityHashMap<>();
+    for (int i = 0; i < roots.size(); i++) {
+      Objects.requireNonNull(roots.get(i), "nodes should not contain null values");
+      rootIndexes.putIfAbsent(roots.get(i), i);
+    }
+    List<SubtreeSerializationTask> tasks = new ArrayList<>(roots.size());
+    for (int i = 0; i < roots.size(); i++) {
+      if (!isContainedInPreviousRoot(roots.get(i), i, rootIndexes)) {
+        tasks.add(new SubtreeSerializationTask(roots.get(i), i, rootIndexes, status));
+      }
+    }
+    pool.invoke(
+        new RecursiveAction() {
+          @Override
+          protected void compute() {
+            invokeAll(tasks);
+          }
+        });
+
+    SerializationChunk serializationChunk = new SerializationChunk();
+    serializationChunk.setSerializationFormatVersion(lionWebVersion.getVersionString());
+    for (SubtreeSerializationTask task : tasks) {
+      for (List<SerializedClassifierInstance> segment : task.join()) {
+        segment.forEach(serializationChunk::addClassifierInstance);
+      }
+    }
+    status.registerLanguages();
+    serializationChunk.populateUsedLanguages();
+    return serializationChunk;
+  }
+
+  private static boolean isContainedInPreviousRoot(
+      ClassifierInstance<?> root,
+      int rootIndex,
+      IdentityHashMap<ClassifierInstance<?>, Integer> rootIndexes) {
+    for (ClassifierInstance<?> current = root; current != null; current = current.getParent()) {
+      Integer index = rootIndexes.get(current);
+      if (index != null && index < rootIndex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * State shared by the workers serializing nodes in parallel. Each worker uses its own
+   * SerializationStatus, while languages are considered once, across all workers, and registered
+   * only when all the nodes have been serialized, from the calling thread.
+   */
+  private final class ParallelSerializationStatus {
+    private final Map<Thread, SerializationStatus> statuses = new ConcurrentHashMap<>();
+    private final Set<String> consideredLanguageIDs = ConcurrentHashMap.newKeySet();
+    private final Queue<Language> languagesToRegister = new ConcurrentLinkedQueue<>();
+
+    SerializationStatus forCurrentWorker() {
+      return statuses.computeIfAbsent(Thread.currentThread(), t -> new SerializationStatus());
+    }
+
+    void considerLanguage(
+        SerializationStatus serializationStatus, ClassifierInstance<?> classifierInstance) {
+      serializationStatus.considerLanguageDuringSerialization(
+          language -> {
+            if (consideredLanguageIDs.add(language.getID())) {
+              languagesToRegister.add(language);
+            }
+          },
+          classifierInstance.getClassifier().getLanguage());
+    }
+
+    void registerLanguages() {
+      languagesToRegister.forEach(AbstractSerialization.this::considerLanguageDuringSerialization);
+    }
+  }
+
+  /**
+   * Serialize a subtree, in the order used by {@link ClassifierInstance#collectSelfAndDescendants}.
+   * The result is a list of segments, to be concatenated: the subtrees which have been forked
+   * produce their own segments, so that no list needs to be copied.
+   */
+  private final class SubtreeSerializationTask
+      extends RecursiveTask<List<List<SerializedClassifierInstance>>> {
+    /** Fork subtrees only while the worker has less queued tasks than this. */
+    private static final int MAX_SURPLUS_TASKS = 3;
+
+    private final ClassifierInstance<?> root;
+    private final int rootIndex;
+    private final IdentityHashMap<ClassifierInstance<?>, Integer> rootIndexes;
+    private final ParallelSerializationStatus status;
+
+    SubtreeSerializationTask(
+        ClassifierInstance<?> root,
+        int rootIndex,
+        IdentityHashMap<ClassifierInstance<?>, Integer> rootIndexes,
+        ParallelSerializationStatus status) {
+      this.root = root;
+      this.rootIndex = rootIndex;
+      this.rootIndexes = rootIndexes;
+      this.status = status;
+    }
+
+    @Override
+    protected List<List<SerializedClassifierInstance>> compute() {
+      List<List<SerializedClassifierInstance>> segments = new ArrayList<>();
+      segments.add(new ArrayList<>());
+      serializeSubtree(root, status.forCurrentWorker(), segments);
+      return segments;
+    }
+
+    /**
+     * The nodes which are not forked are visited using an explicit stack, so that deep subtrees do
+     * not risk a StackOverflowError.
+     */
+    private void serializeSubtree(
+        ClassifierInstance<?> subtreeRoot,
+        SerializationStatus serializationStatus,
+        List<List<SerializedClassifierInstance>> segments) {
+      ArrayDeque<ClassifierInstance<?>> pending = new ArrayDeque<>();
+      pending.push(subtreeRoot);
+      ClassifierInstance<?> classifierInstance;
+      while ((classifierInstance = pending.poll()) != null) {
+        segments
+            .get(segments.size() - 1)
+            .add(serializeNode(classifierInstance, serializationStatus));
+        status.considerLanguage(serializationStatus, classifierInstance);
+
+        List<ClassifierInstance<?>> subtrees = subtreesOf(classifierInstance);
+        if (subtrees.size() > 1 && getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS) {
+          List<SubtreeSerializationTask> tasks = new ArrayList<>(subtrees.size());
+          for (ClassifierInstance<?> subtree : subtrees) {
+            tasks.add(new SubtreeSerializationTask(subtree, rootIndex, rootIndexes, status));
+          }
+          invokeAll(tasks);
+          for (SubtreeSerializationTask task : tasks) {
+            segments.addAll(task.join());
+          }
+          // The following siblings of this node, or of its ancestors, go in a new segment
+          segments.add(new ArrayList<>());
+        } else {
+          for (int i = subtrees.size() - 1; i >= 0; i--) {
+            pending.push(subtrees.get(i));
+          }
+        }
+      }
+    }
+
+    /** The annotations and the children of the instance which should be serialized by this task. */
+    private List<ClassifierInstance<?>> subtreesOf(ClassifierInstance<?> classifierInstance) {
+      List<ClassifierInstance<?>> subtrees = new ArrayList<>(classifierInstance.getAnnotations());
+      for (Node child : ClassifierInstanceUtils.getChildren(classifierInstance)) {
+        if (!(child instanceof ProxyNode)) {
+          subtrees.add(child);
+        }
+      }
+      if (rootIndexes.size() > 1) {
+        subtrees.removeIf(
+            subtree -> {
+              Integer index = rootIndexes.get(subtree);
+              return index != null && index < rootIndex;
+            });
+      }
+      return subtrees;
+    }
+  }
+
   public SerializationChunk serializeNodesToSerializationChunk(
       ClassifierInstance<?>... classifierInstances) {
     return serializeNodesToSerializationChunk(Arrays.asList(classifierInstances));
@@ -214,22 +584,39 @@ public abstract class AbstractSerialization {
     Objects.requireNonNull(classifierInstance, "Node should not be null");
     SerializedClassifierInstance serializedClassifierInstance = new SerializedClassifierInstance();
     serializedClassifierInstance.setID(classifierInstance.getID());
+    ClassifierSerializer<ClassifierInstance<?>> serializer = serializerFor(classifierInstance);
     serializedClassifierInstance.setClassifier(
-        MetaPointer.from(classifierInstance.getClassifier()));
+        serializer == null
+            ? MetaPointer.from(classifierInstance.getClassifier())
+            : serializer.getClassifier());
     if (classifierInstance.getParent() != null) {
       serializedClassifierInstance.setParentNodeID(classifierInstance.getParent().getID());
     }
-    serializeProperties(classifierInstance, serializedClassifierInstance, serializationStatus);
-    serializeContainments(classifierInstance, serializedClassifierInstance, serializationStatus);
-    serializeReferences(
-        classifierInstance,
-        serializedClassifierInstance,
-        builtinsReferenceDangling,
-        serializationStatus);
+    if (serializer == null) {
+      serializeProperties(classifierInstance, serializedClassifierInstance, serializationStatus);
+      serializeContainments(classifierInstance, serializedClassifierInstance, serializationStatus);
+      serializeReferences(
+          classifierInstance,
+          serializedClassifierInstance,
+          builtinsReferenceDangling,
+          serializationStatus);
+    } else {
+      serializer.serializeFeatures(classifierInstance, serializedClassifierInstance, this);
+    }
     serializeAnnotations(classifierInstance, serializedClassifierInstance);
     return serializedClassifierInstance;
   }
 
+  @SuppressWarnings("unchecked")
+  private @Nullable ClassifierSerializer<ClassifierInstance<?>> serializerFor(
+      @Nonnull ClassifierInstance<?> classifierInstance) {
+    if (serializersByClass.isEmpty()) {
+      return null;
+    }
+    return (ClassifierSerializer<ClassifierInstance<?>>)
+        serializersByClass.get(classifierInstance.getClass());
+  }
+
   private SerializedClassifierInstance serializeAnnotationInstance(
       @Nonnull AnnotationInstance annotationInstance, SerializationStatus serializationStatus) {
     Objects.requireNonNull(annotationInstance, "AnnotationInstance should not be null");
@@ -271,17 +658,7 @@ public abstract class AbstractSerialization {
             reference -> {
               List<SerializedReferenceValue.Entry> entries =
                   classifierInstance.getReferenceValues(reference).stream()
-                      .map(
-                          rv -> {
-                            String referredID =
-                                rv.getReferred() == null ? null : rv.getReferred().getID();
-                            if (builtinsReferenceDangling
-                                && ClassifierInstanceUtils.isBuiltinElement(rv.getReferred())) {
-                              referredID = null;
-                            }
-                            return new SerializedReferenceValue.Entry(
-                                referredID, rv.getResolveInfo());
-                          })
+                      .map(rv -> serializeReferenceValue(rv, builtinsReferenceDangling))
                       .collect(Collectors.toList());
               if (!entries.isEmpty()) {
                 MetaPointer metaPointer =
@@ -294,6 +671,17 @@ public abstract class AbstractSerialization {
             });
   }
 
+  private static SerializedReferenceValue.Entry serializeReferenceValue(
+      @Nonnull ReferenceValue referenceValue, boolean builtinsReferenceDangling) {
+    String referredID =
+        referenceValue.getReferred() == null ? null : referenceValue.getReferred().getID();
+    if (builtinsReferenceDangling
+        && ClassifierInstanceUtils.isBuiltinElement(referenceValue.getReferred())) {
+      referredID = null;
+    }
+    return new SerializedReferenceValue.Entry(referredID, referenceValue.getResolveInfo());
+  }
+
   private static void serializeContainments(
       @Nonnull ClassifierInstance<?> classifierInstance,
       SerializedClassifierInstance serializedClassifierInstance,
@@ -329,7 +717,7 @@ public abstract class AbstractSerialization {
         .forEach(
             property -> {
               SerializedPropertyValue propertyValue =
-                  SerializedPropertyValue.get(
+                  internPool.propertyValue(
                       MetaPointer.from(
                           property, ((LanguageEntity<?>) property.getContainer()).getLanguage()),
                       serializePropertyValue(
@@ -342,10 +730,30 @@ public abstract class AbstractSerialization {
     Objects.requireNonNull(dataType, "cannot serialize property when the dataType is null");
     Objects.requireNonNull(
         dataType.getID(), "cannot serialize property when the dataType.ID is null");
+    return serializePropertyValue(dataType.getID(), value);
+  }
+
+  //
+  // Helpers for ClassifierSerializers
+  //
+
+  public @Nullable String serializePropertyValue(
+      @Nonnull String dataTypeID, @Nullable Object value) {
     if (value == null) {
       return null;
     }
-    return dataTypesValuesSerialization.serialize(dataType.getID(), value);
+    return dataTypesValuesSerialization.serialize(dataTypeID, value);
+  }
+
+  public @Nullable Object deserializePropertyValue(
+      @Nonnull String dataTypeID, @Nullable String serializedValue, boolean isRequired) {
+    return dataTypesValuesSerialization.deserializeByDataTypeID(
+        dataTypeID, serializedValue, isRequired);
+  }
+
+  public @Nonnull SerializedReferenceValue.Entry serializeReferenceValue(
+      @Nonnull ReferenceValue referenceValue) {
+    return serializeReferenceValue(referenceValue, builtinsReferenceDangling);
   }
 
   //
@@ -372,78 +780,85 @@ public abstract class AbstractSerialization {
   /**
    * This method returned a sorted version of the original list, so that leaves nodes comes first,
    * or in other words that a parent never precedes its children.
+   *
+   * <p>The nodes are indexed by the ID of their parent in a single pass, and then visited
+   * breadth-first starting from the roots, so the cost is linear in the number of nodes.
    */
-  private DeserializationStatus sortLeavesFirst(List<SerializedClassifierInstance> originalList) {
+  DeserializationStatus sortLeavesFirst(List<SerializedClassifierInstance> originalList) {
     DeserializationStatus deserializationStatus =
-        new DeserializationStatus(originalList, instanceResolver, dataTypesValuesSerialization);
+        new DeserializationStatus(
+            originalList,
+            instanceResolver,
+            new PropertyValuesCache(
+                dataTypesValuesSerialization,
+                propertyValuesCacheSize,
+                propertyValuesCacheHits,
+                propertyValuesCacheMisses));
 
     // We create the list going from the roots, to their children and so on, and then we will revert
     // the list
 
-    deserializationStatus.putNodesWithNullIDsInFront();
-
-    switch (unavailableParentPolicy) {
-      case NULL_REFERENCES:
-        {
-          // Let's find all the IDs of nodes present here. The nodes with parents not present here
-          // are effectively treated as roots and their parent will be set to null, as we cannot
-          // retrieve them or set them (until we decide to provide some sort of NodeResolver)
-          Set<String> knownIDs =
-              originalList.stream()
-                  .map(SerializedClassifierInstance::getID)
-                  .collect(Collectors.toSet());
-          originalList.stream()
-              .filter(ci -> !knownIDs.contains(ci.getParentNodeID()))
-              .forEach(deserializationStatus::place);
-          break;
-        }
-      case PROXY_NODES:
-        {
-          // Let's find all the IDs of nodes present here. The nodes with parents not present here
-          // are effectively treated as roots and their parent will be set to an instance of a
-          // ProxyNode, as we cannot retrieve them or set them (until we decide to provide some
-          // sort of NodeResolver)
-          Set<String> knownIDs =
-              originalList.stream()
-                  .map(SerializedClassifierInstance::getID)
-                  .collect(Collectors.toSet());
-          Set<String> parentIDs =
-              originalList.stream()
-                  .map(SerializedClassifierInstance::getParentNodeID)
-                  .filter(Objects::nonNull)
-                  .collect(Collectors.toSet());
-          Set<String> unknownParentIDs = Sets.difference(parentIDs, knownIDs);
-          originalList.stream()
-              .filter(ci -> unknownParentIDs.contains(ci.getParentNodeID()))
-              .forEach(deserializationStatus::place);
-
-          unknownParentIDs.forEach(deserializationStatus::createProxy);
-          break;
+    // Nodes with null IDs are ambiguous but they cannot be the children of any node: they can
+    // just be parent of other nodes, so we put all of them at the start (so they end up at the
+    // end when we reverse the list)
+    Set<String> knownIDs = new HashSet<>();
+    Map<String, List<SerializedClassifierInstance>> childrenByParentID = new HashMap<>();
+    for (SerializedClassifierInstance node : originalList) {
+      if (node.getID() == null) {
+        deserializationStatus.place(node);
+      } else {
+        knownIDs.add(node.getID());
+        if (node.getParentNodeID() != null) {
+          childrenByParentID
+              .computeIfAbsent(node.getParentNodeID(), id -> new ArrayList<>(1))
+              .add(node);
         }
+      }
     }
 
-    // We can start by putting at the start all the elements which either have no parent,
-    // or had a parent already added to the list
-    while (deserializationStatus.howManySorted() < originalList.size()) {
-      int initialLength = deserializationStatus.howManySorted();
-      for (int i = 0; i < deserializationStatus.howManyToSort(); i++) {
-        SerializedClassifierInstance node = deserializationStatus.getNodeToSort(i);
-
-        boolean parentIsNullOrSorted =
-            node.getParentNodeID() == null
-                || deserializationStatus.isSortedID(node.getParentNodeID());
-        boolean parentIsNotNeeded =
-            unavailableParentPolicy == UnavailableNodePolicy.NULL_REFERENCES
-                || unavailableParentPolicy == UnavailableNodePolicy.PROXY_NODES;
+    // We can start by putting at the start all the elements which have no parent. When the policy
+    // permits it, the nodes with parents not present here are effectively treated as roots and
+    // their parent will be set to null or to an instance of a ProxyNode, as we cannot retrieve
+    // them or set them (until we decide to provide some sort of NodeResolver)
+    boolean parentIsNotNeeded =
+        unavailableParentPolicy == UnavailableNodePolicy.NULL_REFERENCES
+            || unavailableParentPolicy == UnavailableNodePolicy.PROXY_NODES;
+    for (SerializedClassifierInstance node : originalList) {
+      String parentID = node.getParentNodeID();
+      if (node.getID() != null
+          && (parentID == null || (parentIsNotNeeded && !knownIDs.contains(parentID)))) {
+        deserializationStatus.place(node);
+      }
+    }
+    if (unavailableParentPolicy == UnavailableNodePolicy.PROXY_NODES) {
+      Set<String> parentIDs =
+          originalList.stream()
+              .map(SerializedClassifierInstance::getParentNodeID)
+              .filter(Objects::nonNull)
+              .collect(Collectors.toSet());
+      Set<String> unknownParentIDs = Sets.difference(parentIDs, knownIDs);
+      unknownParentIDs.forEach(deserializationStatus::createProxy);
+    }
 
-        if (parentIsNullOrSorted || parentIsNotNeeded) {
-          deserializationStatus.place(node);
-          i--;
+    // Then we add the children of the nodes already placed. The sorted list itself acts as the
+    // queue of the visit. Each list of children is removed once visited, so nodes sharing the same
+    // ID cannot cause the same children to be placed twice
+    List<SerializedClassifierInstance> sortedList = deserializationStatus.getSortedList();
+    for (int i = 0; i < sortedList.size(); i++) {
+      String nodeID = sortedList.get(i).getID();
+      if (nodeID != null) {
+        List<SerializedClassifierInstance> children = childrenByParentID.remove(nodeID);
+        if (children != null) {
+          children.forEach(deserializationStatus::place);
         }
       }
-      if (initialLength == deserializationStatus.howManySorted()) {
-        if (deserializationStatus.howManySorted() == 0
-            && unavailableParentPolicy == UnavailableNodePolicy.THROW_ERROR) {
+    }
+
+    // The nodes which could not be reached from any root are part of containment loops or,
+    // when parents are required, have parents not present here
+    if (deserializationStatus.howManySorted() < originalList.size()) {
+      if (unavailableParentPolicy == UnavailableNodePolicy.THROW_ERROR) {
+        if (deserializationStatus.howManySorted() == 0) {
           throw new DeserializationException(
               "No root found and parents cannot be proxied or set to null, so we cannot deserialize this tree. Original list: "
                   + originalList);
@@ -454,6 +869,15 @@ public abstract class AbstractSerialization {
                   + ". Probably there is a containment loop");
         }
       }
+      // As parents are not needed, we place the remaining nodes in their original order
+      Set<SerializedClassifierInstance> placed =
+          Collections.newSetFromMap(new IdentityHashMap<>(sortedList.size()));
+      placed.addAll(sortedList);
+      for (SerializedClassifierInstance node : originalList) {
+        if (!placed.contains(node)) {
+          deserializationStatus.place(node);
+        }
+      }
     }
 
     deserializationStatus.reverse();
@@ -482,16 +906,21 @@ public abstract class AbstractSerialization {
     Map<String, ClassifierInstance<?>> deserializedByID = new HashMap<>();
     IdentityHashMap<SerializedClassifierInstance, ClassifierInstance<?>> serializedToInstanceMap =
         new IdentityHashMap<>();
-    sortedSerializedClassifierInstances.forEach(
-        n -> {
-          ClassifierInstance<?> instantiated =
-              instantiateFromSerialized(lionWebVersion, deserializationStatus, n, deserializedByID);
-          if (n.getID() != null && deserializedByID.containsKey(n.getID())) {
-            throw new IllegalStateException("Duplicate ID found: " + n.getID());
-          }
-          deserializedByID.put(n.getID(), instantiated);
-          serializedToInstanceMap.put(n, instantiated);
-        });
+    if (forkJoinPool == null) {
+      sortedSerializedClassifierInstances.forEach(
+          n -> {
+            ClassifierInstance<?> instantiated =
+                instantiateFromSerialized(
+                    lionWebVersion, deserializationStatus, n, deserializedByID);
+            registerInstantiated(n, instantiated, deserializedByID, serializedToInstanceMap);
+          });
+    } else {
+      instantiateInParallel(
+          sortedSerializedClassifierInstances,
+          deserializationStatus,
+          deserializedByID,
+          serializedToInstanceMap);
+    }
     if (sortedSerializedClassifierInstances.size() != serializedToInstanceMap.size()) {
       throw new IllegalStateException(
           "We got "
@@ -506,36 +935,34 @@ public abstract class AbstractSerialization {
             this.instanceResolver);
     NodePopulator nodePopulator =
         new NodePopulator(this, classifierInstanceResolver, deserializationStatus, lionWebVersion);
-    serializedClassifierInstances.forEach(
-        node -> {
-          ClassifierInstance<?> classifierInstance = serializedToInstanceMap.get(node);
-          nodePopulator.populateClassifierInstance(classifierInstance, node);
-          ClassifierInstance<?> parent = classifierInstanceResolver.resolve(node.getParentNodeID());
-          if (parent instanceof ProxyNode
-              && unavailableParentPolicy == UnavailableNodePolicy.PROXY_NODES) {
-            // For real parents, the parent is not set directly, but it is set indirectly
-            // when adding the child to the parent. For proxy nodes instead we need to set
-            // the parent explicitly
-            ProxyNode proxyParent = (ProxyNode) parent;
-            if (classifierInstance instanceof HasSettableParent) {
-              ((HasSettableParent) classifierInstance).setParent(proxyParent);
-            } else {
-              throw new UnsupportedOperationException(
-                  "We do not know how to set explicitly the parent of " + classifierInstance);
-            }
-          }
-          if (classifierInstance instanceof AnnotationInstance) {
-            AbstractClassifierInstance<?> abstractClassifierInstance =
-                (AbstractClassifierInstance<?>) deserializedByID.get(node.getParentNodeID());
-            AnnotationInstance annotationInstance = (AnnotationInstance) classifierInstance;
-            if (abstractClassifierInstance != null) {
-              abstractClassifierInstance.addAnnotation(annotationInstance);
-            } else {
-              throw new IllegalStateException(
-                  "Cannot resolved annotated node " + annotationInstance.getParent());
-            }
-          }
-        });
+    if (forkJoinPool == null) {
+      serializedClassifierInstances.forEach(
+          node -> {
+            ClassifierInstance<?> classifierInstance = serializedToInstanceMap.get(node);
+            nodePopulator.populateClassifierInstance(classifierInstance, node);
+            attachToParent(
+                node, classifierInstance, classifierInstanceResolver, deserializedByID);
+          });
+    } else {
+      // Proxies are created before populating the nodes in parallel, so that they are created in
+      // the same order used when deserializing sequentially
+      createProxiesForReferenceTargets(
+          serializedClassifierInstances, classifierInstanceResolver, deserializationStatus);
+      forEachInParallel(
+          0,
+          serializedClassifierInstances.size(),
+          i -> {
+            SerializedClassifierInstance node = serializedClassifierInstances.get(i);
+            nodePopulator.populateClassifierInstance(serializedToInstanceMap.get(node), node);
+          });
+      serializedClassifierInstances.forEach(
+          node ->
+              attachToParent(
+                  node,
+                  serializedToInstanceMap.get(node),
+                  classifierInstanceResolver,
+                  deserializedByID));
+    }
 
     // We want the nodes returned to be sorted as the original serializedNodes
     List<ClassifierInstance<?>> nodesWithOriginalSorting =
@@ -546,20 +973,261 @@ public abstract class AbstractSerialization {
     return nodesWithOriginalSorting;
   }
 
+  private void registerInstantiated(
+      SerializedClassifierInstance serializedClassifierInstance,
+      ClassifierInstance<?> instantiated,
+      Map<String, ClassifierInstance<?>> deserializedByID,
+      Map<SerializedClassifierInstance, ClassifierInstance<?>> serializedToInstanceMap) {
+    String id = serializedClassifierInstance.getID();
+    if (id != null && deserializedByID.containsKey(id)) {
+      throw new IllegalStateException("Duplicate ID found: " + id);
+    }
+    deserializedByID.put(id, instantiated);
+    serializedToInstanceMap.put(serializedClassifierInstance, instantiated);
+  }
+
+  /**
+   * Set the parent of the given instance, when it is a ProxyNode, and attach annotations to the
+   * annotated node. Children are instead attached to their parent when the parent is populated.
+   */
+  private void attachToParent(
+      SerializedClassifierInstance node,
+      ClassifierInstance<?> classifierInstance,
+      ClassifierInstanceResolver classifierInstanceResolver,
+      Map<String, ClassifierInstance<?>> deserializedByID) {
+    ClassifierInstance<?> parent = classifierInstanceResolver.resolve(node.getParentNodeID());
+    if (parent instanceof ProxyNode
+        && unavailableParentPolicy == UnavailableNodePolicy.PROXY_NODES) {
+      // For real parents, the parent is not set directly, but it is set indirectly
+      // when adding the child to the parent. For proxy nodes instead we need to set
+      // the parent explicitly
+      ProxyNode proxyParent = (ProxyNode) parent;
+      if (classifierInstance instanceof HasSettableParent) {
+        ((HasSettableParent) classifierInstance).setParent(proxyParent);
+      } else {
+        throw new UnsupportedOperationException(
+            "We do not know how to set explicitly the parent of " + classifierInstance);
+      }
+    }
+    if (classifierInstance instanceof AnnotationInstance) {
+      AbstractClassifierInstance<?> abstractClassifierInstance =
+          (AbstractClassifierInstance<?>) deserializedByID.get(node.getParentNodeID());
+      AnnotationInstance annotationInstance = (AnnotationInstance) classifierInstance;
+      if (abstractClassifierInstance != null) {
+        abstractClassifierInstance.addAnnotation(annotationInstance);
+      } else {
+        throw new IllegalStateException(
+            "Cannot resolved annotated node " + annotationInstance.getParent());
+      }
+    }
+  }
+
+  /**
+   * Resolve classifiers and property values of all nodes in parallel, then instantiate them in
+   * batches. No batch contains both a node and one of its children, so each node is instantiated
+   * after its children, as it happens when deserializing sequentially. As in {@link
+   * #instantiateFromSerialized}, nodes with a registered ClassifierSerializer are instantiated by
+   * it.
+   */
+  private void instantiateInParallel(
+      List<SerializedClassifierInstance> sortedSerializedClassifierInstances,
+      DeserializationStatus deserializationStatus,
+      Map<String, ClassifierInstance<?>> deserializedByID,
+      Map<SerializedClassifierInstance, ClassifierInstance<?>> serializedToInstanceMap) {
+    int size = sortedSerializedClassifierInstances.size();
+    ClassifierSerializer<?>[] serializers = new ClassifierSerializer<?>[size];
+    Classifier<?>[] classifiers = new Classifier<?>[size];
+    List<Map<Property, Object>> propertiesValues = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      propertiesValues.add(null);
+    }
+    forEachInParallel(
+        0,
+        size,
+        i -> {
+          SerializedClassifierInstance n = sortedSerializedClassifierInstances.get(i);
+          serializers[i] = serializersByClassifier.get(n.getClassifier());
+          if (serializers[i] == null) {
+            classifiers[i] = resolveClassifier(n);
+            propertiesValues.set(
+                i, deserializePropertiesValues(deserializationStatus, n, classifiers[i]));
+          }
+        });
+
+    ClassifierInstance<?>[] instantiated = new ClassifierInstance<?>[size];
+    List<Integer> batchesStarts = instantiationBatchesStarts(sortedSerializedClassifierInstances);
+    for (int b = 0; b < batchesStarts.size(); b++) {
+      int start = batchesStarts.get(b);
+      int end = b + 1 < batchesStarts.size() ? batchesStarts.get(b + 1) : size;
+      // Nodes of the batch only read the map, which is updated once the batch is completed
+      forEachInParallel(
+          start,
+          end,
+          i -> {
+            SerializedClassifierInstance n = sortedSerializedClassifierInstances.get(i);
+            instantiated[i] =
+                serializers[i] != null
+                    ? serializers[i].instantiate(n, this)
+                    : instantiate(classifiers[i], n, deserializedByID, propertiesValues.get(i));
+          });
+      for (int i = start; i < end; i++) {
+        registerInstantiated(
+            sortedSerializedClassifierInstances.get(i),
+            instantiated[i],
+            deserializedByID,
+            serializedToInstanceMap);
+      }
+    }
+  }
+
+  /**
+   * Split the nodes, sorted leaves first, into consecutive batches, so that no node is in the same
+   * batch as one of its children or annotations.
+   *
+   * @return the index of the first node of each batch
+   */
+  private static List<Integer> instantiationBatchesStarts(
+      List<SerializedClassifierInstance> sortedSerializedClassifierInstances) {
+    List<Integer> batchesStarts = new ArrayList<>();
+    Set<String> batchIDs = new HashSet<>();
+    Set<String> batchParentIDs = new HashSet<>();
+    for (int i = 0; i < sortedSerializedClassifierInstances.size(); i++) {
+      SerializedClassifierInstance n = sortedSerializedClassifierInstances.get(i);
+      boolean dependsOnBatch = n.getID() != null && batchParentIDs.contains(n.getID());
+      for (SerializedContainmentValue containmentValue : n.getContainments()) {
+        if (dependsOnBatch) {
+          break;
+        }
+        for (String childID : containmentValue.getChildrenIds()) {
+          if (batchIDs.contains(childID)) {
+            dependsOnBatch = true;
+            break;
+          }
+        }
+      }
+      if (i == 0 || dependsOnBatch) {
+        batchesStarts.add(i);
+        batchIDs.clear();
+        batchParentIDs.clear();
+      }
+      if (n.getID() != null) {
+        batchIDs.add(n.getID());
+      }
+      if (n.getParentNodeID() != null) {
+        batchParentIDs.add(n.getParentNodeID());
+      }
+    }
+    return batchesStarts;
+  }
+
+  /**
+   * Create the proxies for the reference targets which cannot be resolved, if the policy requires
+   * it, visiting the references in the same order used by the NodePopulator.
+   */
+  private void createProxiesForReferenceTargets(
+      List<SerializedClassifierInstance> serializedClassifierInstances,
+      ClassifierInstanceResolver classifierInstanceResolver,
+      DeserializationStatus deserializationStatus) {
+    if (unavailableReferenceTargetPolicy != UnavailableNodePolicy.PROXY_NODES) {
+      return;
+    }
+    for (SerializedClassifierInstance n : serializedClassifierInstances) {
+      for (SerializedReferenceValue referenceValue : n.getReferences()) {
+        for (SerializedReferenceValue.Entry entry : referenceValue.getValue()) {
+          if (entry.getReference() != null
+              && classifierInstanceResolver.resolve(entry.getReference()) == null) {
+            deserializationStatus.resolve(entry.getReference());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Execute the action for all the indexes between start (inclusive) and end (exclusive), using
+   * the fork/join pool. The indexes are split in contiguous slices. Once all slices have been
+   * completed, the exception thrown for the lowest index, if any, is rethrown.
+   */
+  private void forEachInParallel(int start, int end, IntConsumer action) {
+    ForkJoinPool pool = Objects.requireNonNull(forkJoinPool);
+    int size = end - start;
+    if (size <= 1) {
+      for (int i = start; i < end; i++) {
+        action.accept(i);
+      }
+      return;
+    }
+    int slices = Math.min(size, parallelism * 4);
+    List<Future<?>> futures = new ArrayList<>(slices);
+    for (int s = 0; s < slices; s++) {
+      int sliceStart = start + (int) ((long) size * s / slices);
+      int sliceEnd = start + (int) ((long) size * (s + 1) / slices);
+      futures.add(
+          pool.submit(
+              () -> {
+                for (int i = sliceStart; i < sliceEnd; i++) {
+                  action.accept(i);
+                }
+              }));
+    }
+    Throwable firstFailure = null;
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (firstFailure == null) {
+          firstFailure = e.getCause();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while processing nodes", e);
+      }
+    }
+    if (firstFailure instanceof RuntimeException) {
+      throw (RuntimeException) firstFailure;
+    } else if (firstFailure instanceof Error) {
+      throw (Error) firstFailure;
+    } else if (firstFailure != null) {
+      throw new RuntimeException(firstFailure);
+    }
+  }
+
   private ClassifierInstance<?> instantiateFromSerialized(
       @Nonnull LionWebVersion lionWebVersion,
       DeserializationStatus deserializationStatus,
       SerializedClassifierInstance serializedClassifierInstance,
       Map<String, ClassifierInstance<?>> deserializedByID) {
     Objects.requireNonNull(lionWebVersion, "lionWebVersion should not be null");
+    ClassifierSerializer<?> serializer =
+        serializersByClassifier.get(serializedClassifierInstance.getClassifier());
+    if (serializer != null) {
+      return serializer.instantiate(serializedClassifierInstance, this);
+    }
+    Classifier<?> classifier = resolveClassifier(serializedClassifierInstance);
+    Map<Property, Object> propertiesValues =
+        deserializePropertiesValues(
+            deserializationStatus, serializedClassifierInstance, classifier);
+    return instantiate(
+        classifier, serializedClassifierInstance, deserializedByID, propertiesValues);
+  }
+
+  private Classifier<?> resolveClassifier(
+      SerializedClassifierInstance serializedClassifierInstance) {
     MetaPointer serializedClassifier = serializedClassifierInstance.getClassifier();
     if (serializedClassifier == null) {
       throw new RuntimeException("No metaPointer available for " + serializedClassifierInstance);
     }
-    Classifier<?> classifier = getClassifierResolver().resolveClassifier(serializedClassifier);
+    return getClassifierResolver().resolveClassifier(serializedClassifier);
+  }
 
-    // We prepare all the properties values and pass them to instantiator, as it could use them to
-    // build the node
+  /**
+   * We prepare all the properties values and pass them to instantiator, as it could use them to
+   * build the node.
+   */
+  private Map<Property, Object> deserializePropertiesValues(
+      DeserializationStatus deserializationStatus,
+      SerializedClassifierInstance serializedClassifierInstance,
+      Classifier<?> classifier) {
     Map<Property, Object> propertiesValues = new HashMap<>();
     serializedClassifierInstance
         .getProperties()
@@ -587,6 +1255,14 @@ public abstract class AbstractSerialization {
                       property.isRequired());
               propertiesValues.put(property, deserializedValue);
             });
+    return propertiesValues;
+  }
+
+  private ClassifierInstance<?> instantiate(
+      Classifier<?> classifier,
+      SerializedClassifierInstance serializedClassifierInstance,
+      Map<String, ClassifierInstance<?>> deserializedByID,
+      Map<Property, Object> propertiesValues) {
     ClassifierInstance<?> classifierInstance =
         getInstantiator()
             .instantiate(
@@ -0,0 +1,49 @@
+package io.lionweb.serialization;
+
+import io.lionweb.model.ClassifierInstance;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import javax.annotation.Nonnull;
+
+/**
+ * Serializes and instantiates the instances of a specific classifier, accessing their values
+ * directly. By default, serialization goes through the features of the classifier and the generic
+ * getPropertyValue, getChildren and getReferenceValues methods, while deserialization collects the
+ * values of the properties in a map before passing them to the {@link Instantiator}.
+ *
+ * <p>Implementations are typically generated together with the classes of a language and
+ * registered through a {@link SerializationModule}.
+ *
+ * @param <T> the class of the instances handled
+ */
+public interface ClassifierSerializer<T extends ClassifierInstance<?>> {
+
+  /** The classifier of the instances handled. */
+  @Nonnull
+  MetaPointer getClassifier();
+
+  /**
+   * The class of the instances handled. Only instances of exactly this class are handled, instances
+   * of subclasses are serialized in the default way.
+   */
+  @Nonnull
+  Class<T> getInstanceClass();
+
+  /**
+   * Appends the values of the properties, containments and references of the instance, producing
+   * the same result as the default serialization.
+   */
+  void serializeFeatures(
+      @Nonnull T instance,
+      @Nonnull SerializedClassifierInstance serializedInstance,
+      @Nonnull AbstractSerialization serialization);
+
+  /**
+   * Creates the instance, with the values of its properties. Children, reference values and
+   * annotations are set afterward, as for any other instance.
+   */
+  @Nonnull
+  T instantiate(
+      @Nonnull SerializedClassifierInstance serializedInstance,
+      @Nonnull AbstractSerialization serialization);
+}
@@ -179,7 +179,12 @@ public class DataTypesValuesSerialization {
   public Object deserialize(
       @Nonnull DataType dataType, String serializedValue, boolean isRequired) {
     Objects.requireNonNull(dataType, "dataType should not be null");
-    String dataTypeID = dataType.getID();
+    return deserializeByDataTypeID(dataType.getID(), serializedValue, isRequired);
+  }
+
+  public Object deserializeByDataTypeID(
+      @Nonnull String dataTypeID, String serializedValue, boolean isRequired) {
+    Objects.requireNonNull(dataTypeID, "dataTypeID should not be null");
     if (dataTypeDeserializers.containsKey(dataTypeID)) {
       return dataTypeDeserializers.get(dataTypeID).deserialize(serializedValue, isRequired);
     } else if (enumerationsByID.containsKey(dataTypeID) && dynamicNodesEnabled) {
@@ -206,7 +211,7 @@ public class DataTypesValuesSerialization {
       return deserializeSDT(dataTypeID, jo);
     } else {
       throw new IllegalArgumentException(
-          "Unable to deserialize primitive values of type " + dataType);
+          "Unable to deserialize primitive values of type with ID " + dataTypeID);
     }
   }
 
@@ -8,4 +8,8 @@ public class DeserializationException extends RuntimeException {
   public DeserializationException(String message, DeserializationException e) {
     super("Problem during deserialization: " + message, e);
   }
+
+  public DeserializationException(String message, Throwable cause) {
+    super("Problem during deserialization: " + message, cause);
+  }
 }
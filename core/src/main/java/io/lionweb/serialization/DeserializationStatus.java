@@ -10,6 +10,7 @@ import io.lionweb.model.impl.ProxyNode;
 import io.lionweb.serialization.data.MetaPointer;
 import io.lionweb.serialization.data.SerializedClassifierInstance;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -21,14 +22,14 @@ import javax.annotation.Nullable;
  */
 class DeserializationStatus {
   private final List<SerializedClassifierInstance> sortedList;
-  private final List<SerializedClassifierInstance> nodesToSort;
   final List<ProxyNode> proxies = new ArrayList<>();
   private final LocalClassifierInstanceResolver proxiesInstanceResolver;
-  private final Set<String> sortedIDs = new HashSet<>();
-  private final DataTypesValuesSerialization dataTypesValuesSerialization;
-  private final IdentityHashMap<Classifier<?>, Map<MetaPointer, Feature<?>>> featuresCache =
-      new IdentityHashMap<>();
-  private final IdentityHashMap<DataType<?>, Map<String, Object>> propertyValuesCache =
+  private final PropertyValuesCache propertyValuesCache;
+
+  // This cache can be accessed by multiple threads when deserializing in parallel. The outer map
+  // is small, as it has one entry per classifier, so we replace it on every update and read it
+  // without locking
+  private volatile IdentityHashMap<Classifier<?>, Map<MetaPointer, Feature<?>>> featuresCache =
       new IdentityHashMap<>();
 
   /**
@@ -42,59 +43,77 @@ class DeserializationStatus {
       List<SerializedClassifierInstance> originalList,
       ClassifierInstanceResolver outsideInstancesResolver,
       DataTypesValuesSerialization dataTypesValuesSerialization) {
-    this.dataTypesValuesSerialization = dataTypesValuesSerialization;
-    sortedList = new ArrayList<>();
-    nodesToSort = new ArrayList<>(originalList);
+    this(
+        originalList,
+        outsideInstancesResolver,
+        new PropertyValuesCache(dataTypesValuesSerialization));
+  }
+
+  DeserializationStatus(
+      List<SerializedClassifierInstance> originalList,
+      ClassifierInstanceResolver outsideInstancesResolver,
+      PropertyValuesCache propertyValuesCache) {
+    this.propertyValuesCache = propertyValuesCache;
+    sortedList = new ArrayList<>(originalList.size());
     this.proxiesInstanceResolver = new LocalClassifierInstanceResolver();
     this.globalInstanceResolver =
         new CompositeClassifierInstanceResolver(outsideInstancesResolver, proxiesInstanceResolver);
   }
 
   public Property getProperty(Classifier<?> classifier, MetaPointer metaPointer) {
-    Map<MetaPointer, Feature<?>> featuresMap =
-        featuresCache.computeIfAbsent(classifier, c -> new HashMap<>());
+    if (metaPointer == null) {
+      // The cache does not support null keys
+      return classifier.getPropertyByMetaPointer(null);
+    }
     return (Property)
-        featuresMap.computeIfAbsent(metaPointer, classifier::getPropertyByMetaPointer);
+        featuresMap(classifier).computeIfAbsent(metaPointer, classifier::getPropertyByMetaPointer);
   }
 
   public Containment getContainment(Classifier<?> classifier, MetaPointer metaPointer) {
-
-    Map<MetaPointer, Feature<?>> featuresMap =
-        featuresCache.computeIfAbsent(classifier, c -> new HashMap<>());
+    if (metaPointer == null) {
+      return classifier.getContainmentByMetaPointer(null);
+    }
     return (Containment)
-        featuresMap.computeIfAbsent(metaPointer, classifier::getContainmentByMetaPointer);
+        featuresMap(classifier)
+            .computeIfAbsent(metaPointer, classifier::getContainmentByMetaPointer);
   }
 
   public Reference getReference(Classifier<?> classifier, MetaPointer metaPointer) {
-    Map<MetaPointer, Feature<?>> featuresMap =
-        featuresCache.computeIfAbsent(classifier, c -> new HashMap<>());
+    if (metaPointer == null) {
+      return classifier.getReferenceByMetaPointer(null);
+    }
     return (Reference)
-        featuresMap.computeIfAbsent(metaPointer, classifier::getReferenceByMetaPointer);
+        featuresMap(classifier).computeIfAbsent(metaPointer, classifier::getReferenceByMetaPointer);
   }
 
   public Object deserializePropertyValue(
       DataType<?> dataType, String serializedValue, boolean isRequired) {
-    ;
-    Map<String, Object> map = propertyValuesCache.computeIfAbsent(dataType, dt -> new HashMap<>());
-    String key = serializedValue + "@required@" + isRequired;
-    return map.computeIfAbsent(
-        key, k -> dataTypesValuesSerialization.deserialize(dataType, serializedValue, isRequired));
-  }
-
-  void putNodesWithNullIDsInFront() {
-    // Nodes with null IDs are ambiguous but they cannot be the children of any node: they can
-    // just be parent of other nodes, so we put all of them at the start (so they end up at the
-    // end when we reverse the list)
-    nodesToSort.stream().filter(n -> n.getID() == null).forEach(sortedList::add);
-    sortedList.forEach(n -> sortedIDs.add(n.getID()));
-    nodesToSort.removeAll(sortedList);
+    return propertyValuesCache.deserialize(dataType, serializedValue, isRequired);
+  }
+
+  private Map<MetaPointer, Feature<?>> featuresMap(Classifier<?> classifier) {
+    Map<MetaPointer, Feature<?>> featuresMap = featuresCache.get(classifier);
+    if (featuresMap == null) {
+      synchronized (this) {
+        featuresMap = featuresCache.get(classifier);
+        if (featuresMap == null) {
+          featuresMap = new ConcurrentHashMap<>();
+          IdentityHashMap<Classifier<?>, Map<MetaPointer, Feature<?>>> updated =
+              new IdentityHashMap<>(featuresCache);
+          updated.put(classifier, featuresMap);
+          featuresCache = updated;
+        }
+      }
+    }
+    return featuresMap;
   }
 
-  /** We place the node in the sorted list. */
+  /**
+   * We place the node in the sorted list. The caller is responsible for placing each node only
+   * once.
+   */
   void place(SerializedClassifierInstance node) {
     sortedList.add(node);
-    nodesToSort.remove(node);
-    sortedIDs.add(node.getID());
   }
 
   public List<SerializedClassifierInstance> getSortedList() {
@@ -109,18 +128,6 @@ class DeserializationStatus {
     return sortedList.size();
   }
 
-  int howManyToSort() {
-    return nodesToSort.size();
-  }
-
-  SerializedClassifierInstance getNodeToSort(int index) {
-    return nodesToSort.get(index);
-  }
-
-  public boolean isSortedID(String nodeID) {
-    return sortedIDs.contains(nodeID);
-  }
-
   /**
    * Resolve ensure that the nodeID is resolved to a Node. If possible it retrieves a proper node or
    * a previously instantiated ProxyNode, otherwise created a ProxyNode and return it.
@@ -0,0 +1,554 @@
+package io.lionweb.serialization;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import io.lionweb.serialization.data.*;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads a SerializationChunk from JSON token by token, without building a tree of JsonElements.
+ * Nodes are instantiated as soon as they are read, so the memory needed is about the memory needed
+ * by the resulting SerializationChunk.
+ *
+ * <p>It performs the same validation performed by {@link
+ * LowLevelJsonSerialization#deserializeSerializationBlock(com.google.gson.JsonElement)}.
+ */
+class JsonChunkReader {
+  private static final List<String> TOP_LEVEL_KEYS =
+      Arrays.asList("nodes", "serializationFormatVersion", "languages");
+  private static final List<String> LANGUAGE_KEYS = Arrays.asList("key", "version");
+
+  private final JsonReader reader;
+  private final InternPool internPool;
+
+  /** True when the chunk is expected to be the whole document, false when it is nested. */
+  private final boolean wholeDocument;
+
+  JsonChunkReader(@Nonnull Reader reader, @Nonnull InternPool internPool) {
+    Objects.requireNonNull(reader, "reader should not be null");
+    Objects.requireNonNull(internPool, "internPool should not be null");
+    this.reader = new JsonReader(reader);
+    this.internPool = internPool;
+    // We want to accept the same documents accepted by JsonParser
+    this.reader.setStrictness(Strictness.LENIENT);
+    this.wholeDocument = true;
+  }
+
+  /**
+   * Read the chunk from the next value of the given JsonReader, which may be part of a larger
+   * document. Once the chunk has been read, the JsonReader is positioned after it.
+   */
+  JsonChunkReader(@Nonnull JsonReader reader, @Nonnull InternPool internPool) {
+    Objects.requireNonNull(reader, "reader should not be null");
+    Objects.requireNonNull(internPool, "internPool should not be null");
+    this.reader = reader;
+    this.internPool = internPool;
+    this.wholeDocument = false;
+  }
+
+  /** Read the whole document, which is expected to contain exactly one SerializationChunk. */
+  SerializationChunk readChunk() {
+    SerializationChunk serializationChunk = new SerializationChunk();
+    ClassifierInstancesIterator iterator = new ClassifierInstancesIterator();
+    while (iterator.hasNext()) {
+      serializationChunk.addClassifierInstance(iterator.next());
+    }
+    serializationChunk.setSerializationFormatVersion(iterator.getSerializationFormatVersion());
+    iterator.getLanguages().forEach(serializationChunk::addLanguage);
+    return serializationChunk;
+  }
+
+  /**
+   * Iterate over the nodes of the document, reading one at a time. The rest of the document is
+   * validated as it is read, so errors concerning the top-level keys can be reported only once all
+   * the nodes have been read. Closing the iterator closes the underlying Reader.
+   */
+  SerializedClassifierInstanceIterator iterator() {
+    return new ClassifierInstancesIterator();
+  }
+
+  private class ClassifierInstancesIterator implements SerializedClassifierInstanceIterator {
+    private @Nullable String serializationFormatVersion;
+    private final List<LanguageVersion> languages = new ArrayList<>();
+    private final Set<String> extraKeys = new LinkedHashSet<>();
+    private boolean versionFound = false;
+    private boolean languagesFound = false;
+    private boolean nodesFound = false;
+    private boolean started = false;
+    private boolean readingNodes = false;
+    private boolean finished = false;
+
+    @Nullable
+    @Override
+    public String getSerializationFormatVersion() {
+      return serializationFormatVersion;
+    }
+
+    @Override
+    public List<LanguageVersion> getLanguages() {
+      return Collections.unmodifiableList(languages);
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        return moveToNextNode();
+      } catch (MalformedJsonException e) {
+        throw new JsonSyntaxException(e);
+      } catch (IOException e) {
+        throw new JsonIOException(e);
+      }
+    }
+
+    @Override
+    public SerializedClassifierInstance next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      try {
+        return readClassifierInstance();
+      } catch (MalformedJsonException e) {
+        throw new JsonSyntaxException(e);
+      } catch (IOException e) {
+        throw new JsonIOException(e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+
+    /**
+     * Read the top-level object until the next node is reached, or until the end of the document.
+     *
+     * @return true if a node is available to be read
+     */
+    private boolean moveToNextNode() throws IOException {
+      while (true) {
+        if (finished) {
+          return false;
+        }
+        if (!started) {
+          if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IllegalArgumentException(
+                "We expected a Json Object, we got instead: " + reader.peek());
+          }
+          reader.beginObject();
+          started = true;
+        }
+        if (readingNodes) {
+          if (reader.hasNext()) {
+            return true;
+          }
+          reader.endArray();
+          readingNodes = false;
+        }
+        if (!reader.hasNext()) {
+          reader.endObject();
+          finish();
+          return false;
+        }
+        String name = reader.nextName();
+        switch (name) {
+          case "serializationFormatVersion":
+            serializationFormatVersion = requireString("serializationFormatVersion");
+            versionFound = true;
+            break;
+          case "languages":
+            readLanguages(languages);
+            languagesFound = true;
+            break;
+          case "nodes":
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+              throw new IllegalArgumentException(
+                  "We expected a Json Array, we got instead: " + reader.peek());
+            }
+            reader.beginArray();
+            readingNodes = true;
+            nodesFound = true;
+            break;
+          default:
+            extraKeys.add(name);
+            reader.skipValue();
+        }
+      }
+    }
+
+    private void finish() throws IOException {
+      finished = true;
+      if (wholeDocument && reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonSyntaxException("Did not consume the entire document.");
+      }
+      if (!extraKeys.isEmpty()) {
+        throw new RuntimeException(
+            "Extra keys found: " + extraKeys + ". Expected keys: " + TOP_LEVEL_KEYS);
+      }
+      if (!versionFound) {
+        throw new IllegalArgumentException("serializationFormatVersion not specified");
+      }
+      if (!languagesFound) {
+        throw new IllegalArgumentException("languages not specified");
+      }
+      if (!nodesFound) {
+        throw new IllegalArgumentException("nodes not specified");
+      }
+    }
+  }
+
+  private void readLanguages(List<LanguageVersion> languages) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      throw new IllegalArgumentException(
+          "We expected a Json Array, we got instead: " + reader.peek());
+    }
+    reader.beginArray();
+    while (reader.hasNext()) {
+      String path = reader.getPath();
+      try {
+        languages.add(readLanguage());
+      } catch (RuntimeException e) {
+        throw new RuntimeException("Issue while deserializing language at " + path, e);
+      }
+    }
+    reader.endArray();
+  }
+
+  private LanguageVersion readLanguage() throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      throw new IllegalArgumentException("Language should be an object. Found: " + reader.peek());
+    }
+    Set<String> extraKeys = new LinkedHashSet<>();
+    String key = null;
+    String version = null;
+    boolean keyFound = false;
+    boolean versionFound = false;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      switch (name) {
+        case "key":
+          key = requireString("key");
+          keyFound = true;
+          break;
+        case "version":
+          version = requireString("version");
+          versionFound = true;
+          break;
+        default:
+          extraKeys.add(name);
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (!extraKeys.isEmpty()) {
+      throw new RuntimeException(
+          "Extra keys found: " + extraKeys + ". Expected keys: " + LANGUAGE_KEYS);
+    }
+    if (!keyFound || !versionFound) {
+      throw new IllegalArgumentException("Language should have keys key and version");
+    }
+    return LanguageVersion.of(key, version);
+  }
+
+  /** Read a single node, wrapping any issue with the indication of the node being read. */
+  private SerializedClassifierInstance readClassifierInstance() throws IOException {
+    String path = reader.getPath();
+    try {
+      return readClassifierInstanceContent();
+    } catch (DeserializationException e) {
+      throw new DeserializationException(
+          "Issue while deserializing classifier instances",
+          new DeserializationException("Issue occurred while deserializing node at " + path, e));
+    } catch (RuntimeException e) {
+      throw new RuntimeException("Issue while deserializing node at " + path, e);
+    }
+  }
+
+  private SerializedClassifierInstance readClassifierInstanceContent() throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      throw new IllegalArgumentException(
+          "Malformed JSON. Object expected but found " + reader.peek());
+    }
+    SerializedClassifierInstance serializedClassifierInstance = new SerializedClassifierInstance();
+    List<SerializedPropertyValue> properties = null;
+    List<SerializedContainmentValue> children = null;
+    List<SerializedContainmentValue> containments = null;
+    List<SerializedReferenceValue> references = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      switch (name) {
+        case "id":
+          serializedClassifierInstance.setID(readStringOrNull());
+          break;
+        case "classifier":
+          serializedClassifierInstance.setClassifier(readMetaPointerOrNull());
+          break;
+        case "parent":
+          serializedClassifierInstance.setParentNodeID(readStringOrNull());
+          break;
+        case "properties":
+          properties = readProperties();
+          break;
+        // Older versions of the format used "children" instead of "containments"
+        case "children":
+          children = readContainments();
+          break;
+        case "containments":
+          containments = readContainments();
+          break;
+        case "references":
+          references = readReferences();
+          break;
+        case "annotations":
+          serializedClassifierInstance.setAnnotations(readAnnotations());
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (properties == null) {
+      throw new IllegalArgumentException("Node is missing properties entry");
+    }
+    properties.forEach(serializedClassifierInstance::unsafeAppendPropertyValue);
+    if (children != null) {
+      children.forEach(serializedClassifierInstance::unsafeAppendContainmentValue);
+    } else if (containments != null) {
+      containments.forEach(serializedClassifierInstance::unsafeAppendContainmentValue);
+    } else {
+      throw new UnsupportedOperationException("Node is missing containments entry");
+    }
+    if (references == null) {
+      throw new IllegalArgumentException("Node is missing references entry");
+    }
+    references.forEach(serializedClassifierInstance::unsafeAppendReferenceValue);
+    return serializedClassifierInstance;
+  }
+
+  private List<SerializedPropertyValue> readProperties() throws IOException {
+    beginArray("properties");
+    List<SerializedPropertyValue> properties = new ArrayList<>();
+    while (reader.hasNext()) {
+      beginObject("property");
+      MetaPointer metaPointer = null;
+      String value = null;
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        switch (name) {
+          case "property":
+            metaPointer = readMetaPointerOrNull();
+            break;
+          case "value":
+            value = readStringOrNull();
+            break;
+          default:
+            reader.skipValue();
+        }
+      }
+      reader.endObject();
+      properties.add(internPool.propertyValue(metaPointer, value));
+    }
+    reader.endArray();
+    return properties;
+  }
+
+  private List<SerializedContainmentValue> readContainments() throws IOException {
+    beginArray("containments");
+    List<SerializedContainmentValue> containments = new ArrayList<>();
+    while (reader.hasNext()) {
+      beginObject("containment");
+      MetaPointer metaPointer = null;
+      List<String> childrenIDs = null;
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        switch (name) {
+          case "containment":
+            metaPointer = readMetaPointerOrNull();
+            break;
+          case "children":
+            childrenIDs = readChildrenIDsOrNull();
+            break;
+          default:
+            reader.skipValue();
+        }
+      }
+      reader.endObject();
+      containments.add(new SerializedContainmentValue(metaPointer, childrenIDs));
+    }
+    reader.endArray();
+    return containments;
+  }
+
+  private List<SerializedReferenceValue> readReferences() throws IOException {
+    beginArray("references");
+    List<SerializedReferenceValue> references = new ArrayList<>();
+    while (reader.hasNext()) {
+      beginObject("reference");
+      MetaPointer metaPointer = null;
+      List<SerializedReferenceValue.Entry> targets = null;
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        switch (name) {
+          case "reference":
+            metaPointer = readMetaPointerOrNull();
+            break;
+          case "targets":
+            targets = readTargetsOrNull();
+            break;
+          default:
+            reader.skipValue();
+        }
+      }
+      reader.endObject();
+      references.add(new SerializedReferenceValue(metaPointer, targets));
+    }
+    reader.endArray();
+    return references;
+  }
+
+  private @Nullable List<String> readChildrenIDsOrNull() throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      reader.skipValue();
+      return null;
+    }
+    List<String> childrenIDs = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      if (reader.peek() == JsonToken.NULL) {
+        throw new DeserializationException("Unable to deserialize child identified by Null ID");
+      }
+      childrenIDs.add(readPrimitiveAsString("child ID"));
+    }
+    reader.endArray();
+    return childrenIDs;
+  }
+
+  private @Nullable List<SerializedReferenceValue.Entry> readTargetsOrNull() throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      reader.skipValue();
+      return null;
+    }
+    List<SerializedReferenceValue.Entry> targets = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      beginObject("target");
+      String reference = null;
+      String resolveInfo = null;
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        switch (name) {
+          case "reference":
+            reference = readStringOrNull();
+            break;
+          case "resolveInfo":
+            resolveInfo = readStringOrNull();
+            break;
+          default:
+            reader.skipValue();
+        }
+      }
+      reader.endObject();
+      targets.add(new SerializedReferenceValue.Entry(reference, resolveInfo));
+    }
+    reader.endArray();
+    return targets;
+  }
+
+  private List<String> readAnnotations() throws IOException {
+    beginArray("annotations");
+    List<String> annotations = new ArrayList<>();
+    while (reader.hasNext()) {
+      annotations.add(readPrimitiveAsString("annotation ID"));
+    }
+    reader.endArray();
+    return annotations;
+  }
+
+  /**
+   * Read a MetaPointer. Consistently with {@link SerializationUtils#tryToGetMetaPointerProperty},
+   * values which are not objects are ignored and produce a null MetaPointer.
+   */
+  private @Nullable MetaPointer readMetaPointerOrNull() throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      reader.skipValue();
+      return null;
+    }
+    String language = null;
+    String version = null;
+    String key = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      switch (name) {
+        case "language":
+          language = readStringOrNull();
+          break;
+        case "version":
+          version = readStringOrNull();
+          break;
+        case "key":
+          key = readStringOrNull();
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return MetaPointer.get(language, version, key);
+  }
+
+  /**
+   * Read a string. Consistently with {@link SerializationUtils#tryToGetStringProperty}, values
+   * which are not strings are ignored and produce null.
+   */
+  private @Nullable String readStringOrNull() throws IOException {
+    if (reader.peek() == JsonToken.STRING) {
+      return reader.nextString();
+    }
+    reader.skipValue();
+    return null;
+  }
+
+  private String requireString(String desc) throws IOException {
+    if (reader.peek() != JsonToken.STRING) {
+      throw new RuntimeException(desc + " should be present and be a string value");
+    }
+    return reader.nextString();
+  }
+
+  private String readPrimitiveAsString(String desc) throws IOException {
+    switch (reader.peek()) {
+      case STRING:
+      case NUMBER:
+        return reader.nextString();
+      case BOOLEAN:
+        return String.valueOf(reader.nextBoolean());
+      default:
+        throw new IllegalStateException(desc + " should be a primitive value");
+    }
+  }
+
+  private void beginArray(String desc) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      throw new IllegalStateException(desc + " should be an array, found " + reader.peek());
+    }
+    reader.beginArray();
+  }
+
+  private void beginObject(String desc) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      throw new IllegalStateException(desc + " should be an object, found " + reader.peek());
+    }
+    reader.beginObject();
+  }
+}
@@ -0,0 +1,194 @@
+package io.lionweb.serialization;
+
+import com.google.gson.stream.JsonWriter;
+import io.lionweb.serialization.data.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Writes a SerializationChunk as JSON token by token, without building a tree of JsonElements.
+ *
+ * <p>The output is the same produced by pretty printing {@link
+ * LowLevelJsonSerialization#serializeToJsonElement(SerializationChunk)} with Gson, or its compact
+ * equivalent. As the same MetaPointers are repeated in most nodes, each one is encoded only once
+ * and the resulting text is then reused.
+ */
+class JsonChunkWriter {
+  private static final String INDENT = "  ";
+
+  /** Indentation level of the closing brace of the classifier of a node. */
+  private static final int CLASSIFIER_LEVEL = 3;
+
+  /** Indentation level of the closing brace of the MetaPointer of a property or link. */
+  private static final int FEATURE_LEVEL = 5;
+
+  private final JsonWriter writer;
+  private final boolean pretty;
+  private final Map<MetaPointer, String> encodedClassifiers = new HashMap<>();
+  private final Map<MetaPointer, String> encodedFeatures = new HashMap<>();
+
+  JsonChunkWriter(@Nonnull Writer writer, boolean pretty) {
+    Objects.requireNonNull(writer, "writer should not be null");
+    this.writer = newJsonWriter(writer, pretty);
+    this.pretty = pretty;
+  }
+
+  /** Write the chunk and flush the underlying Writer, which is not closed. */
+  void writeChunk(@Nonnull SerializationChunk serializationChunk) throws IOException {
+    writer.beginObject();
+    writer
+        .name("serializationFormatVersion")
+        .value(serializationChunk.getSerializationFormatVersion());
+
+    writer.name("languages").beginArray();
+    for (LanguageVersion languageVersion : serializationChunk.getLanguages()) {
+      writer.beginObject();
+      writer.name("key").value(languageVersion.getKey());
+      writer.name("version").value(languageVersion.getVersion());
+      writer.endObject();
+    }
+    writer.endArray();
+
+    writer.name("nodes").beginArray();
+    for (SerializedClassifierInstance node : serializationChunk.getClassifierInstances()) {
+      writeClassifierInstance(node);
+    }
+    writer.endArray();
+
+    writer.endObject();
+    writer.flush();
+  }
+
+  private void writeClassifierInstance(SerializedClassifierInstance node) throws IOException {
+    writer.beginObject();
+    writer.name("id").value(node.getID());
+    writer.name("classifier");
+    writeMetaPointer(node.getClassifier(), encodedClassifiers, CLASSIFIER_LEVEL);
+
+    writer.name("properties").beginArray();
+    for (SerializedPropertyValue propertyValue : node.getProperties()) {
+      writer.beginObject();
+      writer.name("property");
+      writeMetaPointer(propertyValue.getMetaPointer(), encodedFeatures, FEATURE_LEVEL);
+      writer.name("value").value(propertyValue.getValue());
+      writer.endObject();
+    }
+    writer.endArray();
+
+    writer.name("containments").beginArray();
+    for (SerializedContainmentValue containmentValue : node.getContainments()) {
+      writer.beginObject();
+      writer.name("containment");
+      writeMetaPointer(containmentValue.getMetaPointer(), encodedFeatures, FEATURE_LEVEL);
+      writer.name("children").beginArray();
+      for (String childID : containmentValue.getChildrenIds()) {
+        writer.value(childID);
+      }
+      writer.endArray();
+      writer.endObject();
+    }
+    writer.endArray();
+
+    writer.name("references").beginArray();
+    for (SerializedReferenceValue referenceValue : node.getReferences()) {
+      writer.beginObject();
+      writer.name("reference");
+      writeMetaPointer(referenceValue.getMetaPointer(), encodedFeatures, FEATURE_LEVEL);
+      writer.name("targets").beginArray();
+      for (SerializedReferenceValue.Entry entry : referenceValue.getValue()) {
+        writer.beginObject();
+        writer.name("resolveInfo").value(entry.getResolveInfo());
+        writer.name("reference").value(entry.getReference());
+        writer.endObject();
+      }
+      writer.endArray();
+      writer.endObject();
+    }
+    writer.endArray();
+
+    writer.name("annotations").beginArray();
+    for (String annotationID : node.getAnnotations()) {
+      writer.value(annotationID);
+    }
+    writer.endArray();
+
+    writer.name("parent").value(node.getParentNodeID());
+    writer.endObject();
+  }
+
+  private void writeMetaPointer(
+      @Nullable MetaPointer metaPointer, Map<MetaPointer, String> encodedMetaPointers, int level)
+      throws IOException {
+    if (metaPointer == null) {
+      writer.nullValue();
+      return;
+    }
+    String encoded = encodedMetaPointers.get(metaPointer);
+    if (encoded == null) {
+      encoded = encodeMetaPointer(metaPointer, level);
+      encodedMetaPointers.put(metaPointer, encoded);
+    }
+    writer.jsonValue(encoded);
+  }
+
+  /**
+   * Produce the same text the JsonWriter would produce for the given MetaPointer, when written at
+   * the given indentation level.
+   */
+  private String encodeMetaPointer(MetaPointer metaPointer, int level) throws IOException {
+    String separator;
+    String closing;
+    if (pretty) {
+      StringBuilder indentation = new StringBuilder("\n");
+      for (int i = 0; i < level; i++) {
+        indentation.append(INDENT);
+      }
+      closing = indentation.toString();
+      separator = closing + INDENT;
+    } else {
+      separator = "";
+      closing = "";
+    }
+    String colon = pretty ? ": " : ":";
+    return "{"
+        + separator
+        + "\"language\""
+        + colon
+        + encodeString(metaPointer.getLanguage())
+        + ","
+        + separator
+        + "\"version\""
+        + colon
+        + encodeString(metaPointer.getVersion())
+        + ","
+        + separator
+        + "\"key\""
+        + colon
+        + encodeString(metaPointer.getKey())
+        + closing
+        + "}";
+  }
+
+  private static String encodeString(@Nullable String value) throws IOException {
+    StringWriter stringWriter = new StringWriter();
+    newJsonWriter(stringWriter, false).value(value).flush();
+    return stringWriter.toString();
+  }
+
+  private static JsonWriter newJsonWriter(Writer writer, boolean pretty) {
+    JsonWriter jsonWriter = new JsonWriter(writer);
+    // These are the settings used by Gson, when created with serializeNulls and prettyPrinting
+    jsonWriter.setHtmlSafe(true);
+    jsonWriter.setSerializeNulls(true);
+    if (pretty) {
+      jsonWriter.setIndent(INDENT);
+    }
+    return jsonWriter;
+  }
+}
@@ -2,9 +2,7 @@ package io.lionweb.serialization;
 
 import static io.lionweb.serialization.SerializationProvider.getStandardJsonSerialization;
 
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import io.lionweb.LionWebVersion;
 import io.lionweb.language.*;
 import io.lionweb.model.ClassifierInstance;
@@ -36,13 +34,11 @@ import javax.annotation.Nonnull;
 public class JsonSerialization extends AbstractSerialization {
 
   public static void saveLanguageToFile(Language language, File file) throws IOException {
-    String content =
-        getStandardJsonSerialization(language.getLionWebVersion())
-            .serializeTreesToJsonString(language);
     file.getParentFile().mkdirs();
-    BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-    writer.write(content);
-    writer.close();
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+      getStandardJsonSerialization(language.getLionWebVersion())
+          .serializeTreesToWriter(Collections.singletonList(language), writer, true);
+    }
   }
 
   /**
@@ -109,19 +105,132 @@ public class JsonSerialization extends AbstractSerialization {
   }
 
   public JsonElement serializeTreeToJsonElement(ClassifierInstance<?> classifierInstance) {
+    return new LowLevelJsonSerialization()
+        .serializeToJsonElement(treeToSerializationChunk(classifierInstance));
+  }
+
+  public JsonElement serializeTreesToJsonElement(ClassifierInstance<?>... roots) {
+    return new LowLevelJsonSerialization()
+        .serializeToJsonElement(treesToSerializationChunk(Arrays.asList(roots)));
+  }
+
+  public JsonElement serializeNodesToJsonElement(List<ClassifierInstance<?>> classifierInstances) {
+    return new LowLevelJsonSerialization()
+        .serializeToJsonElement(nodesToSerializationChunk(classifierInstances));
+  }
+
+  public JsonElement serializeNodesToJsonElement(ClassifierInstance<?>... classifierInstances) {
+    return serializeNodesToJsonElement(Arrays.asList(classifierInstances));
+  }
+
+  public String serializeTreeToJsonString(ClassifierInstance<?> classifierInstance) {
+    return serializeToJsonString(treeToSerializationChunk(classifierInstance));
+  }
+
+  public String serializeTreesToJsonString(ClassifierInstance<?>... classifierInstances) {
+    return serializeToJsonString(treesToSerializationChunk(Arrays.asList(classifierInstances)));
+  }
+
+  public String serializeNodesToJsonString(List<ClassifierInstance<?>> classifierInstances) {
+    return serializeToJsonString(nodesToSerializationChunk(classifierInstances));
+  }
+
+  public String serializeNodesToJsonString(ClassifierInstance<?>... classifierInstances) {
+    return serializeNodesToJsonString(Arrays.asList(classifierInstances));
+  }
+
+  /**
+   * Write the given tree to the Writer, without building intermediate JsonElements or Strings. The
+   * Writer is flushed but not closed.
+   *
+   * @see LowLevelJsonSerialization#serializeToWriter(SerializationChunk, Writer, boolean)
+   */
+  public void serializeTreeToWriter(
+      ClassifierInstance<?> classifierInstance, Writer writer, boolean pretty) throws IOException {
+    new LowLevelJsonSerialization()
+        .serializeToWriter(treeToSerializationChunk(classifierInstance), writer, pretty);
+  }
+
+  /**
+   * Write the given tree to the OutputStream, encoded in UTF-8. The OutputStream is flushed but not
+   * closed.
+   */
+  public void serializeTreeToOutputStream(
+      ClassifierInstance<?> classifierInstance, OutputStream outputStream, boolean pretty)
+      throws IOException {
+    new LowLevelJsonSerialization()
+        .serializeToOutputStream(
+            treeToSerializationChunk(classifierInstance), outputStream, pretty);
+  }
+
+  /**
+   * Write the given trees to the Writer, without building intermediate JsonElements or Strings.
+   * The Writer is flushed but not closed.
+   *
+   * @see LowLevelJsonSerialization#serializeToWriter(SerializationChunk, Writer, boolean)
+   */
+  public void serializeTreesToWriter(
+      List<? extends ClassifierInstance<?>> roots, Writer writer, boolean pretty)
+      throws IOException {
+    new LowLevelJsonSerialization()
+        .serializeToWriter(treesToSerializationChunk(roots), writer, pretty);
+  }
+
+  /**
+   * Write the given trees to the OutputStream, encoded in UTF-8. The OutputStream is flushed but
+   * not closed.
+   */
+  public void serializeTreesToOutputStream(
+      List<? extends ClassifierInstance<?>> roots, OutputStream outputStream, boolean pretty)
+      throws IOException {
+    new LowLevelJsonSerialization()
+        .serializeToOutputStream(treesToSerializationChunk(roots), outputStream, pretty);
+  }
+
+  /**
+   * Write the given nodes to the Writer, without building intermediate JsonElements or Strings.
+   * The Writer is flushed but not closed.
+   *
+   * @see LowLevelJsonSerialization#serializeToWriter(SerializationChunk, Writer, boolean)
+   */
+  public void serializeNodesToWriter(
+      List<ClassifierInstance<?>> classifierInstances, Writer writer, boolean pretty)
+      throws IOException {
+    new LowLevelJsonSerialization()
+        .serializeToWriter(nodesToSerializationChunk(classifierInstances), writer, pretty);
+  }
+
+  /**
+   * Write the given nodes to the OutputStream, encoded in UTF-8. The OutputStream is flushed but
+   * not closed.
+   */
+  public void serializeNodesToOutputStream(
+      List<ClassifierInstance<?>> classifierInstances, OutputStream outputStream, boolean pretty)
+      throws IOException {
+    new LowLevelJsonSerialization()
+        .serializeToOutputStream(
+            nodesToSerializationChunk(classifierInstances), outputStream, pretty);
+  }
+
+  //
+  // Serialization - Private
+  //
+
+  private SerializationChunk treeToSerializationChunk(ClassifierInstance<?> classifierInstance) {
     if (classifierInstance instanceof ProxyNode) {
       throw new IllegalArgumentException("Proxy nodes cannot be serialized");
     }
     Set<ClassifierInstance<?>> classifierInstances = new LinkedHashSet<>();
     ClassifierInstance.collectSelfAndDescendants(classifierInstance, true, classifierInstances);
 
-    return serializeNodesToJsonElement(
+    return nodesToSerializationChunk(
         classifierInstances.stream()
             .filter(n -> !(n instanceof ProxyNode))
             .collect(Collectors.toList()));
   }
 
-  public JsonElement serializeTreesToJsonElement(ClassifierInstance<?>... roots) {
+  private SerializationChunk treesToSerializationChunk(
+      List<? extends ClassifierInstance<?>> roots) {
     Set<String> nodesIDs = new HashSet<>();
     List<ClassifierInstance<?>> allNodes = new ArrayList<>();
     for (ClassifierInstance<?> root : roots) {
@@ -141,78 +250,86 @@ public class JsonSerialization extends AbstractSerialization {
             }
           });
     }
-    return serializeNodesToJsonElement(
+    return nodesToSerializationChunk(
         allNodes.stream().filter(n -> !(n instanceof ProxyNode)).collect(Collectors.toList()));
   }
 
-  public JsonElement serializeNodesToJsonElement(List<ClassifierInstance<?>> classifierInstances) {
+  private SerializationChunk nodesToSerializationChunk(
+      List<ClassifierInstance<?>> classifierInstances) {
     if (classifierInstances.stream().anyMatch(n -> n instanceof ProxyNode)) {
       throw new IllegalArgumentException("Proxy nodes cannot be serialized");
     }
-    SerializationChunk serializationChunk = serializeNodesToSerializationChunk(classifierInstances);
-    return new LowLevelJsonSerialization().serializeToJsonElement(serializationChunk);
+    return serializeNodesToSerializationChunk(classifierInstances);
   }
 
-  public JsonElement serializeNodesToJsonElement(ClassifierInstance<?>... classifierInstances) {
-    return serializeNodesToJsonElement(Arrays.asList(classifierInstances));
-  }
+  //
+  // Deserialization
+  //
 
-  public String serializeTreeToJsonString(ClassifierInstance<?> classifierInstance) {
-    return jsonElementToString(serializeTreeToJsonElement(classifierInstance));
+  public List<Node> deserializeToNodes(File file) throws FileNotFoundException {
+    return deserializeToNodes(new FileInputStream(file));
   }
 
-  public String serializeTreesToJsonString(ClassifierInstance<?>... classifierInstances) {
-    return jsonElementToString(serializeTreesToJsonElement(classifierInstances));
+  public List<Node> deserializeToNodes(JsonElement jsonElement) {
+    return onlyNodes(deserializeToClassifierInstances(jsonElement));
   }
 
-  public String serializeNodesToJsonString(List<ClassifierInstance<?>> classifierInstances) {
-    return jsonElementToString(serializeNodesToJsonElement(classifierInstances));
+  public List<ClassifierInstance<?>> deserializeToClassifierInstances(JsonElement jsonElement) {
+    SerializationChunk serializationBlock =
+        new LowLevelJsonSerialization(getInternPool()).deserializeSerializationBlock(jsonElement);
+    return deserializeToClassifierInstances(serializationBlock);
   }
 
-  public String serializeNodesToJsonString(ClassifierInstance<?>... classifierInstances) {
-    return jsonElementToString(serializeNodesToJsonElement(classifierInstances));
+  /**
+   * Deserialize the nodes contained in the JSON read from the given Reader. The JSON is read
+   * without building an intermediate tree of JsonElements. The Reader is not closed.
+   */
+  public List<ClassifierInstance<?>> deserializeToClassifierInstances(Reader reader) {
+    SerializationChunk serializationBlock =
+        new LowLevelJsonSerialization(getInternPool()).deserializeSerializationBlock(reader);
+    return deserializeToClassifierInstances(serializationBlock);
   }
 
-  //
-  // Serialization - Private
-  //
-
-  private String jsonElementToString(JsonElement element) {
-    return new GsonBuilder().setPrettyPrinting().serializeNulls().create().toJson(element);
+  /**
+   * Deserialize the nodes contained in a chunk which has already been read, for example because it
+   * was nested in a larger document.
+   */
+  public List<Node> deserializeToNodes(SerializationChunk serializationBlock) {
+    return onlyNodes(deserializeToClassifierInstances(serializationBlock));
   }
 
-  //
-  // Deserialization
-  //
-
-  public List<Node> deserializeToNodes(File file) throws FileNotFoundException {
-    return deserializeToNodes(new FileInputStream(file));
+  private List<ClassifierInstance<?>> deserializeToClassifierInstances(
+      SerializationChunk serializationBlock) {
+    validateSerializationBlock(serializationBlock);
+    return deserializeSerializationChunk(serializationBlock);
   }
 
-  public List<Node> deserializeToNodes(JsonElement jsonElement) {
-    return deserializeToClassifierInstances(jsonElement).stream()
+  private List<Node> onlyNodes(List<ClassifierInstance<?>> classifierInstances) {
+    return classifierInstances.stream()
         .filter(ci -> ci instanceof Node)
         .map(ci -> (Node) ci)
         .collect(Collectors.toList());
   }
 
-  public List<ClassifierInstance<?>> deserializeToClassifierInstances(JsonElement jsonElement) {
-    SerializationChunk serializationBlock =
-        new LowLevelJsonSerialization().deserializeSerializationBlock(jsonElement);
-    validateSerializationBlock(serializationBlock);
-    return deserializeSerializationChunk(serializationBlock);
-  }
-
   public List<Node> deserializeToNodes(URL url) throws IOException {
     String content = NetworkUtils.getStringFromUrl(url);
     return deserializeToNodes(content);
   }
 
   public List<Node> deserializeToNodes(String json) {
-    return deserializeToNodes(JsonParser.parseString(json));
+    return deserializeToNodes(new StringReader(json));
   }
 
+  /** Deserialize the nodes contained in the JSON read from the given InputStream, as UTF-8. */
   public List<Node> deserializeToNodes(InputStream inputStream) {
-    return deserializeToNodes(JsonParser.parseReader(new InputStreamReader(inputStream)));
+    return deserializeToNodes(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Deserialize the nodes contained in the JSON read from the given Reader. The JSON is read
+   * without building an intermediate tree of JsonElements. The Reader is not closed.
+   */
+  public List<Node> deserializeToNodes(Reader reader) {
+    return onlyNodes(deserializeToClassifierInstances(reader));
   }
 }
@@ -0,0 +1,365 @@
+package io.lionweb.serialization;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import io.lionweb.protobuf.PBChunk;
+import io.lionweb.protobuf.PBLanguage;
+import io.lionweb.protobuf.PBMetaPointer;
+import io.lionweb.protobuf.PBNode;
+import io.lionweb.serialization.data.InternPool;
+import io.lionweb.serialization.data.LanguageVersion;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A read-only view over a PBChunk, stored in a ByteBuffer, which decodes nodes and strings only
+ * when they are accessed.
+ *
+ * <p>When the view is created the chunk is scanned once, recording where each interned value and
+ * each node is stored, without decoding them. Nodes can then be accessed by index or by ID. In this
+ * way the cost of reading a few nodes from a large chunk does not depend on the size of the chunk,
+ * apart from the initial scan.
+ *
+ * <p>Decoded strings, languages, and meta-pointers are cached, while nodes are decoded each time
+ * they are requested. Instances of this class are not thread-safe.
+ */
+public final class LazyProtoChunk {
+  private static final int SERIALIZATION_FORMAT_VERSION_TAG =
+      tag(PBChunk.SERIALIZATION_FORMAT_VERSION_FIELD_NUMBER);
+  private static final int INTERNED_STRINGS_TAG = tag(PBChunk.INTERNED_STRINGS_FIELD_NUMBER);
+  private static final int INTERNED_META_POINTERS_TAG =
+      tag(PBChunk.INTERNED_META_POINTERS_FIELD_NUMBER);
+  private static final int INTERNED_LANGUAGES_TAG = tag(PBChunk.INTERNED_LANGUAGES_FIELD_NUMBER);
+  private static final int NODES_TAG = tag(PBChunk.NODES_FIELD_NUMBER);
+
+  private static final int NODE_ID_TAG = PBNode.SI_ID_FIELD_NUMBER << 3;
+  private static final int NODE_PARENT_TAG = PBNode.SI_PARENT_FIELD_NUMBER << 3;
+
+  private final ByteBuffer buffer;
+  private final InternPool internPool;
+  private @Nullable String serializationFormatVersion;
+
+  // Null strings and languages are encoded as 0, so these tables are shifted by one, and their
+  // first element is always empty
+  private final Fields strings = new Fields(1);
+  private final Fields languages = new Fields(1);
+  private final Fields metaPointers = new Fields(0);
+  private final Fields nodes = new Fields(0);
+
+  private final String[] decodedStrings;
+  private final LanguageVersion[] decodedLanguages;
+  private final MetaPointer[] decodedMetaPointers;
+
+  /** The index of the node having each ID. It is calculated on the first lookup by ID. */
+  private @Nullable Map<String, Integer> nodesById;
+
+  private LazyProtoChunk(@Nonnull ByteBuffer buffer, @Nonnull InternPool internPool)
+      throws IOException {
+    Objects.requireNonNull(internPool, "internPool should not be null");
+    this.buffer = buffer;
+    this.internPool = internPool;
+    scan();
+    this.decodedStrings = new String[strings.size];
+    this.decodedLanguages = new LanguageVersion[languages.size];
+    this.decodedMetaPointers = new MetaPointer[metaPointers.size];
+  }
+
+  /**
+   * Create a view over the bytes between the position and the limit of the given buffer. The
+   * buffer should not be modified while the view is used.
+   */
+  public static @Nonnull LazyProtoChunk of(@Nonnull ByteBuffer buffer) throws IOException {
+    return of(buffer, InternPool.getDefault());
+  }
+
+  /**
+   * Like {@link #of(ByteBuffer)}, sharing the property values of the decoded nodes through the
+   * given pool, typically the one of the serialization which will process them.
+   */
+  public static @Nonnull LazyProtoChunk of(
+      @Nonnull ByteBuffer buffer, @Nonnull InternPool internPool) throws IOException {
+    Objects.requireNonNull(buffer, "buffer should not be null");
+    return new LazyProtoChunk(buffer.slice(), internPool);
+  }
+
+  public static @Nonnull LazyProtoChunk of(@Nonnull byte[] bytes) throws IOException {
+    return of(bytes, InternPool.getDefault());
+  }
+
+  public static @Nonnull LazyProtoChunk of(@Nonnull byte[] bytes, @Nonnull InternPool internPool)
+      throws IOException {
+    Objects.requireNonNull(bytes, "bytes should not be null");
+    return new LazyProtoChunk(ByteBuffer.wrap(bytes), internPool);
+  }
+
+  /**
+   * Create a view over the given file, which is memory-mapped, so that only the parts of the file
+   * actually accessed are loaded. The file should not be modified while the view is used.
+   */
+  public static @Nonnull LazyProtoChunk map(@Nonnull Path path) throws IOException {
+    return map(path, InternPool.getDefault());
+  }
+
+  /** Like {@link #map(Path)}, sharing the property values of the decoded nodes through the pool. */
+  public static @Nonnull LazyProtoChunk map(@Nonnull Path path, @Nonnull InternPool internPool)
+      throws IOException {
+    Objects.requireNonNull(path, "path should not be null");
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // This is also the maximum size of a protobuf message
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("The file " + path + " is too large to contain a chunk");
+      }
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new LazyProtoChunk(mapped, internPool);
+    }
+  }
+
+  public @Nullable String getSerializationFormatVersion() {
+    return serializationFormatVersion;
+  }
+
+  public @Nonnull List<LanguageVersion> getLanguages() {
+    List<LanguageVersion> result = new ArrayList<>(languages.size - 1);
+    for (int i = 1; i < languages.size; i++) {
+      result.add(language(i));
+    }
+    return result;
+  }
+
+  /** The number of nodes in the chunk. */
+  public int size() {
+    return nodes.size;
+  }
+
+  /** Decode the node at the given index. */
+  public @Nonnull SerializedClassifierInstance getClassifierInstance(int index) {
+    checkNodeIndex(index);
+    try {
+      PBNode node = PBNode.parseFrom(nodes.slice(buffer, index));
+      return ProtoBufSerialization.deserializeNode(
+          node, this::string, this::metaPointer, internPool);
+    } catch (InvalidProtocolBufferException e) {
+      throw new DeserializationException("Unable to decode node at index " + index, e);
+    }
+  }
+
+  /** Decode the node with the given ID, or return null if the chunk does not contain it. */
+  public @Nullable SerializedClassifierInstance getClassifierInstance(@Nonnull String id) {
+    int index = indexOf(id);
+    return index == -1 ? null : getClassifierInstance(index);
+  }
+
+  /**
+   * Return the index of the node with the given ID, or -1 if the chunk does not contain it. Only
+   * the first lookup needs to examine all the nodes, decoding just their IDs: the following lookups
+   * are hash lookups.
+   */
+  public int indexOf(@Nonnull String id) {
+    Objects.requireNonNull(id, "id should not be null");
+    if (nodesById == null) {
+      Map<String, Integer> index = new HashMap<>(nodes.size * 4 / 3 + 1);
+      for (int i = 0; i < nodes.size; i++) {
+        String nodeID = string(readNodeField(i, NODE_ID_TAG));
+        if (nodeID != null) {
+          index.putIfAbsent(nodeID, i);
+        }
+      }
+      nodesById = index;
+    }
+    Integer index = nodesById.get(id);
+    return index == null ? -1 : index;
+  }
+
+  /** Return the ID of the node at the given index, without decoding the rest of the node. */
+  public @Nullable String getID(int index) {
+    checkNodeIndex(index);
+    return string(readNodeField(index, NODE_ID_TAG));
+  }
+
+  /** Return the ID of the parent of the node at the given index, without decoding the node. */
+  public @Nullable String getParentID(int index) {
+    checkNodeIndex(index);
+    return string(readNodeField(index, NODE_PARENT_TAG));
+  }
+
+  /** Return the indexes of the nodes without a parent, without decoding them. */
+  public @Nonnull List<Integer> getRootIndexes() {
+    List<Integer> result = new ArrayList<>();
+    for (int i = 0; i < nodes.size; i++) {
+      if (readNodeField(i, NODE_PARENT_TAG) == 0) {
+        result.add(i);
+      }
+    }
+    return result;
+  }
+
+  private void checkNodeIndex(int index) {
+    if (index < 0 || index >= nodes.size) {
+      throw new IndexOutOfBoundsException(
+          "Node index " + index + " is not valid, as the chunk has " + nodes.size + " nodes");
+    }
+  }
+
+  private void scan() throws IOException {
+    CodedInputStream input = CodedInputStream.newInstance(buffer.duplicate());
+    while (true) {
+      int tag = input.readTag();
+      if (tag == 0) {
+        break;
+      } else if (tag == NODES_TAG) {
+        nodes.add(input);
+      } else if (tag == INTERNED_STRINGS_TAG) {
+        strings.add(input);
+      } else if (tag == INTERNED_META_POINTERS_TAG) {
+        metaPointers.add(input);
+      } else if (tag == INTERNED_LANGUAGES_TAG) {
+        languages.add(input);
+      } else if (tag == SERIALIZATION_FORMAT_VERSION_TAG) {
+        serializationFormatVersion = input.readStringRequireUtf8();
+      } else {
+        input.skipField(tag);
+      }
+    }
+  }
+
+  /**
+   * Read the given uint32 field of a node, returning 0 when it is not present. The node is read
+   * only up to that field.
+   */
+  private int readNodeField(int index, int fieldTag) {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(nodes.slice(buffer, index));
+      while (true) {
+        int tag = input.readTag();
+        if (tag == 0) {
+          return 0;
+        } else if (tag == fieldTag) {
+          return input.readUInt32();
+        } else {
+          input.skipField(tag);
+        }
+      }
+    } catch (IOException e) {
+      throw new DeserializationException("Unable to decode node at index " + index, e);
+    }
+  }
+
+  private @Nullable String string(int index) {
+    if (index == 0) {
+      return null;
+    }
+    String value = decodedStrings[index];
+    if (value == null) {
+      ByteBuffer slice = strings.slice(buffer, index);
+      if (slice.hasArray()) {
+        value =
+            new String(
+                slice.array(),
+                slice.arrayOffset() + slice.position(),
+                slice.remaining(),
+                StandardCharsets.UTF_8);
+      } else {
+        value = StandardCharsets.UTF_8.decode(slice).toString();
+      }
+      decodedStrings[index] = value;
+    }
+    return value;
+  }
+
+  private @Nullable LanguageVersion language(int index) {
+    if (index == 0) {
+      return null;
+    }
+    LanguageVersion value = decodedLanguages[index];
+    if (value == null) {
+      PBLanguage language = parse(() -> PBLanguage.parseFrom(languages.slice(buffer, index)));
+      value = LanguageVersion.of(string(language.getSiKey()), string(language.getSiVersion()));
+      decodedLanguages[index] = value;
+    }
+    return value;
+  }
+
+  private MetaPointer metaPointer(int index) {
+    MetaPointer value = decodedMetaPointers[index];
+    if (value == null) {
+      PBMetaPointer metaPointer =
+          parse(() -> PBMetaPointer.parseFrom(metaPointers.slice(buffer, index)));
+      if (metaPointer.getLiLanguage() >= languages.size) {
+        throw new DeserializationException(
+            "Unable to deserialize meta pointer with language " + metaPointer.getLiLanguage());
+      }
+      LanguageVersion languageVersion = language(metaPointer.getLiLanguage());
+      value =
+          MetaPointer.get(
+              languageVersion.getKey(),
+              languageVersion.getVersion(),
+              string(metaPointer.getSiKey()));
+      decodedMetaPointers[index] = value;
+    }
+    return value;
+  }
+
+  private interface Parse<T> {
+    T parse() throws InvalidProtocolBufferException;
+  }
+
+  private static <T> T parse(Parse<T> parse) {
+    try {
+      return parse.parse();
+    } catch (InvalidProtocolBufferException e) {
+      throw new DeserializationException("Unable to decode interned value", e);
+    }
+  }
+
+  private static int tag(int fieldNumber) {
+    return (fieldNumber << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  }
+
+  /** The positions of the values of a repeated length-delimited field. */
+  private static final class Fields {
+    private int[] offsets = new int[16];
+    private int[] lengths = new int[16];
+    private int size;
+
+    /** The first elements of the table are left empty. */
+    Fields(int skipped) {
+      this.size = skipped;
+    }
+
+    /** Record the position of the value the input is at, and skip it. */
+    void add(CodedInputStream input) throws IOException {
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size * 2);
+        lengths = Arrays.copyOf(lengths, size * 2);
+      }
+      int length = input.readRawVarint32();
+      offsets[size] = input.getTotalBytesRead();
+      lengths[size] = length;
+      size++;
+      input.skipRawBytes(length);
+    }
+
+    ByteBuffer slice(ByteBuffer buffer, int index) {
+      ByteBuffer slice = buffer.duplicate();
+      slice.position(offsets[index]);
+      slice.limit(offsets[index] + lengths[index]);
+      return slice.slice();
+    }
+  }
+}
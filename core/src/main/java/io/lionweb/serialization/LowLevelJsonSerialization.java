@@ -1,16 +1,21 @@
 package io.lionweb.serialization;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
 import io.lionweb.LionWebVersion;
 import io.lionweb.serialization.data.*;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /**
@@ -18,6 +23,19 @@ import javax.annotation.Nullable;
  * low-level representation of models composed by SerializationBlock and the related classes.
  */
 public class LowLevelJsonSerialization {
+  private final InternPool internPool;
+
+  public LowLevelJsonSerialization() {
+    this(InternPool.getDefault());
+  }
+
+  /**
+   * @param internPool the pool used to share the property values read, when deserializing
+   */
+  public LowLevelJsonSerialization(@Nonnull InternPool internPool) {
+    Objects.requireNonNull(internPool, "internPool should not be null");
+    this.internPool = internPool;
+  }
 
   /**
    * This will return a lower-level representation of the information stored in JSON. It is intended
@@ -55,7 +73,7 @@ public class LowLevelJsonSerialization {
    * whenever is possible, in the measure that it is possible.
    */
   public SerializationChunk deserializeSerializationBlock(String json) {
-    return deserializeSerializationBlock(JsonParser.parseString(json));
+    return deserializeSerializationBlock(new StringReader(json));
   }
 
   /**
@@ -69,7 +87,106 @@ public class LowLevelJsonSerialization {
    * whenever is possible, in the measure that it is possible.
    */
   public SerializationChunk deserializeSerializationBlock(File file) throws FileNotFoundException {
-    return deserializeSerializationBlock(JsonParser.parseReader(new FileReader(file)));
+    try (Reader reader =
+        new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+      return deserializeSerializationBlock(reader);
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * This will return a lower-level representation of the information stored in JSON, reading it
+   * from the given file.
+   *
+   * @see #deserializeSerializationBlock(Reader)
+   */
+  public SerializationChunk deserializeSerializationBlock(Path path) throws IOException {
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return deserializeSerializationBlock(reader);
+    }
+  }
+
+  /**
+   * This will return a lower-level representation of the information stored in JSON, reading it
+   * from the given InputStream, which is expected to be encoded in UTF-8. The InputStream is not
+   * closed.
+   *
+   * @see #deserializeSerializationBlock(Reader)
+   */
+  public SerializationChunk deserializeSerializationBlock(InputStream inputStream) {
+    return deserializeSerializationBlock(
+        new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * This will return a lower-level representation of the information stored in JSON. The JSON is
+   * read token by token, without building an intermediate tree of JsonElements, so this is the
+   * preferred way to load large documents. The Reader is not closed.
+   *
+   * <p>This method follows a "best-effort" approach, try to limit exception thrown and return data
+   * whenever is possible, in the measure that it is possible.
+   */
+  public SerializationChunk deserializeSerializationBlock(Reader reader) {
+    return new JsonChunkReader(reader, internPool).readChunk();
+  }
+
+  /**
+   * This will return a lower-level representation of the information stored in JSON, reading it
+   * from the next value of the given JsonReader. The chunk can be nested in a larger document, for
+   * example in the response of a server: once the chunk has been read, the JsonReader is positioned
+   * after it, so that the rest of the document can be read. The JsonReader is not closed.
+   *
+   * @see #deserializeSerializationBlock(Reader)
+   */
+  public SerializationChunk deserializeSerializationBlock(JsonReader jsonReader) {
+    return new JsonChunkReader(jsonReader, internPool).readChunk();
+  }
+
+  /**
+   * Iterate over the nodes stored in JSON, reading them one at a time, so that documents of any
+   * size can be processed in constant memory. The top-level keys other than the nodes are
+   * validated as they are encountered: errors about them may be reported only when the iteration
+   * is completed.
+   *
+   * <p>Closing the iterator closes the Reader.
+   */
+  public SerializedClassifierInstanceIterator iterateClassifierInstances(Reader reader) {
+    return new JsonChunkReader(reader, internPool).iterator();
+  }
+
+  /**
+   * Iterate over the nodes stored in JSON, reading them one at a time from the given InputStream,
+   * which is expected to be encoded in UTF-8. Closing the iterator closes the InputStream.
+   *
+   * @see #iterateClassifierInstances(Reader)
+   */
+  public SerializedClassifierInstanceIterator iterateClassifierInstances(InputStream inputStream) {
+    return iterateClassifierInstances(
+        new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Return a Stream of the nodes stored in JSON, reading them one at a time. Closing the Stream
+   * closes the Reader.
+   *
+   * @see #iterateClassifierInstances(Reader)
+   */
+  public Stream<SerializedClassifierInstance> streamClassifierInstances(Reader reader) {
+    return iterateClassifierInstances(reader).stream();
+  }
+
+  /**
+   * Return a Stream of the nodes stored in JSON, reading them one at a time from the given
+   * InputStream, which is expected to be encoded in UTF-8. Closing the Stream closes the
+   * InputStream.
+   *
+   * @see #iterateClassifierInstances(Reader)
+   */
+  public Stream<SerializedClassifierInstance> streamClassifierInstances(InputStream inputStream) {
+    return iterateClassifierInstances(inputStream).stream();
   }
 
   public JsonElement serializeToJsonElement(SerializationChunk serializationChunk) {
@@ -132,11 +249,40 @@ public class LowLevelJsonSerialization {
   }
 
   public String serializeToJsonString(SerializationChunk serializationChunk) {
-    return new GsonBuilder()
-        .serializeNulls()
-        .setPrettyPrinting()
-        .create()
-        .toJson(serializeToJsonElement(serializationChunk));
+    StringWriter stringWriter = new StringWriter();
+    try {
+      serializeToWriter(serializationChunk, stringWriter, true);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return stringWriter.toString();
+  }
+
+  /**
+   * Write the JSON representation of the chunk to the given Writer. The JSON is written token by
+   * token, without building an intermediate tree of JsonElements or an intermediate String, so this
+   * is the preferred way to write large documents. The Writer is flushed but not closed.
+   *
+   * @param pretty whether the JSON should be indented, as done by {@link
+   *     #serializeToJsonString(SerializationChunk)}, or written in compact form
+   */
+  public void serializeToWriter(
+      SerializationChunk serializationChunk, Writer writer, boolean pretty) throws IOException {
+    new JsonChunkWriter(writer, pretty).writeChunk(serializationChunk);
+  }
+
+  /**
+   * Write the JSON representation of the chunk to the given OutputStream, encoded in UTF-8. The
+   * OutputStream is flushed but not closed.
+   *
+   * @see #serializeToWriter(SerializationChunk, Writer, boolean)
+   */
+  public void serializeToOutputStream(
+      SerializationChunk serializationChunk, OutputStream outputStream, boolean pretty)
+      throws IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    serializeToWriter(serializationChunk, writer, pretty);
   }
 
   /** Create a SerializationChunk containing the given nodes. */
@@ -270,7 +416,7 @@ public class LowLevelJsonSerialization {
           property -> {
             JsonObject propertyJO = property.getAsJsonObject();
             serializedClassifierInstance.unsafeAppendPropertyValue(
-                SerializedPropertyValue.get(
+                internPool.propertyValue(
                     SerializationUtils.tryToGetMetaPointerProperty(propertyJO, "property"),
                     SerializationUtils.tryToGetStringProperty(propertyJO, "value")));
           });
@@ -0,0 +1,159 @@
+package io.lionweb.serialization;
+
+import io.lionweb.language.DataType;
+import io.lionweb.language.LionCoreBuiltins;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Cache of the property values decoded while deserializing. Models tend to repeat the same values
+ * (booleans, enumeration literals, small numbers) many times, so we decode each of them only once.
+ *
+ * <p>Values are cached by data type and by required flag, and looked up by their serialized form,
+ * so a lookup does not allocate. The values cached for each data type are bounded: when the limit
+ * is reached they are all evicted. The values which are actually frequent are cached again quickly.
+ *
+ * <p>Caching does not pay off for data types which rarely repeat their values. It is always
+ * bypassed for Strings, which are not transformed when decoded, and for the data types which do not
+ * get enough hits during their first lookups.
+ *
+ * <p>The cache can be used by multiple threads when deserializing in parallel.
+ */
+class PropertyValuesCache {
+  static final int DEFAULT_MAX_SIZE = 10_000;
+
+  /** Number of lookups on a data type after which we decide if it is worth caching its values. */
+  private static final int SAMPLE_SIZE = 1_000;
+
+  private static final int MIN_HITS_IN_SAMPLE = SAMPLE_SIZE / 2;
+
+  private final DataTypesValuesSerialization dataTypesValuesSerialization;
+  private final int maxSize;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  // The map is small, as it has one entry per data type, so we replace it on every update and read
+  // it without locking
+  private volatile IdentityHashMap<DataType<?>, DataTypeValues> valuesByDataType =
+      new IdentityHashMap<>();
+
+  private static class DataTypeValues {
+    private final Map<String, Object> requiredValues = new ConcurrentHashMap<>();
+    private final Map<String, Object> optionalValues = new ConcurrentHashMap<>();
+    private volatile boolean bypassed;
+    private final AtomicInteger sampledLookups = new AtomicInteger();
+    private final AtomicInteger sampledHits = new AtomicInteger();
+
+    private DataTypeValues(boolean bypassed) {
+      this.bypassed = bypassed;
+    }
+
+    private void sample(boolean hit) {
+      if (sampledLookups.get() >= SAMPLE_SIZE) {
+        return;
+      }
+      if (hit) {
+        sampledHits.incrementAndGet();
+      }
+      if (sampledLookups.incrementAndGet() == SAMPLE_SIZE
+          && sampledHits.get() < MIN_HITS_IN_SAMPLE) {
+        bypassed = true;
+        requiredValues.clear();
+        optionalValues.clear();
+      }
+    }
+  }
+
+  PropertyValuesCache(@Nonnull DataTypesValuesSerialization dataTypesValuesSerialization) {
+    this(dataTypesValuesSerialization, DEFAULT_MAX_SIZE, new LongAdder(), new LongAdder());
+  }
+
+  /**
+   * @param maxSize the maximum number of values cached for each data type. When it is zero, nothing
+   *     is cached.
+   * @param hits counter incremented on each value found in the cache
+   * @param misses counter incremented on each value decoded, including the values of the data types
+   *     for which the cache is bypassed
+   */
+  PropertyValuesCache(
+      @Nonnull DataTypesValuesSerialization dataTypesValuesSerialization,
+      int maxSize,
+      @Nonnull LongAdder hits,
+      @Nonnull LongAdder misses) {
+    Objects.requireNonNull(
+        dataTypesValuesSerialization, "dataTypesValuesSerialization should not be null");
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize should not be negative");
+    }
+    this.dataTypesValuesSerialization = dataTypesValuesSerialization;
+    this.maxSize = maxSize;
+    this.hits = Objects.requireNonNull(hits, "hits should not be null");
+    this.misses = Objects.requireNonNull(misses, "misses should not be null");
+  }
+
+  @Nullable
+  Object deserialize(
+      @Nonnull DataType<?> dataType, @Nullable String serializedValue, boolean isRequired) {
+    DataTypeValues values = valuesFor(dataType);
+    if (serializedValue == null || values.bypassed) {
+      misses.increment();
+      return dataTypesValuesSerialization.deserialize(dataType, serializedValue, isRequired);
+    }
+    Map<String, Object> map = isRequired ? values.requiredValues : values.optionalValues;
+    Object value = map.get(serializedValue);
+    boolean hit = value != null;
+    if (hit) {
+      hits.increment();
+    } else {
+      misses.increment();
+      value = dataTypesValuesSerialization.deserialize(dataType, serializedValue, isRequired);
+      if (value != null) {
+        if (values.requiredValues.size() + values.optionalValues.size() >= maxSize) {
+          values.requiredValues.clear();
+          values.optionalValues.clear();
+        }
+        map.put(serializedValue, value);
+      }
+    }
+    values.sample(hit);
+    return value;
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  long getMisses() {
+    return misses.sum();
+  }
+
+  private DataTypeValues valuesFor(DataType<?> dataType) {
+    DataTypeValues values = valuesByDataType.get(dataType);
+    if (values == null) {
+      synchronized (this) {
+        values = valuesByDataType.get(dataType);
+        if (values == null) {
+          values = new DataTypeValues(maxSize == 0 || isString(dataType));
+          IdentityHashMap<DataType<?>, DataTypeValues> updated =
+              new IdentityHashMap<>(valuesByDataType);
+          updated.put(dataType, values);
+          valuesByDataType = updated;
+        }
+      }
+    }
+    return values;
+  }
+
+  private static boolean isString(DataType<?> dataType) {
+    return dataType.getID() != null
+        && dataType
+            .getID()
+            .equals(LionCoreBuiltins.getString(dataType.getLionWebVersion()).getID());
+  }
+}
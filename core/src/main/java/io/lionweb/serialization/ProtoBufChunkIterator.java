@@ -0,0 +1,156 @@
+package io.lionweb.serialization;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
+import io.lionweb.protobuf.PBChunk;
+import io.lionweb.protobuf.PBLanguage;
+import io.lionweb.protobuf.PBMetaPointer;
+import io.lionweb.protobuf.PBNode;
+import io.lionweb.serialization.data.InternPool;
+import io.lionweb.serialization.data.LanguageVersion;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads the nodes of a PBChunk one at a time, parsing the chunk field by field with a
+ * CodedInputStream, instead of parsing the whole message with {@link PBChunk#parseFrom}.
+ *
+ * <p>Nodes refer to the interned strings, languages, and meta-pointers, so these must precede the
+ * nodes in the stream. Protobuf writes fields in the order of their numbers, so this is always the
+ * case for chunks produced by {@link ProtoBufSerialization}.
+ */
+class ProtoBufChunkIterator implements SerializedClassifierInstanceIterator {
+  private static final int SERIALIZATION_FORMAT_VERSION_TAG =
+      tag(PBChunk.SERIALIZATION_FORMAT_VERSION_FIELD_NUMBER);
+  private static final int INTERNED_STRINGS_TAG = tag(PBChunk.INTERNED_STRINGS_FIELD_NUMBER);
+  private static final int INTERNED_META_POINTERS_TAG =
+      tag(PBChunk.INTERNED_META_POINTERS_FIELD_NUMBER);
+  private static final int INTERNED_LANGUAGES_TAG = tag(PBChunk.INTERNED_LANGUAGES_FIELD_NUMBER);
+  private static final int NODES_TAG = tag(PBChunk.NODES_FIELD_NUMBER);
+
+  private final InputStream inputStream;
+  private final CodedInputStream input;
+  private @Nullable String serializationFormatVersion;
+  private final List<String> internedStrings = new ArrayList<>();
+  private final List<PBLanguage> internedLanguages = new ArrayList<>();
+  private final List<PBMetaPointer> internedMetaPointers = new ArrayList<>();
+
+  // These are calculated when the first node is encountered
+  private String[] stringsArray;
+  private LanguageVersion[] languagesArray;
+  private MetaPointer[] metaPointersArray;
+
+  private @Nullable PBNode nextNode;
+  private boolean finished = false;
+  private final InternPool internPool;
+
+  ProtoBufChunkIterator(@Nonnull InputStream inputStream, @Nonnull InternPool internPool) {
+    Objects.requireNonNull(inputStream, "inputStream should not be null");
+    Objects.requireNonNull(internPool, "internPool should not be null");
+    this.inputStream = inputStream;
+    this.internPool = internPool;
+    this.input = CodedInputStream.newInstance(inputStream);
+  }
+
+  @Nullable
+  @Override
+  public String getSerializationFormatVersion() {
+    return serializationFormatVersion;
+  }
+
+  @Override
+  public List<LanguageVersion> getLanguages() {
+    List<LanguageVersion> languages = new ArrayList<>();
+    LanguageVersion[] resolvedLanguages =
+        languagesArray == null
+            ? ProtoBufSerialization.internedLanguages(
+                internedLanguages, ProtoBufSerialization.internedStrings(internedStrings))
+            : languagesArray;
+    for (LanguageVersion languageVersion : resolvedLanguages) {
+      if (languageVersion != null) {
+        languages.add(languageVersion);
+      }
+    }
+    return languages;
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      return moveToNextNode();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public SerializedClassifierInstance next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    PBNode node = nextNode;
+    nextNode = null;
+    return ProtoBufSerialization.deserializeNode(
+        node, stringsArray, metaPointersArray, internPool);
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+  private boolean moveToNextNode() throws IOException {
+    while (nextNode == null && !finished) {
+      int tag = input.readTag();
+      if (tag == 0) {
+        finished = true;
+      } else if (tag == NODES_TAG) {
+        if (stringsArray == null) {
+          stringsArray = ProtoBufSerialization.internedStrings(internedStrings);
+          languagesArray = ProtoBufSerialization.internedLanguages(internedLanguages, stringsArray);
+          metaPointersArray =
+              ProtoBufSerialization.internedMetaPointers(
+                  internedMetaPointers, languagesArray, stringsArray);
+        }
+        nextNode = input.readMessage(PBNode.parser(), ExtensionRegistryLite.getEmptyRegistry());
+      } else if (tag == SERIALIZATION_FORMAT_VERSION_TAG) {
+        serializationFormatVersion = input.readStringRequireUtf8();
+      } else if (tag == INTERNED_STRINGS_TAG) {
+        ensureNoNodeWasRead();
+        internedStrings.add(input.readStringRequireUtf8());
+      } else if (tag == INTERNED_META_POINTERS_TAG) {
+        ensureNoNodeWasRead();
+        internedMetaPointers.add(
+            input.readMessage(PBMetaPointer.parser(), ExtensionRegistryLite.getEmptyRegistry()));
+      } else if (tag == INTERNED_LANGUAGES_TAG) {
+        ensureNoNodeWasRead();
+        internedLanguages.add(
+            input.readMessage(PBLanguage.parser(), ExtensionRegistryLite.getEmptyRegistry()));
+      } else {
+        input.skipField(tag);
+      }
+      // The CodedInputStream enforces a limit on the total number of bytes read, which we do not
+      // want to hit when reading large chunks, as we only keep single fields in memory
+      input.resetSizeCounter();
+    }
+    return nextNode != null;
+  }
+
+  private void ensureNoNodeWasRead() {
+    if (stringsArray != null) {
+      throw new DeserializationException(
+          "Interned values found after the nodes: this chunk cannot be read one node at a time");
+    }
+  }
+
+  private static int tag(int fieldNumber) {
+    return (fieldNumber << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  }
+}
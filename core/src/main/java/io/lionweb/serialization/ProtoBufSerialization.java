@@ -8,7 +8,9 @@ import io.lionweb.serialization.data.*;
 import io.lionweb.serialization.data.MetaPointer;
 import java.io.*;
 import java.util.*;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 
 public class ProtoBufSerialization extends AbstractSerialization {
@@ -26,7 +28,15 @@ public class ProtoBufSerialization extends AbstractSerialization {
   }
 
   public SerializationChunk deserializeToChunk(byte[] bytes) throws IOException {
-    PBChunk pbChunk = PBChunk.parseFrom(new ByteArrayInputStream(bytes));
+    return deserializeToChunk(new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * Parse the chunk directly from the given InputStream, which is not closed. This does not modify
+   * the state of this instance, so it can be invoked concurrently.
+   */
+  public SerializationChunk deserializeToChunk(InputStream inputStream) throws IOException {
+    PBChunk pbChunk = PBChunk.parseFrom(inputStream);
     return deserializeSerializationChunk(pbChunk);
   }
 
@@ -53,28 +63,86 @@ public class ProtoBufSerialization extends AbstractSerialization {
   }
 
   private SerializationChunk deserializeSerializationChunk(PBChunk chunk) {
-    // Pre-size arrays for better performance
-    int stringCount = chunk.getInternedStringsCount();
-    int languageCount = chunk.getInternedLanguagesCount();
-    int metaPointerCount = chunk.getInternedMetaPointersCount();
+    String[] stringsArray = internedStrings(chunk.getInternedStringsList());
+    LanguageVersion[] languagesArray =
+        internedLanguages(chunk.getInternedLanguagesList(), stringsArray);
+    MetaPointer[] metapointersArray =
+        internedMetaPointers(chunk.getInternedMetaPointersList(), languagesArray, stringsArray);
+
+    SerializationChunk serializationChunk = new SerializationChunk();
+    serializationChunk.setSerializationFormatVersion(chunk.getSerializationFormatVersion());
+    for (LanguageVersion languageVersion : languagesArray) {
+      if (languageVersion != null) {
+        serializationChunk.addLanguage(languageVersion);
+      }
+    }
 
-    String[] stringsArray = new String[stringCount + 1];
+    chunk
+        .getNodesList()
+        .forEach(
+            n ->
+                serializationChunk.addClassifierInstance(
+                    deserializeNode(n, stringsArray, metapointersArray, getInternPool())));
+    return serializationChunk;
+  }
+
+  /**
+   * Iterate over the nodes stored in the given InputStream, reading one node at a time instead of
+   * parsing the whole PBChunk. The interned strings, languages, and meta-pointers are kept in
+   * memory, as nodes refer to them, but the memory needed does not depend on the number of nodes.
+   * This requires the interned values to precede the nodes, as it happens for chunks produced by
+   * this class.
+   *
+   * <p>Closing the iterator closes the InputStream.
+   */
+  public SerializedClassifierInstanceIterator iterateClassifierInstances(
+      InputStream inputStream) {
+    return new ProtoBufChunkIterator(inputStream, getInternPool());
+  }
+
+  /**
+   * Return a Stream of the nodes stored in the given InputStream, reading one node at a time.
+   * Closing the Stream closes the InputStream.
+   *
+   * @see #iterateClassifierInstances(InputStream)
+   */
+  public Stream<SerializedClassifierInstance> streamClassifierInstances(InputStream inputStream) {
+    return iterateClassifierInstances(inputStream).stream();
+  }
+
+  // Null values for strings and languages are encoded as 0, so indexes into these tables are
+  // shifted by one
+
+  static String[] internedStrings(List<String> internedStrings) {
+    String[] stringsArray = new String[internedStrings.size() + 1];
     stringsArray[0] = null;
-    for (int i = 0; i < chunk.getInternedStringsCount(); i++) {
-      stringsArray[i + 1] = chunk.getInternedStrings(i);
+    for (int i = 0; i < internedStrings.size(); i++) {
+      stringsArray[i + 1] = internedStrings.get(i);
     }
-    LanguageVersion[] languagesArray = new LanguageVersion[languageCount + 1];
+    return stringsArray;
+  }
+
+  static LanguageVersion[] internedLanguages(
+      List<PBLanguage> internedLanguages, String[] stringsArray) {
+    LanguageVersion[] languagesArray = new LanguageVersion[internedLanguages.size() + 1];
     languagesArray[0] = null;
-    for (int i = 0; i < chunk.getInternedLanguagesCount(); i++) {
-      PBLanguage l = chunk.getInternedLanguages(i);
+    for (int i = 0; i < internedLanguages.size(); i++) {
+      PBLanguage l = internedLanguages.get(i);
       String key = stringsArray[l.getSiKey()];
       String version = stringsArray[l.getSiVersion()];
       LanguageVersion lv = LanguageVersion.of(key, version);
       languagesArray[i + 1] = lv;
     }
-    MetaPointer[] metapointersArray = new MetaPointer[metaPointerCount];
-    for (int i = 0; i < chunk.getInternedMetaPointersCount(); i++) {
-      PBMetaPointer mp = chunk.getInternedMetaPointers(i);
+    return languagesArray;
+  }
+
+  static MetaPointer[] internedMetaPointers(
+      List<PBMetaPointer> internedMetaPointers,
+      LanguageVersion[] languagesArray,
+      String[] stringsArray) {
+    MetaPointer[] metapointersArray = new MetaPointer[internedMetaPointers.size()];
+    for (int i = 0; i < internedMetaPointers.size(); i++) {
+      PBMetaPointer mp = internedMetaPointers.get(i);
 
       if (mp.getLiLanguage() >= languagesArray.length) {
         throw new DeserializationException(
@@ -86,72 +154,72 @@ public class ProtoBufSerialization extends AbstractSerialization {
               languageVersion.getKey(), languageVersion.getVersion(), stringsArray[mp.getSiKey()]);
       metapointersArray[i] = metaPointer;
     }
+    return metapointersArray;
+  }
 
-    SerializationChunk serializationChunk = new SerializationChunk();
-    serializationChunk.setSerializationFormatVersion(chunk.getSerializationFormatVersion());
-    for (LanguageVersion languageVersion : languagesArray) {
-      if (languageVersion != null) {
-        serializationChunk.addLanguage(languageVersion);
-      }
-    }
+  static SerializedClassifierInstance deserializeNode(
+      PBNode n, String[] stringsArray, MetaPointer[] metapointersArray, InternPool internPool) {
+    return deserializeNode(n, i -> stringsArray[i], i -> metapointersArray[i], internPool);
+  }
 
-    chunk
-        .getNodesList()
+  /**
+   * Deserialize a node, obtaining the interned strings and meta-pointers from the given functions.
+   * This permits to resolve them lazily, as done by {@link LazyProtoChunk}.
+   */
+  static SerializedClassifierInstance deserializeNode(
+      PBNode n,
+      IntFunction<String> strings,
+      IntFunction<MetaPointer> metaPointers,
+      InternPool internPool) {
+    SerializedClassifierInstance sci = new SerializedClassifierInstance();
+    sci.setID(strings.apply(n.getSiId()));
+    sci.setParentNodeID(strings.apply(n.getSiParent()));
+    sci.setClassifier(metaPointers.apply(n.getMpiClassifier()));
+    n.getPropertiesList()
         .forEach(
-            n -> {
-              SerializedClassifierInstance sci = new SerializedClassifierInstance();
-              sci.setID(stringsArray[n.getSiId()]);
-              sci.setParentNodeID(stringsArray[n.getSiParent()]);
-              sci.setClassifier(metapointersArray[n.getMpiClassifier()]);
-              n.getPropertiesList()
-                  .forEach(
-                      p -> {
-                        SerializedPropertyValue spv =
-                            SerializedPropertyValue.get(
-                                metapointersArray[p.getMpiMetaPointer()],
-                                stringsArray[p.getSiValue()]);
-                        sci.unsafeAppendPropertyValue(spv);
-                      });
-              n.getContainmentsList()
-                  .forEach(
-                      c -> {
-                        List<String> children = new ArrayList<>(c.getSiChildrenList().size());
-                        for (int childIndex : c.getSiChildrenList()) {
-                          if (childIndex == 0) {
-                            throw new DeserializationException(
-                                "Unable to deserialize child identified by Null ID");
-                          }
-                          children.add(stringsArray[childIndex]);
-                        }
-                        if (!children.isEmpty()) {
-                          SerializedContainmentValue scv =
-                              new SerializedContainmentValue(
-                                  metapointersArray[c.getMpiMetaPointer()], children);
-                          sci.unsafeAppendContainmentValue(scv);
-                        }
-                      });
-              n.getReferencesList()
+            p -> {
+              SerializedPropertyValue spv =
+                  internPool.propertyValue(
+                      metaPointers.apply(p.getMpiMetaPointer()), strings.apply(p.getSiValue()));
+              sci.unsafeAppendPropertyValue(spv);
+            });
+    n.getContainmentsList()
+        .forEach(
+            c -> {
+              List<String> children = new ArrayList<>(c.getSiChildrenList().size());
+              for (int childIndex : c.getSiChildrenList()) {
+                if (childIndex == 0) {
+                  throw new DeserializationException(
+                      "Unable to deserialize child identified by Null ID");
+                }
+                children.add(strings.apply(childIndex));
+              }
+              if (!children.isEmpty()) {
+                SerializedContainmentValue scv =
+                    new SerializedContainmentValue(
+                        metaPointers.apply(c.getMpiMetaPointer()), children);
+                sci.unsafeAppendContainmentValue(scv);
+              }
+            });
+    n.getReferencesList()
+        .forEach(
+            r -> {
+              SerializedReferenceValue srv =
+                  new SerializedReferenceValue(metaPointers.apply(r.getMpiMetaPointer()));
+              r.getValuesList()
                   .forEach(
-                      r -> {
-                        SerializedReferenceValue srv =
-                            new SerializedReferenceValue(metapointersArray[r.getMpiMetaPointer()]);
-                        r.getValuesList()
-                            .forEach(
-                                rv -> {
-                                  SerializedReferenceValue.Entry entry =
-                                      new SerializedReferenceValue.Entry();
-                                  entry.setReference(stringsArray[rv.getSiReferred()]);
-                                  entry.setResolveInfo(stringsArray[rv.getSiResolveInfo()]);
-                                  srv.addValue(entry);
-                                });
-                        if (!srv.getValue().isEmpty()) {
-                          sci.unsafeAppendReferenceValue(srv);
-                        }
+                      rv -> {
+                        SerializedReferenceValue.Entry entry = new SerializedReferenceValue.Entry();
+                        entry.setReference(strings.apply(rv.getSiReferred()));
+                        entry.setResolveInfo(strings.apply(rv.getSiResolveInfo()));
+                        srv.addValue(entry);
                       });
-              n.getSiAnnotationsList().forEach(a -> sci.addAnnotation(stringsArray[a]));
-              serializationChunk.addClassifierInstance(sci);
+              if (!srv.getValue().isEmpty()) {
+                sci.unsafeAppendReferenceValue(srv);
+              }
             });
-    return serializationChunk;
+    n.getSiAnnotationsList().forEach(a -> sci.addAnnotation(strings.apply(a)));
+    return sci;
   }
 
   public byte[] serializeTreesToByteArray(ClassifierInstance<?>... roots) {
@@ -0,0 +1,14 @@
+package io.lionweb.serialization;
+
+import java.util.Collection;
+import javax.annotation.Nonnull;
+
+/**
+ * A group of {@link ClassifierSerializer}s, typically generated for all the concepts of a language.
+ * It is registered through {@link AbstractSerialization#registerSerializationModule}, usually
+ * together with the language itself.
+ */
+public interface SerializationModule {
+  @Nonnull
+  Collection<ClassifierSerializer<?>> getSerializers();
+}
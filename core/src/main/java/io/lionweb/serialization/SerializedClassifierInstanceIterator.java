@@ -0,0 +1,56 @@
+package io.lionweb.serialization;
+
+import io.lionweb.serialization.data.LanguageVersion;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+
+/**
+ * Iterates over the classifier instances of a chunk, reading them one at a time from the underlying
+ * source. In this way chunks much larger than the available memory can be processed, as long as
+ * the single classifier instances are not retained.
+ *
+ * <p>The iterator should be closed once it is not needed anymore, to close the underlying source.
+ */
+public interface SerializedClassifierInstanceIterator
+    extends Iterator<SerializedClassifierInstance>, Closeable {
+
+  /**
+   * The serialization format version of the chunk. It is null if it has not been read yet, which
+   * can happen if it follows the classifier instances in the source.
+   */
+  @Nullable
+  String getSerializationFormatVersion();
+
+  /**
+   * The languages declared by the chunk and read so far. The list is complete once the iteration
+   * has been completed.
+   */
+  List<LanguageVersion> getLanguages();
+
+  /**
+   * Return a sequential Stream over the remaining classifier instances. Closing the Stream closes
+   * this iterator.
+   */
+  default Stream<SerializedClassifierInstance> stream() {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(
+            () -> {
+              try {
+                close();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+  }
+}
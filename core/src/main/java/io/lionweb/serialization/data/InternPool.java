@@ -0,0 +1,176 @@
+package io.lionweb.serialization.data;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A pool used to share the instances of SerializedPropertyValue having the same MetaPointer and the
+ * same value. Models repeat very common values like "true", "false", "0", or "1" many times, so
+ * sharing them saves a lot of memory when deserializing large chunks.
+ *
+ * <p>A default pool is used unless a different one is specified. Serializations can be given their
+ * own pool, for example to be discarded together with the nodes processed for a single request.
+ * Pools are bounded: when the maximum size is reached, all the values are evicted. Values longer
+ * than {@link #MAX_INTERNED_LENGTH} are never shared, as they are rarely repeated.
+ *
+ * <p>MetaPointers are not part of pools, as their identity must be unique: they are canonicalized
+ * globally, and released once they are no longer used. See {@link #getMetaPointerStatistics()}.
+ *
+ * <p>Pools can be used concurrently by multiple threads.
+ */
+public final class InternPool {
+  public static final int DEFAULT_MAX_SIZE = 100_000;
+  public static final int MAX_INTERNED_LENGTH = 128;
+
+  private static final InternPool DEFAULT = new InternPool();
+
+  private final int maxSize;
+  private final ConcurrentMap<MetaPointer, ConcurrentMap<String, SerializedPropertyValue>>
+      valuesByMetaPointer = new ConcurrentHashMap<>();
+  // ConcurrentHashMap does not permit null keys, so null values are kept separately
+  private final ConcurrentMap<MetaPointer, SerializedPropertyValue> nullValuesByMetaPointer =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /** Statistics about the usage of a pool, useful to size it. */
+  public static final class Statistics {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    Statistics(long hits, long misses, long evictions, int size) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.size = size;
+    }
+
+    /** Number of requests satisfied by an instance already present in the pool. */
+    public long getHits() {
+      return hits;
+    }
+
+    /** Number of requests which required a new instance. */
+    public long getMisses() {
+      return misses;
+    }
+
+    /** Number of instances which were removed from the pool. */
+    public long getEvictions() {
+      return evictions;
+    }
+
+    /** Number of instances currently in the pool. */
+    public int getSize() {
+      return size;
+    }
+
+    @Override
+    public String toString() {
+      return "Statistics{"
+          + "hits="
+          + hits
+          + ", misses="
+          + misses
+          + ", evictions="
+          + evictions
+          + ", size="
+          + size
+          + '}';
+    }
+  }
+
+  public InternPool() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * @param maxSize the maximum number of values kept in the pool. When it is zero, values are never
+   *     shared.
+   */
+  public InternPool(int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize should not be negative");
+    }
+    this.maxSize = maxSize;
+  }
+
+  /** The pool used when no other pool is specified. */
+  public static @Nonnull InternPool getDefault() {
+    return DEFAULT;
+  }
+
+  /** Statistics about the MetaPointers currently in use, which are shared by all pools. */
+  public static @Nonnull Statistics getMetaPointerStatistics() {
+    return MetaPointer.internStatistics();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Provide a SerializedPropertyValue with the given values, reusing an existing one if possible.
+   * The MetaPointer is expected to be present, but it is tolerated to be null when reading broken
+   * models: such values are not shared.
+   */
+  public @Nonnull SerializedPropertyValue propertyValue(
+      @Nullable MetaPointer metaPointer, @Nullable String value) {
+    if (metaPointer == null
+        || maxSize == 0
+        || (value != null && value.length() >= MAX_INTERNED_LENGTH)) {
+      misses.increment();
+      return new SerializedPropertyValue(metaPointer, value);
+    }
+    SerializedPropertyValue existing =
+        value == null
+            ? nullValuesByMetaPointer.get(metaPointer)
+            : valuesFor(metaPointer).get(value);
+    if (existing != null) {
+      hits.increment();
+      return existing;
+    }
+    misses.increment();
+    if (size.get() >= maxSize) {
+      clear();
+    }
+    SerializedPropertyValue created = new SerializedPropertyValue(metaPointer, value);
+    existing =
+        value == null
+            ? nullValuesByMetaPointer.putIfAbsent(metaPointer, created)
+            : valuesFor(metaPointer).putIfAbsent(value, created);
+    if (existing != null) {
+      return existing;
+    }
+    size.incrementAndGet();
+    return created;
+  }
+
+  /** Remove all the values from the pool. The values already provided remain valid. */
+  public void clear() {
+    int removed = size.getAndSet(0);
+    valuesByMetaPointer.clear();
+    nullValuesByMetaPointer.clear();
+    evictions.add(removed);
+  }
+
+  public @Nonnull Statistics getStatistics() {
+    return new Statistics(hits.sum(), misses.sum(), evictions.sum(), size.get());
+  }
+
+  private ConcurrentMap<String, SerializedPropertyValue> valuesFor(MetaPointer metaPointer) {
+    ConcurrentMap<String, SerializedPropertyValue> values = valuesByMetaPointer.get(metaPointer);
+    if (values == null) {
+      values = valuesByMetaPointer.computeIfAbsent(metaPointer, k -> new ConcurrentHashMap<>());
+    }
+    return values;
+  }
+}
@@ -4,9 +4,13 @@ import io.lionweb.language.Feature;
 import io.lionweb.language.IKeyed;
 import io.lionweb.language.Language;
 import io.lionweb.language.LanguageEntity;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -18,38 +22,111 @@ import javax.annotation.Nullable;
  * for this class.
  */
 public final class MetaPointer {
-  private static final String NULL = "\u0000"; // sentinel for null since CHM forbids null keys
-
-  private static String norm(@Nullable String s) {
-    return s == null ? NULL : s;
+  /**
+   * The canonical instances, by value. They are referred weakly, so that the MetaPointers of
+   * languages no longer used can be collected. This is safe, as nobody can tell a MetaPointer from
+   * one created later with the same value, if it does not hold the former anymore.
+   */
+  private static final ConcurrentMap<Value, CanonicalReference> INSTANCES =
+      new ConcurrentHashMap<>();
+
+  private static final ReferenceQueue<MetaPointer> COLLECTED = new ReferenceQueue<>();
+
+  /** Reused for lookups, so that retrieving an existing MetaPointer does not allocate. */
+  private static final ThreadLocal<Value> PROBE = ThreadLocal.withInitial(Value::new);
+
+  private static final LongAdder HITS = new LongAdder();
+  private static final LongAdder MISSES = new LongAdder();
+  private static final LongAdder EVICTIONS = new LongAdder();
+
+  private static final class Value {
+    private @Nullable String language;
+    private @Nullable String version;
+    private @Nullable String key;
+    private int hash;
+
+    private Value set(@Nullable String language, @Nullable String version, @Nullable String key) {
+      this.language = language;
+      this.version = version;
+      this.key = key;
+      // Objects.hash would allocate an array
+      int hash = Objects.hashCode(language);
+      hash = 31 * hash + Objects.hashCode(version);
+      this.hash = 31 * hash + Objects.hashCode(key);
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Value)) return false;
+      Value that = (Value) o;
+      return hash == that.hash
+          && Objects.equals(key, that.key)
+          && Objects.equals(language, that.language)
+          && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
   }
 
-  private static final ConcurrentMap<
-          String, // key
-          ConcurrentMap<
-              String, // language
-              ConcurrentMap<
-                  String, // version
-                  MetaPointer>>>
-      INSTANCES_BY_KEY_LANGUAGE_VERSION = new ConcurrentHashMap<>();
+  private static final class CanonicalReference extends WeakReference<MetaPointer> {
+    private final Value value;
+
+    private CanonicalReference(MetaPointer referent, Value value) {
+      super(referent, COLLECTED);
+      this.value = value;
+    }
+  }
 
   /** Provide a MetaPointer with the given value, avoid allocations if unnecessary. */
   public static MetaPointer get(
       @Nullable String language, @Nullable String version, @Nullable String key) {
-    final String kKey = norm(key);
-    final String kLang = norm(language);
-    final String kVer = norm(version);
-
-    // 1st level: by key
-    ConcurrentMap<String, ConcurrentMap<String, MetaPointer>> byLanguage =
-        INSTANCES_BY_KEY_LANGUAGE_VERSION.computeIfAbsent(kKey, __ -> new ConcurrentHashMap<>());
+    Value probe = PROBE.get().set(language, version, key);
+    CanonicalReference reference = INSTANCES.get(probe);
+    // The probe should not keep the strings alive
+    probe.set(null, null, null);
+    MetaPointer existing = reference == null ? null : reference.get();
+    if (existing != null) {
+      HITS.increment();
+      return existing;
+    }
+    MISSES.increment();
+    expungeCollected();
+    Value value = new Value().set(language, version, key);
+    MetaPointer created = new MetaPointer(language, version, key);
+    CanonicalReference createdReference = new CanonicalReference(created, value);
+    while (true) {
+      reference = INSTANCES.putIfAbsent(value, createdReference);
+      if (reference == null) {
+        return created;
+      }
+      existing = reference.get();
+      if (existing != null) {
+        return existing;
+      }
+      if (INSTANCES.replace(value, reference, createdReference)) {
+        return created;
+      }
+    }
+  }
 
-    // 2nd level: by language
-    ConcurrentMap<String, MetaPointer> byVersion =
-        byLanguage.computeIfAbsent(kLang, __ -> new ConcurrentHashMap<>());
+  private static void expungeCollected() {
+    Reference<? extends MetaPointer> collected;
+    while ((collected = COLLECTED.poll()) != null) {
+      CanonicalReference reference = (CanonicalReference) collected;
+      if (INSTANCES.remove(reference.value, reference)) {
+        EVICTIONS.increment();
+      }
+    }
+  }
 
-    // 3rd level: by version → canonical MetaPointer
-    return byVersion.computeIfAbsent(kVer, __ -> new MetaPointer(language, version, key));
+  static InternPool.Statistics internStatistics() {
+    expungeCollected();
+    return new InternPool.Statistics(HITS.sum(), MISSES.sum(), EVICTIONS.sum(), INSTANCES.size());
   }
 
   // Note that these three values are nullable solely because of fault-tolerance. Semantically they
@@ -1,7 +1,6 @@
 package io.lionweb.serialization.data;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This represents the serialization of the value of a property in a Node. This class is immutable
@@ -9,30 +8,19 @@ import java.util.concurrent.ConcurrentHashMap;
  * instances.
  */
 public class SerializedPropertyValue {
-  private static final int THRESHOLD = 128;
-  private static final Map<MetaPointer, Map<String, SerializedPropertyValue>>
-      INSTANCES_BY_METAPOINTER = new ConcurrentHashMap<>();
 
-  /** This will avoid most unnecessary duplicate instantiations, but this is not guaranteed. */
+  /**
+   * This will avoid most unnecessary duplicate instantiations, but this is not guaranteed. The
+   * instances are shared through the default {@link InternPool}.
+   */
   public static SerializedPropertyValue get(MetaPointer metaPointer, String value) {
-    // Large values are expected to be more rarely reused, therefore we do not prevent their
-    // duplication.
-    // We are interested in preventing the duplication of very common values like "false", "true",
-    // "0", "1", etc.
-    if (value != null && value.length() >= THRESHOLD) {
-      return new SerializedPropertyValue(metaPointer, value);
-    }
-    Map<String, SerializedPropertyValue> valuesForMetaPointer =
-        INSTANCES_BY_METAPOINTER.computeIfAbsent(
-            metaPointer, k -> Collections.synchronizedMap(new WeakHashMap<>()));
-    return valuesForMetaPointer.computeIfAbsent(
-        value, v -> new SerializedPropertyValue(metaPointer, v));
+    return InternPool.getDefault().propertyValue(metaPointer, value);
   }
 
   private final MetaPointer metaPointer;
   private final String value;
 
-  private SerializedPropertyValue(MetaPointer metaPointer, String value) {
+  SerializedPropertyValue(MetaPointer metaPointer, String value) {
     this.metaPointer = metaPointer;
     this.value = value;
   }
@@ -41,7 +41,9 @@ public class Issue {
 
   @Override
   public int hashCode() {
-    return Objects.hash(message, severity);
+    // Subjects are compared by identity, so we hash them by identity too. Otherwise all the issues
+    // with the same message, reported on many nodes, would end up in the same bucket
+    return Objects.hash(message, severity, System.identityHashCode(subject));
   }
 
   @Override
@@ -1,7 +1,7 @@
 package io.lionweb.utils;
 
-import io.lionweb.model.ClassifierInstanceUtils;
 import io.lionweb.model.Node;
+import io.lionweb.model.TreeWalker;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,12 +9,13 @@ public class NodeTreeValidator extends Validator<Node> {
   @Override
   public ValidationResult validate(Node element) {
     ValidationResult validationResult = new ValidationResult();
-    validateNodeAndDescendants(element, validationResult);
+    // Annotations are not traversed, so only Nodes are visited
+    TreeWalker.get(false).forEach(element, node -> validateNode((Node) node, validationResult));
     validateIDsAreUnique(element, validationResult);
     return validationResult;
   }
 
-  private void validateNodeAndDescendants(Node node, ValidationResult validationResult) {
+  private void validateNode(Node node, ValidationResult validationResult) {
     if (node.getID() != null) {
       // It does not make sense to make the same ID as null and invalid
       validationResult.addErrorIf(!CommonChecks.isValidID(node.getID()), "Invalid ID", node);
@@ -45,8 +46,6 @@ public class NodeTreeValidator extends Validator<Node> {
                       + " children",
                   node);
             });
-    ClassifierInstanceUtils.getChildren(node)
-        .forEach(child -> validateNodeAndDescendants(child, validationResult));
   }
 
   private void validateIDsAreUnique(Node node, ValidationResult result) {
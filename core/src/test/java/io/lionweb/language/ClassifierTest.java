@@ -4,9 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import io.lionweb.LionWebVersion;
 import io.lionweb.lioncore.LionCore;
+import io.lionweb.serialization.data.MetaPointer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class ClassifierTest {
@@ -538,4 +540,82 @@ public class ClassifierTest {
     // Verify no property was added
     assertEquals(0, testConcept.getFeatures().size());
   }
+
+  @Test
+  public void allFeaturesIsUpdatedWhenFeaturesAreAddedOrRemoved() {
+    Language testLanguage = new Language("TestLanguage", "tl-id", "tl-key", "1");
+    Concept testConcept = new Concept(testLanguage, "TestConcept", "tc-id", "tc-key");
+    assertEquals(Collections.emptyList(), testConcept.allFeatures());
+
+    Property name = Property.createRequired("name", LionCoreBuiltins.getString(), "name-id");
+    name.setKey("name-key");
+    testConcept.addFeature(name);
+    assertEquals(Arrays.asList(name), testConcept.allFeatures());
+    assertEquals(Arrays.asList(name), testConcept.allProperties());
+    assertTrue(testConcept.allProperties().contains(name));
+    assertSame(name, testConcept.getPropertyByKey("name-key"));
+
+    testConcept.removeFeature(name);
+    assertEquals(Collections.emptyList(), testConcept.allFeatures());
+    assertFalse(testConcept.allProperties().contains(name));
+    assertNull(testConcept.getPropertyByKey("name-key"));
+  }
+
+  @Test
+  public void allFeaturesIsUpdatedWhenAncestorsChange() {
+    Language testLanguage = new Language("TestLanguage", "tl-id", "tl-key", "1");
+    Concept base = new Concept(testLanguage, "Base", "base-id", "base-key");
+    Concept sub = new Concept(testLanguage, "Sub", "sub-id", "sub-key");
+    Reference target = Reference.createOptional("target", base, "target-id");
+    target.setKey("target-key");
+    base.addFeature(target);
+    assertEquals(Collections.emptyList(), sub.allReferences());
+
+    sub.setExtendedConcept(base);
+    assertEquals(Arrays.asList(target), sub.allReferences());
+    assertSame(target, sub.getReferenceByKey("target-key"));
+    assertSame(target, sub.getReferenceByMetaPointer(MetaPointer.from(target)));
+
+    // Changing the key of the feature is reflected in the lookups
+    target.setKey("target-key-2");
+    assertNull(sub.getReferenceByKey("target-key"));
+    assertSame(target, sub.getReferenceByKey("target-key-2"));
+
+    sub.setExtendedConcept(null);
+    assertEquals(Collections.emptyList(), sub.allReferences());
+    assertNull(sub.getReferenceByKey("target-key-2"));
+  }
+
+  @Test
+  public void allFeaturesIsKeptWhenUnrelatedElementsChange() {
+    Language testLanguage = new Language("TestLanguage", "tl-id", "tl-key", "1");
+    Concept base = new Concept(testLanguage, "Base", "base-id", "base-key");
+    Concept sub = new Concept(testLanguage, "Sub", "sub-id", "sub-key");
+    sub.setExtendedConcept(base);
+    Property name = Property.createRequired("name", LionCoreBuiltins.getString(), "name-id");
+    name.setKey("name-key");
+    base.addFeature(name);
+    List<Feature<?>> features = sub.allFeatures();
+    assertEquals(Arrays.asList(name), features);
+
+    Language otherLanguage = new Language("OtherLanguage", "ol-id", "ol-key", "1");
+    Concept other = new Concept(otherLanguage, "Other", "other-id", "other-key");
+    other.addFeature(Property.createRequired("size", LionCoreBuiltins.getInteger(), "size-id"));
+    other.setExtendedConcept(base);
+    assertSame(features, sub.allFeatures());
+
+    // The language version is part of the MetaPointer of the inherited feature
+    MetaPointer before = MetaPointer.from(name);
+    assertSame(name, sub.getPropertyByMetaPointer(before));
+    testLanguage.setVersion("2");
+    assertNull(sub.getPropertyByMetaPointer(before));
+    assertSame(name, sub.getPropertyByMetaPointer(MetaPointer.from(name)));
+  }
+
+  @Test
+  public void allFeaturesIsImmutable() {
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> LionCore.getConcept().allFeatures().add(Property.createRequired("foo", null)));
+  }
 }
@@ -0,0 +1,240 @@
+package io.lionweb.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.api.LocalClassifierInstanceResolver;
+import io.lionweb.language.Annotation;
+import io.lionweb.language.Concept;
+import io.lionweb.language.Containment;
+import io.lionweb.model.impl.DynamicAnnotationInstance;
+import io.lionweb.model.impl.DynamicNode;
+import io.lionweb.model.impl.ProxyNode;
+import io.lionweb.utils.NodeTreeValidator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+public class TreeWalkerTest {
+  private final Concept concept = new Concept();
+  private final Containment first = containment("first");
+  private final Containment second = containment("second");
+  private final Annotation annotation = new Annotation();
+
+  public TreeWalkerTest() {
+    concept.addFeature(first);
+    concept.addFeature(second);
+    annotation.setAnnotates(concept);
+    annotation.addFeature(containment("inAnnotation"));
+  }
+
+  private static Containment containment(String name) {
+    Containment containment = new Containment();
+    containment.setName(name);
+    containment.setID(name + "-id");
+    containment.setKey(name + "-key");
+    containment.setMultiple(true);
+    containment.setOptional(true);
+    return containment;
+  }
+
+  /**
+   * Builds: root (annotated by a1, containing a1c) with b1, b2 in the first containment and c1 in
+   * the second one. b1 contains b1a.
+   */
+  private DynamicNode sampleTree() {
+    DynamicNode root = new DynamicNode("root", concept);
+    DynamicNode b1 = new DynamicNode("b1", concept);
+    DynamicNode b2 = new DynamicNode("b2", concept);
+    DynamicNode c1 = new DynamicNode("c1", concept);
+    DynamicNode b1a = new DynamicNode("b1a", concept);
+    root.addChild(second, c1);
+    root.addChild(first, b1);
+    root.addChild(first, b2);
+    b1.addChild(first, b1a);
+    DynamicAnnotationInstance a1 = new DynamicAnnotationInstance("a1", annotation, root);
+    a1.addChild(annotation.getContainmentByName("inAnnotation"), new DynamicNode("a1c", concept));
+    root.addAnnotation(a1);
+    return root;
+  }
+
+  private static List<String> ids(List<ClassifierInstance<?>> instances) {
+    return instances.stream().map(ClassifierInstance::getID).collect(Collectors.toList());
+  }
+
+  @Test
+  public void visitsEachInstanceBeforeItsDescendants() {
+    DynamicNode root = sampleTree();
+    assertEquals(
+        Arrays.asList("root", "b1", "b1a", "b2", "c1"),
+        ids(TreeWalker.get(false).stream(root).collect(Collectors.toList())));
+    assertEquals(
+        Arrays.asList("root", "a1", "a1c", "b1", "b1a", "b2", "c1"),
+        ids(TreeWalker.get(true).stream(root).collect(Collectors.toList())));
+    assertEquals(7, TreeWalker.get(true).count(root));
+  }
+
+  @Test
+  public void exitsEachInstanceAfterItsDescendants() {
+    List<String> events = new ArrayList<>();
+    TreeWalker.get(false)
+        .walk(
+            sampleTree(),
+            new TreeWalker.Visitor() {
+              @Override
+              public boolean enter(@Nonnull ClassifierInstance<?> instance) {
+                events.add("+" + instance.getID());
+                return true;
+              }
+
+              @Override
+              public void exit(@Nonnull ClassifierInstance<?> instance) {
+                events.add("-" + instance.getID());
+              }
+            });
+    assertEquals(
+        Arrays.asList("+root", "+b1", "+b1a", "-b1a", "-b1", "+b2", "-b2", "+c1", "-c1", "-root"),
+        events);
+  }
+
+  @Test
+  public void descendantsCanBeSkipped() {
+    List<String> entered = new ArrayList<>();
+    TreeWalker.get(true)
+        .walk(
+            sampleTree(),
+            instance -> {
+              entered.add(instance.getID());
+              return !instance.getID().equals("b1") && !instance.getID().equals("a1");
+            });
+    assertEquals(Arrays.asList("root", "a1", "b1", "b2", "c1"), entered);
+  }
+
+  @Test
+  public void proxyNodesAreNotVisited() {
+    DynamicNode root = new DynamicNode("root", concept);
+    root.addChild(first, new ProxyNode("proxy"));
+    root.addChild(first, new DynamicNode("child", concept));
+    assertEquals(
+        Arrays.asList("root", "child"),
+        ids(TreeWalker.get(false).stream(root).collect(Collectors.toList())));
+  }
+
+  @Test
+  public void spliteratorAdvancesLazily() {
+    DynamicNode root = sampleTree();
+    List<String> visited = new ArrayList<>();
+    assertTrue(TreeWalker.get(false).spliterator(root).tryAdvance(i -> visited.add(i.getID())));
+    assertEquals(Arrays.asList("root"), visited);
+    assertEquals(
+        "b1a",
+        TreeWalker.get(false)
+            .stream(root)
+            .filter(i -> i.getID().startsWith("b1"))
+            .skip(1)
+            .findFirst()
+            .get()
+            .getID());
+  }
+
+  /** A tree with the given number of children per node, and the given number of levels. */
+  private DynamicNode wideTree(int childrenPerNode, int levels) {
+    DynamicNode root = new DynamicNode("r", concept);
+    List<DynamicNode> level = Collections.singletonList(root);
+    for (int l = 1; l < levels; l++) {
+      List<DynamicNode> nextLevel = new ArrayList<>();
+      for (DynamicNode parent : level) {
+        for (int c = 0; c < childrenPerNode; c++) {
+          DynamicNode child = new DynamicNode(parent.getID() + "-" + c, concept);
+          parent.addChild(c % 2 == 0 ? first : second, child);
+          nextLevel.add(child);
+        }
+      }
+      level = nextLevel;
+    }
+    return root;
+  }
+
+  @Test
+  public void splitsPreserveTheEncounterOrder() {
+    DynamicNode root = sampleTree();
+    List<String> expected = ids(TreeWalker.get(true).stream(root).collect(Collectors.toList()));
+    Spliterator<ClassifierInstance<?>> suffix = TreeWalker.get(true).spliterator(root);
+    List<String> actual = new ArrayList<>();
+    Spliterator<ClassifierInstance<?>> prefix;
+    while ((prefix = suffix.trySplit()) != null) {
+      prefix.forEachRemaining(i -> actual.add(i.getID()));
+    }
+    suffix.forEachRemaining(i -> actual.add(i.getID()));
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void parallelStreamsKeepTheEncounterOrder() {
+    DynamicNode root = wideTree(7, 6);
+    List<ClassifierInstance<?>> sequential =
+        root.descendantsStream(false).collect(Collectors.toList());
+    assertEquals(1 + 7 + 49 + 343 + 2401 + 16807, sequential.size());
+    assertEquals(sequential, root.descendantsStream(false).parallel().collect(Collectors.toList()));
+    assertEquals(root.thisAndAllDescendants(), sequential);
+    assertEquals(
+        16807,
+        root.descendantsStream(false)
+            .parallel()
+            .filter(i -> ClassifierInstanceUtils.getChildren(i).isEmpty())
+            .count());
+  }
+
+  @Test
+  public void veryDeepTreesDoNotExhaustTheStack() {
+    int depth = 1_000_000;
+    Concept partition = new Concept();
+    partition.setPartition(true);
+    partition.addFeature(first);
+    DynamicNode root = new DynamicNode("n0", partition);
+    DynamicNode current = root;
+    for (int i = 1; i < depth; i++) {
+      DynamicNode child = new DynamicNode("n" + i, concept);
+      current.addChild(first, child);
+      current = child;
+    }
+
+    assertEquals(depth, ClassifierInstance.countSelfAndDescendants(root, true));
+    assertSame(current, root.thisAndAllDescendants().get(depth - 1));
+
+    int[] maxOpen = new int[] {0};
+    int[] open = new int[] {0};
+    TreeWalker.get(false)
+        .walk(
+            root,
+            new TreeWalker.Visitor() {
+              @Override
+              public boolean enter(@Nonnull ClassifierInstance<?> instance) {
+                maxOpen[0] = Math.max(maxOpen[0], ++open[0]);
+                return true;
+              }
+
+              @Override
+              public void exit(@Nonnull ClassifierInstance<?> instance) {
+                open[0]--;
+              }
+            });
+    assertEquals(depth, maxOpen[0]);
+    assertEquals(0, open[0]);
+
+    assertSame(current, resolverOf(root).resolve("n" + (depth - 1)));
+
+    assertTrue(new NodeTreeValidator().validate(root).isSuccessful());
+    assertEquals(depth, root.descendantsStream(true).parallel().count());
+  }
+
+  private static LocalClassifierInstanceResolver resolverOf(Node root) {
+    LocalClassifierInstanceResolver resolver = new LocalClassifierInstanceResolver();
+    resolver.addTree(root);
+    return resolver;
+  }
+}
@@ -20,9 +20,14 @@ import io.lionweb.serialization.simplemath.IntLiteral;
 import io.lionweb.serialization.simplemath.SimpleMathLanguage;
 import io.lionweb.serialization.simplemath.Sum;
 import io.lionweb.utils.LanguageValidator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -1080,4 +1085,28 @@ public class JsonSerializationTest extends SerializationTest {
     Language l2unserialized = jsonSerialization.loadLanguage(serializedL2);
     assertInstancesAreEquals(l2, l2unserialized);
   }
+
+  @Test
+  public void serializeTreesToWriterProducesTheSameJsonAsSerializeTreesToJsonString()
+      throws IOException {
+    Language language = SimpleMathLanguage.INSTANCE;
+    JsonSerialization jsonSerialization = SerializationProvider.getStandardJsonSerialization();
+
+    StringWriter writer = new StringWriter();
+    jsonSerialization.serializeTreesToWriter(Collections.singletonList(language), writer, true);
+    assertEquals(jsonSerialization.serializeTreesToJsonString(language), writer.toString());
+
+    StringWriter compactWriter = new StringWriter();
+    jsonSerialization.serializeTreeToWriter(language, compactWriter, false);
+    assertEquals(
+        JsonParser.parseString(jsonSerialization.serializeTreeToJsonString(language)),
+        JsonParser.parseString(compactWriter.toString()));
+    assertFalse(compactWriter.toString().contains("\n"));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonSerialization.serializeTreeToOutputStream(language, outputStream, true);
+    assertEquals(
+        jsonSerialization.serializeTreeToJsonString(language),
+        new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+  }
 }
@@ -0,0 +1,133 @@
+package io.lionweb.serialization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.serialization.data.InternPool;
+import io.lionweb.serialization.data.SerializationChunk;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Testing the lazy access to the nodes of a PBChunk, offered by LazyProtoChunk. */
+public class LazyProtoChunkTest extends SerializationTest {
+
+  @Test
+  public void accessNodesByIndex() throws IOException {
+    byte[] bytes = libraryLanguageBytes();
+    SerializationChunk chunk = protoBufSerialization().deserializeToChunk(bytes);
+    LazyProtoChunk lazyChunk = LazyProtoChunk.of(bytes);
+
+    assertEquals(chunk.getSerializationFormatVersion(), lazyChunk.getSerializationFormatVersion());
+    assertEquals(new HashSet<>(chunk.getLanguages()), new HashSet<>(lazyChunk.getLanguages()));
+    assertEquals(chunk.getClassifierInstances().size(), lazyChunk.size());
+    // Accessing the nodes out of order should not matter
+    for (int i = lazyChunk.size() - 1; i >= 0; i--) {
+      SerializedClassifierInstance expected = chunk.getClassifierInstances().get(i);
+      assertEquals(expected, lazyChunk.getClassifierInstance(i));
+      assertEquals(expected.getID(), lazyChunk.getID(i));
+      assertEquals(expected.getParentNodeID(), lazyChunk.getParentID(i));
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> lazyChunk.getClassifierInstance(-1));
+    assertThrows(
+        IndexOutOfBoundsException.class, () -> lazyChunk.getClassifierInstance(lazyChunk.size()));
+  }
+
+  @Test
+  public void accessNodesByID() throws IOException {
+    byte[] bytes = libraryLanguageBytes();
+    SerializationChunk chunk = protoBufSerialization().deserializeToChunk(bytes);
+    LazyProtoChunk lazyChunk = LazyProtoChunk.of(bytes);
+
+    assertEquals(
+        chunk.getInstanceByID("library-Book-title"),
+        lazyChunk.getClassifierInstance("library-Book-title"));
+    assertEquals(
+        chunk.getInstanceByID("library-Library"),
+        lazyChunk.getClassifierInstance("library-Library"));
+    assertEquals(-1, lazyChunk.indexOf("unexisting"));
+    assertNull(lazyChunk.getClassifierInstance("unexisting"));
+    // This is a string of the chunk, but not the ID of a node
+    assertEquals(-1, lazyChunk.indexOf("Library"));
+    for (int i = 0; i < chunk.getClassifierInstances().size(); i++) {
+      assertEquals(i, lazyChunk.indexOf(chunk.getClassifierInstances().get(i).getID()));
+    }
+  }
+
+  @Test
+  public void findRoots() throws IOException {
+    byte[] bytes = libraryLanguageBytes();
+    SerializationChunk chunk = protoBufSerialization().deserializeToChunk(bytes);
+    LazyProtoChunk lazyChunk = LazyProtoChunk.of(bytes);
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < chunk.getClassifierInstances().size(); i++) {
+      if (chunk.getClassifierInstances().get(i).getParentNodeID() == null) {
+        expected.add(i);
+      }
+    }
+    assertEquals(expected, lazyChunk.getRootIndexes());
+  }
+
+  @Test
+  public void viewOverPartOfABuffer() throws IOException {
+    byte[] bytes = libraryLanguageBytes();
+    SerializationChunk chunk = protoBufSerialization().deserializeToChunk(bytes);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 10);
+    buffer.position(5);
+    buffer.put(bytes);
+    buffer.position(5);
+    buffer.limit(5 + bytes.length);
+
+    LazyProtoChunk lazyChunk = LazyProtoChunk.of(buffer);
+    assertEquals(chunk.getClassifierInstances().size(), lazyChunk.size());
+    assertEquals(chunk.getClassifierInstances().get(3), lazyChunk.getClassifierInstance(3));
+  }
+
+  @Test
+  public void mapFile() throws IOException {
+    byte[] bytes = libraryLanguageBytes();
+    SerializationChunk chunk = protoBufSerialization().deserializeToChunk(bytes);
+    Path file = Files.createTempFile("library", ".pb");
+    try {
+      Files.write(file, bytes);
+      LazyProtoChunk lazyChunk = LazyProtoChunk.map(file);
+      assertEquals(chunk.getClassifierInstances().size(), lazyChunk.size());
+      assertEquals(
+          chunk.getInstanceByID("library-Writer"),
+          lazyChunk.getClassifierInstance("library-Writer"));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void propertyValuesAreSharedThroughTheGivenPool() throws IOException {
+    InternPool pool = new InternPool();
+    LazyProtoChunk lazyChunk = LazyProtoChunk.of(libraryLanguageBytes(), pool);
+    SerializedClassifierInstance first = lazyChunk.getClassifierInstance("library-Book-title");
+    assertEquals(first.getProperties().size(), pool.getStatistics().getMisses());
+    SerializedClassifierInstance second = lazyChunk.getClassifierInstance("library-Book-title");
+    assertSame(first.getProperties().get(0), second.getProperties().get(0));
+  }
+
+  private byte[] libraryLanguageBytes() throws IOException {
+    try (InputStream inputStream =
+        this.getClass().getResourceAsStream("/serialization/library-language.json")) {
+      SerializationChunk chunk =
+          new LowLevelJsonSerialization().deserializeSerializationBlock(inputStream);
+      return protoBufSerialization().serializeToByteArray(chunk);
+    }
+  }
+
+  private ProtoBufSerialization protoBufSerialization() {
+    return SerializationProvider.getStandardProtoBufSerialization(LionWebVersion.v2023_1);
+  }
+}
@@ -4,8 +4,11 @@ import static io.lionweb.serialization.SerializationProvider.getStandardJsonSeri
 import static io.lionweb.serialization.SerializedJsonComparisonUtils.assertEquivalentLionWebJson;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.lionweb.LionWebVersion;
 import io.lionweb.language.Annotation;
 import io.lionweb.language.Concept;
@@ -17,10 +20,17 @@ import io.lionweb.model.Node;
 import io.lionweb.model.impl.DynamicAnnotationInstance;
 import io.lionweb.model.impl.DynamicNode;
 import io.lionweb.serialization.data.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 
 public class LowLevelJsonSerializationTest extends SerializationTest {
@@ -127,6 +137,191 @@ public class LowLevelJsonSerializationTest extends SerializationTest {
     assertThrows(RuntimeException.class, () -> lljs.deserializeSerializationBlock(json));
   }
 
+  @Test
+  public void streamingAndTreeBasedDeserializationProduceTheSameChunk() {
+    for (String filePath :
+        Arrays.asList(
+            "/serialization/lioncore.json",
+            "/serialization/library-language.json",
+            "/serialization/bobslibrary.json",
+            "/serialization/langeng-library.json")) {
+      InputStream inputStream = this.getClass().getResourceAsStream(filePath);
+      JsonElement jsonElement =
+          JsonParser.parseReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+      LowLevelJsonSerialization jsonSerialization = new LowLevelJsonSerialization();
+      SerializationChunk fromTree = jsonSerialization.deserializeSerializationBlock(jsonElement);
+      SerializationChunk fromStream =
+          jsonSerialization.deserializeSerializationBlock(
+              this.getClass().getResourceAsStream(filePath));
+      assertEquals(fromTree, fromStream, "Different chunks obtained for " + filePath);
+    }
+  }
+
+  @Test
+  public void streamingDeserializationAcceptsChildrenAsContainments() {
+    String json =
+        "{\n"
+            + "  \"serializationFormatVersion\": \"2023.1\",\n"
+            + "  \"languages\": [{\"key\": \"l\", \"version\": \"1\"}],\n"
+            + "  \"nodes\": [{\n"
+            + "    \"id\": \"n1\",\n"
+            + "    \"classifier\": {\"language\": \"l\", \"version\": \"1\", \"key\": \"c\"},\n"
+            + "    \"properties\": [],\n"
+            + "    \"children\": [{\n"
+            + "      \"containment\": {\"language\": \"l\", \"version\": \"1\", \"key\": \"k\"},\n"
+            + "      \"children\": [\"n2\"]\n"
+            + "    }],\n"
+            + "    \"references\": [],\n"
+            + "    \"annotations\": [],\n"
+            + "    \"parent\": null\n"
+            + "  }]\n"
+            + "}";
+    LowLevelJsonSerialization lljs = new LowLevelJsonSerialization();
+    SerializationChunk chunk = lljs.deserializeSerializationBlock(new StringReader(json));
+    assertEquals(
+        Arrays.asList("n2"),
+        chunk.getInstanceByID("n1").getContainmentValues(MetaPointer.get("l", "1", "k")));
+  }
+
+  @Test
+  public void streamingDeserializationRejectsMissingNodes() {
+    String json = "{\"serializationFormatVersion\": \"1\", \"languages\": []}";
+    LowLevelJsonSerialization lljs = new LowLevelJsonSerialization();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> lljs.deserializeSerializationBlock(new StringReader(json)));
+  }
+
+  @Test
+  public void streamingDeserializationRejectsTrailingContent() {
+    String json = "{\"serializationFormatVersion\": \"1\", \"languages\": [], \"nodes\": []} {}";
+    LowLevelJsonSerialization lljs = new LowLevelJsonSerialization();
+    assertThrows(RuntimeException.class, () -> lljs.deserializeSerializationBlock(json));
+  }
+
+  @Test
+  public void streamingSerializationProducesTheSameTextAsGson() throws IOException {
+    for (String filePath :
+        Arrays.asList(
+            "/serialization/lioncore.json",
+            "/serialization/library-language.json",
+            "/serialization/bobslibrary.json",
+            "/serialization/langeng-library.json")) {
+      LowLevelJsonSerialization jsonSerialization = new LowLevelJsonSerialization();
+      SerializationChunk serializationChunk =
+          jsonSerialization.deserializeSerializationBlock(
+              this.getClass().getResourceAsStream(filePath));
+      JsonElement jsonElement = jsonSerialization.serializeToJsonElement(serializationChunk);
+
+      StringWriter pretty = new StringWriter();
+      jsonSerialization.serializeToWriter(serializationChunk, pretty, true);
+      assertEquals(
+          new GsonBuilder().serializeNulls().setPrettyPrinting().create().toJson(jsonElement),
+          pretty.toString());
+
+      StringWriter compact = new StringWriter();
+      jsonSerialization.serializeToWriter(serializationChunk, compact, false);
+      assertEquals(
+          new GsonBuilder().serializeNulls().create().toJson(jsonElement), compact.toString());
+    }
+  }
+
+  @Test
+  public void streamingSerializationToOutputStreamUsesUtf8() throws IOException {
+    SerializationChunk serializationChunk = new SerializationChunk();
+    serializationChunk.setSerializationFormatVersion("2023.1");
+    serializationChunk.addLanguage(LanguageVersion.of("l", "1"));
+    SerializedClassifierInstance node =
+        new SerializedClassifierInstance("n1", MetaPointer.get("l", "1", "c"));
+    node.setPropertyValue(
+        SerializedPropertyValue.get(MetaPointer.get("l", "1", "name"), "Markus V\u00f6lter <&>"));
+    serializationChunk.addClassifierInstance(node);
+
+    LowLevelJsonSerialization jsonSerialization = new LowLevelJsonSerialization();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonSerialization.serializeToOutputStream(serializationChunk, outputStream, false);
+    String json = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    assertEquals(serializationChunk, jsonSerialization.deserializeSerializationBlock(json));
+    assertEquals(jsonSerialization.serializeToJsonString(serializationChunk), prettyPrint(json));
+  }
+
+  @Test
+  public void iterateOverClassifierInstances() throws IOException {
+    LowLevelJsonSerialization jsonSerialization = new LowLevelJsonSerialization();
+    SerializationChunk serializationChunk =
+        jsonSerialization.deserializeSerializationBlock(
+            this.getClass().getResourceAsStream("/serialization/library-language.json"));
+
+    List<SerializedClassifierInstance> instances = new ArrayList<>();
+    try (SerializedClassifierInstanceIterator iterator =
+        jsonSerialization.iterateClassifierInstances(
+            this.getClass().getResourceAsStream("/serialization/library-language.json"))) {
+      iterator.forEachRemaining(instances::add);
+      assertEquals(
+          serializationChunk.getSerializationFormatVersion(),
+          iterator.getSerializationFormatVersion());
+      assertEquals(serializationChunk.getLanguages(), iterator.getLanguages());
+    }
+    assertEquals(serializationChunk.getClassifierInstances(), instances);
+  }
+
+  @Test
+  public void iterateOverClassifierInstancesWhenNodesPrecedeOtherKeys() {
+    String json =
+        "{\"nodes\": [], \"languages\": [{\"key\": \"l\", \"version\": \"1\"}], "
+            + "\"serializationFormatVersion\": \"2023.1\"}";
+    LowLevelJsonSerialization jsonSerialization = new LowLevelJsonSerialization();
+    SerializedClassifierInstanceIterator iterator =
+        jsonSerialization.iterateClassifierInstances(new StringReader(json));
+    assertNull(iterator.getSerializationFormatVersion());
+    assertFalse(iterator.hasNext());
+    assertEquals("2023.1", iterator.getSerializationFormatVersion());
+    assertEquals(Arrays.asList(LanguageVersion.of("l", "1")), iterator.getLanguages());
+  }
+
+  @Test
+  public void iterateOverClassifierInstancesReportsIssuesAtTheEnd() {
+    String json =
+        "{\"serializationFormatVersion\": \"2023.1\", \"languages\": [], \"nodes\": [], "
+            + "\"info\": \"should not be here\"}";
+    LowLevelJsonSerialization jsonSerialization = new LowLevelJsonSerialization();
+    try (Stream<SerializedClassifierInstance> stream =
+        jsonSerialization.streamClassifierInstances(new StringReader(json))) {
+      assertThrows(RuntimeException.class, stream::count);
+    }
+  }
+
+  @Test
+  public void deserializeChunkNestedInALargerDocument() throws IOException {
+    String json =
+        "{\"success\": true, \"chunk\": {\"serializationFormatVersion\": \"2023.1\", "
+            + "\"languages\": [{\"key\": \"l\", \"version\": \"1\"}], \"nodes\": []}, "
+            + "\"messages\": []}";
+    JsonReader jsonReader = new JsonReader(new StringReader(json));
+    jsonReader.beginObject();
+    assertEquals("success", jsonReader.nextName());
+    assertTrue(jsonReader.nextBoolean());
+    assertEquals("chunk", jsonReader.nextName());
+    SerializationChunk chunk =
+        new LowLevelJsonSerialization().deserializeSerializationBlock(jsonReader);
+    assertEquals("2023.1", chunk.getSerializationFormatVersion());
+    assertEquals(Arrays.asList(LanguageVersion.of("l", "1")), chunk.getLanguages());
+    assertEquals(0, chunk.getClassifierInstances().size());
+    // The rest of the document can still be read
+    assertEquals("messages", jsonReader.nextName());
+    jsonReader.skipValue();
+    jsonReader.endObject();
+    assertEquals(JsonToken.END_DOCUMENT, jsonReader.peek());
+  }
+
+  private static String prettyPrint(String json) {
+    return new GsonBuilder()
+        .serializeNulls()
+        .setPrettyPrinting()
+        .create()
+        .toJson(JsonParser.parseString(json));
+  }
+
   private void assertTheFileIsReserializedFromLowLevelCorrectly(String filePath) {
     InputStream inputStream = this.getClass().getResourceAsStream(filePath);
     JsonElement jsonElement = JsonParser.parseReader(new InputStreamReader(inputStream));
@@ -0,0 +1,245 @@
+package io.lionweb.serialization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.language.*;
+import io.lionweb.lioncore.LionCore;
+import io.lionweb.model.ClassifierInstance;
+import io.lionweb.model.Node;
+import io.lionweb.model.ReferenceValue;
+import io.lionweb.model.impl.DynamicNode;
+import io.lionweb.model.impl.ProxyNode;
+import io.lionweb.serialization.data.SerializationChunk;
+import io.lionweb.serialization.data.SerializedContainmentValue;
+import io.lionweb.serialization.simplemath.IntLiteral;
+import io.lionweb.serialization.simplemath.SimpleMathLanguage;
+import io.lionweb.serialization.simplemath.Sum;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/** Deserializing in parallel should produce the same result as deserializing sequentially. */
+public class ParallelDeserializationTest extends SerializationTest {
+
+  @Test
+  public void lionCore() {
+    assertSameResult(
+        LionWebVersion.currentVersion,
+        SerializationProvider.getStandardJsonSerialization()
+            .serializeTreesToJsonString(LionCore.getInstance()),
+        js -> {});
+  }
+
+  @Test
+  public void libraryLanguage() {
+    assertSameResult(
+        LionWebVersion.v2023_1, readResource("/serialization/library-language.json"), js -> {});
+  }
+
+  @Test
+  public void nodesWithProxies() {
+    String todosLanguage = readResource("/serialization/todosLanguage.json");
+    assertSameResult(
+        LionWebVersion.v2023_1,
+        readResource("/serialization/todosWithMultipleProxies.json"),
+        js -> {
+          js.registerLanguage((Language) js.deserializeToNodes(todosLanguage).get(0));
+          js.enableDynamicNodes();
+          js.setAllUnavailabilityPolicies(UnavailableNodePolicy.PROXY_NODES);
+        });
+  }
+
+  @Test
+  public void customDeserializersReceiveTheirChildren() {
+    List<Node> sums = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      sums.add(new Sum(new IntLiteral(i), new IntLiteral(i + 1), "sum-" + i));
+    }
+    String json =
+        SerializationProvider.getStandardJsonSerialization()
+            .serializeTreesToJsonString(sums.toArray(new Node[0]));
+    assertSameResult(
+        LionWebVersion.currentVersion,
+        json,
+        ParallelDeserializationTest::prepareDeserializationOfSimpleMath);
+
+    JsonSerialization js = SerializationProvider.getStandardJsonSerialization();
+    prepareDeserializationOfSimpleMath(js);
+    js.setParallelism(4);
+    List<Node> deserialized =
+        js.deserializeToNodes(json).stream()
+            .filter(n -> n instanceof Sum)
+            .collect(Collectors.toList());
+    assertEquals(sums, deserialized);
+  }
+
+  @Test
+  public void largeTree() {
+    Language language = new Language("tree", "tree", "tree", "1");
+    Concept treeNode = new Concept(language, "TreeNode", "TreeNode", "TreeNode");
+    treeNode.addFeature(
+        Property.createRequired(
+                LionWebVersion.currentVersion, "value", LionCoreBuiltins.getString())
+            .setID("TreeNode-value")
+            .setKey("TreeNode-value"));
+    treeNode.addFeature(
+        Containment.createMultiple("children", treeNode)
+            .setID("TreeNode-children")
+            .setKey("TreeNode-children"));
+    treeNode.addFeature(
+        Reference.createMultiple("links", treeNode)
+            .setID("TreeNode-links")
+            .setKey("TreeNode-links"));
+
+    Random random = new Random(1);
+    List<DynamicNode> nodes = new ArrayList<>();
+    DynamicNode root = new DynamicNode("n0", treeNode);
+    root.setPropertyValue(treeNode.getPropertyByName("value"), "v0");
+    nodes.add(root);
+    for (int i = 1; i < 20_000; i++) {
+      DynamicNode node = new DynamicNode("n" + i, treeNode);
+      node.setPropertyValue(treeNode.getPropertyByName("value"), "v" + (i % 100));
+      nodes.get(random.nextInt(i)).addChild(treeNode.getContainmentByName("children"), node);
+      nodes.add(node);
+    }
+    for (int i = 0; i < 20_000; i++) {
+      Node target = nodes.get(random.nextInt(nodes.size()));
+      nodes
+          .get(i)
+          .addReferenceValue(
+              treeNode.getReferenceByName("links"), new ReferenceValue(target, "link" + i));
+    }
+    String json =
+        SerializationProvider.getStandardJsonSerialization().serializeTreeToJsonString(root);
+
+    assertSameResult(
+        LionWebVersion.currentVersion,
+        json,
+        js -> {
+          js.registerLanguage(language);
+          js.enableDynamicNodes();
+        });
+  }
+
+  @Test
+  public void errorsAreReported() {
+    String json = readResource("/serialization/todosWithMultipleProxies.json");
+    String todosLanguage = readResource("/serialization/todosLanguage.json");
+    JsonSerialization js =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1);
+    js.registerLanguage((Language) js.deserializeToNodes(todosLanguage).get(0));
+    js.enableDynamicNodes();
+    js.setParallelism(4);
+    assertThrows(DeserializationException.class, () -> js.deserializeToNodes(json));
+  }
+
+  @Test
+  public void parallelismShouldBePositive() {
+    JsonSerialization js = SerializationProvider.getStandardJsonSerialization();
+    assertThrows(IllegalArgumentException.class, () -> js.setParallelism(0));
+    js.setParallelism(3);
+    assertEquals(3, js.getParallelism());
+    js.setParallelism(1);
+    assertEquals(1, js.getParallelism());
+  }
+
+  @Test
+  public void serializationsWithTheSameParallelismCanBeCreatedRepeatedly() {
+    String json = readResource("/serialization/library-language.json");
+    List<Node> expected =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1)
+            .deserializeToNodes(json);
+    for (int i = 0; i < 50; i++) {
+      JsonSerialization js =
+          SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1);
+      js.setParallelism(4);
+      js.setParallelism(2);
+      js.setParallelism(4);
+      assertEquals(expected, js.deserializeToNodes(json));
+    }
+  }
+
+  @Test
+  public void featuresWithoutMetaPointerAreNotFound() {
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    DeserializationStatus status =
+        new DeserializationStatus(
+            new ArrayList<>(),
+            serialization.getInstanceResolver(),
+            serialization.dataTypesValuesSerialization);
+    assertNull(status.getProperty(LionCore.getConcept(), null));
+    assertNull(status.getContainment(LionCore.getConcept(), null));
+    assertNull(status.getReference(LionCore.getConcept(), null));
+  }
+
+  private void assertSameResult(
+      LionWebVersion lionWebVersion, String json, Consumer<JsonSerialization> setup) {
+    JsonSerialization sequential =
+        SerializationProvider.getStandardJsonSerialization(lionWebVersion);
+    setup.accept(sequential);
+    List<Node> expected = sequential.deserializeToNodes(json);
+
+    for (int parallelism : new int[] {2, 4, 8}) {
+      JsonSerialization parallel =
+          SerializationProvider.getStandardJsonSerialization(lionWebVersion);
+      setup.accept(parallel);
+      parallel.setParallelism(parallelism);
+      List<Node> actual = parallel.deserializeToNodes(json);
+
+      assertEquals(expected.size(), actual.size());
+      List<ClassifierInstance<?>> expectedInstances = new ArrayList<>();
+      List<ClassifierInstance<?>> actualInstances = new ArrayList<>();
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+        assertEquals(expected.get(i).getID(), actual.get(i).getID());
+        if (!(expected.get(i) instanceof ProxyNode)) {
+          assertInstancesAreEquals(expected.get(i), actual.get(i));
+          expectedInstances.add(expected.get(i));
+          actualInstances.add(actual.get(i));
+        }
+      }
+      SerializationChunk expectedChunk =
+          sequential.serializeNodesToSerializationChunk(expectedInstances);
+      SerializationChunk actualChunk = parallel.serializeNodesToSerializationChunk(actualInstances);
+      assertEquals(expectedChunk, actualChunk);
+    }
+  }
+
+  private String readResource(String path) {
+    return new java.util.Scanner(this.getClass().getResourceAsStream(path), "UTF-8")
+        .useDelimiter("\\A")
+        .next();
+  }
+
+  private static void prepareDeserializationOfSimpleMath(JsonSerialization serialization) {
+    serialization.getClassifierResolver().registerLanguage(SimpleMathLanguage.INSTANCE);
+    serialization
+        .getInstantiator()
+        .registerCustomDeserializer(
+            SimpleMathLanguage.INT_LITERAL.getID(),
+            (concept, serializedNode, deserializedNodesByID, propertiesValues) ->
+                new IntLiteral(
+                    (Integer) propertiesValues.get(concept.getPropertyByName("value")),
+                    serializedNode.getID()));
+    serialization
+        .getInstantiator()
+        .registerCustomDeserializer(
+            SimpleMathLanguage.SUM.getID(),
+            (concept, serializedNode, deserializedNodesByID, propertiesValues) -> {
+              List<String> childrenIDs =
+                  serializedNode.getContainments().stream()
+                      .map(SerializedContainmentValue::getChildrenIds)
+                      .map(ids -> ids.get(0))
+                      .collect(Collectors.toList());
+              IntLiteral left = (IntLiteral) deserializedNodesByID.get(childrenIDs.get(0));
+              IntLiteral right = (IntLiteral) deserializedNodesByID.get(childrenIDs.get(1));
+              assertNotNull(left);
+              assertNotNull(right);
+              return new Sum(left, right, serializedNode.getID());
+            });
+  }
+}
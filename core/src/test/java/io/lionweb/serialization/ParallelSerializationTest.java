@@ -0,0 +1,167 @@
+package io.lionweb.serialization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.language.*;
+import io.lionweb.lioncore.LionCore;
+import io.lionweb.model.ClassifierInstance;
+import io.lionweb.model.Node;
+import io.lionweb.model.ReferenceValue;
+import io.lionweb.model.impl.DynamicAnnotationInstance;
+import io.lionweb.model.impl.DynamicNode;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializationChunk;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+/** Serializing in parallel should produce the same chunk as serializing sequentially. */
+public class ParallelSerializationTest extends SerializationTest {
+
+  private final Language language = new Language("tree", "tree", "tree", "1");
+  private final Concept treeNode = new Concept(language, "TreeNode", "TreeNode", "TreeNode");
+  private final Annotation comment = new Annotation(language, "Comment", "Comment", "Comment");
+
+  public ParallelSerializationTest() {
+    treeNode.addFeature(
+        Property.createRequired(
+                LionWebVersion.currentVersion, "value", LionCoreBuiltins.getString())
+            .setID("TreeNode-value")
+            .setKey("TreeNode-value"));
+    treeNode.addFeature(
+        Containment.createMultiple("children", treeNode)
+            .setID("TreeNode-children")
+            .setKey("TreeNode-children"));
+    treeNode.addFeature(
+        Reference.createMultiple("links", treeNode)
+            .setID("TreeNode-links")
+            .setKey("TreeNode-links"));
+    comment.setAnnotates(treeNode);
+    comment.addFeature(
+        Property.createRequired(
+                LionWebVersion.currentVersion, "text", LionCoreBuiltins.getString())
+            .setID("Comment-text")
+            .setKey("Comment-text"));
+  }
+
+  @Test
+  public void lionCore() {
+    assertSameChunk(js -> js.serializeTreeToSerializationChunk(LionCore.getInstance()));
+  }
+
+  @Test
+  public void largeTree() {
+    List<DynamicNode> nodes = generateTree(20_000);
+    assertSameChunk(js -> js.serializeTreeToSerializationChunk(nodes.get(0)));
+  }
+
+  @Test
+  public void deepTree() {
+    // A long chain of nodes, ending with a few leaves so that the last level can be forked
+    int depth = 100_000;
+    Containment children = treeNode.getContainmentByName("children");
+    DynamicNode root = new DynamicNode("n0", treeNode);
+    DynamicNode current = root;
+    for (int i = 1; i < depth; i++) {
+      DynamicNode child = new DynamicNode("n" + i, treeNode);
+      child.setPropertyValue(treeNode.getPropertyByName("value"), "v" + i);
+      current.addChild(children, child);
+      current = child;
+    }
+    for (int i = 0; i < 3; i++) {
+      current.addChild(children, new DynamicNode("leaf" + i, treeNode));
+    }
+    SerializationChunk chunk = assertSameChunk(js -> js.serializeTreeToSerializationChunk(root));
+    assertEquals(depth + 3, chunk.getClassifierInstances().size());
+  }
+
+  @Test
+  public void overlappingTrees() {
+    List<DynamicNode> nodes = generateTree(5_000);
+    List<DynamicNode> roots =
+        Arrays.asList(nodes.get(100), nodes.get(0), nodes.get(100), nodes.get(10), nodes.get(4000));
+    SerializationChunk chunk = assertSameChunk(js -> js.serializeTreesToSerializationChunk(roots));
+    assertEquals(
+        nodes.size() + 100,
+        chunk.getClassifierInstances().size(),
+        "Each node and each comment should be serialized once");
+  }
+
+  @Test
+  public void nodes() {
+    List<DynamicNode> nodes = generateTree(5_000);
+    // Comments are not included, so they should be added after the nodes they annotate
+    List<ClassifierInstance<?>> classifierInstances = new ArrayList<>(nodes);
+    assertSameChunk(js -> js.serializeNodesToSerializationChunk(classifierInstances));
+  }
+
+  @Test
+  public void languagesAreRegistered() {
+    List<DynamicNode> nodes = generateTree(1_000);
+    JsonSerialization js = SerializationProvider.getStandardJsonSerialization();
+    js.setParallelism(4);
+    js.serializeTreeToSerializationChunk(nodes.get(0));
+    assertSame(treeNode, js.getClassifierResolver().resolveConcept(MetaPointer.from(treeNode)));
+  }
+
+  @Test
+  public void errorsAreReported() {
+    List<DynamicNode> nodes = generateTree(1_000);
+    Concept unknown = new Concept(language, "Unknown", "Unknown", "Unknown");
+    Property property =
+        Property.createRequired(LionWebVersion.currentVersion, "value", new PrimitiveType())
+            .setID("Unknown-value")
+            .setKey("Unknown-value");
+    unknown.addFeature(property);
+    DynamicNode invalid = new DynamicNode("invalid", unknown);
+    invalid.setPropertyValue(property, new Object());
+    nodes.get(500).addChild(treeNode.getContainmentByName("children"), invalid);
+
+    JsonSerialization js = SerializationProvider.getStandardJsonSerialization();
+    js.setParallelism(4);
+    assertThrows(RuntimeException.class, () -> js.serializeTreeToSerializationChunk(nodes.get(0)));
+  }
+
+  private SerializationChunk assertSameChunk(
+      Function<JsonSerialization, SerializationChunk> serialize) {
+    JsonSerialization sequential = SerializationProvider.getStandardJsonSerialization();
+    SerializationChunk expected = serialize.apply(sequential);
+    for (int parallelism : new int[] {2, 4, 8}) {
+      JsonSerialization parallel = SerializationProvider.getStandardJsonSerialization();
+      parallel.setParallelism(parallelism);
+      assertEquals(expected, serialize.apply(parallel));
+    }
+    return expected;
+  }
+
+  /** Generate a random tree, with references between its nodes and a comment every 50 nodes. */
+  private List<DynamicNode> generateTree(int size) {
+    Random random = new Random(1);
+    List<DynamicNode> nodes = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      DynamicNode node = new DynamicNode("n" + i, treeNode);
+      node.setPropertyValue(treeNode.getPropertyByName("value"), "v" + (i % 100));
+      if (i > 0) {
+        nodes.get(random.nextInt(i)).addChild(treeNode.getContainmentByName("children"), node);
+      }
+      if (i % 50 == 0) {
+        DynamicAnnotationInstance annotation =
+            new DynamicAnnotationInstance("c" + i, comment, node);
+        annotation.setPropertyValue(comment.getPropertyByName("text"), "comment " + i);
+      }
+      nodes.add(node);
+    }
+    for (int i = 0; i < size; i++) {
+      Node target = nodes.get(random.nextInt(size));
+      nodes
+          .get(i)
+          .addReferenceValue(
+              treeNode.getReferenceByName("links"), new ReferenceValue(target, "link" + i));
+    }
+    return nodes;
+  }
+}
@@ -0,0 +1,165 @@
+package io.lionweb.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.language.Concept;
+import io.lionweb.language.Language;
+import io.lionweb.language.LionCoreBuiltins;
+import io.lionweb.language.PrimitiveType;
+import io.lionweb.language.Property;
+import io.lionweb.model.ClassifierInstance;
+import io.lionweb.model.Node;
+import io.lionweb.model.impl.DynamicNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+
+public class PropertyValuesCacheTest {
+  private final DataTypesValuesSerialization dataTypesValuesSerialization =
+      new DataTypesValuesSerialization();
+  private final PrimitiveType point =
+      new PrimitiveType(new Language(LionWebVersion.v2024_1, "L"), "Point", "point-id");
+  private final AtomicInteger decoded = new AtomicInteger();
+
+  public PropertyValuesCacheTest() {
+    dataTypesValuesSerialization.registerLionBuiltinsPrimitiveSerializersAndDeserializers(
+        LionWebVersion.v2024_1);
+    dataTypesValuesSerialization.registerDeserializer(
+        point.getID(),
+        serializedValue -> {
+          decoded.incrementAndGet();
+          return new StringBuilder(serializedValue);
+        });
+  }
+
+  @Test
+  public void repeatedValuesAreDecodedOnce() {
+    PropertyValuesCache cache = new PropertyValuesCache(dataTypesValuesSerialization);
+    Object first = cache.deserialize(point, "1,2", true);
+    Object second = cache.deserialize(point, new String("1,2"), true);
+    cache.deserialize(point, "3,4", true);
+
+    assertSame(first, second);
+    assertEquals(2, decoded.get());
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  public void valuesAreCachedSeparatelyByRequiredFlag() {
+    PropertyValuesCache cache = new PropertyValuesCache(dataTypesValuesSerialization);
+    cache.deserialize(point, "1,2", true);
+    cache.deserialize(point, "1,2", false);
+    cache.deserialize(point, "1,2", false);
+
+    assertEquals(2, decoded.get());
+    assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  public void nullValuesAreNotCached() {
+    PropertyValuesCache cache = new PropertyValuesCache(dataTypesValuesSerialization);
+    assertNull(cache.deserialize(LionCoreBuiltins.getInteger(LionWebVersion.v2024_1), null, false));
+    assertEquals(0, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void stringsBypassTheCache() {
+    PropertyValuesCache cache = new PropertyValuesCache(dataTypesValuesSerialization);
+    PrimitiveType string = LionCoreBuiltins.getString(LionWebVersion.v2024_1);
+    for (int i = 0; i < 10; i++) {
+      assertEquals("abc", cache.deserialize(string, "abc", true));
+    }
+    assertEquals(0, cache.getHits());
+    assertEquals(10, cache.getMisses());
+  }
+
+  @Test
+  public void valuesAreEvictedWhenTheLimitIsReached() {
+    PropertyValuesCache cache =
+        new PropertyValuesCache(dataTypesValuesSerialization, 2, new LongAdder(), new LongAdder());
+    cache.deserialize(point, "1,2", true);
+    cache.deserialize(point, "3,4", false);
+    cache.deserialize(point, "5,6", true);
+    assertEquals(3, decoded.get());
+
+    cache.deserialize(point, "5,6", true);
+    assertEquals(3, decoded.get());
+    cache.deserialize(point, "1,2", true);
+    assertEquals(4, decoded.get());
+  }
+
+  @Test
+  public void aSizeOfZeroDisablesTheCache() {
+    PropertyValuesCache cache =
+        new PropertyValuesCache(dataTypesValuesSerialization, 0, new LongAdder(), new LongAdder());
+    cache.deserialize(point, "1,2", true);
+    cache.deserialize(point, "1,2", true);
+    assertEquals(2, decoded.get());
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  public void dataTypesWithFewRepeatedValuesBypassTheCache() {
+    PropertyValuesCache cache = new PropertyValuesCache(dataTypesValuesSerialization);
+    for (int i = 0; i < 1_000; i++) {
+      cache.deserialize(point, "0," + i, true);
+    }
+    cache.deserialize(point, "0,0", true);
+    cache.deserialize(point, "0,0", true);
+
+    assertEquals(1_002, decoded.get());
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  public void dataTypesWithManyRepeatedValuesKeepBeingCached() {
+    PropertyValuesCache cache = new PropertyValuesCache(dataTypesValuesSerialization);
+    for (int i = 0; i < 2_000; i++) {
+      cache.deserialize(point, "0," + (i % 10), true);
+    }
+    assertEquals(10, decoded.get());
+    assertEquals(1_990, cache.getHits());
+  }
+
+  @Test
+  public void serializationExposesTheCounters() {
+    JsonSerialization serialization =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2024_1);
+    Language language = new Language(LionWebVersion.v2024_1, "L").setID("l-id").setKey("l-key");
+    language.setVersion("1");
+    Concept concept = new Concept(language, "C", "c-id", "c-key");
+    concept.addFeature(
+        Property.createRequired(
+                LionWebVersion.v2024_1,
+                "flag",
+                LionCoreBuiltins.getBoolean(LionWebVersion.v2024_1),
+                "flag-id")
+            .setKey("flag-key"));
+    serialization.registerLanguage(language);
+    serialization.enableDynamicNodes();
+
+    List<ClassifierInstance<?>> nodes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      DynamicNode node = new DynamicNode("n-" + i, concept);
+      node.setPropertyValue(concept.getPropertyByName("flag"), i % 2 == 0);
+      nodes.add(node);
+    }
+    List<Node> deserialized =
+        serialization.deserializeToNodes(serialization.serializeNodesToJsonString(nodes));
+
+    assertEquals(10, deserialized.size());
+    assertEquals(8, serialization.getPropertyValuesCacheHits());
+    assertEquals(2, serialization.getPropertyValuesCacheMisses());
+    assertTrue(
+        deserialized.stream()
+            .allMatch(n -> n.getPropertyValue(concept.getPropertyByName("flag")) != null));
+  }
+}
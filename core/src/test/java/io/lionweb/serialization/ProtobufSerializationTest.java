@@ -18,11 +18,15 @@ import io.lionweb.serialization.refsmm.RefsLanguage;
 import io.lionweb.serialization.simplemath.IntLiteral;
 import io.lionweb.serialization.simplemath.SimpleMathLanguage;
 import io.lionweb.serialization.simplemath.Sum;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 
 /** Testing various functionalities of ProtoBufSerialization. */
@@ -358,6 +362,39 @@ public class ProtobufSerializationTest extends SerializationTest {
     assertEquals(serializationChunk, deserializationChunk);
   }
 
+  @Test
+  public void iterateOverClassifierInstances() throws IOException {
+    Language l = new Language(LionWebVersion.v2023_1, "l");
+    l.setKey("l");
+    l.setID("l");
+    l.setVersion("1");
+    new Annotation(l, "a1", "a1", "a1");
+    new Concept(l, "c", "c", "c");
+
+    ProtoBufSerialization serialization =
+        SerializationProvider.getStandardProtoBufSerialization(LionWebVersion.v2023_1);
+    SerializationChunk serializationChunk = serialization.serializeTreeToSerializationChunk(l);
+    byte[] bytes = serialization.serializeToByteArray(serializationChunk);
+
+    List<SerializedClassifierInstance> instances = new ArrayList<>();
+    try (SerializedClassifierInstanceIterator iterator =
+        serialization.iterateClassifierInstances(new ByteArrayInputStream(bytes))) {
+      iterator.forEachRemaining(instances::add);
+      assertEquals(
+          serializationChunk.getSerializationFormatVersion(),
+          iterator.getSerializationFormatVersion());
+      assertEquals(
+          new HashSet<>(serializationChunk.getLanguages()),
+          new HashSet<>(iterator.getLanguages()));
+    }
+    assertEquals(serializationChunk.getClassifierInstances(), instances);
+
+    try (Stream<SerializedClassifierInstance> stream =
+        serialization.streamClassifierInstances(new ByteArrayInputStream(bytes))) {
+      assertEquals(3, stream.count());
+    }
+  }
+
   @Test
   public void serializeAnnotationsUsingLW2023_1() {
     Language l = new Language(LionWebVersion.v2023_1, "l");
@@ -12,11 +12,16 @@ import io.lionweb.language.Property;
 import io.lionweb.model.ClassifierInstanceUtils;
 import io.lionweb.model.Node;
 import io.lionweb.model.impl.ProxyNode;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import io.lionweb.serialization.data.SerializedPropertyValue;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -102,6 +107,139 @@ public class SerializationOfLibraryTest extends SerializationTest {
     SerializedJsonComparisonUtils.assertEquivalentLionWebJson(jsonRead, jsonSerialized);
   }
 
+  @Test
+  public void serializeAndDeserializeLibraryInstanceWithSerializationModule() {
+    Library library = new Library("lib-1", "Language Engineering Library");
+    Writer mv = new Writer("mv", "Markus Völter");
+    Writer mb = new Writer("mb", "Meinte Boersma");
+    library.addBook(new Book("de", "DSL Engineering", mv).setPages(558));
+    library.addBook(new Book("bfd", "Business-Friendly DSLs", mb).setPages(517));
+
+    JsonSerialization jsonSerialization = libraryJsonSerialization();
+    JsonObject expected =
+        jsonSerialization.serializeTreesToJsonElement(library, mv, mb).getAsJsonObject();
+
+    WriterSerializer writerSerializer = new WriterSerializer();
+    jsonSerialization.registerSerializationModule(
+        () -> Collections.singletonList(writerSerializer));
+    JsonObject jsonSerialized =
+        jsonSerialization.serializeTreesToJsonElement(library, mv, mb).getAsJsonObject();
+    assertEquals(2, writerSerializer.serialized.get());
+    SerializedJsonComparisonUtils.assertEquivalentLionWebJson(expected, jsonSerialized);
+
+    List<Node> deserialized = jsonSerialization.deserializeToNodes(jsonSerialized);
+    assertEquals(2, writerSerializer.instantiated.get());
+    Node writer = deserialized.stream().filter(n -> n.getID().equals("mv")).findFirst().get();
+    assertInstanceOf(Writer.class, writer);
+    assertEquals("Markus Völter", ((Writer) writer).getName());
+    Node book = deserialized.stream().filter(n -> n.getID().equals("de")).findFirst().get();
+    assertEquals(
+        Collections.singletonList(writer),
+        ClassifierInstanceUtils.getReferredNodes(
+            book, LibraryLanguage.BOOK.getReferenceByName("author")));
+  }
+
+  @Test
+  public void deserializeLibraryInstanceWithSerializationModuleInParallel() {
+    Library library = new Library("lib-1", "Language Engineering Library");
+    Writer mv = new Writer("mv", "Markus Völter");
+    Writer mb = new Writer("mb", "Meinte Boersma");
+    library.addBook(new Book("de", "DSL Engineering", mv).setPages(558));
+    library.addBook(new Book("bfd", "Business-Friendly DSLs", mb).setPages(517));
+
+    JsonSerialization sequential = libraryJsonSerialization();
+    sequential.registerSerializationModule(() -> Collections.singletonList(new WriterSerializer()));
+    JsonElement json = sequential.serializeTreesToJsonElement(library, mv, mb);
+    List<Node> expected = sequential.deserializeToNodes(json);
+
+    JsonSerialization parallel = libraryJsonSerialization();
+    parallel.setParallelism(4);
+    WriterSerializer writerSerializer = new WriterSerializer();
+    parallel.registerSerializationModule(() -> Collections.singletonList(writerSerializer));
+    List<Node> deserialized = parallel.deserializeToNodes(json);
+
+    assertEquals(classesByID(expected), classesByID(deserialized));
+    assertInstanceOf(
+        Writer.class, deserialized.stream().filter(n -> n.getID().equals("mv")).findFirst().get());
+    assertEquals(2, writerSerializer.instantiated.get());
+  }
+
+  private static List<String> classesByID(List<Node> nodes) {
+    return nodes.stream()
+        .map(n -> n.getID() + ":" + n.getClass().getName())
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  private static JsonSerialization libraryJsonSerialization() {
+    JsonSerialization jsonSerialization =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1);
+    jsonSerialization.enableDynamicNodes();
+    jsonSerialization.registerLanguage(LibraryLanguage.LIBRARY_MM);
+    jsonSerialization
+        .getPrimitiveValuesSerialization()
+        .registerSerializer(
+            "INhBvWyXvxwNsePuX0rdNGB_J9hi85cTb1Q0APXCyJ0",
+            (DataTypesValuesSerialization.DataTypeSerializer<String>) value -> value)
+        .registerDeserializer(
+            "INhBvWyXvxwNsePuX0rdNGB_J9hi85cTb1Q0APXCyJ0",
+            (DataTypesValuesSerialization.DataTypeDeserializer<String>) value -> value)
+        .registerSerializer(
+            "gVp8_QSmXE2k4pd-sQZgjYMoW95SLLaVIH4yMYqqbt4",
+            (DataTypesValuesSerialization.DataTypeSerializer<Integer>) value -> value.toString())
+        .registerDeserializer(
+            "gVp8_QSmXE2k4pd-sQZgjYMoW95SLLaVIH4yMYqqbt4",
+            (DataTypesValuesSerialization.DataTypeDeserializer<Integer>) Integer::valueOf);
+    return jsonSerialization;
+  }
+
+  /** Handles the instances of Writer, as the serializers generated for a language would. */
+  private static class WriterSerializer implements ClassifierSerializer<Writer> {
+    private static final MetaPointer WRITER = MetaPointer.from(LibraryLanguage.WRITER);
+    private static final MetaPointer WRITER_NAME =
+        MetaPointer.from(
+            LibraryLanguage.WRITER.getPropertyByName("name"), LibraryLanguage.LIBRARY_MM);
+    private static final String STRING_ID = "INhBvWyXvxwNsePuX0rdNGB_J9hi85cTb1Q0APXCyJ0";
+    private final AtomicInteger serialized = new AtomicInteger();
+    private final AtomicInteger instantiated = new AtomicInteger();
+
+    @Override
+    public MetaPointer getClassifier() {
+      return WRITER;
+    }
+
+    @Override
+    public Class<Writer> getInstanceClass() {
+      return Writer.class;
+    }
+
+    @Override
+    public void serializeFeatures(
+        Writer instance,
+        SerializedClassifierInstance serializedInstance,
+        AbstractSerialization serialization) {
+      serialized.incrementAndGet();
+      serializedInstance.unsafeAppendPropertyValue(
+          SerializedPropertyValue.get(
+              WRITER_NAME, serialization.serializePropertyValue(STRING_ID, instance.getName())));
+    }
+
+    @Override
+    public Writer instantiate(
+        SerializedClassifierInstance serializedInstance, AbstractSerialization serialization) {
+      instantiated.incrementAndGet();
+      Writer writer = new Writer(serializedInstance.getID());
+      for (SerializedPropertyValue propertyValue : serializedInstance.getProperties()) {
+        assertSame(WRITER_NAME, propertyValue.getMetaPointer());
+        writer.setName(
+            (String)
+                serialization.deserializePropertyValue(
+                    STRING_ID, propertyValue.getValue(), true));
+      }
+      return writer;
+    }
+  }
+
   @Test
   public void deserializeLanguageWithDuplicateIDs() {
     InputStream inputStream =
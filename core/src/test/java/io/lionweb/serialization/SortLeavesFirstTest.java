@@ -0,0 +1,164 @@
+package io.lionweb.serialization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import java.util.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Testing the sorting of serialized nodes performed before deserializing them. */
+public class SortLeavesFirstTest {
+  private static final MetaPointer CLASSIFIER = MetaPointer.get("my-language", "1", "my-concept");
+
+  @Test
+  public void childrenPrecedeTheirParents() {
+    List<SerializedClassifierInstance> nodes =
+        Arrays.asList(
+            node("c", "b"), node("a", null), node("d", "a"), node("b", "a"), node("e", "c"));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    List<SerializedClassifierInstance> sorted =
+        serialization.sortLeavesFirst(nodes).getSortedList();
+    assertEquals(nodes.size(), sorted.size());
+    assertEquals(new HashSet<>(nodes), new HashSet<>(sorted));
+    assertChildrenPrecedeParents(sorted);
+  }
+
+  @Test
+  public void nodesWithNullIDsAreSortedLast() {
+    SerializedClassifierInstance withoutID = node(null, null);
+    List<SerializedClassifierInstance> nodes =
+        Arrays.asList(node("b", "a"), withoutID, node("a", null));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    List<SerializedClassifierInstance> sorted =
+        serialization.sortLeavesFirst(nodes).getSortedList();
+    assertEquals(3, sorted.size());
+    assertSame(withoutID, sorted.get(2));
+    assertChildrenPrecedeParents(sorted);
+  }
+
+  @Test
+  public void unavailableParentWithThrowErrorPolicy() {
+    List<SerializedClassifierInstance> nodes = Arrays.asList(node("a", null), node("b", "zzz"));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    assertThrows(DeserializationException.class, () -> serialization.sortLeavesFirst(nodes));
+  }
+
+  @Test
+  public void noRootWithThrowErrorPolicy() {
+    List<SerializedClassifierInstance> nodes = Arrays.asList(node("a", "zzz"), node("b", "a"));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    DeserializationException e =
+        assertThrows(DeserializationException.class, () -> serialization.sortLeavesFirst(nodes));
+    assertTrue(e.getMessage().contains("No root found"));
+  }
+
+  @Test
+  public void containmentLoopWithThrowErrorPolicy() {
+    List<SerializedClassifierInstance> nodes =
+        Arrays.asList(node("r", null), node("a", "b"), node("b", "a"));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    DeserializationException e =
+        assertThrows(DeserializationException.class, () -> serialization.sortLeavesFirst(nodes));
+    assertTrue(e.getMessage().contains("containment loop"));
+  }
+
+  @Test
+  public void unavailableParentWithNullReferencesPolicy() {
+    List<SerializedClassifierInstance> nodes =
+        Arrays.asList(node("c", "b"), node("b", "zzz"), node("a", null));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    serialization.setUnavailableParentPolicy(UnavailableNodePolicy.NULL_REFERENCES);
+    DeserializationStatus status = serialization.sortLeavesFirst(nodes);
+    assertEquals(3, status.getSortedList().size());
+    assertChildrenPrecedeParents(status.getSortedList());
+    assertEquals(0, status.proxies.size());
+  }
+
+  @Test
+  public void unavailableParentWithProxyNodesPolicy() {
+    List<SerializedClassifierInstance> nodes =
+        Arrays.asList(node("c", "b"), node("b", "zzz"), node("a", null));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    serialization.setUnavailableParentPolicy(UnavailableNodePolicy.PROXY_NODES);
+    DeserializationStatus status = serialization.sortLeavesFirst(nodes);
+    assertEquals(3, status.getSortedList().size());
+    assertChildrenPrecedeParents(status.getSortedList());
+    assertEquals(1, status.proxies.size());
+    assertEquals("zzz", status.proxies.get(0).getID());
+  }
+
+  @Test
+  public void containmentLoopWithNullReferencesPolicy() {
+    List<SerializedClassifierInstance> nodes =
+        Arrays.asList(node("r", null), node("a", "b"), node("b", "a"));
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    serialization.setUnavailableParentPolicy(UnavailableNodePolicy.NULL_REFERENCES);
+    assertEquals(3, serialization.sortLeavesFirst(nodes).getSortedList().size());
+  }
+
+  @Tag("performance")
+  @Test
+  public void sortingScalesLinearly() {
+    AbstractSerialization serialization = SerializationProvider.getStandardJsonSerialization();
+    // Warm up
+    for (int i = 0; i < 5; i++) {
+      serialization.sortLeavesFirst(shuffledTree(10_000));
+    }
+    Map<Integer, Double> nanosPerNode = new LinkedHashMap<>();
+    for (int size : new int[] {10_000, 100_000, 1_000_000, 2_000_000}) {
+      List<SerializedClassifierInstance> nodes = shuffledTree(size);
+      long best = Long.MAX_VALUE;
+      for (int i = 0; i < 3; i++) {
+        long t0 = System.nanoTime();
+        DeserializationStatus status = serialization.sortLeavesFirst(nodes);
+        best = Math.min(best, System.nanoTime() - t0);
+        assertEquals(size, status.howManySorted());
+      }
+      nanosPerNode.put(size, best / (double) size);
+      System.out.println("Sorted " + size + " nodes in " + best / 1_000_000 + " ms");
+    }
+    // With a quadratic algorithm the cost per node would grow by 200 times going from 10k to 2M
+    // nodes. We tolerate some growth, due to caches and GC being less effective on larger inputs.
+    double reference = Math.max(nanosPerNode.get(10_000), nanosPerNode.get(100_000));
+    assertTrue(
+        nanosPerNode.get(2_000_000) < reference * 10,
+        "The cost per node is not growing linearly: " + nanosPerNode);
+  }
+
+  private static List<SerializedClassifierInstance> shuffledTree(int size) {
+    List<SerializedClassifierInstance> nodes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      SerializedClassifierInstance node = new SerializedClassifierInstance("n" + i, CLASSIFIER);
+      if (i > 0) {
+        node.setParentNodeID(nodes.get((i - 1) / 4).getID());
+      }
+      nodes.add(node);
+    }
+    Collections.shuffle(nodes, new Random(1));
+    return nodes;
+  }
+
+  private static SerializedClassifierInstance node(String id, String parentID) {
+    SerializedClassifierInstance node = new SerializedClassifierInstance(id, CLASSIFIER);
+    node.setParentNodeID(parentID);
+    return node;
+  }
+
+  private static void assertChildrenPrecedeParents(List<SerializedClassifierInstance> sorted) {
+    Set<String> seenIDs = new HashSet<>();
+    for (SerializedClassifierInstance node : sorted) {
+      if (node.getID() != null) {
+        for (SerializedClassifierInstance other : sorted) {
+          if (node.getID().equals(other.getParentNodeID())) {
+            assertTrue(
+                seenIDs.contains(other.getID()),
+                "Node " + other.getID() + " should precede its parent " + node.getID());
+          }
+        }
+        seenIDs.add(node.getID());
+      }
+    }
+  }
+}
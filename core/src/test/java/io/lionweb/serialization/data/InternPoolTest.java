@@ -0,0 +1,135 @@
+package io.lionweb.serialization.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.serialization.JsonSerialization;
+import io.lionweb.serialization.LowLevelJsonSerialization;
+import io.lionweb.serialization.SerializationProvider;
+import org.junit.jupiter.api.Test;
+
+public class InternPoolTest {
+
+  @Test
+  public void equalValuesAreShared() {
+    InternPool pool = new InternPool();
+    MetaPointer mp = MetaPointer.get("L", "1.0", "K");
+    SerializedPropertyValue v1 = pool.propertyValue(mp, "true");
+    SerializedPropertyValue v2 = pool.propertyValue(mp, new String("true"));
+    assertSame(v1, v2);
+    assertNotSame(v1, pool.propertyValue(mp, "false"));
+
+    InternPool.Statistics statistics = pool.getStatistics();
+    assertEquals(1, statistics.getHits());
+    assertEquals(2, statistics.getMisses());
+    assertEquals(2, statistics.getSize());
+  }
+
+  @Test
+  public void nullValuesAreShared() {
+    InternPool pool = new InternPool();
+    MetaPointer mp = MetaPointer.get("L", "1.0", "K");
+    SerializedPropertyValue v = pool.propertyValue(mp, null);
+    assertNull(v.getValue());
+    assertSame(v, pool.propertyValue(mp, null));
+  }
+
+  @Test
+  public void longValuesAreNotShared() {
+    InternPool pool = new InternPool();
+    MetaPointer mp = MetaPointer.get("L", "1.0", "K");
+    String longValue = new String(new char[InternPool.MAX_INTERNED_LENGTH]).replace('\0', 'X');
+    SerializedPropertyValue v1 = pool.propertyValue(mp, longValue);
+    SerializedPropertyValue v2 = pool.propertyValue(mp, longValue);
+    assertEquals(v1, v2);
+    assertNotSame(v1, v2);
+    assertEquals(0, pool.getStatistics().getSize());
+  }
+
+  @Test
+  public void valuesWithoutMetaPointerAreNotShared() {
+    InternPool pool = new InternPool();
+    SerializedPropertyValue v1 = pool.propertyValue(null, "a");
+    SerializedPropertyValue v2 = pool.propertyValue(null, "a");
+    assertNull(v1.getMetaPointer());
+    assertNotSame(v1, v2);
+  }
+
+  @Test
+  public void valuesAreEvictedWhenTheLimitIsReached() {
+    InternPool pool = new InternPool(2);
+    MetaPointer mp = MetaPointer.get("L", "1.0", "K");
+    SerializedPropertyValue a = pool.propertyValue(mp, "a");
+    pool.propertyValue(mp, "b");
+    SerializedPropertyValue c = pool.propertyValue(mp, "c");
+
+    assertSame(c, pool.propertyValue(mp, "c"));
+    assertNotSame(a, pool.propertyValue(mp, "a"));
+    InternPool.Statistics statistics = pool.getStatistics();
+    assertEquals(2, statistics.getEvictions());
+    assertEquals(2, statistics.getSize());
+  }
+
+  @Test
+  public void aSizeOfZeroDisablesSharing() {
+    InternPool pool = new InternPool(0);
+    MetaPointer mp = MetaPointer.get("L", "1.0", "K");
+    assertNotSame(pool.propertyValue(mp, "a"), pool.propertyValue(mp, "a"));
+    assertEquals(0, pool.getStatistics().getSize());
+  }
+
+  @Test
+  public void negativeSizesAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new InternPool(-1));
+  }
+
+  @Test
+  public void serializationsCanUseTheirOwnPool() {
+    JsonSerialization serialization =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2024_1);
+    assertSame(InternPool.getDefault(), serialization.getInternPool());
+    InternPool pool = new InternPool();
+    serialization.setInternPool(pool);
+    assertSame(pool, serialization.getInternPool());
+    assertThrows(NullPointerException.class, () -> serialization.setInternPool(null));
+  }
+
+  @Test
+  public void deserializationsCanUseTheirOwnPool() {
+    InternPool pool = new InternPool();
+    String json =
+        "{\"serializationFormatVersion\":\"2024.1\",\"languages\":[],\"nodes\":["
+            + node("n1")
+            + ","
+            + node("n2")
+            + "]}";
+    SerializationChunk chunk =
+        new LowLevelJsonSerialization(pool).deserializeSerializationBlock(json);
+
+    SerializedPropertyValue v1 = chunk.getClassifierInstances().get(0).getProperties().get(0);
+    SerializedPropertyValue v2 = chunk.getClassifierInstances().get(1).getProperties().get(0);
+    assertSame(v1, v2);
+    assertEquals(1, pool.getStatistics().getHits());
+    assertEquals(1, pool.getStatistics().getMisses());
+  }
+
+  private static String node(String id) {
+    return "{\"id\":\""
+        + id
+        + "\",\"classifier\":{\"language\":\"L\",\"version\":\"1\",\"key\":\"C\"},"
+        + "\"properties\":[{\"property\":{\"language\":\"L\",\"version\":\"1\",\"key\":\"P\"},"
+        + "\"value\":\"v\"}],\"containments\":[],\"references\":[],\"annotations\":[],"
+        + "\"parent\":null}";
+  }
+
+  @Test
+  public void metaPointersRemainCanonical() {
+    MetaPointer mp1 = MetaPointer.get("L", "1.0", "Canonical");
+    MetaPointer mp2 =
+        MetaPointer.get(
+            new String("L"), new StringBuilder("1.").append("0").toString(), "Canonical");
+    assertSame(mp1, mp2);
+    assertTrue(InternPool.getMetaPointerStatistics().getHits() > 0);
+    assertTrue(InternPool.getMetaPointerStatistics().getSize() > 0);
+  }
+}
@@ -13,7 +13,6 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -69,7 +68,8 @@ public class LionWebArchive {
   /**
    * Loads a LionWeb archive from the specified file. This method extracts metadata, language
    * chunks, and partition chunks from the archive and processes them using the provided consumer
-   * functions.
+   * functions. The archive is read through a {@link LionWebArchiveReader}, which can also be used
+   * directly to load only some of the partitions.
    *
    * <p>The archive is expected to contain a metadata file ("metadata/metadata.properties"),
    * language data under the "languages/" path, and partition data under the "partitions/" path.
@@ -85,97 +85,20 @@ public class LionWebArchive {
   public static void load(@Nonnull File file, @Nonnull Loader loader) throws IOException {
     Objects.requireNonNull(file, "file should not be null");
     Objects.requireNonNull(loader, "loader should not be null");
-    if (!file.exists()) {
-      throw new IllegalArgumentException("The given file does not exist");
-    }
-    if (file.isDirectory()) {
-      throw new IllegalArgumentException("The given file is a directory");
-    }
 
-    final int BUF_4MiB = 4 << 20;
-    Properties metadata = null;
-    String metadataPath = "metadata/metadata.properties";
-
-    // First pass: read Metadata/Metadata.properties
-    try (InputStream fileIn =
-            new BufferedInputStream(Files.newInputStream(file.toPath()), BUF_4MiB);
-        ZipInputStream zipIn = new ZipInputStream(fileIn)) {
-
-      ZipEntry entry;
-      while ((entry = zipIn.getNextEntry()) != null) {
-        if (!entry.isDirectory() && entry.getName().equalsIgnoreCase(metadataPath)) {
-          metadata = new Properties();
-          metadata.load(zipIn);
-          zipIn.closeEntry();
-          break; // stop after reading metadata
-        }
-        zipIn.closeEntry();
+    try (LionWebArchiveReader reader = new LionWebArchiveReader(file)) {
+      loader.setLwVersion(reader.getLionWebVersion());
+      for (SerializationChunk chunk : reader.loadLanguages()) {
+        loader.addLanguageChunk(chunk);
       }
-    }
+      loader.languagesLoaded();
 
-    if (metadata == null) {
-      throw new IllegalArgumentException("No Metadata.properties file found in archive");
-    }
-    if (!metadata.containsKey(LW_VERION_KEY)) {
-      throw new IllegalArgumentException(
-          "No " + LW_VERION_KEY + " property found in metadata.properties");
-    }
-    LionWebVersion lionWebVersion = LionWebVersion.fromValue(metadata.getProperty(LW_VERION_KEY));
-    loader.setLwVersion(lionWebVersion);
-    ProtoBufSerialization serialization =
-        SerializationProvider.getStandardProtoBufSerialization(lionWebVersion);
-
-    // Languages
-    try (InputStream fileIn =
-            new BufferedInputStream(Files.newInputStream(file.toPath()), BUF_4MiB);
-        ZipInputStream zipIn = new ZipInputStream(fileIn)) {
-      ZipEntry entry = zipIn.getNextEntry();
-      while (entry != null) {
-        if (entry.isDirectory()) {
-          entry = zipIn.getNextEntry();
-          continue;
-        }
-        if (entry.getName().startsWith("languages/")) {
-          try {
-            SerializationChunk chunk;
-            byte[] bytes = readAllBytes(zipIn);
-            chunk = serialization.deserializeToChunk(bytes);
-            zipIn.closeEntry();
-            loader.addLanguageChunk(chunk);
-          } catch (Exception e) {
-            throw new RuntimeException("Failed to deserialize chunk from " + entry.getName(), e);
-          }
-        }
-        entry = zipIn.getNextEntry();
+      // Partitions are loaded one at a time, so that they do not need to be kept all in memory
+      for (String partitionId : reader.listPartitions()) {
+        loader.addPartitionChunk(reader.loadPartition(partitionId));
       }
+      loader.partitionsLoaded();
     }
-    loader.languagesLoaded();
-
-    // Partitions
-    try (InputStream fileIn =
-            new BufferedInputStream(Files.newInputStream(file.toPath()), BUF_4MiB);
-        ZipInputStream zipIn = new ZipInputStream(fileIn)) {
-      ZipEntry entry = zipIn.getNextEntry();
-      while (entry != null) {
-        if (entry.isDirectory()) {
-          entry = zipIn.getNextEntry();
-          continue;
-        }
-        if (entry.getName().startsWith("partitions/")) {
-          try {
-            SerializationChunk chunk;
-            byte[] bytes = readAllBytes(zipIn);
-            chunk = serialization.deserializeToChunk(bytes);
-            zipIn.closeEntry();
-            loader.addPartitionChunk(chunk);
-          } catch (Exception e) {
-            throw new RuntimeException("Failed to deserialize chunk from " + entry.getName(), e);
-          }
-        }
-        entry = zipIn.getNextEntry();
-      }
-    }
-    loader.partitionsLoaded();
   }
 
   /**
@@ -444,14 +367,4 @@ public class LionWebArchive {
     }
     throw new IllegalStateException("No root classifier instance found in chunk");
   }
-
-  private static byte[] readAllBytes(InputStream in) throws IOException {
-    ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
-    byte[] buf = new byte[64 * 1024];
-    int n;
-    while ((n = in.read(buf)) != -1) {
-      out.write(buf, 0, n);
-    }
-    return out.toByteArray();
-  }
 }
@@ -0,0 +1,199 @@
+package io.lionweb.archive;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.serialization.ProtoBufSerialization;
+import io.lionweb.serialization.SerializationProvider;
+import io.lionweb.serialization.data.SerializationChunk;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.annotation.Nonnull;
+
+/**
+ * Gives random access to the content of a LionWeb Archive.
+ *
+ * <p>Differently from {@link LionWebArchive#load(File, LionWebArchive.Loader)}, which reads the
+ * whole archive sequentially, this class opens the archive as a {@link ZipFile}. Only the central
+ * directory of the archive is read when the reader is created, and each partition can then be read
+ * on its own. Entries are decoded directly from the stream inflating them, without first copying
+ * them in memory.
+ *
+ * <p>The reader should be closed once it is not needed anymore. Partitions can be loaded
+ * concurrently, from different threads.
+ *
+ * @see LionWebArchive
+ */
+public class LionWebArchiveReader implements Closeable {
+  private static final String METADATA_PATH = "metadata/metadata.properties";
+  private static final String LANGUAGES_PREFIX = "languages/";
+  private static final String PARTITIONS_PREFIX = "partitions/";
+  private static final String CHUNK_EXTENSION = ".binpb";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ZipFile zipFile;
+  private final LionWebVersion lionWebVersion;
+
+  /** Only used to decode chunks, which does not modify it, so it can be shared among threads. */
+  private final ProtoBufSerialization serialization;
+
+  private final List<ZipEntry> languageEntries = new ArrayList<>();
+  private final Map<String, ZipEntry> partitionEntries = new LinkedHashMap<>();
+
+  /**
+   * Open the given archive and read its central directory and its metadata.
+   *
+   * @throws IOException if an error occurs reading the file
+   * @throws IllegalArgumentException if the file does not exist, is a directory, or the archive
+   *     does not contain the metadata
+   */
+  public LionWebArchiveReader(@Nonnull File file) throws IOException {
+    Objects.requireNonNull(file, "file should not be null");
+    if (!file.exists()) {
+      throw new IllegalArgumentException("The given file does not exist");
+    }
+    if (file.isDirectory()) {
+      throw new IllegalArgumentException("The given file is a directory");
+    }
+    this.zipFile = new ZipFile(file);
+    try {
+      ZipEntry metadataEntry = null;
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        if (entry.isDirectory()) {
+          continue;
+        }
+        if (metadataEntry == null && entry.getName().equalsIgnoreCase(METADATA_PATH)) {
+          metadataEntry = entry;
+        } else if (entry.getName().startsWith(LANGUAGES_PREFIX)) {
+          languageEntries.add(entry);
+        } else if (entry.getName().startsWith(PARTITIONS_PREFIX)) {
+          partitionEntries.put(partitionId(entry), entry);
+        }
+      }
+      this.lionWebVersion = readLionWebVersion(metadataEntry);
+      this.serialization = SerializationProvider.getStandardProtoBufSerialization(lionWebVersion);
+    } catch (IOException | RuntimeException e) {
+      zipFile.close();
+      throw e;
+    }
+  }
+
+  public @Nonnull LionWebVersion getLionWebVersion() {
+    return lionWebVersion;
+  }
+
+  /** Return the IDs of the partitions contained in the archive, in the order they are stored. */
+  public @Nonnull List<String> listPartitions() {
+    return new ArrayList<>(partitionEntries.keySet());
+  }
+
+  public boolean hasPartition(@Nonnull String partitionId) {
+    return partitionEntries.containsKey(partitionId);
+  }
+
+  /**
+   * Load the chunks of all the languages contained in the archive.
+   *
+   * @throws RuntimeException if an error occurs reading or deserializing one of the chunks
+   */
+  public @Nonnull List<SerializationChunk> loadLanguages() {
+    List<SerializationChunk> chunks = new ArrayList<>(languageEntries.size());
+    for (ZipEntry entry : languageEntries) {
+      chunks.add(loadChunk(entry));
+    }
+    return chunks;
+  }
+
+  /**
+   * Load the chunk of the given partition, reading only the corresponding entry of the archive.
+   *
+   * @throws IllegalArgumentException if the archive does not contain the partition
+   * @throws RuntimeException if an error occurs reading or deserializing the chunk
+   */
+  public @Nonnull SerializationChunk loadPartition(@Nonnull String partitionId) {
+    return loadChunk(partitionEntry(partitionId));
+  }
+
+  /**
+   * Load the chunks of the given partitions, using the given executor to load them in parallel.
+   * The chunks are returned in the same order as the IDs.
+   *
+   * @throws IllegalArgumentException if the archive does not contain one of the partitions
+   * @throws RuntimeException if an error occurs reading or deserializing one of the chunks
+   */
+  public @Nonnull List<SerializationChunk> loadPartitions(
+      @Nonnull Collection<String> partitionIds, @Nonnull Executor executor) {
+    Objects.requireNonNull(partitionIds, "partitionIds should not be null");
+    Objects.requireNonNull(executor, "executor should not be null");
+    List<CompletableFuture<SerializationChunk>> futures = new ArrayList<>(partitionIds.size());
+    for (String partitionId : partitionIds) {
+      ZipEntry entry = partitionEntry(partitionId);
+      futures.add(CompletableFuture.supplyAsync(() -> loadChunk(entry), executor));
+    }
+    List<SerializationChunk> chunks = new ArrayList<>(futures.size());
+    for (CompletableFuture<SerializationChunk> future : futures) {
+      try {
+        chunks.add(future.join());
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+    return chunks;
+  }
+
+  @Override
+  public void close() throws IOException {
+    zipFile.close();
+  }
+
+  private ZipEntry partitionEntry(String partitionId) {
+    Objects.requireNonNull(partitionId, "partitionId should not be null");
+    ZipEntry entry = partitionEntries.get(partitionId);
+    if (entry == null) {
+      throw new IllegalArgumentException(
+          "The archive does not contain the partition " + partitionId);
+    }
+    return entry;
+  }
+
+  private SerializationChunk loadChunk(ZipEntry entry) {
+    try (InputStream inputStream =
+        new BufferedInputStream(zipFile.getInputStream(entry), BUFFER_SIZE)) {
+      return serialization.deserializeToChunk(inputStream);
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to deserialize chunk from " + entry.getName(), e);
+    }
+  }
+
+  private LionWebVersion readLionWebVersion(ZipEntry metadataEntry) throws IOException {
+    if (metadataEntry == null) {
+      throw new IllegalArgumentException("No Metadata.properties file found in archive");
+    }
+    Properties metadata = new Properties();
+    try (InputStream inputStream = zipFile.getInputStream(metadataEntry)) {
+      metadata.load(inputStream);
+    }
+    if (!metadata.containsKey(LionWebArchive.LW_VERION_KEY)) {
+      throw new IllegalArgumentException(
+          "No " + LionWebArchive.LW_VERION_KEY + " property found in metadata.properties");
+    }
+    return LionWebVersion.fromValue(metadata.getProperty(LionWebArchive.LW_VERION_KEY));
+  }
+
+  /** Partitions are stored in entries named after their ID. */
+  private static String partitionId(ZipEntry entry) {
+    String name = entry.getName().substring(PARTITIONS_PREFIX.length());
+    if (name.endsWith(CHUNK_EXTENSION)) {
+      name = name.substring(0, name.length() - CHUNK_EXTENSION.length());
+    }
+    return name;
+  }
+}
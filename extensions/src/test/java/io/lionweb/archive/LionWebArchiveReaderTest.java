@@ -0,0 +1,124 @@
+package io.lionweb.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.serialization.ProtoBufSerialization;
+import io.lionweb.serialization.SerializationProvider;
+import io.lionweb.serialization.data.SerializationChunk;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+
+public class LionWebArchiveReaderTest {
+
+  private final ProtoBufSerialization serialization =
+      SerializationProvider.getStandardProtoBufSerialization(LionWebVersion.v2023_1);
+
+  private File storeArchive(List<SerializationChunk> partitions) throws IOException {
+    serialization.registerLanguage(CompanyLanguage.getLanguage());
+    SerializationChunk languageChunk =
+        serialization.serializeTreeToSerializationChunk(CompanyLanguage.getLanguage());
+    File archiveFile = Files.createTempFile("lionweb-archive", ".lwa").toFile();
+    archiveFile.deleteOnExit();
+    LionWebArchive.store(
+        archiveFile, LionWebVersion.v2023_1, Collections.singletonList(languageChunk), partitions);
+    return archiveFile;
+  }
+
+  private List<SerializationChunk> companies(int count) {
+    List<SerializationChunk> chunks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Company company = new Company("c-" + i, "Company " + i);
+      company.addRole("c-" + i + "-r-1", "CEO");
+      company.addDepartment("c-" + i + "-d-1", "Sales");
+      chunks.add(serialization.serializeTreeToSerializationChunk(company));
+    }
+    return chunks;
+  }
+
+  @Test
+  public void listPartitions() throws IOException {
+    File archiveFile = storeArchive(companies(3));
+    try (LionWebArchiveReader reader = new LionWebArchiveReader(archiveFile)) {
+      assertEquals(LionWebVersion.v2023_1, reader.getLionWebVersion());
+      assertEquals(Arrays.asList("c-0", "c-1", "c-2"), reader.listPartitions());
+      assertTrue(reader.hasPartition("c-1"));
+      assertFalse(reader.hasPartition("c-3"));
+      assertEquals(1, reader.loadLanguages().size());
+    }
+  }
+
+  @Test
+  public void loadPartition() throws IOException {
+    List<SerializationChunk> partitions = companies(3);
+    File archiveFile = storeArchive(partitions);
+    try (LionWebArchiveReader reader = new LionWebArchiveReader(archiveFile)) {
+      SerializationChunk loaded = reader.loadPartition("c-1");
+      assertEquals(partitions.get(1).getClassifierInstances(), loaded.getClassifierInstances());
+      assertThrows(IllegalArgumentException.class, () -> reader.loadPartition("c-3"));
+    }
+  }
+
+  @Test
+  public void loadPartitionsInParallel() throws IOException {
+    List<SerializationChunk> partitions = companies(20);
+    File archiveFile = storeArchive(partitions);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try (LionWebArchiveReader reader = new LionWebArchiveReader(archiveFile)) {
+      List<SerializationChunk> loaded =
+          reader.loadPartitions(Arrays.asList("c-15", "c-3", "c-7"), executor);
+      assertEquals(3, loaded.size());
+      assertEquals(
+          partitions.get(15).getClassifierInstances(), loaded.get(0).getClassifierInstances());
+      assertEquals(
+          partitions.get(3).getClassifierInstances(), loaded.get(1).getClassifierInstances());
+      assertEquals(
+          partitions.get(7).getClassifierInstances(), loaded.get(2).getClassifierInstances());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void archiveWithoutMetadata() throws IOException {
+    File file = Files.createTempFile("lionweb-archive", ".lwa").toFile();
+    file.deleteOnExit();
+    try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(file.toPath()))) {
+      zipOut.putNextEntry(new ZipEntry("partitions/p.binpb"));
+      zipOut.closeEntry();
+    }
+    assertThrows(IllegalArgumentException.class, () -> new LionWebArchiveReader(file));
+  }
+
+  @Test
+  public void invalidChunk() throws IOException {
+    File file = Files.createTempFile("lionweb-archive", ".lwa").toFile();
+    file.deleteOnExit();
+    try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(file.toPath()))) {
+      zipOut.putNextEntry(new ZipEntry("metadata/metadata.properties"));
+      Properties metadata = new Properties();
+      metadata.setProperty(LionWebArchive.LW_VERION_KEY, LionWebVersion.v2023_1.getVersionString());
+      metadata.store(zipOut, null);
+      zipOut.closeEntry();
+      zipOut.putNextEntry(new ZipEntry("partitions/p.binpb"));
+      zipOut.write(new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff});
+      zipOut.closeEntry();
+    }
+    try (LionWebArchiveReader reader = new LionWebArchiveReader(file)) {
+      RuntimeException e = assertThrows(RuntimeException.class, () -> reader.loadPartition("p"));
+      assertEquals("Failed to deserialize chunk from partitions/p.binpb", e.getMessage());
+    }
+    assertThrows(RuntimeException.class, () -> LionWebArchive.loadNodes(file, serialization));
+  }
+}
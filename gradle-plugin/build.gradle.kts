@@ -3,6 +3,7 @@ plugins {
     id("com.gradle.plugin-publish") version "1.2.0"
     alias(libs.plugins.vt.publish)
     alias(libs.plugins.build.config)
+    alias(libs.plugins.jmh)
 }
 
 project.group = "io.lionweb"
@@ -40,6 +41,11 @@ tasks.named<Test>("test") {
     useJUnitPlatform()
 }
 
+// Benchmarks on the code we generate, run with ./gradlew :gradle-plugin:jmh
+jmh {
+    jmhVersion.set(libs.versions.jmhVersion)
+}
+
 // In order to use JavaPoet, we cannot stick to Java 8
 java {
     sourceCompatibility = JavaVersion.toVersion("17")
@@ -0,0 +1,170 @@
+package io.lionweb.gradleplugin.generators;
+
+import io.lionweb.LionWebVersion;
+import io.lionweb.language.LionCoreBuiltins;
+import io.lionweb.language.Property;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the two shapes of getPropertyValue produced by NodeClassesJavaCodeGenerator on a concept
+ * with twelve properties: the chain of key comparisons emitted previously and the switch on the key
+ * emitted now. Accessing the first property is the best case for the chain, accessing the last one
+ * its worst case. Keys share a long prefix, as they typically do in real languages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureDispatchBenchmark {
+  private static final String PREFIX = "LibraryLanguage-Book-";
+
+  private Property first;
+  private Property last;
+
+  private String p0 = "v0";
+  private String p1 = "v1";
+  private String p2 = "v2";
+  private String p3 = "v3";
+  private String p4 = "v4";
+  private String p5 = "v5";
+  private String p6 = "v6";
+  private String p7 = "v7";
+  private String p8 = "v8";
+  private String p9 = "v9";
+  private String p10 = "v10";
+  private String p11 = "v11";
+
+  @Setup
+  public void setup() {
+    first = property("p0");
+    last = property("p11");
+  }
+
+  private static Property property(String name) {
+    // Build the key at runtime, so that it is not the same instance as the constants in the code
+    return Property.createRequired(
+            LionWebVersion.v2023_1, name, LionCoreBuiltins.getString(LionWebVersion.v2023_1))
+        .setKey(new StringBuilder(PREFIX).append(name).toString());
+  }
+
+  @Benchmark
+  public Object ifChainFirst() {
+    return ifChain(first);
+  }
+
+  @Benchmark
+  public Object ifChainLast() {
+    return ifChain(last);
+  }
+
+  @Benchmark
+  public Object switchFirst() {
+    return switchOnKey(first);
+  }
+
+  @Benchmark
+  public Object switchLast() {
+    return switchOnKey(last);
+  }
+
+  private Object ifChain(Property property) {
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p0")) {
+      return p0;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p1")) {
+      return p1;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p2")) {
+      return p2;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p3")) {
+      return p3;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p4")) {
+      return p4;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p5")) {
+      return p5;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p6")) {
+      return p6;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p7")) {
+      return p7;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p8")) {
+      return p8;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p9")) {
+      return p9;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p10")) {
+      return p10;
+    }
+    if (Objects.equals(property.getKey(), "LibraryLanguage-Book-p11")) {
+      return p11;
+    }
+    throw new IllegalStateException("Property " + property + " not found.");
+  }
+
+  private Object switchOnKey(Property property) {
+    String key = property.getKey();
+    if (key != null) {
+      switch (key) {
+        case "LibraryLanguage-Book-p0":
+          {
+            return p0;
+          }
+        case "LibraryLanguage-Book-p1":
+          {
+            return p1;
+          }
+        case "LibraryLanguage-Book-p2":
+          {
+            return p2;
+          }
+        case "LibraryLanguage-Book-p3":
+          {
+            return p3;
+          }
+        case "LibraryLanguage-Book-p4":
+          {
+            return p4;
+          }
+        case "LibraryLanguage-Book-p5":
+          {
+            return p5;
+          }
+        case "LibraryLanguage-Book-p6":
+          {
+            return p6;
+          }
+        case "LibraryLanguage-Book-p7":
+          {
+            return p7;
+          }
+        case "LibraryLanguage-Book-p8":
+          {
+            return p8;
+          }
+        case "LibraryLanguage-Book-p9":
+          {
+            return p9;
+          }
+        case "LibraryLanguage-Book-p10":
+          {
+            return p10;
+          }
+        case "LibraryLanguage-Book-p11":
+          {
+            return p11;
+          }
+      }
+    }
+    throw new IllegalStateException("Property " + property + " not found.");
+  }
+}
@@ -51,6 +51,9 @@ public class LionWebPlugin implements Plugin<Project> {
               new java.io.File(
                   project.getLayout().getBuildDirectory().get().getAsFile(), "generated-lionweb"));
     }
+    if (!ext.getGenerateSerializationModules().isPresent()) {
+      ext.getGenerateSerializationModules().set(false);
+    }
     if (!ext.getConfigureCompilation().isPresent()) {
       ext.getConfigureCompilation().set(true);
     }
@@ -140,6 +143,7 @@ public class LionWebPlugin implements Plugin<Project> {
                 task.getLanguagesToGenerate().set(ext.getLanguagesToGenerate());
               }
               task.getMappings().set(ext.getMappings());
+              task.getGenerateSerializationModules().set(ext.getGenerateSerializationModules());
               task.setGroup("lionweb");
               task.setDescription("Generates LionWeb node classes");
             });
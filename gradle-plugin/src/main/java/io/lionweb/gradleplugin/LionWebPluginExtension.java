@@ -47,6 +47,9 @@ import org.gradle.api.provider.SetProperty;
  *   // Our language may refer to concepts for which a class has been already written. If so,
  *   // this setting let the generator know about it.
  *   mappings = mapOf("com.example.other.MyConcept" to "com.example.other.MyConceptImpl")
+ *
+ *   // Generate a SerializationModule for each language, to be registered in the serialization
+ *   generateSerializationModules = true
  * }
  * }</pre>
  */
@@ -124,6 +127,14 @@ public abstract class LionWebPluginExtension {
    */
   public abstract MapProperty<String, String> getMappings();
 
+  /**
+   * Whether {@code generateLWNodeClasses} should also generate a {@code SerializationModule} for
+   * each language. Registering it in a serialization makes the generated classes serialize and
+   * deserialize through their fields, instead of going through the features of their concepts.
+   * Defaults to false.
+   */
+  public abstract Property<Boolean> getGenerateSerializationModules();
+
   /**
    * Configures whether the compilation tasks should be enabled for the generated Java sources.
    *
@@ -56,6 +56,11 @@ class NamingUtils {
     return capitalize(camelCase(s));
   }
 
+  /** Converts the name to the UPPER_SNAKE_CASE used for constants. */
+  static String constantName(String s) {
+    return camelCase(s).replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+  }
+
   static String toLanguageClassName(
       Language language, @Nullable GenerationContext generationContext) {
     Objects.requireNonNull(language, "language should not be null");
@@ -7,6 +7,13 @@ import io.lionweb.language.*;
 import io.lionweb.language.Enumeration;
 import io.lionweb.model.*;
 import io.lionweb.model.impl.AbstractNode;
+import io.lionweb.serialization.AbstractSerialization;
+import io.lionweb.serialization.ClassifierSerializer;
+import io.lionweb.serialization.SerializationModule;
+import io.lionweb.serialization.data.MetaPointer;
+import io.lionweb.serialization.data.SerializedClassifierInstance;
+import io.lionweb.serialization.data.SerializedPropertyValue;
+import io.lionweb.serialization.data.SerializedReferenceValue;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
@@ -33,6 +40,65 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
           ClassName.get(List.class), WildcardTypeName.subtypeOf(REFERENCE_VALUE));
 
   private @Nullable Logger logger = null;
+  private boolean generateSerializationModules = false;
+
+  /**
+   * Collects the code handling each feature in a generic method, such as getPropertyValue, so that
+   * it can be emitted as a switch on the key of the feature. The dispatch is then constant-time,
+   * while a chain of key comparisons is linear in the number of features.
+   */
+  private static class KeyDispatch {
+    private final String keyExpression;
+    private final Map<String, CodeBlock> cases = new LinkedHashMap<>();
+
+    private KeyDispatch(@NotNull String keyExpression) {
+      this.keyExpression = keyExpression;
+    }
+
+    /** The body should not complete normally: it should return or throw. */
+    private void addCase(@NotNull String key, @NotNull CodeBlock body) {
+      // As for a chain of comparisons, the first feature with a given key wins
+      cases.putIfAbsent(key, body);
+    }
+
+    private void emitInto(@NotNull MethodSpec.Builder method) {
+      if (cases.isEmpty()) {
+        return;
+      }
+      method.addStatement("$T key = $L", String.class, keyExpression);
+      method.beginControlFlow("if (key != null)");
+      method.beginControlFlow("switch (key)");
+      cases.forEach(
+          (key, body) -> {
+            method.addCode("case $S: {\n$>", key);
+            method.addCode(body);
+            method.addCode("$<}\n");
+          });
+      method.endControlFlow();
+      method.endControlFlow();
+    }
+  }
+
+  /**
+   * Ends a generic feature-access method, after the switch handling the features declared by the
+   * concept: the other features are handled by the superclass, when there is one, or are not found.
+   */
+  private static void endDispatch(
+      @NotNull MethodSpec.Builder method,
+      @Nullable String superCall,
+      @NotNull String featureKind,
+      @NotNull String featureParameter) {
+    if (superCall == null) {
+      method.addStatement(
+          "throw new $T($S + $N + $S)",
+          IllegalStateException.class,
+          featureKind,
+          featureParameter,
+          " not found.");
+    } else {
+      method.addStatement(superCall);
+    }
+  }
 
   /**
    * Constructs a NodeClassesJavaCodeGenerator with a specified destination directory.
@@ -66,6 +132,15 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
     this.logger = logger;
   }
 
+  /**
+   * When enabled, a SerializationModule is generated for each language. Once registered in a
+   * serialization, it serializes and instantiates the generated classes through their typed
+   * accessors, instead of going through the features of their concepts.
+   */
+  public void setGenerateSerializationModules(boolean generateSerializationModules) {
+    this.generateSerializationModules = generateSerializationModules;
+  }
+
   public void generate(
       @Nonnull Collection<Language> languages, @Nullable String defaultPackageName) {
     generate(
@@ -113,18 +188,23 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
   private void generate(@Nonnull Language language, @Nonnull GenerationContext generationContext) {
     Objects.requireNonNull(language, "language should not be null");
     Objects.requireNonNull(generationContext, "languageContext should not be null");
+    List<Concept> generatedConcepts = new ArrayList<>();
     language
         .getConcepts()
         .forEach(
             concept -> {
               try {
                 generateConcept(concept, generationContext);
+                generatedConcepts.add(concept);
               } catch (Throwable t) {
                 if (logger != null) {
                   logger.error("Failed to generate concept " + concept.getName(), t);
                 }
               }
             });
+    if (generateSerializationModules) {
+      generateSerializationModule(language, generatedConcepts, generationContext);
+    }
     language.getInterfaces().forEach(interf -> generateInterface(interf, generationContext));
     language
         .getStructuredDataTypes()
@@ -361,6 +441,14 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
               .addParameter(int.class, "index")
               .addParameter(REFERENCE_VALUE, "referredNode");
 
+      KeyDispatch getPropertyValueDispatch = new KeyDispatch("property.getKey()");
+      KeyDispatch setPropertyValueDispatch = new KeyDispatch("property.getKey()");
+      KeyDispatch getChildrenDispatch = new KeyDispatch("containment.getKey()");
+      KeyDispatch addChild1Dispatch = new KeyDispatch("containment.getKey()");
+      KeyDispatch addChild2Dispatch = new KeyDispatch("containment.getKey()");
+      KeyDispatch getReferenceValuesDispatch = new KeyDispatch("reference.getKey()");
+      KeyDispatch addReferenceValue1Dispatch = new KeyDispatch("reference.getKey()");
+      KeyDispatch addReferenceValue2Dispatch = new KeyDispatch("reference.getKey()");
       features.forEach(
           feature -> {
             if (feature instanceof Property) {
@@ -368,60 +456,62 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
                   (Property) feature,
                   generationContext,
                   conceptClass,
-                  getPropertyValue,
-                  setPropertyValue);
+                  getPropertyValueDispatch,
+                  setPropertyValueDispatch);
             } else if (feature instanceof Containment) {
               considerConceptContainment(
                   (Containment) feature,
                   generationContext,
                   conceptClass,
-                  getChildren,
-                  addChild1,
-                  addChild2);
+                  getChildrenDispatch,
+                  addChild1Dispatch,
+                  addChild2Dispatch);
             } else if (feature instanceof Reference) {
               considerConceptReference(
                   (Reference) feature,
                   generationContext,
                   conceptClass,
-                  getReferenceValues,
-                  addReferenceValue1,
-                  addReferenceValue2);
+                  getReferenceValuesDispatch,
+                  addReferenceValue1Dispatch,
+                  addReferenceValue2Dispatch);
             } else {
               throw new IllegalStateException("Unknown feature type: " + feature.getClass());
             }
           });
-      conceptClass.addMethod(
-          getPropertyValue
-              .addStatement(
-                  "throw new $T($S + property + $S)",
-                  IllegalStateException.class,
-                  "Property ",
-                  " not found.")
-              .build());
-      conceptClass.addMethod(
-          setPropertyValue
-              .addStatement(
-                  "throw new $T($S + property + $S)",
-                  IllegalStateException.class,
-                  "Property ",
-                  " not found.")
-              .build());
-      conceptClass.addMethod(
-          getChildren
-              .addStatement(
-                  "throw new $T($S + containment + $S)",
-                  IllegalStateException.class,
-                  "Containment ",
-                  " not found.")
-              .build());
-      conceptClass.addMethod(
-          addChild1
-              .addStatement(
-                  "throw new $T($S + containment + $S)",
-                  IllegalStateException.class,
-                  "Containment ",
-                  " not found.")
-              .build());
+      getPropertyValueDispatch.emitInto(getPropertyValue);
+      setPropertyValueDispatch.emitInto(setPropertyValue);
+      getChildrenDispatch.emitInto(getChildren);
+      addChild1Dispatch.emitInto(addChild1);
+      addChild2Dispatch.emitInto(addChild2);
+      getReferenceValuesDispatch.emitInto(getReferenceValues);
+      addReferenceValue1Dispatch.emitInto(addReferenceValue1);
+      addReferenceValue2Dispatch.emitInto(addReferenceValue2);
+      // The features of the extended concept are handled by the class generated for it
+      boolean hasSuperclass = concept.getExtendedConcept() != null;
+      endDispatch(
+          getPropertyValue,
+          hasSuperclass ? "return super.getPropertyValue(property)" : null,
+          "Property ",
+          "property");
+      conceptClass.addMethod(getPropertyValue.build());
+      endDispatch(
+          setPropertyValue,
+          hasSuperclass ? "super.setPropertyValue(property, value)" : null,
+          "Property ",
+          "property");
+      conceptClass.addMethod(setPropertyValue.build());
+      endDispatch(
+          getChildren,
+          hasSuperclass ? "return super.getChildren(containment)" : null,
+          "Containment ",
+          "containment");
+      conceptClass.addMethod(getChildren.build());
+      endDispatch(
+          addChild1,
+          hasSuperclass ? "super.addChild(containment, child)" : null,
+          "Containment ",
+          "containment");
+      conceptClass.addMethod(addChild1.build());
 
       // Common body for all methods
       CodeBlock unsupportedOpBody =
@@ -430,39 +520,31 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
                   "throw new $T($S)", UnsupportedOperationException.class, "Not supported yet.")
               .build();
 
-      addChild2
-          .addStatement(
-              "throw new $T($S + containment + $S)",
-              IllegalStateException.class,
-              "Containment ",
-              " not found.")
-          .build();
+      endDispatch(
+          addChild2,
+          hasSuperclass ? "super.addChild(containment, child, index)" : null,
+          "Containment ",
+          "containment");
       conceptClass.addMethod(addChild2.build());
 
-      getReferenceValues
-          .addStatement(
-              "throw new $T($S + reference + $S)",
-              IllegalStateException.class,
-              "Reference ",
-              " not found.")
-          .build();
+      endDispatch(
+          getReferenceValues,
+          hasSuperclass ? "return super.getReferenceValues(reference)" : null,
+          "Reference ",
+          "reference");
       conceptClass.addMethod(getReferenceValues.build());
 
-      addReferenceValue1
-          .addStatement(
-              "throw new $T($S + reference + $S)",
-              IllegalStateException.class,
-              "Reference ",
-              " not found.")
-          .build();
+      endDispatch(
+          addReferenceValue1,
+          hasSuperclass ? "return super.addReferenceValue(reference, referredNode)" : null,
+          "Reference ",
+          "reference");
       conceptClass.addMethod(addReferenceValue1.build());
-      addReferenceValue2
-          .addStatement(
-              "throw new $T($S + reference + $S)",
-              IllegalStateException.class,
-              "Reference ",
-              " not found.")
-          .build();
+      endDispatch(
+          addReferenceValue2,
+          hasSuperclass ? "return super.addReferenceValue(reference, index, referredNode)" : null,
+          "Reference ",
+          "reference");
       conceptClass.addMethod(addReferenceValue2.build());
 
       // @Override
@@ -504,25 +586,26 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
         "$T.requireNonNull(reference, $S)", Objects.class, "reference cannot be null");
     setReferenceValues.addStatement(
         "$T.requireNonNull(values, $S)", Objects.class, "values cannot be null");
+    KeyDispatch dispatch = new KeyDispatch("reference.getKey()");
     concept
         .allReferences()
         .forEach(
             reference -> {
-              setReferenceValues.beginControlFlow(
-                  "if ($T.equals(reference.getKey(), $S))", Objects.class, reference.getKey());
+              CodeBlock.Builder body = CodeBlock.builder();
               if (reference.isMultiple()) {
-                setReferenceValues.addStatement("set$N(values)", pascalCase(reference.getName()));
+                body.addStatement("set$N(values)", pascalCase(reference.getName()));
               } else {
-                setReferenceValues.addStatement(
-                    "if (values.size() > 0) throw new IllegalArgumentException($S)",
+                body.addStatement(
+                    "if (values.size() > 1) throw new IllegalArgumentException($S)",
                     "Cannot specifiy more than one value for a single-valued reference");
-                setReferenceValues.addStatement(
+                body.addStatement(
                     "set$N(values.isEmpty() ? null : values.get(0))",
                     pascalCase(reference.getName()));
               }
-              setReferenceValues.addStatement("return");
-              setReferenceValues.endControlFlow();
+              body.addStatement("return");
+              dispatch.addCase(reference.getKey(), body.build());
             });
+    dispatch.emitInto(setReferenceValues);
     setReferenceValues.addStatement(
         "throw new $T($S + reference + $S)",
         IllegalStateException.class,
@@ -547,35 +630,36 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
         "$T.requireNonNull(reference, $S)", Objects.class, "reference cannot be null");
     setReferred.addStatement(
         "if (index < 0) throw new IllegalArgumentException($S);", "index should be non-negative");
+    KeyDispatch dispatch = new KeyDispatch("reference.getKey()");
     concept
         .allReferences()
         .forEach(
             reference -> {
-              setReferred.beginControlFlow(
-                  "if ($T.equals(reference.getKey(), $S))", Objects.class, reference.getKey());
+              CodeBlock.Builder body = CodeBlock.builder();
               if (reference.isMultiple()) {
-                setReferred.addStatement(
+                body.addStatement(
                     "if (index >= $N.size()) throw new IllegalArgumentException($S);",
                     camelCase(reference.getName()),
                     "index should be less than the size of the list");
-                setReferred.addStatement(
+                body.addStatement(
                     "ReferenceValue original = $N.get(index)", camelCase(reference.getName()));
-                setReferred.addStatement(
+                body.addStatement(
                     "$N.set(index, original.withReferred(referredNode))",
                     camelCase(reference.getName()));
               } else {
-                setReferred.addStatement(
+                body.addStatement(
                     "if (index >= 1 || $N == null) throw new IllegalArgumentException($S);",
                     camelCase(reference.getName()),
                     "index should be less than the size of the list");
-                setReferred.addStatement(
+                body.addStatement(
                     "$N = $N.withReferred(referredNode)",
                     camelCase(reference.getName()),
                     camelCase(reference.getName()));
               }
-              setReferred.addStatement("return");
-              setReferred.endControlFlow();
+              body.addStatement("return");
+              dispatch.addCase(reference.getKey(), body.build());
             });
+    dispatch.emitInto(setReferred);
     setReferred.addStatement(
         "throw new $T($S + reference + $S)",
         IllegalStateException.class,
@@ -602,35 +686,36 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
         "$T.requireNonNull(reference, $S)", Objects.class, "reference cannot be null");
     setResolveInfo.addStatement(
         "if (index < 0) throw new IllegalArgumentException($S);", "index should be non-negative");
+    KeyDispatch dispatch = new KeyDispatch("reference.getKey()");
     concept
         .allReferences()
         .forEach(
             reference -> {
-              setResolveInfo.beginControlFlow(
-                  "if ($T.equals(reference.getKey(), $S))", Objects.class, reference.getKey());
+              CodeBlock.Builder body = CodeBlock.builder();
               if (reference.isMultiple()) {
-                setResolveInfo.addStatement(
+                body.addStatement(
                     "if (index >= $N.size()) throw new IllegalArgumentException($S);",
                     camelCase(reference.getName()),
                     "index should be less than the size of the list");
-                setResolveInfo.addStatement(
+                body.addStatement(
                     "ReferenceValue original = $N.get(index)", camelCase(reference.getName()));
-                setResolveInfo.addStatement(
+                body.addStatement(
                     "$N.set(index, original.withResolveInfo(resolveInfo))",
                     camelCase(reference.getName()));
               } else {
-                setResolveInfo.addStatement(
+                body.addStatement(
                     "if (index >= 1 || $N == null) throw new IllegalArgumentException($S);",
                     camelCase(reference.getName()),
                     "index should be less than the size of the list");
-                setResolveInfo.addStatement(
+                body.addStatement(
                     "$N = $N.withResolveInfo(resolveInfo)",
                     camelCase(reference.getName()),
                     camelCase(reference.getName()));
               }
-              setResolveInfo.addStatement("return");
-              setResolveInfo.endControlFlow();
+              body.addStatement("return");
+              dispatch.addCase(reference.getKey(), body.build());
             });
+    dispatch.emitInto(setResolveInfo);
     setResolveInfo.addStatement(
         "throw new $T($S + reference + $S)",
         IllegalStateException.class,
@@ -643,28 +728,21 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
       @Nonnull Property property,
       @NotNull GenerationContext generationContext,
       TypeSpec.Builder conceptClass,
-      MethodSpec.Builder getPropertyValue,
-      MethodSpec.Builder setPropertyValue) {
+      KeyDispatch getPropertyValue,
+      KeyDispatch setPropertyValue) {
     String fieldName = camelCase(property.getName());
     String getterName = getterName(property.getName());
     String setterName = "set" + pascalCase(property.getName());
     TypeName fieldType = generationContext.typeNameFor(property.getType());
     conceptClass.addField(FieldSpec.builder(fieldType, fieldName, Modifier.PROTECTED).build());
-    getPropertyValue
-        .beginControlFlow(
-            "if ($T.equals(property.getKey(), $S))",
-            ClassName.get(Objects.class),
-            property.getKey())
-        .addStatement("return $L", fieldName)
-        .endControlFlow();
-    setPropertyValue
-        .beginControlFlow(
-            "if ($T.equals(property.getKey(), $S))",
-            ClassName.get(Objects.class),
-            property.getKey())
-        .addStatement("$L(($T) value)", setterName, fieldType)
-        .addStatement("return")
-        .endControlFlow();
+    getPropertyValue.addCase(
+        property.getKey(), CodeBlock.builder().addStatement("return $L", fieldName).build());
+    setPropertyValue.addCase(
+        property.getKey(),
+        CodeBlock.builder()
+            .addStatement("$L(($T) value)", setterName, fieldType)
+            .addStatement("return")
+            .build());
     MethodSpec getter =
         MethodSpec.methodBuilder(getterName)
             .returns(generationContext.typeNameFor(property.getType()))
@@ -694,9 +772,9 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
       @Nonnull Containment containment,
       @NotNull GenerationContext generationContext,
       TypeSpec.Builder conceptClass,
-      MethodSpec.Builder getChildren,
-      MethodSpec.Builder addChild1,
-      MethodSpec.Builder addChild2) {
+      KeyDispatch getChildren,
+      KeyDispatch addChild1,
+      KeyDispatch addChild2) {
     String fieldName = camelCase(containment.getName());
     TypeName baseFieldType = generationContext.typeNameFor(containment.getType());
     TypeName fieldType = baseFieldType;
@@ -858,71 +936,55 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
               .build());
     }
     if (containment.isMultiple()) {
-      getChildren
-          .beginControlFlow(
-              "if ($T.equals(containment.getKey(), $S))",
-              ClassName.get(Objects.class),
-              containment.getKey())
-          .addStatement("return $L", fieldName)
-          .endControlFlow();
+      getChildren.addCase(
+          containment.getKey(), CodeBlock.builder().addStatement("return $L", fieldName).build());
     } else {
-      getChildren
-          .beginControlFlow(
-              "if ($T.equals(containment.getKey(), $S))",
-              ClassName.get(Objects.class),
-              containment.getKey())
-          .beginControlFlow("if ($L == null)", fieldName)
-          .addStatement("return $T.emptyList()", ClassName.get(Collections.class))
-          .nextControlFlow("else")
-          .addStatement("return $T.singletonList($L)", ClassName.get(Collections.class), fieldName)
-          .endControlFlow()
-          .endControlFlow();
+      getChildren.addCase(
+          containment.getKey(),
+          CodeBlock.builder()
+              .beginControlFlow("if ($L == null)", fieldName)
+              .addStatement("return $T.emptyList()", ClassName.get(Collections.class))
+              .nextControlFlow("else")
+              .addStatement(
+                  "return $T.singletonList($L)", ClassName.get(Collections.class), fieldName)
+              .endControlFlow()
+              .build());
     }
 
     if (containment.isMultiple()) {
-      addChild1.addCode(
+      addChild1.addCase(
+          containment.getKey(),
           CodeBlock.builder()
-              .beginControlFlow("if (containment.getKey().equals($S))", containment.getKey())
               .addStatement(
                   "addTo$N(($T) child)",
                   pascalCase(containment.getName()),
                   generationContext.typeNameFor(containment.getType()))
               .addStatement("return")
-              .endControlFlow()
               .build());
-      addChild2.addCode(
+      addChild2.addCase(
+          containment.getKey(),
           CodeBlock.builder()
-              .beginControlFlow("if (containment.getKey().equals($S))", containment.getKey())
               .addStatement(
                   "addTo$N(($T) child, index)",
                   pascalCase(containment.getName()),
                   generationContext.typeNameFor(containment.getType()))
               .addStatement("return")
-              .endControlFlow()
               .build());
     } else {
-      addChild1
-          .addStatement("$T removed = null", Node.class)
-          .beginControlFlow("if ($N != null)", fieldName)
-          .addStatement("this.removeChild($N)", fieldName)
-          .addStatement(
-              "partitionObserverCache.childRemoved(this, this.getClassifier().requireContainmentByName($S), 0, child)",
-              containment.getName())
-          .endControlFlow()
-          .beginControlFlow("if ($N instanceof $T)", "child", HasSettableParent.class)
-          .addStatement("(($T) $N).setParent(this)", HasSettableParent.class, "child")
-          .endControlFlow()
-          .addStatement("this.$N = ($T) $N", fieldName, fieldType, "child")
-          .beginControlFlow("if (partitionObserverCache != null)")
-          .addStatement(
-              "partitionObserverCache.childAdded(this, this.getClassifier().requireContainmentByName($S), 0, $N)",
-              containment.getName(),
-              "child")
-          .addStatement("return")
-          .endControlFlow();
-      addChild2.addCode(
+      // The setter takes care of the parent of the previous and new child, and of notifying the
+      // observer
+      addChild1.addCase(
+          containment.getKey(),
+          CodeBlock.builder()
+              .addStatement(
+                  "set$N(($T) child)",
+                  pascalCase(containment.getName()),
+                  generationContext.typeNameFor(containment.getType()))
+              .addStatement("return")
+              .build());
+      addChild2.addCase(
+          containment.getKey(),
           CodeBlock.builder()
-              .beginControlFlow("if (containment.getKey().equals($S))", containment.getKey())
               .addStatement(
                   "if (index > 0) throw new IllegalArgumentException($S);",
                   "index should at most zero for a non-multiple containment")
@@ -931,7 +993,6 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
                   pascalCase(containment.getName()),
                   generationContext.typeNameFor(containment.getType()))
               .addStatement("return")
-              .endControlFlow()
               .build());
     }
 
@@ -947,9 +1008,9 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
       @Nonnull Reference reference,
       @NotNull GenerationContext generationContext,
       TypeSpec.Builder conceptClass,
-      MethodSpec.Builder getReferenceValues,
-      MethodSpec.Builder addReferenceValue1,
-      MethodSpec.Builder addReferenceValue2) {
+      KeyDispatch getReferenceValues,
+      KeyDispatch addReferenceValue1,
+      KeyDispatch addReferenceValue2) {
     String fieldName = camelCase(reference.getName());
     String capitalizedName = pascalCase(reference.getName());
     String getterName = getterName(reference.getName());
@@ -1163,36 +1224,43 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
     }
 
     if (reference.isMultiple()) {
-      getReferenceValues
-          .beginControlFlow(
-              "if ($T.equals(reference.getKey(), $S))",
-              ClassName.get(Objects.class),
-              reference.getKey())
-          .addStatement("return $N", fieldName)
-          .endControlFlow();
-      addReferenceValue1
-          .beginControlFlow(
-              "if ($T.equals(reference.getKey(), $S))",
-              ClassName.get(Objects.class),
-              reference.getKey())
-          .addStatement(
-              "return addTo$N(referredNode, $N.size())", pascalCase(reference.getName()), fieldName)
-          .endControlFlow();
-      addReferenceValue2
-          .beginControlFlow(
-              "if ($T.equals(reference.getKey(), $S))",
-              ClassName.get(Objects.class),
-              reference.getKey())
-          .addStatement("return addTo$N(referredNode, index)", pascalCase(reference.getName()))
-          .endControlFlow();
+      getReferenceValues.addCase(
+          reference.getKey(), CodeBlock.builder().addStatement("return $N", fieldName).build());
+      addReferenceValue1.addCase(
+          reference.getKey(),
+          CodeBlock.builder()
+              .addStatement(
+                  "return addTo$N(referredNode, $N.size())",
+                  pascalCase(reference.getName()),
+                  fieldName)
+              .build());
+      addReferenceValue2.addCase(
+          reference.getKey(),
+          CodeBlock.builder()
+              .addStatement("return addTo$N(referredNode, index)", pascalCase(reference.getName()))
+              .build());
     } else {
-      getReferenceValues
-          .beginControlFlow(
-              "if ($T.equals(reference.getKey(), $S))",
-              ClassName.get(Objects.class),
-              reference.getKey())
-          .addStatement("return $T.singletonList($N)", Collections.class, fieldName)
-          .endControlFlow();
+      getReferenceValues.addCase(
+          reference.getKey(),
+          CodeBlock.builder()
+              .addStatement("return $T.singletonList($N)", Collections.class, fieldName)
+              .build());
+      addReferenceValue1.addCase(
+          reference.getKey(),
+          CodeBlock.builder()
+              .addStatement("set$N(referredNode)", capitalizedName)
+              .addStatement("return 0")
+              .build());
+      addReferenceValue2.addCase(
+          reference.getKey(),
+          CodeBlock.builder()
+              .addStatement(
+                  "if (index != 0) throw new $T($S + index)",
+                  IllegalArgumentException.class,
+                  "Index 0 was expected, while we got ")
+              .addStatement("set$N(referredNode)", capitalizedName)
+              .addStatement("return 0")
+              .build());
     }
 
     if (reference.isMultiple()) {
@@ -1218,6 +1286,342 @@ public class NodeClassesJavaCodeGenerator extends AbstractJavaCodeGenerator {
     }
   }
 
+  private void generateSerializationModule(
+      @Nonnull Language language,
+      @Nonnull List<Concept> concepts,
+      @Nonnull GenerationContext generationContext) {
+    String moduleName = toLanguageClassName(language, generationContext) + "SerializationModule";
+    TypeSpec.Builder moduleClass =
+        TypeSpec.classBuilder(moduleName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addSuperinterface(SerializationModule.class)
+            .addJavadoc(
+                "Serializes and instantiates the nodes of language $L through the accessors of the"
+                    + " generated classes.\n",
+                language.getName());
+    String packageName = generationContext.generationPackage(language);
+    List<CodeBlock> serializers = new ArrayList<>();
+    for (Concept concept : concepts) {
+      if (!concept.isAbstract()) {
+        TypeSpec serializer = generateClassifierSerializer(concept, packageName, generationContext);
+        moduleClass.addType(serializer);
+        serializers.add(CodeBlock.of("new $N()", serializer));
+      }
+    }
+    moduleClass.addMethod(
+        MethodSpec.methodBuilder("getSerializers")
+            .addAnnotation(Override.class)
+            .addAnnotation(NotNull.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(
+                ParameterizedTypeName.get(
+                    ClassName.get(Collection.class),
+                    ParameterizedTypeName.get(
+                        ClassName.get(ClassifierSerializer.class),
+                        WildcardTypeName.subtypeOf(Object.class))))
+            .addStatement("return $T.asList($L)", Arrays.class, CodeBlock.join(serializers, ", "))
+            .build());
+    addSerializationHelpers(moduleClass);
+
+    JavaFile javaFile = JavaFile.builder(packageName, moduleClass.build()).build();
+    try {
+      javaFile.writeTo(destinationDir.toPath());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Generates the serializer of a concrete concept. Features are serialized in the order used by
+   * the default serialization, so that the result is the same. Values are read from the fields when
+   * they are accessible from the package of the module, and through the accessors otherwise.
+   */
+  private static TypeSpec generateClassifierSerializer(
+      @Nonnull Concept concept,
+      @Nonnull String packageName,
+      @Nonnull GenerationContext generationContext) {
+    TypeName conceptType = generationContext.getConceptType(concept);
+    ClassName metaPointer = ClassName.get(MetaPointer.class);
+    ClassName serializedInstance = ClassName.get(SerializedClassifierInstance.class);
+    ClassName abstractSerialization = ClassName.get(AbstractSerialization.class);
+    TypeSpec.Builder serializer =
+        TypeSpec.classBuilder(generationContext.getGeneratedName(concept) + "Serializer")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .addSuperinterface(
+                ParameterizedTypeName.get(ClassName.get(ClassifierSerializer.class), conceptType));
+    Set<String> constantNames = new HashSet<>();
+    String classifierConstant =
+        metaPointerConstant(serializer, "classifier", MetaPointer.from(concept), constantNames);
+    serializer.addMethod(
+        MethodSpec.methodBuilder("getClassifier")
+            .addAnnotation(Override.class)
+            .addAnnotation(NotNull.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(metaPointer)
+            .addStatement("return $N", classifierConstant)
+            .build());
+    serializer.addMethod(
+        MethodSpec.methodBuilder("getInstanceClass")
+            .addAnnotation(Override.class)
+            .addAnnotation(NotNull.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(ParameterizedTypeName.get(ClassName.get(Class.class), conceptType))
+            .addStatement("return $T.class", conceptType)
+            .build());
+
+    MethodSpec.Builder serializeFeatures =
+        MethodSpec.methodBuilder("serializeFeatures")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(
+                ParameterSpec.builder(conceptType, "instance").addAnnotation(NotNull.class).build())
+            .addParameter(
+                ParameterSpec.builder(serializedInstance, "serializedInstance")
+                    .addAnnotation(NotNull.class)
+                    .build())
+            .addParameter(
+                ParameterSpec.builder(abstractSerialization, "serialization")
+                    .addAnnotation(NotNull.class)
+                    .build());
+    MethodSpec.Builder instantiate =
+        MethodSpec.methodBuilder("instantiate")
+            .addAnnotation(Override.class)
+            .addAnnotation(NotNull.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(conceptType)
+            .addParameter(
+                ParameterSpec.builder(serializedInstance, "serializedInstance")
+                    .addAnnotation(NotNull.class)
+                    .build())
+            .addParameter(
+                ParameterSpec.builder(abstractSerialization, "serialization")
+                    .addAnnotation(NotNull.class)
+                    .build())
+            .addStatement(
+                "$T instance = new $T(serializedInstance.getID())", conceptType, conceptType)
+            .beginControlFlow(
+                "for ($T propertyValue : serializedInstance.getProperties())",
+                SerializedPropertyValue.class)
+            .addStatement("$T metaPointer = propertyValue.getMetaPointer()", metaPointer);
+    KeyDispatch propertyDispatch = new KeyDispatch("metaPointer.getKey()");
+
+    for (Property property : concept.allProperties()) {
+      String constant =
+          metaPointerConstant(
+              serializer, property.getName(), featureMetaPointer(property), constantNames);
+      CodeBlock value =
+          isFieldAccessible(concept, property, packageName, generationContext)
+              ? CodeBlock.of("instance.$N", camelCase(property.getName()))
+              : CodeBlock.of("instance.$N()", getterName(property.getName()));
+      serializeFeatures.addStatement(
+          "serializedInstance.unsafeAppendPropertyValue(serialization.getInternPool().propertyValue($N, serialization.serializePropertyValue($S, $L)))",
+          constant,
+          property.getType().getID(),
+          value);
+      // MetaPointers are canonical, so they can be compared by identity
+      propertyDispatch.addCase(
+          property.getKey(),
+          CodeBlock.builder()
+              .beginControlFlow("if (metaPointer == $N)", constant)
+              .addStatement(
+                  "Object value = serialization.deserializePropertyValue($S, propertyValue.getValue(), $L)",
+                  property.getType().getID(),
+                  property.isRequired())
+              .beginControlFlow("if (value != null)")
+              .addStatement(
+                  "instance.set$N(($T) value)",
+                  pascalCase(property.getName()),
+                  generationContext.typeNameFor(property.getType()))
+              .endControlFlow()
+              .addStatement("continue")
+              .endControlFlow()
+              .addStatement("break")
+              .build());
+    }
+    for (Containment containment : concept.allContainments()) {
+      String constant =
+          metaPointerConstant(
+              serializer, containment.getName(), featureMetaPointer(containment), constantNames);
+      CodeBlock value;
+      if (isFieldAccessible(concept, containment, packageName, generationContext)) {
+        value = CodeBlock.of("instance.$N", camelCase(containment.getName()));
+      } else if (containment.isMultiple()) {
+        value = CodeBlock.of("instance.$N()", getterName(containment.getName()));
+      } else {
+        // No getter is generated for single containments
+        value =
+            CodeBlock.of(
+                "$T.getOnlyChildByContainmentName(instance, $S)",
+                ClassifierInstanceUtils.class,
+                containment.getName());
+      }
+      serializeFeatures.addStatement(
+          "$N(serializedInstance, $N, $L)",
+          containment.isMultiple() ? "appendChildren" : "appendChild",
+          constant,
+          value);
+    }
+    for (Reference reference : concept.allReferences()) {
+      String constant =
+          metaPointerConstant(
+              serializer, reference.getName(), featureMetaPointer(reference), constantNames);
+      CodeBlock value =
+          isFieldAccessible(concept, reference, packageName, generationContext)
+              ? CodeBlock.of("instance.$N", camelCase(reference.getName()))
+              : CodeBlock.of("instance.$N()", getterName(reference.getName()));
+      serializeFeatures.addStatement(
+          "$N(serializedInstance, $N, $L, serialization)",
+          reference.isMultiple() ? "appendReferenceValues" : "appendReferenceValue",
+          constant,
+          value);
+    }
+
+    propertyDispatch.emitInto(instantiate);
+    instantiate
+        .addStatement(
+            "throw new $T($S + metaPointer + $S + $N)",
+            IllegalArgumentException.class,
+            "Property with metaPointer ",
+            " not found in classifier ",
+            classifierConstant)
+        .endControlFlow()
+        .addStatement("return instance");
+    serializer.addMethod(serializeFeatures.build());
+    serializer.addMethod(instantiate.build());
+    return serializer.build();
+  }
+
+  /**
+   * The protected field holding the value of a feature is declared by the closest class, in the
+   * hierarchy of the concept, handling the feature. It can be accessed from the classes of the same
+   * package.
+   */
+  private static boolean isFieldAccessible(
+      @Nonnull Concept concept,
+      @Nonnull Feature<?> feature,
+      @Nonnull String packageName,
+      @Nonnull GenerationContext generationContext) {
+    for (Concept current = concept; current != null; current = current.getExtendedConcept()) {
+      if (current.getFeatures().contains(feature)
+          || current.getImplemented().stream().anyMatch(i -> i.allFeatures().contains(feature))) {
+        return packageName.equals(generationContext.generationPackage(current.getLanguage()));
+      }
+    }
+    return false;
+  }
+
+  /** The MetaPointer used by the default serialization for the feature. */
+  private static MetaPointer featureMetaPointer(@Nonnull Feature<?> feature) {
+    return MetaPointer.from(feature, ((LanguageEntity<?>) feature.getContainer()).getLanguage());
+  }
+
+  private static String metaPointerConstant(
+      @Nonnull TypeSpec.Builder serializer,
+      @Nonnull String name,
+      @Nonnull MetaPointer value,
+      @Nonnull Set<String> constantNames) {
+    String baseName = constantName(name);
+    String constant = baseName;
+    for (int i = 2; !constantNames.add(constant); i++) {
+      constant = baseName + "_" + i;
+    }
+    serializer.addField(
+        FieldSpec.builder(
+                MetaPointer.class, constant, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .initializer(
+                "$T.get($S, $S, $S)",
+                MetaPointer.class,
+                value.getLanguage(),
+                value.getVersion(),
+                value.getKey())
+            .build());
+    return constant;
+  }
+
+  /** Adds the methods used by the serializers to append containment and reference values. */
+  private static void addSerializationHelpers(@Nonnull TypeSpec.Builder moduleClass) {
+    ParameterSpec serializedInstance =
+        ParameterSpec.builder(SerializedClassifierInstance.class, "serializedInstance").build();
+    ParameterSpec serialization =
+        ParameterSpec.builder(AbstractSerialization.class, "serialization").build();
+    moduleClass.addMethod(
+        MethodSpec.methodBuilder("appendChildren")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addParameter(serializedInstance)
+            .addParameter(MetaPointer.class, "containment")
+            .addParameter(
+                ParameterizedTypeName.get(
+                    ClassName.get(List.class), WildcardTypeName.subtypeOf(Node.class)),
+                "children")
+            .beginControlFlow("if (children.isEmpty())")
+            .addStatement("return")
+            .endControlFlow()
+            .addStatement(
+                "$T<$T> childrenIds = new $T<>(children.size())",
+                List.class,
+                String.class,
+                ArrayList.class)
+            .beginControlFlow("for ($T child : children)", Node.class)
+            .addStatement("childrenIds.add(child.getID())")
+            .endControlFlow()
+            .addStatement(
+                "serializedInstance.unsafeAppendContainmentValue(containment, childrenIds)")
+            .build());
+    moduleClass.addMethod(
+        MethodSpec.methodBuilder("appendChild")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addParameter(serializedInstance)
+            .addParameter(MetaPointer.class, "containment")
+            .addParameter(
+                ParameterSpec.builder(Node.class, "child").addAnnotation(Nullable.class).build())
+            .beginControlFlow("if (child != null)")
+            .addStatement(
+                "serializedInstance.unsafeAppendContainmentValue(containment, $T.singletonList(child.getID()))",
+                Collections.class)
+            .endControlFlow()
+            .build());
+    moduleClass.addMethod(
+        MethodSpec.methodBuilder("appendReferenceValues")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addParameter(serializedInstance)
+            .addParameter(MetaPointer.class, "reference")
+            .addParameter(
+                ParameterizedTypeName.get(List.class, ReferenceValue.class), "referenceValues")
+            .addParameter(serialization)
+            .beginControlFlow("if (referenceValues.isEmpty())")
+            .addStatement("return")
+            .endControlFlow()
+            .addStatement(
+                "$T<$T> entries = new $T<>(referenceValues.size())",
+                List.class,
+                SerializedReferenceValue.Entry.class,
+                ArrayList.class)
+            .beginControlFlow("for ($T referenceValue : referenceValues)", ReferenceValue.class)
+            .addStatement("entries.add(serialization.serializeReferenceValue(referenceValue))")
+            .endControlFlow()
+            .addStatement(
+                "serializedInstance.unsafeAppendReferenceValue(new $T(reference, entries))",
+                SerializedReferenceValue.class)
+            .build());
+    moduleClass.addMethod(
+        MethodSpec.methodBuilder("appendReferenceValue")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addParameter(serializedInstance)
+            .addParameter(MetaPointer.class, "reference")
+            .addParameter(
+                ParameterSpec.builder(ReferenceValue.class, "referenceValue")
+                    .addAnnotation(Nullable.class)
+                    .build())
+            .addParameter(serialization)
+            .beginControlFlow("if (referenceValue != null)")
+            .addStatement(
+                "serializedInstance.unsafeAppendReferenceValue(new $T(reference, $T.singletonList(serialization.serializeReferenceValue(referenceValue))))",
+                SerializedReferenceValue.class,
+                Collections.class)
+            .endControlFlow()
+            .build());
+  }
+
   private void generateInterface(
       @Nonnull Interface interf, @Nonnull GenerationContext generationContext) {
     String interfName = generationContext.getGeneratedName(interf);
@@ -12,10 +12,17 @@ import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.gradle.api.GradleException;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
 
 public abstract class GenerateNodeClassesTask extends AbstractGenerationTask {
 
+  @Input
+  @Optional
+  public abstract Property<Boolean> getGenerateSerializationModules();
+
   @TaskAction
   public void run() {
     getLogger().info("GenerateNodeClassesTask - Starting");
@@ -37,6 +44,8 @@ public abstract class GenerateNodeClassesTask extends AbstractGenerationTask {
     NodeClassesJavaCodeGenerator nodeClassesJavaCodeGenerator =
         new NodeClassesJavaCodeGenerator(generationDirectory, getMappings().get());
     nodeClassesJavaCodeGenerator.setLogger(getLogger());
+    nodeClassesJavaCodeGenerator.setGenerateSerializationModules(
+        getGenerateSerializationModules().getOrElse(false));
     try {
       List<SerializationChunk> dependenciesChunks = loadDependenciesChunks();
       List<SerializationChunk> projectChunks =
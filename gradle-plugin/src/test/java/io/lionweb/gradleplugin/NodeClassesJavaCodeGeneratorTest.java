@@ -1,17 +1,29 @@
 package io.lionweb.gradleplugin;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.lionweb.LionWebVersion;
 import io.lionweb.gradleplugin.generators.LanguageJavaCodeGenerator;
 import io.lionweb.gradleplugin.generators.NodeClassesJavaCodeGenerator;
+import io.lionweb.language.Concept;
 import io.lionweb.language.Language;
+import io.lionweb.language.LionCoreBuiltins;
+import io.lionweb.language.Property;
+import io.lionweb.model.Node;
+import io.lionweb.model.ReferenceValue;
 import io.lionweb.serialization.JsonSerialization;
 import io.lionweb.serialization.LowLevelJsonSerialization;
+import io.lionweb.serialization.SerializationModule;
 import io.lionweb.serialization.SerializationProvider;
 import io.lionweb.serialization.TopologicalLanguageSorter;
 import io.lionweb.serialization.data.SerializationChunk;
 import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -79,4 +91,138 @@ public class NodeClassesJavaCodeGeneratorTest extends AbstractGeneratorTest {
         languages, "my.pack", Collections.emptyMap(), primitiveTypes, Collections.emptyMap());
     assertTrue(compileAllJavaFiles(destination));
   }
+
+  @Test
+  public void testLibrarySerializationModuleGeneration()
+      throws IOException, ReflectiveOperationException {
+    Language library =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1)
+            .loadLanguage(this.getClass().getResourceAsStream("/library-language.json"));
+    File destination = Files.createTempDirectory("gen").toFile();
+    new LanguageJavaCodeGenerator(destination).generate(library, "my.pack");
+    NodeClassesJavaCodeGenerator nodeClassesGenerator =
+        new NodeClassesJavaCodeGenerator(destination);
+    nodeClassesGenerator.setGenerateSerializationModules(true);
+    nodeClassesGenerator.generate(library, "my.pack");
+
+    assertTrue(
+        new File(destination, "my/pack/LibraryLanguageSerializationModule.java").exists());
+    assertTrue(compileAllJavaFiles(destination));
+
+    // The compiled module should produce the same JSON as the generic path, and instantiate the
+    // generated classes when deserializing
+    try (URLClassLoader classLoader =
+        new URLClassLoader(
+            new URL[] {destination.toURI().toURL()}, this.getClass().getClassLoader())) {
+      Language generatedLanguage =
+          (Language)
+              classLoader.loadClass("my.pack.LibraryLanguage").getMethod("getInstance").invoke(null);
+      SerializationModule module =
+          (SerializationModule)
+              classLoader
+                  .loadClass("my.pack.LibraryLanguageSerializationModule")
+                  .getConstructor()
+                  .newInstance();
+      Concept libraryConcept = generatedLanguage.getConceptByName("Library");
+      Concept bookConcept = generatedLanguage.getConceptByName("Book");
+      Concept writerConcept = generatedLanguage.getConceptByName("Writer");
+
+      Node writer = instantiate(classLoader, "my.pack.Writer", "w");
+      writer.setPropertyValue(writerConcept.getPropertyByName("name"), "Jules Verne");
+      Node book = instantiate(classLoader, "my.pack.Book", "b");
+      book.setPropertyValue(bookConcept.getPropertyByName("title"), "Around the World");
+      book.setPropertyValue(bookConcept.getPropertyByName("pages"), 240);
+      book.addReferenceValue(
+          bookConcept.getReferenceByName("author"), new ReferenceValue(writer, "Jules Verne"));
+      Node lib = instantiate(classLoader, "my.pack.Library", "lib");
+      lib.setPropertyValue(libraryConcept.getPropertyByName("name"), "Turin");
+      lib.addChild(libraryConcept.getContainmentByName("books"), book);
+
+      JsonSerialization generic =
+          SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1);
+      generic.registerLanguage(generatedLanguage);
+      JsonSerialization withModule =
+          SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1);
+      withModule.registerLanguage(generatedLanguage);
+      withModule.registerSerializationModule(module);
+
+      String json = withModule.serializeTreesToJsonString(lib, writer);
+      assertEquals(generic.serializeTreesToJsonString(lib, writer), json);
+
+      List<Node> deserialized = withModule.deserializeToNodes(json);
+      Map<String, Node> byId =
+          deserialized.stream().collect(Collectors.toMap(Node::getID, n -> n));
+      assertSame(book.getClass(), byId.get("b").getClass());
+      assertEquals(
+          "Around the World",
+          byId.get("b").getPropertyValue(bookConcept.getPropertyByName("title")));
+      assertEquals(240, byId.get("b").getPropertyValue(bookConcept.getPropertyByName("pages")));
+      assertSame(
+          byId.get("w"),
+          byId.get("b")
+              .getReferenceValues(bookConcept.getReferenceByName("author"))
+              .get(0)
+              .getReferred());
+      assertSame(byId.get("lib"), byId.get("b").getParent());
+      assertEquals(json, withModule.serializeTreesToJsonString(byId.get("lib"), byId.get("w")));
+    }
+  }
+
+  @Test
+  public void testFeatureAccessDispatchesOnTheKey()
+      throws IOException, ReflectiveOperationException {
+    Language library =
+        SerializationProvider.getStandardJsonSerialization(LionWebVersion.v2023_1)
+            .loadLanguage(this.getClass().getResourceAsStream("/library-language.json"));
+    File destination = Files.createTempDirectory("gen").toFile();
+    new LanguageJavaCodeGenerator(destination).generate(library, "my.pack");
+    new NodeClassesJavaCodeGenerator(destination).generate(library, "my.pack");
+
+    // Writer handles its own features, while GuideBookWriter leaves the ones it inherits from
+    // Writer to its superclass
+    String writerCode = read(new FileInputStream(new File(destination, "my/pack/Writer.java")));
+    assertTrue(writerCode.contains("switch (key)"));
+    assertTrue(writerCode.contains("case \"library-Writer-name\": {"));
+    assertTrue(
+        writerCode.contains(
+            "throw new IllegalStateException(\"Property \" + property + \" not found.\");"));
+    String guideBookWriterCode =
+        read(new FileInputStream(new File(destination, "my/pack/GuideBookWriter.java")));
+    assertTrue(guideBookWriterCode.contains("case \"library-GuideBookWriter-countries\": {"));
+    assertFalse(guideBookWriterCode.contains("case \"library-Writer-name\""));
+    assertTrue(guideBookWriterCode.contains("return super.getPropertyValue(property);"));
+    assertTrue(guideBookWriterCode.contains("super.setPropertyValue(property, value);"));
+    assertTrue(compileAllJavaFiles(destination));
+
+    try (URLClassLoader classLoader =
+        new URLClassLoader(
+            new URL[] {destination.toURI().toURL()}, this.getClass().getClassLoader())) {
+      // The features of the deserialized language are equal to the generated ones, but not the
+      // same instances: the dispatch only relies on their keys
+      Concept guideBookWriterConcept = library.getConceptByName("GuideBookWriter");
+      Property name = guideBookWriterConcept.getPropertyByName("name");
+      Property countries = guideBookWriterConcept.getPropertyByName("countries");
+      Node writer = instantiate(classLoader, "my.pack.GuideBookWriter", "gw");
+      writer.setPropertyValue(name, "Bruce Chatwin");
+      writer.setPropertyValue(countries, "Patagonia");
+      assertEquals("Bruce Chatwin", writer.getClass().getMethod("getName").invoke(writer));
+      assertEquals("Patagonia", writer.getClass().getMethod("getCountries").invoke(writer));
+      assertEquals("Bruce Chatwin", writer.getPropertyValue(name));
+      assertEquals("Patagonia", writer.getPropertyValue(countries));
+
+      Property unknown =
+          Property.createRequired(
+                  LionWebVersion.v2023_1,
+                  "unknown",
+                  LionCoreBuiltins.getString(LionWebVersion.v2023_1))
+              .setKey("library-GuideBookWriter-unknown");
+      assertThrows(IllegalStateException.class, () -> writer.getPropertyValue(unknown));
+      assertThrows(IllegalStateException.class, () -> writer.setPropertyValue(unknown, "x"));
+    }
+  }
+
+  private static Node instantiate(ClassLoader classLoader, String className, String id)
+      throws ReflectiveOperationException {
+    return (Node) classLoader.loadClass(className).getConstructor(String.class).newInstance(id);
+  }
 }
@@ -245,6 +245,23 @@ public class NamingUtilsTest {
     assertEquals(expected, NamingUtils.pascalCase(input));
   }
 
+  // ========== constantName() Tests ==========
+
+  @Test
+  void testConstantName_camelCase() {
+    assertEquals("HELLO_WORLD", NamingUtils.constantName("helloWorld"));
+  }
+
+  @Test
+  void testConstantName_withSeparatorsAndNumbers() {
+    assertEquals("HELLO_WORLD2_FROM_JAVA", NamingUtils.constantName("hello-world2 from_Java"));
+  }
+
+  @Test
+  void testConstantName_allCaps() {
+    assertEquals("ID", NamingUtils.constantName("ID"));
+  }
+
   // ========== Integration Tests ==========
 
   @Test
@@ -24,3 +24,4 @@ include("docs-examples")
 include("gradle-plugin")
 include("kotlin-core")
 include("kotlin-client")
+include("benchmarks")